@@ -0,0 +1,157 @@
+package com.github.sharifrahim.onboard.statemachine;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.statemachine.StateContext;
+import org.springframework.statemachine.StateMachine;
+import org.springframework.statemachine.StateMachineEventResult;
+import org.springframework.statemachine.action.Action;
+import org.springframework.statemachine.config.StateMachineBuilder;
+import org.springframework.statemachine.guard.Guard;
+import org.springframework.statemachine.support.DefaultStateMachineContext;
+
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.domain.ProgressState;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Cost of handing a submission to a state machine, without the strategies' own work. The machines have a single
+ * guarded transition whose guard reads the request and whose action hands back an approval id:
+ * <ul>
+ * <li>{@code extendedStateAndNewMessage} passes the submission through extended state variables and builds a message
+ * per submission, as submissions used to;</li>
+ * <li>{@code boundContextAndCachedMessage} binds a {@link SubmissionContext} and re-sends a cached message, as
+ * {@code OnboardingStateMachineService} does;</li>
+ * <li>{@code resetPerSubmission} adds the stop, reset and start a submission pays when the stripe's machine is in
+ * another state.</li>
+ * </ul>
+ * Run with {@code mvn -Pjmh test-compile exec:exec@jmh}; add {@code -Djmh.args="-prof gc"} for allocation per
+ * operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SubmissionPathBenchmark {
+
+    private static final OnboardingEvent EVENT = OnboardingEvent.UPDATE_CONTACT_INFO;
+
+    private final Mono<Message<OnboardingEvent>> cachedMessage = Mono.just(MessageBuilder.withPayload(EVENT).build());
+    private final Object request = new Object();
+    private final Object workflow = new Object();
+    private final Company company = new Company();
+    private long approvalIds;
+
+    private StateMachine<ProgressState, OnboardingEvent> variablesMachine;
+    private StateMachine<ProgressState, OnboardingEvent> contextMachine;
+
+    @Setup
+    public void setUp() throws Exception {
+        variablesMachine = machine(ProgressState.CONTACT, this::variablesGuard, this::variablesAction);
+        contextMachine = machine(ProgressState.CONTACT, this::contextGuard, this::contextAction);
+    }
+
+    @TearDown
+    public void tearDown() {
+        variablesMachine.stopReactively().block();
+        contextMachine.stopReactively().block();
+    }
+
+    @Benchmark
+    public Long extendedStateAndNewMessage() {
+        Map<Object, Object> variables = variablesMachine.getExtendedState().getVariables();
+        variables.remove("event");
+        variables.remove("validationErrors");
+        variables.remove("approvalId");
+        variables.remove("similarPendingApprovals");
+        variables.put("event", EVENT);
+        variables.put("request", request);
+        variables.put("workflow", workflow);
+        variables.put("company", company);
+
+        StateMachineEventResult<ProgressState, OnboardingEvent> result = variablesMachine
+                .sendEvent(Mono.just(MessageBuilder.withPayload(EVENT).build())).blockFirst();
+        @SuppressWarnings("unchecked")
+        List<String> errors = (List<String>) variables.get("validationErrors");
+        return result != null && errors == null ? (Long) variables.get("approvalId") : null;
+    }
+
+    @Benchmark
+    public Long boundContextAndCachedMessage() {
+        return sendBound();
+    }
+
+    @Benchmark
+    public Long resetPerSubmission() {
+        contextMachine.stopReactively().block();
+        contextMachine.getStateMachineAccessor().doWithAllRegions(access -> access
+                .resetStateMachineReactively(new DefaultStateMachineContext<>(ProgressState.CONTACT, null, null, null))
+                .block());
+        contextMachine.startReactively().block();
+        return sendBound();
+    }
+
+    private Long sendBound() {
+        SubmissionContext submission = new SubmissionContext(EVENT, request, company, null, SubmissionContext.SYSTEM);
+        SubmissionContext.bind(contextMachine, submission);
+        StateMachineEventResult<ProgressState, OnboardingEvent> result;
+        try {
+            result = contextMachine.sendEvent(cachedMessage).blockFirst();
+        } finally {
+            SubmissionContext.bind(contextMachine, null);
+        }
+        return result != null && submission.getValidationErrors().isEmpty() ? submission.getApprovalId() : null;
+    }
+
+    private boolean variablesGuard(StateContext<ProgressState, OnboardingEvent> context) {
+        return context.getExtendedState().get("request", Object.class) != null
+                && context.getExtendedState().get("company", Company.class) != null;
+    }
+
+    private void variablesAction(StateContext<ProgressState, OnboardingEvent> context) {
+        context.getExtendedState().getVariables().put("approvalId", ++approvalIds);
+        context.getExtendedState().getVariables().put("updatedCompany", company);
+    }
+
+    private boolean contextGuard(StateContext<ProgressState, OnboardingEvent> context) {
+        SubmissionContext submission = SubmissionContext.of(context);
+        return submission.getRequest(Object.class) != null && submission.getCompany() != null;
+    }
+
+    private void contextAction(StateContext<ProgressState, OnboardingEvent> context) {
+        SubmissionContext submission = SubmissionContext.of(context);
+        submission.setApprovalId(++approvalIds);
+        submission.setUpdatedCompany(company);
+    }
+
+    private static StateMachine<ProgressState, OnboardingEvent> machine(ProgressState state,
+            Guard<ProgressState, OnboardingEvent> guard, Action<ProgressState, OnboardingEvent> action) throws Exception {
+        StateMachineBuilder.Builder<ProgressState, OnboardingEvent> builder = StateMachineBuilder.builder();
+        builder.configureConfiguration().withConfiguration().autoStartup(false);
+        builder.configureStates().withStates().initial(state).states(EnumSet.allOf(ProgressState.class));
+        // an internal transition keeps the machine in its state, so no reset is needed between submissions
+        builder.configureTransitions().withInternal().source(state).event(EVENT).guard(guard).action(action);
+        StateMachine<ProgressState, OnboardingEvent> machine = builder.build();
+        machine.startReactively().block();
+        return machine;
+    }
+}
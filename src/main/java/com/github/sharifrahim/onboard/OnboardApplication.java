@@ -2,8 +2,14 @@ package com.github.sharifrahim.onboard;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.github.sharifrahim.onboard.aot.OnboardRuntimeHints;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(OnboardRuntimeHints.class)
 public class OnboardApplication {
 
     public static void main(String[] args) {
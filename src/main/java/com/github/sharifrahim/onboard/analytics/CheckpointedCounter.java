@@ -0,0 +1,42 @@
+package com.github.sharifrahim.onboard.analytics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Striped counter whose value is the last checkpointed total plus increments not yet flushed
+ */
+public class CheckpointedCounter {
+
+    private final LongAdder pending = new LongAdder();
+    private volatile long checkpointed;
+
+    public void add(long delta) {
+        pending.add(delta);
+    }
+
+    public void increment() {
+        pending.increment();
+    }
+
+    public long value() {
+        return checkpointed + pending.sum();
+    }
+
+    /**
+     * Take the increments recorded since the last checkpoint
+     */
+    long drain() {
+        return pending.sumThenReset();
+    }
+
+    /**
+     * Give back increments that could not be flushed
+     */
+    void restore(long delta) {
+        pending.add(delta);
+    }
+
+    void setCheckpointed(long checkpointed) {
+        this.checkpointed = checkpointed;
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.sharifrahim.onboard.analytics;
+
+import java.util.List;
+
+/**
+ * Snapshot of the onboarding funnel
+ *
+ * @param steps
+ *            per progress state, the companies currently there and how long companies stayed there
+ * @param submissions
+ *            per event, how many submissions the state machine accepted and rejected
+ */
+public record FunnelReport(List<Step> steps, List<Submissions> submissions) {
+
+    /**
+     * Time-in-step percentiles are in milliseconds
+     */
+    public record Step(String state, long companies, long completed, long p50Millis, long p90Millis, long p99Millis) {
+    }
+
+    public record Submissions(String event, long accepted, long rejected) {
+    }
+}
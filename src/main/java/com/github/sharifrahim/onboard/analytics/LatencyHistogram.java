@@ -0,0 +1,89 @@
+package com.github.sharifrahim.onboard.analytics;
+
+import java.util.function.Supplier;
+
+/**
+ * Log-linear histogram with four sub-buckets per power of two (at most 25% relative error). The bucket layout is fixed,
+ * so recording and percentile queries cost the same regardless of how many samples were taken.
+ */
+public class LatencyHistogram {
+
+    public static final int BUCKETS = 4 * 64;
+
+    private final CheckpointedCounter[] buckets = new CheckpointedCounter[BUCKETS];
+
+    public LatencyHistogram() {
+        this(CheckpointedCounter::new);
+    }
+
+    LatencyHistogram(Supplier<CheckpointedCounter> counters) {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = counters.get();
+        }
+    }
+
+    public void record(long value) {
+        buckets[bucketFor(Math.max(0, value))].increment();
+    }
+
+    public long count() {
+        long count = 0;
+        for (CheckpointedCounter bucket : buckets) {
+            count += bucket.value();
+        }
+        return count;
+    }
+
+    /**
+     * Get the value below which the given fraction of samples fall
+     *
+     * @param percentile
+     *            between 0 and 100
+     *
+     * @return the upper bound of the bucket holding that rank, or 0 without samples
+     */
+    public long percentile(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].value();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    CheckpointedCounter bucket(int index) {
+        return buckets[index];
+    }
+
+    static int bucketFor(long value) {
+        if (value < 4) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) ((value >>> (magnitude - 2)) & 3);
+        return magnitude * 4 + subBucket;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < 4) {
+            return bucket;
+        }
+        int magnitude = bucket / 4;
+        long width = 1L << (magnitude - 2);
+        long lower = (1L << magnitude) + (bucket % 4) * width;
+        return lower + width - 1;
+    }
+}
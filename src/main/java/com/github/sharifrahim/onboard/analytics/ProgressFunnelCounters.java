@@ -0,0 +1,161 @@
+package com.github.sharifrahim.onboard.analytics;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.sharifrahim.onboard.datasource.sharding.ShardRouter;
+import com.github.sharifrahim.onboard.domain.ProgressState;
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory onboarding funnel counters, checkpointed to the {@code funnel_counter} table. Each node flushes only its
+ * own deltas with relative updates, so several nodes can share the table without losing counts.
+ */
+@Component
+@Slf4j
+public class ProgressFunnelCounters implements DisposableBean {
+
+    /**
+     * Marks a database whose company counts have been seeded
+     */
+    static final String SEEDED = "seeded";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final Map<String, CheckpointedCounter> counters = new HashMap<>();
+    private final Map<ProgressState, CheckpointedCounter> companies = new EnumMap<>(ProgressState.class);
+    private final Map<ProgressState, LatencyHistogram> timeInStep = new EnumMap<>(ProgressState.class);
+    private final Map<OnboardingEvent, CheckpointedCounter> accepted = new EnumMap<>(OnboardingEvent.class);
+    private final Map<OnboardingEvent, CheckpointedCounter> rejected = new EnumMap<>(OnboardingEvent.class);
+
+    public ProgressFunnelCounters(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            ShardRouter shardRouter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+
+        for (ProgressState state : ProgressState.values()) {
+            companies.put(state, register("companies." + state));
+            int[] bucket = { 0 };
+            timeInStep.put(state, new LatencyHistogram(() -> register("time_in_step." + state + "." + bucket[0]++)));
+        }
+        for (OnboardingEvent event : OnboardingEvent.values()) {
+            accepted.put(event, register("submissions." + event + ".accepted"));
+            rejected.put(event, register("submissions." + event + ".rejected"));
+        }
+    }
+
+    public CheckpointedCounter companiesIn(ProgressState state) {
+        return companies.get(state);
+    }
+
+    public LatencyHistogram timeInStep(ProgressState state) {
+        return timeInStep.get(state);
+    }
+
+    public CheckpointedCounter accepted(OnboardingEvent event) {
+        return accepted.get(event);
+    }
+
+    public CheckpointedCounter rejected(OnboardingEvent event) {
+        return rejected.get(event);
+    }
+
+    /**
+     * Load the checkpointed totals, seeding the per-state company counts with a one-off GROUP BY on first start
+     */
+    @PostConstruct
+    public void load() {
+        seedFromCompanies();
+        refresh();
+    }
+
+    /**
+     * Flush local deltas and pick up the totals including other nodes' flushes
+     */
+    @Scheduled(fixedDelayString = "${onboard.analytics.checkpoint-interval:PT30S}")
+    public synchronized void checkpoint() {
+        int flushed = 0;
+        for (Map.Entry<String, CheckpointedCounter> entry : counters.entrySet()) {
+            long delta = entry.getValue().drain();
+            if (delta == 0) {
+                continue;
+            }
+            try {
+                addToRow(entry.getKey(), delta);
+                flushed++;
+            } catch (RuntimeException e) {
+                entry.getValue().restore(delta);
+                log.warn("Failed to checkpoint counter {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        refresh();
+        log.debug("Checkpointed {} funnel counters", flushed);
+    }
+
+    @Override
+    public void destroy() {
+        checkpoint();
+    }
+
+    private void refresh() {
+        jdbcTemplate.query("SELECT name, counter_value FROM funnel_counter", rs -> {
+            CheckpointedCounter counter = counters.get(rs.getString(1));
+            if (counter != null) {
+                counter.setCheckpointed(rs.getLong(2));
+            }
+        });
+    }
+
+    /**
+     * Seed the company counts once per database. The marker row is claimed in the same transaction as the seed, so of
+     * several nodes starting together only one seeds; the others see the marker or lose the insert race. The seed is
+     * added to the rows rather than kept as a local delta, so it never goes through a flush twice.
+     */
+    private void seedFromCompanies() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (jdbcTemplate.update(
+                        "INSERT INTO funnel_counter (name, counter_value) SELECT ?, 1"
+                                + " WHERE NOT EXISTS (SELECT 1 FROM funnel_counter WHERE name = ?)",
+                        SEEDED, SEEDED) == 0) {
+                    return;
+                }
+                shardRouter
+                        .scatterGather(() -> jdbcTemplate
+                                .queryForList("SELECT progress_state, COUNT(*) AS companies FROM company"
+                                        + " WHERE progress_state IS NOT NULL GROUP BY progress_state"))
+                        .forEach(row -> addToRow("companies." + row.get("progress_state"),
+                                ((Number) row.get("companies")).longValue()));
+                log.info("Seeded funnel company counts from the company table");
+            });
+        } catch (DuplicateKeyException e) {
+            log.debug("Funnel counters were seeded by another node");
+        }
+    }
+
+    private void addToRow(String name, long delta) {
+        if (jdbcTemplate.update("UPDATE funnel_counter SET counter_value = counter_value + ? WHERE name = ?", delta,
+                name) == 0) {
+            jdbcTemplate.update("INSERT INTO funnel_counter (name, counter_value) VALUES (?, ?)", name, delta);
+        }
+    }
+
+    private CheckpointedCounter register(String name) {
+        CheckpointedCounter counter = new CheckpointedCounter();
+        counters.put(name, counter);
+        return counter;
+    }
+}
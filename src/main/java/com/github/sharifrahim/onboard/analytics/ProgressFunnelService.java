@@ -0,0 +1,93 @@
+package com.github.sharifrahim.onboard.analytics;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.domain.ProgressState;
+import com.github.sharifrahim.onboard.event.CompanyChangedEvent;
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains the onboarding funnel incrementally from state machine submissions and applied approvals
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProgressFunnelService {
+
+    private final ProgressFunnelCounters counters;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Record the outcome of an event submitted to the state machine
+     */
+    public void recordSubmission(OnboardingEvent event, boolean accepted) {
+        (accepted ? counters.accepted(event) : counters.rejected(event)).increment();
+    }
+
+    /**
+     * Move the company between funnel steps when an applied approval changed its progress state. The previous state and
+     * when it was entered come from the approval's old snapshot.
+     */
+    @EventListener
+    public void onCompanyChanged(CompanyChangedEvent event) {
+        Company company = event.company();
+        Company previous = null;
+        if (event.approval().getOldData() != null) {
+            previous = fromJson(event.approval().getOldData());
+            if (previous == null) {
+                return;
+            }
+        }
+
+        ProgressState to = company.getProgressState();
+        ProgressState from = previous != null ? previous.getProgressState() : null;
+        if (to == null || to == from) {
+            return;
+        }
+
+        counters.companiesIn(to).increment();
+        if (from != null) {
+            counters.companiesIn(from).add(-1);
+            if (previous.getProgressUpdatedAt() != null && company.getProgressUpdatedAt() != null) {
+                counters.timeInStep(from).record(
+                        Duration.between(previous.getProgressUpdatedAt(), company.getProgressUpdatedAt()).toMillis());
+            }
+        }
+    }
+
+    public FunnelReport report() {
+        List<FunnelReport.Step> steps = new ArrayList<>();
+        for (ProgressState state : ProgressState.values()) {
+            LatencyHistogram histogram = counters.timeInStep(state);
+            steps.add(new FunnelReport.Step(state.name(), counters.companiesIn(state).value(), histogram.count(),
+                    histogram.percentile(50), histogram.percentile(90), histogram.percentile(99)));
+        }
+
+        List<FunnelReport.Submissions> submissions = new ArrayList<>();
+        for (OnboardingEvent event : OnboardingEvent.values()) {
+            submissions.add(new FunnelReport.Submissions(event.name(), counters.accepted(event).value(),
+                    counters.rejected(event).value()));
+        }
+        return new FunnelReport(steps, submissions);
+    }
+
+    private Company fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, Company.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping funnel update, unreadable approval snapshot: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.sharifrahim.onboard.aot;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import com.github.sharifrahim.onboard.analytics.FunnelReport;
+import com.github.sharifrahim.onboard.audit.AuditRecord;
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.dto.CompanyProfileRequest;
+import com.github.sharifrahim.onboard.dto.ContactInfoRequest;
+import com.github.sharifrahim.onboard.dto.OperationalInfoRequest;
+import com.github.sharifrahim.onboard.duplicate.NameMatch;
+import com.github.sharifrahim.onboard.history.CompanyVersion;
+import com.github.sharifrahim.onboard.history.FieldChange;
+import com.github.sharifrahim.onboard.search.CompanySearchResult;
+import com.github.sharifrahim.onboard.sla.SlaCandidate;
+import com.github.sharifrahim.onboard.workflow.WorkflowDefinition;
+
+/**
+ * Reflection and resource hints that Spring AOT cannot infer from bean definitions: types bound by Jackson outside of
+ * controller signatures (strategy request DTOs read from the extended state, company snapshots in approval payloads),
+ * JPQL constructor expressions, the shard migrations and the bundled workflow definitions
+ */
+public class OnboardRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final Class<?>[] JSON_TYPES = { CompanyProfileRequest.class, ContactInfoRequest.class,
+            OperationalInfoRequest.class, Company.class, Approval.class, CompanyVersion.class, FieldChange.class,
+            NameMatch.class, AuditRecord.class, CompanySearchResult.class, FunnelReport.class,
+            WorkflowDefinition.class };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), JSON_TYPES);
+        hints.reflection().registerType(SlaCandidate.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        hints.resources().registerPattern("db/migration/*.sql").registerPattern("db/shard/*.sql")
+                .registerPattern("workflows/*.yml");
+    }
+}
@@ -0,0 +1,186 @@
+package com.github.sharifrahim.onboard.archive;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.sharifrahim.onboard.crypto.ApprovalPayloadConverter;
+import com.github.sharifrahim.onboard.crypto.FieldCipher;
+import com.github.sharifrahim.onboard.domain.Approval;
+
+/**
+ * Cold storage of decided approvals in {@code approval_archive}. Each approval is kept as one gzip-compressed JSON
+ * document, next to the few columns needed to find it. Sensitive payload fields stay encrypted inside the document.
+ * Rows of other tables that belong to the approval are kept in the same document under {@code related}, one array per
+ * table.
+ */
+@Component
+public class ApprovalArchive {
+
+    private static final String COLUMNS = "SELECT payload FROM approval_archive";
+
+    /** Tables whose rows are archived with their approval */
+    static final List<String> RELATED = List.of("approval_attachment", "approval_verification", "approval_chain",
+            "approval_stage", "approval_decision");
+
+    /** Tables whose rows lose their meaning once the approval is decided and are dropped with it */
+    static final List<String> DROPPED = List.of("approval_claim");
+
+    private static final String RELATED_FIELD = "related";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApprovalPayloadConverter payloadConverter;
+    private final RowMapper<Approval> rowMapper = (rs, i) -> decode(rs.getBytes(1));
+
+    public ApprovalArchive(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, FieldCipher fieldCipher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.payloadConverter = new ApprovalPayloadConverter(fieldCipher, objectMapper);
+    }
+
+    /**
+     * Write approvals and their related rows to the archive of the current shard
+     */
+    public void store(List<Approval> approvals, LocalDateTime archivedAt) {
+        Map<Long, ObjectNode> related = related(approvals.stream().map(Approval::getId).toList());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO approval_archive (id, data_id, type, approval_status, submitted_at,"
+                        + " approved_at, archived_at, payload) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                approvals, approvals.size(), (ps, approval) -> {
+                    ps.setLong(1, approval.getId());
+                    ps.setObject(2, approval.getDataId());
+                    ps.setString(3, approval.getType() != null ? approval.getType().name() : null);
+                    ps.setString(4, approval.getApprovalStatus().name());
+                    ps.setTimestamp(5, timestamp(approval.getSubmittedAt()));
+                    ps.setTimestamp(6, timestamp(approval.getApprovedAt()));
+                    ps.setTimestamp(7, Timestamp.valueOf(archivedAt));
+                    ps.setBytes(8, encode(approval, related.get(approval.getId())));
+                });
+    }
+
+    /**
+     * Delete the related rows of archived approvals from their tables
+     */
+    public void deleteRelated(List<Long> approvalIds) {
+        if (approvalIds.isEmpty()) {
+            return;
+        }
+        Object[] ids = approvalIds.toArray();
+        for (String table : Stream.concat(RELATED.stream(), DROPPED.stream()).toList()) {
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE approval_id IN (" + placeholders(ids) + ")", ids);
+        }
+    }
+
+    public Optional<Approval> findById(Long id) {
+        return jdbcTemplate.query(COLUMNS + " WHERE id = ?", rowMapper, id).stream().findFirst();
+    }
+
+    public List<Approval> findAll() {
+        return jdbcTemplate.query(COLUMNS + " ORDER BY id", rowMapper);
+    }
+
+    public List<Approval> findByType(Approval.Type type) {
+        return jdbcTemplate.query(COLUMNS + " WHERE type = ? ORDER BY id", rowMapper, type.name());
+    }
+
+    public List<Approval> findByTypeAndStatus(Approval.Type type, Approval.ApprovalStatus status) {
+        return jdbcTemplate.query(COLUMNS + " WHERE type = ? AND approval_status = ? ORDER BY id", rowMapper,
+                type.name(), status.name());
+    }
+
+    public List<Approval> findByDataIdAndStatus(Long dataId, Approval.ApprovalStatus status) {
+        return jdbcTemplate.query(COLUMNS + " WHERE data_id = ? AND approval_status = ? ORDER BY approved_at, id",
+                rowMapper, dataId, status.name());
+    }
+
+    /**
+     * Find the approval of the given status for a company decided last at or before the given time
+     */
+    public Optional<Approval> findLatestByDataIdAndStatus(Long dataId, Approval.ApprovalStatus status,
+            LocalDateTime approvedAt) {
+        return jdbcTemplate.query(
+                COLUMNS + " WHERE data_id = ? AND approval_status = ? AND approved_at <= ?"
+                        + " ORDER BY approved_at DESC, id DESC FETCH FIRST 1 ROWS ONLY",
+                rowMapper, dataId, status.name(), Timestamp.valueOf(approvedAt)).stream().findFirst();
+    }
+
+    /**
+     * Read the related rows of a batch of approvals, one query per table
+     */
+    private Map<Long, ObjectNode> related(List<Long> approvalIds) {
+        Map<Long, ObjectNode> related = new HashMap<>();
+        if (approvalIds.isEmpty()) {
+            return related;
+        }
+        Object[] ids = approvalIds.toArray();
+        for (String table : RELATED) {
+            for (Map<String, Object> row : jdbcTemplate.queryForList(
+                    "SELECT * FROM " + table + " WHERE approval_id IN (" + placeholders(ids) + ")", ids)) {
+                ObjectNode stored = objectMapper.createObjectNode();
+                row.forEach((column, value) -> stored.set(column.toLowerCase(Locale.ROOT),
+                        objectMapper.valueToTree(value)));
+                long approvalId = ((Number) row.get("approval_id")).longValue();
+                related.computeIfAbsent(approvalId, id -> objectMapper.createObjectNode()).withArray(table).add(stored);
+            }
+        }
+        return related;
+    }
+
+    private byte[] encode(Approval approval, ObjectNode related) {
+        ObjectNode stored = objectMapper.valueToTree(approval);
+        stored.put("newData", payloadConverter.convertToDatabaseColumn(approval.getNewData()));
+        stored.put("oldData", payloadConverter.convertToDatabaseColumn(approval.getOldData()));
+        if (related != null) {
+            stored.set(RELATED_FIELD, related);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, stored);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to archive approval " + approval.getId(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private Approval decode(byte[] payload) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            ObjectNode stored = (ObjectNode) objectMapper.readTree(in);
+            stored.remove(RELATED_FIELD);
+            Approval approval = objectMapper.treeToValue(stored, Approval.class);
+            approval.setNewData(payloadConverter.convertToEntityAttribute(approval.getNewData()));
+            approval.setOldData(payloadConverter.convertToEntityAttribute(approval.getOldData()));
+            return approval;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archived approval", e);
+        }
+    }
+
+    private static String placeholders(Object[] values) {
+        return String.join(", ", Collections.nCopies(values.length, "?"));
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+}
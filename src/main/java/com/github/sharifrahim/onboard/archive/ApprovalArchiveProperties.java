@@ -0,0 +1,30 @@
+package com.github.sharifrahim.onboard.archive;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuration of approval archival
+ */
+@Data
+@ConfigurationProperties(prefix = "onboard.archive")
+public class ApprovalArchiveProperties {
+
+    /**
+     * Off unless turned on; archived approvals are only listed on request
+     */
+    private boolean enabled = false;
+
+    /**
+     * How long decided approvals stay in the hot table after their decision
+     */
+    private Duration retention = Duration.ofDays(90);
+
+    /**
+     * Approvals moved per transaction
+     */
+    private int batchSize = 500;
+}
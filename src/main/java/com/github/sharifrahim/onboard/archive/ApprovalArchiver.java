@@ -0,0 +1,80 @@
+package com.github.sharifrahim.onboard.archive;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.sharifrahim.onboard.datasource.sharding.ShardRouter;
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.repository.ApprovalRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves decided approvals past retention from {@code approval_table} into the compressed archive, keeping the hot table
+ * and its indexes small. Each batch is copied and deleted in one transaction together with the approvals' attachments,
+ * verifications, sign-off records and claims, so an approval and its rows are always in exactly one tier.
+ */
+@Component
+@EnableConfigurationProperties(ApprovalArchiveProperties.class)
+@RequiredArgsConstructor
+@Slf4j
+public class ApprovalArchiver {
+
+    static final Set<Approval.ApprovalStatus> DECIDED = EnumSet.of(Approval.ApprovalStatus.APPROVED,
+            Approval.ApprovalStatus.REJECTED, Approval.ApprovalStatus.EXPIRED);
+
+    private final ApprovalRepository approvalRepository;
+    private final ApprovalArchive archive;
+    private final ApprovalArchiveProperties properties;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(initialDelayString = "${onboard.archive.interval:PT1H}", fixedDelayString = "${onboard.archive.interval:PT1H}")
+    public void archive() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getRetention());
+        shardRouter.forEachShard(() -> {
+            int archived = archiveBefore(cutoff);
+            if (archived > 0) {
+                log.info("Archived {} approvals decided before {}", archived, cutoff);
+            }
+        });
+    }
+
+    /**
+     * Archive all decided approvals of the current shard decided before the cutoff
+     *
+     * @return the number of approvals archived
+     */
+    public int archiveBefore(LocalDateTime cutoff) {
+        PageRequest batch = PageRequest.ofSize(properties.getBatchSize());
+        int archived = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> {
+                List<Approval> approvals = approvalRepository
+                        .findByApprovalStatusInAndApprovedAtBeforeOrderByApprovedAt(DECIDED, cutoff, batch);
+                if (!approvals.isEmpty()) {
+                    archive.store(approvals, LocalDateTime.now());
+                    archive.deleteRelated(approvals.stream().map(Approval::getId).toList());
+                    approvalRepository.deleteAllInBatch(approvals);
+                }
+                return approvals.size();
+            });
+            archived += moved;
+            if (moved < batch.getPageSize()) {
+                return archived;
+            }
+        }
+    }
+}
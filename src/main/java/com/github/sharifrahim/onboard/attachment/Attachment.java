@@ -0,0 +1,10 @@
+package com.github.sharifrahim.onboard.attachment;
+
+import java.time.LocalDateTime;
+
+/**
+ * A document linked to an approval; {@code sha256} names its content in the blob store
+ */
+public record Attachment(Long id, Long approvalId, AttachmentKind kind, String fileName, String contentType, long size,
+        String sha256, LocalDateTime uploadedAt) {
+}
@@ -0,0 +1,26 @@
+package com.github.sharifrahim.onboard.attachment;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.github.sharifrahim.onboard.domain.Approval;
+
+/**
+ * Documents accepted with onboarding steps, by the approval type of the step they belong to
+ */
+public enum AttachmentKind {
+
+    CERTIFICATE_OF_INCORPORATION(EnumSet.of(Approval.Type.CREATE_COMPANY)),
+    COMPLIANCE_CERTIFICATE(EnumSet.of(Approval.Type.UPDATE_OPERATIONAL_INFO)),
+    SUPPORTING_DOCUMENT(EnumSet.of(Approval.Type.CREATE_COMPANY, Approval.Type.UPDATE_OPERATIONAL_INFO));
+
+    private final Set<Approval.Type> steps;
+
+    AttachmentKind(Set<Approval.Type> steps) {
+        this.steps = steps;
+    }
+
+    public boolean allows(Approval.Type type) {
+        return steps.contains(type);
+    }
+}
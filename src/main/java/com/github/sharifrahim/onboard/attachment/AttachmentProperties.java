@@ -0,0 +1,30 @@
+package com.github.sharifrahim.onboard.attachment;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "onboard.attachments")
+public class AttachmentProperties {
+
+    /**
+     * Directory holding the blob store and part files of resumable uploads; shared between nodes in a cluster
+     */
+    private String directory = "attachments";
+
+    /**
+     * Largest accepted document; multipart limits follow it
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(25);
+
+    /**
+     * Resumable uploads not completed within this time are discarded
+     */
+    private Duration uploadTtl = Duration.ofDays(1);
+
+    private Duration cleanupInterval = Duration.ofHours(1);
+}
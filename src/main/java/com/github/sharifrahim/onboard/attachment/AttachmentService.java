@@ -0,0 +1,276 @@
+package com.github.sharifrahim.onboard.attachment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.sharifrahim.onboard.datasource.sharding.ShardRouter;
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.exception.AttachmentTooLargeException;
+import com.github.sharifrahim.onboard.exception.UploadConflictException;
+import com.github.sharifrahim.onboard.exception.ValidationException;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Documents attached to pending approvals. Content goes to the {@link BlobStore}; {@code approval_attachment} rows on
+ * the approval's shard link it to the approval. Large files can be sent in chunks through a resumable upload whose
+ * received bytes are kept in a part file until the last chunk arrives.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@EnableConfigurationProperties(AttachmentProperties.class)
+public class AttachmentService {
+
+    private static final String ATTACHMENT_COLUMNS = "SELECT id, approval_id, kind, file_name, content_type, size,"
+            + " sha256, uploaded_at FROM approval_attachment";
+
+    private static final String UPLOAD_COLUMNS = "SELECT id, approval_id, kind, file_name, content_type, total_size,"
+            + " received, created_at FROM attachment_upload";
+
+    private static final RowMapper<Attachment> ATTACHMENT_MAPPER = (rs, i) -> new Attachment(rs.getLong(1),
+            rs.getLong(2), AttachmentKind.valueOf(rs.getString(3)), rs.getString(4), rs.getString(5), rs.getLong(6),
+            rs.getString(7), rs.getTimestamp(8).toLocalDateTime());
+
+    private static final RowMapper<UploadSession> UPLOAD_MAPPER = (rs, i) -> new UploadSession(rs.getString(1),
+            rs.getLong(2), AttachmentKind.valueOf(rs.getString(3)), rs.getString(4), rs.getString(5), rs.getLong(6),
+            rs.getLong(7), rs.getTimestamp(8).toLocalDateTime());
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final AttachmentProperties properties;
+    private final BlobStore blobStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+
+    /**
+     * Store a whole document and link it to the approval
+     */
+    public Attachment attach(Approval approval, AttachmentKind kind, String fileName, String contentType,
+            InputStream content) throws IOException {
+        requireAttachable(approval, kind);
+        BlobStore.Blob blob = blobStore.store(content, properties.getMaxSize().toBytes());
+        return shardRouter.onShard(shardRouter.shardForId(approval.getId()),
+                () -> insert(approval.getId(), kind, fileName, contentType, blob));
+    }
+
+    /**
+     * Open a resumable upload of a document of the given size
+     */
+    public UploadSession startUpload(Approval approval, AttachmentKind kind, String fileName, String contentType,
+            long totalSize) throws IOException {
+        requireAttachable(approval, kind);
+        if (totalSize < 0 || totalSize > properties.getMaxSize().toBytes()) {
+            throw new AttachmentTooLargeException(properties.getMaxSize().toBytes());
+        }
+        UploadSession session = new UploadSession(UUID.randomUUID().toString(), approval.getId(), kind, fileName,
+                contentType, totalSize, 0, LocalDateTime.now());
+        Files.createDirectories(partFile(session.id()).getParent());
+        Files.createFile(partFile(session.id()));
+        shardRouter.onShard(shardRouter.shardForId(approval.getId()), () -> jdbcTemplate.update(
+                "INSERT INTO attachment_upload (id, approval_id, kind, file_name, content_type, total_size, received,"
+                        + " created_at) VALUES (?, ?, ?, ?, ?, ?, 0, ?)",
+                session.id(), session.approvalId(), kind.name(), fileName, contentType, totalSize,
+                Timestamp.valueOf(session.createdAt())));
+        return session;
+    }
+
+    public Optional<UploadSession> findUpload(Long approvalId, String uploadId) {
+        return shardRouter.onShard(shardRouter.shardForId(approvalId), () -> jdbcTemplate
+                .query(UPLOAD_COLUMNS + " WHERE id = ? AND approval_id = ?", UPLOAD_MAPPER, uploadId, approvalId)
+                .stream().findFirst());
+    }
+
+    /**
+     * Write a chunk at the given offset, which must equal the bytes received so far. Bytes that arrived before the
+     * client went away still count, so the upload resumes from there.
+     *
+     * @throws UploadConflictException
+     *             when the offset does not match or another chunk of the same upload is being written
+     */
+    public UploadSession appendChunk(UploadSession session, long offset, InputStream chunk) throws IOException {
+        if (offset != session.received()) {
+            throw new UploadConflictException("Upload " + session.id() + " continues at " + session.received(),
+                    session.received());
+        }
+        long remaining = session.totalSize() - offset;
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(partFile(session.id()), StandardOpenOption.WRITE);
+                FileLock lock = tryLock(channel, session)) {
+            long received = currentReceived(session);
+            if (offset != received) {
+                throw new UploadConflictException("Upload " + session.id() + " continues at " + received, received);
+            }
+            // drop bytes of an interrupted chunk that were written but never recorded
+            channel.truncate(offset);
+            channel.position(offset);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try {
+                for (int n; (n = chunk.read(buffer)) != -1;) {
+                    if (written + n > remaining) {
+                        throw new ValidationException("Upload " + session.id() + " is larger than the declared "
+                                + session.totalSize() + " bytes");
+                    }
+                    channel.write(ByteBuffer.wrap(buffer, 0, n));
+                    written += n;
+                }
+            } finally {
+                if (written > 0) {
+                    channel.force(false);
+                    recordReceived(session, offset + written);
+                }
+            }
+        }
+        return withReceived(session, offset + written);
+    }
+
+    /**
+     * Add a fully received upload to the blob store and link it to its approval
+     */
+    public Attachment complete(UploadSession session) throws IOException {
+        if (session.received() != session.totalSize()) {
+            throw new UploadConflictException("Upload " + session.id() + " is incomplete", session.received());
+        }
+        Path part = partFile(session.id());
+        BlobStore.Blob blob = blobStore.storeFile(part);
+        Attachment attachment = shardRouter.onShard(shardRouter.shardForId(session.approvalId()),
+                () -> transactionTemplate.execute(status -> {
+                    if (jdbcTemplate.update("DELETE FROM attachment_upload WHERE id = ?", session.id()) == 0) {
+                        throw new UploadConflictException("Upload " + session.id() + " is already complete",
+                                session.received());
+                    }
+                    return insert(session.approvalId(), session.kind(), session.fileName(), session.contentType(),
+                            blob);
+                }));
+        // kept until the attachment is recorded so that a failed completion can be retried
+        Files.deleteIfExists(part);
+        return attachment;
+    }
+
+    public List<Attachment> findByApproval(Long approvalId) {
+        return shardRouter.onShard(shardRouter.shardForId(approvalId), () -> jdbcTemplate
+                .query(ATTACHMENT_COLUMNS + " WHERE approval_id = ? ORDER BY id", ATTACHMENT_MAPPER, approvalId));
+    }
+
+    public Optional<Attachment> find(Long approvalId, Long attachmentId) {
+        return shardRouter.onShard(shardRouter.shardForId(approvalId),
+                () -> jdbcTemplate.query(ATTACHMENT_COLUMNS + " WHERE id = ? AND approval_id = ?", ATTACHMENT_MAPPER,
+                        attachmentId, approvalId).stream().findFirst());
+    }
+
+    /**
+     * Stored content of an attachment
+     */
+    public Path content(Attachment attachment) {
+        return blobStore.path(attachment.sha256());
+    }
+
+    /**
+     * Discard uploads that were abandoned before their last chunk
+     */
+    @Scheduled(initialDelayString = "${onboard.attachments.cleanup-interval:PT1H}", fixedDelayString = "${onboard.attachments.cleanup-interval:PT1H}")
+    public void expireUploads() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getUploadTtl());
+        shardRouter.forEachShard(() -> {
+            List<String> expired = jdbcTemplate.queryForList("SELECT id FROM attachment_upload WHERE created_at < ?",
+                    String.class, Timestamp.valueOf(cutoff));
+            for (String id : expired) {
+                jdbcTemplate.update("DELETE FROM attachment_upload WHERE id = ?", id);
+                try {
+                    Files.deleteIfExists(partFile(id));
+                } catch (IOException e) {
+                    log.warn("Could not delete part file of expired upload {}", id, e);
+                }
+            }
+            if (!expired.isEmpty()) {
+                log.info("Expired {} abandoned uploads", expired.size());
+            }
+        });
+    }
+
+    private static void requireAttachable(Approval approval, AttachmentKind kind) {
+        if (approval.getApprovalStatus() != Approval.ApprovalStatus.PENDING) {
+            throw new ValidationException("Approval " + approval.getId() + " is no longer pending");
+        }
+        if (!kind.allows(approval.getType())) {
+            throw new ValidationException(kind + " cannot be attached to a " + approval.getType() + " approval");
+        }
+    }
+
+    private Attachment insert(Long approvalId, AttachmentKind kind, String fileName, String contentType,
+            BlobStore.Blob blob) {
+        LocalDateTime uploadedAt = LocalDateTime.now();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO approval_attachment (approval_id, kind, file_name, content_type, size, sha256,"
+                            + " uploaded_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    new String[] { "id" });
+            ps.setLong(1, approvalId);
+            ps.setString(2, kind.name());
+            ps.setString(3, fileName);
+            ps.setString(4, contentType);
+            ps.setLong(5, blob.size());
+            ps.setString(6, blob.sha256());
+            ps.setTimestamp(7, Timestamp.valueOf(uploadedAt));
+            return ps;
+        }, keyHolder);
+        return new Attachment(keyHolder.getKey().longValue(), approvalId, kind, fileName, contentType, blob.size(),
+                blob.sha256(), uploadedAt);
+    }
+
+    private long currentReceived(UploadSession session) {
+        return shardRouter.onShard(shardRouter.shardForId(session.approvalId()), () -> jdbcTemplate
+                .queryForObject("SELECT received FROM attachment_upload WHERE id = ?", Long.class, session.id()));
+    }
+
+    private void recordReceived(UploadSession session, long received) {
+        shardRouter.onShard(shardRouter.shardForId(session.approvalId()), () -> jdbcTemplate
+                .update("UPDATE attachment_upload SET received = ? WHERE id = ?", received, session.id()));
+    }
+
+    private static FileLock tryLock(FileChannel channel, UploadSession session) throws IOException {
+        try {
+            FileLock lock = channel.tryLock();
+            if (lock != null) {
+                return lock;
+            }
+        } catch (OverlappingFileLockException e) {
+            // held by another request on this node
+        }
+        throw new UploadConflictException("Upload " + session.id() + " is receiving another chunk", session.received());
+    }
+
+    private static UploadSession withReceived(UploadSession session, long received) {
+        return new UploadSession(session.id(), session.approvalId(), session.kind(), session.fileName(),
+                session.contentType(), session.totalSize(), received, session.createdAt());
+    }
+
+    private Path partFile(String uploadId) {
+        return Path.of(properties.getDirectory(), "uploads", uploadId + ".part");
+    }
+}
@@ -0,0 +1,130 @@
+package com.github.sharifrahim.onboard.attachment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+import com.github.sharifrahim.onboard.exception.AttachmentTooLargeException;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Content-addressed local store: each blob is an immutable file named after the SHA-256 of its bytes, so identical
+ * documents are stored once. Content is hashed while it streams to a temporary file and only then moved into place, so
+ * readers never see a partial blob.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BlobStore {
+
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final AttachmentProperties properties;
+
+    public record Blob(String sha256, long size) {
+    }
+
+    /**
+     * Stream content into the store
+     *
+     * @throws AttachmentTooLargeException
+     *             when the content exceeds {@code maxSize} bytes; nothing is stored
+     */
+    public Blob store(InputStream in, long maxSize) throws IOException {
+        MessageDigest digest = sha256();
+        Path file = Files.createTempFile(tmp(), "blob", ".tmp");
+        try {
+            long size = 0;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (OutputStream out = Files.newOutputStream(file)) {
+                for (int n; (n = in.read(buffer)) != -1;) {
+                    size += n;
+                    if (size > maxSize) {
+                        throw new AttachmentTooLargeException(maxSize);
+                    }
+                    digest.update(buffer, 0, n);
+                    out.write(buffer, 0, n);
+                }
+            }
+            return commit(file, HexFormat.of().formatHex(digest.digest()), size);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Add a complete file to the store, hashing it first. The file itself is left in place.
+     */
+    public Blob storeFile(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            for (int n; (n = in.read(buffer)) != -1;) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        String sha256 = HexFormat.of().formatHex(digest.digest());
+        Path copy = Files.createTempFile(tmp(), "blob", ".tmp");
+        try {
+            Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+            return commit(copy, sha256, Files.size(file));
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    /**
+     * Location of a stored blob; the file must not be modified
+     */
+    public Path path(String sha256) {
+        if (!SHA256.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Not a SHA-256 digest: " + sha256);
+        }
+        return Path.of(properties.getDirectory(), "blobs", sha256.substring(0, 2), sha256);
+    }
+
+    public boolean contains(String sha256) {
+        return Files.exists(path(sha256));
+    }
+
+    private Blob commit(Path file, String sha256, long size) throws IOException {
+        Path target = path(sha256);
+        if (Files.exists(target)) {
+            log.debug("Blob {} already stored", sha256);
+            return new Blob(sha256, size);
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // stored concurrently by another upload of the same content
+        }
+        return new Blob(sha256, size);
+    }
+
+    private Path tmp() throws IOException {
+        return Files.createDirectories(Path.of(properties.getDirectory(), "tmp"));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
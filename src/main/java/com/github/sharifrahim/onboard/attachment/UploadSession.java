@@ -0,0 +1,10 @@
+package com.github.sharifrahim.onboard.attachment;
+
+import java.time.LocalDateTime;
+
+/**
+ * A resumable upload; the next chunk must start at {@code received}
+ */
+public record UploadSession(String id, Long approvalId, AttachmentKind kind, String fileName, String contentType,
+        long totalSize, long received, LocalDateTime createdAt) {
+}
@@ -0,0 +1,160 @@
+package com.github.sharifrahim.onboard.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local append-only audit log of onboarding transitions and decisions, kept out of the database so auditing does not
+ * add to its write load. Callers hand records to a lock-free ring buffer; one writer thread copies them into
+ * memory-mapped, preallocated segment files and rolls to a new segment when one is full. Writes reach the page cache
+ * immediately and survive a process crash; segments are forced to disk when they are rolled and on shutdown.
+ */
+@Component
+@EnableConfigurationProperties(AuditProperties.class)
+@Slf4j
+public class AuditLog implements DisposableBean {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final AuditProperties properties;
+    private final AuditRingBuffer buffer;
+    private final Counter dropped;
+    private final int segmentSize;
+    private volatile boolean running;
+    /**
+     * Records the writer has finished with; only the writer thread updates it
+     */
+    private volatile long written;
+    private Thread writer;
+    private long segmentNumber;
+    private MappedByteBuffer segment;
+
+    public AuditLog(AuditProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.buffer = new AuditRingBuffer(properties.getBufferSize());
+        this.segmentSize = properties.getSegmentSize() / AuditRecord.SIZE * AuditRecord.SIZE;
+        this.dropped = Counter.builder("onboard.audit.dropped")
+                .description("Audit records dropped because the writer fell behind").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Path directory = getDirectory();
+        Files.createDirectories(directory);
+        List<Path> segments = AuditLogReader.segments(directory);
+        if (segments.isEmpty()) {
+            openSegment(0);
+        } else {
+            Path last = segments.get(segments.size() - 1);
+            openSegment(AuditLogReader.segmentNumber(last));
+            // resume after the last complete record
+            while (segment.remaining() >= AuditRecord.SIZE && AuditRecord.readFrom(segment) != null) {
+            }
+        }
+        running = true;
+        writer = new Thread(this::drain, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public Path getDirectory() {
+        return Path.of(properties.getDirectory());
+    }
+
+    /**
+     * Queue a record for the writer; never blocks, drops the record when the buffer is full
+     */
+    public void append(AuditRecord record) {
+        if (running && !buffer.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Wait until every record queued before this call has been written
+     *
+     * @return false if the writer did not catch up in time
+     */
+    public boolean awaitWritten(Duration timeout) {
+        long target = buffer.claimed();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (running && written < target) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        return true;
+    }
+
+    private void drain() {
+        while (running) {
+            AuditRecord record = buffer.poll();
+            if (record == null) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            try {
+                write(record);
+            } catch (RuntimeException e) {
+                log.error("Failed to write audit record {}", record, e);
+            }
+            written++;
+        }
+    }
+
+    private void write(AuditRecord record) {
+        if (segment.remaining() < AuditRecord.SIZE) {
+            segment.force();
+            openSegment(segmentNumber + 1);
+        }
+        record.writeTo(segment);
+    }
+
+    private void openSegment(long number) {
+        Path path = getDirectory().resolve(AuditLogReader.segmentName(number));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            segmentNumber = number;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open audit segment " + path, e);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        awaitWritten(Duration.ofSeconds(5));
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        segment.force();
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.sharifrahim.onboard.audit;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+
+/**
+ * Command line scanner for audit log segments, printing one tab-separated record per line:
+ *
+ * <pre>
+ * java -cp onboard.jar -Dloader.main=com.github.sharifrahim.onboard.audit.AuditLogCli \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher audit --company=42 --outcome=DENIED
+ * </pre>
+ *
+ * Options: {@code --company}, {@code --event}, {@code --outcome}, {@code --from}, {@code --to} (ISO instants) and
+ * {@code --limit}
+ */
+public final class AuditLogCli {
+
+    private AuditLogCli() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: AuditLogCli <directory> [--company=ID] [--event=EVENT] [--outcome=OUTCOME]"
+                    + " [--from=INSTANT] [--to=INSTANT] [--limit=N]");
+            System.exit(2);
+        }
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            String[] option = args[i].replaceFirst("^--", "").split("=", 2);
+            options.put(option[0], option.length > 1 ? option[1] : "");
+        }
+        AuditQuery query = new AuditQuery(options.containsKey("company") ? Long.valueOf(options.get("company")) : null,
+                options.containsKey("event") ? OnboardingEvent.valueOf(options.get("event")) : null,
+                options.containsKey("outcome") ? AuditRecord.Outcome.valueOf(options.get("outcome")) : null,
+                options.containsKey("from") ? Instant.parse(options.get("from")) : null,
+                options.containsKey("to") ? Instant.parse(options.get("to")) : null,
+                Integer.parseInt(options.getOrDefault("limit", String.valueOf(Integer.MAX_VALUE))));
+        for (AuditRecord record : AuditLogReader.scan(Path.of(args[0]), query)) {
+            System.out.printf("%s\t%s\t%s\t%s\t%s\t%s\t%.3fms%n", record.timestamp(), record.companyId(),
+                    record.event(), record.outcome(), record.source(), record.target(),
+                    record.latencyNanos() / 1_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.sharifrahim.onboard.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Sequential scanner over audit log segments. Segments are read through a file channel into one small buffer rather
+ * than mapped, so a scan holds no mappings after it returns and can run while the application is appending. Records are
+ * appended in time order, so a scan skips the segments that end before {@code from}, stops at the first record at or
+ * after {@code to} and stops once it has {@code limit} matches.
+ */
+public final class AuditLogReader {
+
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".log";
+    private static final int CHUNK_RECORDS = 256;
+
+    private AuditLogReader() {
+    }
+
+    /**
+     * Scan the segments the query can match in order and return the matching records, oldest first
+     */
+    public static List<AuditRecord> scan(Path directory, AuditQuery query) {
+        List<AuditRecord> matches = new ArrayList<>();
+        ByteBuffer chunk = ByteBuffer.allocate(CHUNK_RECORDS * AuditRecord.SIZE);
+        List<Path> segments = segments(directory);
+        for (int i = firstSegment(segments, query.from()); i < segments.size(); i++) {
+            if (!scanSegment(segments.get(i), query, chunk, matches)) {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Index of the first segment that can hold records at or after {@code from}: the last one starting before it
+     */
+    private static int firstSegment(List<Path> segments, Instant from) {
+        if (from == null) {
+            return 0;
+        }
+        int first = 0;
+        for (int i = 1; i < segments.size(); i++) {
+            AuditRecord head = firstRecord(segments.get(i));
+            if (head == null || !head.timestamp().isBefore(from)) {
+                break;
+            }
+            first = i;
+        }
+        return first;
+    }
+
+    /**
+     * Add the segment's matching records
+     *
+     * @return false when the scan is complete, because the limit is reached or the records have passed {@code to}
+     */
+    private static boolean scanSegment(Path path, AuditQuery query, ByteBuffer chunk, List<AuditRecord> matches) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long offset = 0;
+            while (true) {
+                chunk.clear();
+                if (channel.read(chunk, offset) < AuditRecord.SIZE) {
+                    return true;
+                }
+                chunk.flip();
+                while (chunk.remaining() >= AuditRecord.SIZE) {
+                    if (matches.size() >= query.limit()) {
+                        return false;
+                    }
+                    AuditRecord record = AuditRecord.readFrom(chunk);
+                    if (record == null) {
+                        return true;
+                    }
+                    if (query.to() != null && !record.timestamp().isBefore(query.to())) {
+                        return false;
+                    }
+                    if (query.matches(record)) {
+                        matches.add(record);
+                    }
+                }
+                offset += chunk.position();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read audit segment " + path, e);
+        }
+    }
+
+    private static AuditRecord firstRecord(Path path) {
+        ByteBuffer head = ByteBuffer.allocate(AuditRecord.SIZE);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.read(head, 0) < AuditRecord.SIZE) {
+                return null;
+            }
+            return AuditRecord.readFrom(head.flip());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read audit segment " + path, e);
+        }
+    }
+
+    static List<Path> segments(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(
+                    p -> p.getFileName().toString().startsWith(PREFIX) && p.getFileName().toString().endsWith(SUFFIX))
+                    .sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list audit segments in " + directory, e);
+        }
+    }
+
+    static String segmentName(long number) {
+        return String.format("%s%012d%s", PREFIX, number, SUFFIX);
+    }
+
+    static long segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
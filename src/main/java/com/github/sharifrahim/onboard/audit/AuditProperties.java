@@ -0,0 +1,30 @@
+package com.github.sharifrahim.onboard.audit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuration of the local transition audit log
+ */
+@Data
+@ConfigurationProperties(prefix = "onboard.audit")
+public class AuditProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Directory holding the log segments
+     */
+    private String directory = "audit";
+
+    /**
+     * Size of one segment file in bytes, rounded down to whole records
+     */
+    private int segmentSize = 16 * 1024 * 1024;
+
+    /**
+     * Records buffered between callers and the writer, a power of two; records beyond it are dropped
+     */
+    private int bufferSize = 8192;
+}
@@ -0,0 +1,32 @@
+package com.github.sharifrahim.onboard.audit;
+
+import java.time.Instant;
+
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+
+/**
+ * Filter for scanning the audit log; null fields match everything
+ *
+ * @param companyId
+ *            only records of this company
+ * @param event
+ *            only records of this event
+ * @param outcome
+ *            only records with this outcome
+ * @param from
+ *            only records at or after this instant
+ * @param to
+ *            only records before this instant
+ * @param limit
+ *            maximum number of records returned
+ */
+public record AuditQuery(Long companyId, OnboardingEvent event, AuditRecord.Outcome outcome, Instant from, Instant to,
+        int limit) {
+
+    boolean matches(AuditRecord record) {
+        return (companyId == null || companyId.equals(record.companyId())) && (event == null || event == record.event())
+                && (outcome == null || outcome == record.outcome())
+                && (from == null || !record.timestamp().isBefore(from))
+                && (to == null || record.timestamp().isBefore(to));
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.sharifrahim.onboard.audit;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.zip.CRC32C;
+
+import com.github.sharifrahim.onboard.domain.ProgressState;
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+
+/**
+ * One audited transition or decision, stored as a fixed-size binary record: timestamp, company id and latency as longs,
+ * source, target, event and outcome as one byte each (0 for none), then a CRC32C of the preceding bytes so a torn or
+ * unwritten record ends the log
+ *
+ * @param timestamp
+ *            when it happened, millisecond precision
+ * @param companyId
+ *            the company, null for a company that does not exist yet
+ * @param source
+ *            state before, if any
+ * @param target
+ *            state after, if any
+ * @param event
+ *            the onboarding event
+ * @param outcome
+ *            what became of the event
+ * @param latencyNanos
+ *            time from submission to outcome
+ */
+public record AuditRecord(Instant timestamp, Long companyId, ProgressState source, ProgressState target,
+        OnboardingEvent event, Outcome outcome, long latencyNanos) {
+
+    public static final int SIZE = 32;
+
+    private static final int CHECKSUM_OFFSET = 28;
+
+    public enum Outcome {
+        /** The state machine took a transition */
+        ACCEPTED,
+        /** A guard rejected the event */
+        DENIED,
+        /** No transition exists for the event in the current state */
+        NOT_ACCEPTED,
+        /** A reviewer approved the change */
+        APPROVED,
+        /** A reviewer rejected the change */
+        REJECTED
+    }
+
+    /**
+     * Write the record at the buffer's position, advancing it by {@link #SIZE}
+     */
+    void writeTo(ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.putLong(timestamp.toEpochMilli());
+        buffer.putLong(companyId != null ? companyId : 0L);
+        buffer.putLong(latencyNanos);
+        buffer.put(code(source));
+        buffer.put(code(target));
+        buffer.put(code(event));
+        buffer.put(code(outcome));
+        buffer.putInt(checksum(buffer, start));
+    }
+
+    /**
+     * Read the record at the buffer's position, advancing it by {@link #SIZE}
+     *
+     * @return the record, or null when the slot holds no complete record
+     */
+    static AuditRecord readFrom(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.getInt(start + CHECKSUM_OFFSET) != checksum(buffer, start) || buffer.getLong(start) == 0L) {
+            return null;
+        }
+        AuditRecord record = new AuditRecord(Instant.ofEpochMilli(buffer.getLong(start)),
+                buffer.getLong(start + 8) != 0L ? buffer.getLong(start + 8) : null,
+                decode(ProgressState.values(), buffer.get(start + 24)),
+                decode(ProgressState.values(), buffer.get(start + 25)),
+                decode(OnboardingEvent.values(), buffer.get(start + 26)),
+                decode(Outcome.values(), buffer.get(start + 27)), buffer.getLong(start + 16));
+        buffer.position(start + SIZE);
+        return record;
+    }
+
+    private static int checksum(ByteBuffer buffer, int start) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start, CHECKSUM_OFFSET));
+        return (int) crc.getValue();
+    }
+
+    private static byte code(Enum<?> value) {
+        return value != null ? (byte) (value.ordinal() + 1) : 0;
+    }
+
+    private static <E extends Enum<E>> E decode(E[] values, byte code) {
+        return code > 0 && code <= values.length ? values[code - 1] : null;
+    }
+}
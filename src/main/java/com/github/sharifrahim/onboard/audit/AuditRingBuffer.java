@@ -0,0 +1,74 @@
+package com.github.sharifrahim.onboard.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue from any number of producers to a single consumer. A producer claims a sequence with a CAS on
+ * the head, fills the slot and publishes it by storing the sequence in the slot's marker; the consumer takes slots in
+ * sequence order once their marker matches. A full buffer rejects the record instead of blocking the caller.
+ */
+class AuditRingBuffer {
+
+    private final int mask;
+    private final AtomicReferenceArray<AuditRecord> slots;
+    private final AtomicLongArray published;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    AuditRingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1L);
+        }
+    }
+
+    /**
+     * Enqueue a record
+     *
+     * @return false when the buffer is full
+     */
+    boolean offer(AuditRecord record) {
+        long sequence;
+        do {
+            sequence = head.get();
+            if (sequence - tail.get() > mask) {
+                return false;
+            }
+        } while (!head.compareAndSet(sequence, sequence + 1));
+        int index = (int) sequence & mask;
+        slots.lazySet(index, record);
+        published.set(index, sequence);
+        return true;
+    }
+
+    /**
+     * Dequeue the next record; only the consumer thread may call this
+     *
+     * @return the record, or null when the next one has not been published yet
+     */
+    AuditRecord poll() {
+        long sequence = tail.get();
+        int index = (int) sequence & mask;
+        if (published.get(index) != sequence) {
+            return null;
+        }
+        AuditRecord record = slots.get(index);
+        slots.lazySet(index, null);
+        tail.lazySet(sequence + 1);
+        return record;
+    }
+
+    /**
+     * Sequence that the next claimed record will get
+     */
+    long claimed() {
+        return head.get();
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.sharifrahim.onboard.audit;
+
+import java.time.Instant;
+
+import org.springframework.statemachine.StateContext;
+import org.springframework.statemachine.listener.StateMachineListenerAdapter;
+import org.springframework.stereotype.Component;
+
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.domain.ProgressState;
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+import com.github.sharifrahim.onboard.statemachine.SubmissionContext;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Writes every submission outcome of the onboarding state machine to the {@link AuditLog}. The submission is the
+ * {@link SubmissionContext} bound to the machine; it ends with a transition, the event not being accepted, or a guard
+ * rejection, which the machine's guard reports through {@link #denied}.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditStateMachineListener extends StateMachineListenerAdapter<ProgressState, OnboardingEvent> {
+
+    private final AuditLog auditLog;
+
+    @Override
+    public void stateContext(StateContext<ProgressState, OnboardingEvent> context) {
+        if (!auditLog.isEnabled()) {
+            return;
+        }
+        SubmissionContext submission = SubmissionContext.of(context);
+        if (submission == null || context.getEvent() != submission.getEvent()) {
+            return;
+        }
+        if (context.getStage() == StateContext.Stage.TRANSITION_END) {
+            // the machine is reset per submission, so the company knows the state it actually left
+            ProgressState source = submission.getCompany() != null ? submission.getCompany().getProgressState()
+                    : context.getSource().getId();
+            record(submission, source, context.getTarget().getId(), AuditRecord.Outcome.ACCEPTED);
+        } else if (context.getStage() == StateContext.Stage.EVENT_NOT_ACCEPTED) {
+            record(submission, sourceOf(submission), null, AuditRecord.Outcome.NOT_ACCEPTED);
+        }
+    }
+
+    /**
+     * Record the submission of the context as rejected by its guard
+     */
+    public void denied(StateContext<ProgressState, OnboardingEvent> context) {
+        SubmissionContext submission = SubmissionContext.of(context);
+        if (auditLog.isEnabled() && submission != null) {
+            record(submission, sourceOf(submission), null, AuditRecord.Outcome.DENIED);
+        }
+    }
+
+    private void record(SubmissionContext submission, ProgressState source, ProgressState target,
+            AuditRecord.Outcome outcome) {
+        Company company = submission.getCompany();
+        auditLog.append(new AuditRecord(Instant.now(), company != null ? company.getId() : null, source, target,
+                submission.getEvent(), outcome, System.nanoTime() - submission.getStartNanos()));
+    }
+
+    private static ProgressState sourceOf(SubmissionContext submission) {
+        return submission.getCompany() != null ? submission.getCompany().getProgressState() : null;
+    }
+}
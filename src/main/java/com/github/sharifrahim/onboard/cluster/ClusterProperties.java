@@ -0,0 +1,43 @@
+package com.github.sharifrahim.onboard.cluster;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuration of company ownership across nodes
+ */
+@Data
+@ConfigurationProperties(prefix = "onboard.cluster")
+public class ClusterProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Identity of this node, unique in the cluster
+     */
+    private String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * Base URL other nodes redirect to, defaults to http://localhost with the local server port
+     */
+    private String advertisedUrl;
+
+    /**
+     * Number of partitions companies are hashed to; must be the same on every node
+     */
+    private int partitions = 64;
+
+    /**
+     * How long a lease stays valid without renewal
+     */
+    private Duration leaseDuration = Duration.ofSeconds(30);
+
+    /**
+     * Delay between heartbeats, well below the lease duration
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(10);
+}
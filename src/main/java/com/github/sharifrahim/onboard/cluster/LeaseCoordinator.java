@@ -0,0 +1,257 @@
+package com.github.sharifrahim.onboard.cluster;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.sharifrahim.onboard.datasource.sharding.ShardRouter;
+import com.github.sharifrahim.onboard.exception.NotOwnerException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Assigns company partitions to nodes with leases in {@code partition_lease}. Every heartbeat a node records itself in
+ * {@code cluster_node}, renews its leases, releases those beyond its fair share of the live nodes and takes over vacant
+ * or expired ones up to that share. Leases change hands only through conditional updates, so a partition has at most
+ * one owner at a time, and a node that stops heartbeating loses its partitions after one lease duration. Lease tables
+ * live on the default shard.
+ * <p>
+ * The in-memory view of owned partitions only routes requests; a node that stalled past its lease still believes it
+ * owns them. Writes therefore go through {@link #fenced}, which re-checks the lease in the database and holds its row
+ * locked until the write is done, so the partition cannot change hands halfway through.
+ */
+@Component
+@EnableConfigurationProperties(ClusterProperties.class)
+@Slf4j
+public class LeaseCoordinator implements DisposableBean {
+
+    private final ClusterProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final Environment environment;
+    private final TransactionTemplate leaseTransaction;
+    private final TransactionTemplate suspended;
+    private final Map<Integer, LocalDateTime> ownedUntil = new ConcurrentHashMap<>();
+
+    public LeaseCoordinator(ClusterProperties properties, JdbcTemplate jdbcTemplate, ShardRouter shardRouter,
+            Environment environment, PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.environment = environment;
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.suspended = new TransactionTemplate(transactionManager);
+        this.suspended.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void join() {
+        if (properties.isEnabled()) {
+            shardRouter.onShard(shardRouter.getDefaultShard(), () -> {
+                Set<Integer> existing = Set
+                        .copyOf(jdbcTemplate.queryForList("SELECT partition_id FROM partition_lease", Integer.class));
+                for (int partition = 0; partition < properties.getPartitions(); partition++) {
+                    if (!existing.contains(partition)) {
+                        insertPartition(partition);
+                    }
+                }
+                return null;
+            });
+            heartbeat();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${onboard.cluster.heartbeat-interval:PT10S}", fixedDelayString = "${onboard.cluster.heartbeat-interval:PT10S}")
+    public void scheduledHeartbeat() {
+        if (properties.isEnabled()) {
+            heartbeat();
+        }
+    }
+
+    /**
+     * Announce this node, renew its leases and rebalance towards a fair share of partitions
+     */
+    public void heartbeat() {
+        shardRouter.onShard(shardRouter.getDefaultShard(), () -> {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime expiresAt = now.plus(properties.getLeaseDuration());
+            String node = properties.getNodeId();
+            if (jdbcTemplate.update("UPDATE cluster_node SET url = ?, heartbeat_at = ? WHERE node_id = ?", getUrl(),
+                    Timestamp.valueOf(now), node) == 0) {
+                jdbcTemplate.update("INSERT INTO cluster_node (node_id, url, heartbeat_at) VALUES (?, ?, ?)", node,
+                        getUrl(), Timestamp.valueOf(now));
+            }
+
+            jdbcTemplate.update("UPDATE partition_lease SET expires_at = ?, owner_url = ? WHERE owner = ?",
+                    Timestamp.valueOf(expiresAt), getUrl(), node);
+            List<Integer> owned = jdbcTemplate.queryForList(
+                    "SELECT partition_id FROM partition_lease WHERE owner = ? ORDER BY partition_id", Integer.class,
+                    node);
+            ownedUntil.keySet().retainAll(Set.copyOf(owned));
+            owned.forEach(partition -> ownedUntil.put(partition, expiresAt));
+
+            int liveNodes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cluster_node WHERE heartbeat_at > ?",
+                    Integer.class, Timestamp.valueOf(now.minus(properties.getLeaseDuration())));
+            int fairShare = (properties.getPartitions() + Math.max(1, liveNodes) - 1) / Math.max(1, liveNodes);
+
+            // give away the excess first, so joining nodes can pick it up on their next heartbeat
+            for (int i = fairShare; i < owned.size(); i++) {
+                release(owned.get(i));
+            }
+            if (owned.size() < fairShare) {
+                List<Integer> vacant = jdbcTemplate
+                        .queryForList("SELECT partition_id FROM partition_lease WHERE owner IS NULL OR expires_at < ?"
+                                + " ORDER BY partition_id", Integer.class, Timestamp.valueOf(now));
+                int wanted = fairShare - owned.size();
+                for (int i = 0; i < vacant.size() && wanted > 0; i++) {
+                    if (tryAcquire(vacant.get(i), now, expiresAt)) {
+                        wanted--;
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Check that this node owns the partition of a company key, taking over the partition if it has no live owner
+     *
+     * @throws NotOwnerException
+     *             with the owner's URL when another node owns it
+     */
+    public void requireOwner(Object key) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int partition = partitionFor(key);
+        if (isOwner(partition)) {
+            return;
+        }
+        boolean acquired = shardRouter.onShard(shardRouter.getDefaultShard(), () -> {
+            LocalDateTime now = LocalDateTime.now();
+            return tryAcquire(partition, now, now.plus(properties.getLeaseDuration()));
+        });
+        if (!acquired) {
+            throw notOwner(partition);
+        }
+    }
+
+    /**
+     * Run a write for a company key while holding this node's lease on its partition. The lease row is locked and
+     * checked first and stays locked until the write returns, so no other node can take the partition over in between.
+     * Without sharding the write joins the lease transaction and both commit together; with sharding the write runs in
+     * its own transactions on its shard, all committed before the lease row is released.
+     *
+     * @throws NotOwnerException
+     *             when the lease has passed to another node or expired, whatever this node last saw
+     */
+    public <T> T fenced(Object key, Supplier<T> write) {
+        if (!properties.isEnabled()) {
+            return write.get();
+        }
+        int partition = partitionFor(key);
+        return shardRouter.onShard(shardRouter.getDefaultShard(), () -> leaseTransaction.execute(status -> {
+            List<LocalDateTime> held = jdbcTemplate.query(
+                    "SELECT expires_at FROM partition_lease WHERE partition_id = ? AND owner = ? FOR UPDATE",
+                    (rs, i) -> rs.getTimestamp(1).toLocalDateTime(), partition, properties.getNodeId());
+            if (held.isEmpty() || !LocalDateTime.now().isBefore(held.get(0))) {
+                ownedUntil.remove(partition);
+                throw notOwner(partition);
+            }
+            return shardRouter.isEnabled() ? suspended.execute(inner -> write.get()) : write.get();
+        }));
+    }
+
+    /**
+     * The current owner of a partition for a redirect; a partition with no owner URL has no owner reachable now
+     */
+    private NotOwnerException notOwner(int partition) {
+        String ownerUrl = shardRouter.onShard(shardRouter.getDefaultShard(), () -> jdbcTemplate
+                .queryForList("SELECT owner_url FROM partition_lease WHERE partition_id = ?", String.class, partition)
+                .stream().filter(Objects::nonNull).findFirst().orElse(null));
+        return new NotOwnerException(ownerUrl != null ? "Partition " + partition + " is owned by " + ownerUrl
+                : "Partition " + partition + " has no reachable owner", ownerUrl);
+    }
+
+    public int partitionFor(Object key) {
+        int hash = key.hashCode();
+        return Math.floorMod(hash * 0x9E3779B9, properties.getPartitions());
+    }
+
+    public boolean isOwner(int partition) {
+        LocalDateTime until = ownedUntil.get(partition);
+        return until != null && LocalDateTime.now().isBefore(until);
+    }
+
+    public Set<Integer> getOwnedPartitions() {
+        return Set.copyOf(ownedUntil.keySet());
+    }
+
+    public String getUrl() {
+        if (properties.getAdvertisedUrl() != null) {
+            return properties.getAdvertisedUrl();
+        }
+        return "http://localhost:"
+                + environment.getProperty("local.server.port", environment.getProperty("server.port", "8080"));
+    }
+
+    @Override
+    public void destroy() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // hand partitions over now instead of after lease expiry
+        shardRouter.onShard(shardRouter.getDefaultShard(), () -> {
+            ownedUntil.keySet().forEach(this::release);
+            jdbcTemplate.update("DELETE FROM cluster_node WHERE node_id = ?", properties.getNodeId());
+            return null;
+        });
+        log.info("Node {} released its partitions", properties.getNodeId());
+    }
+
+    private boolean tryAcquire(int partition, LocalDateTime now, LocalDateTime expiresAt) {
+        boolean acquired = jdbcTemplate.update(
+                "UPDATE partition_lease SET owner = ?, owner_url = ?, expires_at = ?"
+                        + " WHERE partition_id = ? AND (owner IS NULL OR expires_at < ?)",
+                properties.getNodeId(), getUrl(), Timestamp.valueOf(expiresAt), partition, Timestamp.valueOf(now)) == 1;
+        if (acquired) {
+            ownedUntil.put(partition, expiresAt);
+            log.debug("Node {} acquired partition {}", properties.getNodeId(), partition);
+        }
+        return acquired;
+    }
+
+    private void release(int partition) {
+        // stop accepting work for the partition before another node can take it
+        ownedUntil.remove(partition);
+        jdbcTemplate.update("UPDATE partition_lease SET owner = NULL, owner_url = NULL, expires_at = NULL"
+                + " WHERE partition_id = ? AND owner = ?", partition, properties.getNodeId());
+    }
+
+    private void insertPartition(int partition) {
+        try {
+            jdbcTemplate.update("INSERT INTO partition_lease (partition_id) VALUES (?)", partition);
+        } catch (DuplicateKeyException e) {
+            // another node created it concurrently
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.github.sharifrahim.onboard.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.github.sharifrahim.onboard.analytics.FunnelReport;
+import com.github.sharifrahim.onboard.analytics.ProgressFunnelService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final ProgressFunnelService funnelService;
+
+    @GetMapping("/funnel")
+    public ResponseEntity<FunnelReport> getFunnel() {
+        return ResponseEntity.ok(funnelService.report());
+    }
+}
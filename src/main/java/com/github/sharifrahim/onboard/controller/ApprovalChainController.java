@@ -0,0 +1,23 @@
+package com.github.sharifrahim.onboard.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.github.sharifrahim.onboard.service.approval.chain.ApprovalChain;
+import com.github.sharifrahim.onboard.service.approval.chain.ApprovalChainService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+public class ApprovalChainController {
+
+    private final ApprovalChainService approvalChainService;
+
+    @GetMapping("/companies/approvals/{id}/chain")
+    public ResponseEntity<ApprovalChain> getChain(@PathVariable Long id) {
+        return ResponseEntity.of(approvalChainService.findChain(id));
+    }
+}
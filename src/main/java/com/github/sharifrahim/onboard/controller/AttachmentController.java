@@ -0,0 +1,149 @@
+package com.github.sharifrahim.onboard.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.github.sharifrahim.onboard.attachment.Attachment;
+import com.github.sharifrahim.onboard.attachment.AttachmentKind;
+import com.github.sharifrahim.onboard.attachment.AttachmentService;
+import com.github.sharifrahim.onboard.attachment.UploadSession;
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.exception.ValidationException;
+import com.github.sharifrahim.onboard.service.ApprovalService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Documents of the profile and operations steps. Small files are posted as multipart; large ones go through a resumable
+ * upload whose chunks are sent with {@code PATCH} and an {@code Upload-Offset} header. Content downloads honour
+ * {@code Range} requests.
+ */
+@RestController
+@RequestMapping("/companies/approvals/{id}/attachments")
+@RequiredArgsConstructor
+public class AttachmentController {
+
+    static final String UPLOAD_OFFSET = "Upload-Offset";
+
+    private final ApprovalService approvalService;
+    private final AttachmentService attachmentService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Attachment> upload(@PathVariable Long id, @RequestParam AttachmentKind kind,
+            @RequestParam MultipartFile file) throws IOException {
+        Optional<Approval> approval = approvalService.findHotById(id);
+        if (approval.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // parts above spring.servlet.multipart.file-size-threshold are spooled to disk, so this streams from a file
+        try (InputStream content = file.getInputStream()) {
+            Attachment attachment = attachmentService.attach(approval.get(), kind, file.getOriginalFilename(),
+                    file.getContentType(), content);
+            return ResponseEntity.created(contentUri(attachment)).body(attachment);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Attachment>> list(@PathVariable Long id) {
+        return ResponseEntity.ok(attachmentService.findByApproval(id));
+    }
+
+    @GetMapping("/{attachmentId}/content")
+    public ResponseEntity<Resource> download(@PathVariable Long id, @PathVariable Long attachmentId) {
+        Optional<Attachment> optional = attachmentService.find(id, attachmentId);
+        if (optional.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Attachment attachment = optional.get();
+        MediaType contentType = attachment.contentType() != null ? MediaType.parseMediaType(attachment.contentType())
+                : MediaType.APPLICATION_OCTET_STREAM;
+        // blobs never change, so the digest is a strong validator for conditional and range requests
+        return ResponseEntity.ok().contentType(contentType).eTag(attachment.sha256())
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(attachment.fileName(), StandardCharsets.UTF_8).build().toString())
+                .body(new FileSystemResource(attachmentService.content(attachment)));
+    }
+
+    @PostMapping("/uploads")
+    public ResponseEntity<UploadSession> startUpload(@PathVariable Long id, @RequestParam AttachmentKind kind,
+            @RequestParam String fileName, @RequestParam long size, @RequestParam(required = false) String contentType)
+            throws IOException {
+        Optional<Approval> approval = approvalService.findHotById(id);
+        if (approval.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        try {
+            UploadSession session = attachmentService.startUpload(approval.get(), kind, fileName, contentType, size);
+            return ResponseEntity
+                    .created(URI.create("/companies/approvals/" + id + "/attachments/uploads/" + session.id()))
+                    .header(UPLOAD_OFFSET, "0").body(session);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/uploads/{uploadId}")
+    public ResponseEntity<UploadSession> getUpload(@PathVariable Long id, @PathVariable String uploadId) {
+        return attachmentService.findUpload(id, uploadId)
+                .map(session -> ResponseEntity.ok().header(UPLOAD_OFFSET, String.valueOf(session.received()))
+                        .cacheControl(CacheControl.noStore()).body(session))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Append a chunk; answers 204 with the new offset while bytes are missing and 201 with the attachment once the last
+     * byte has arrived
+     */
+    @PatchMapping("/uploads/{uploadId}")
+    public ResponseEntity<Attachment> appendChunk(@PathVariable Long id, @PathVariable String uploadId,
+            @RequestHeader(UPLOAD_OFFSET) long offset, InputStream chunk) throws IOException {
+        Optional<UploadSession> optional = attachmentService.findUpload(id, uploadId);
+        if (optional.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        try {
+            UploadSession session = attachmentService.appendChunk(optional.get(), offset, chunk);
+            if (session.received() < session.totalSize()) {
+                return ResponseEntity.noContent().header(UPLOAD_OFFSET, String.valueOf(session.received())).build();
+            }
+            Attachment attachment = attachmentService.complete(session);
+            return ResponseEntity.created(contentUri(attachment)).body(attachment);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private static URI contentUri(Attachment attachment) {
+        return URI.create(
+                "/companies/approvals/" + attachment.approvalId() + "/attachments/" + attachment.id() + "/content");
+    }
+}
@@ -0,0 +1,28 @@
+package com.github.sharifrahim.onboard.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import com.github.sharifrahim.onboard.exception.AttachmentTooLargeException;
+import com.github.sharifrahim.onboard.exception.UploadConflictException;
+
+/**
+ * Maps oversized documents to 413 and misplaced upload chunks to 409 with the offset to resume from
+ */
+@RestControllerAdvice
+public class AttachmentExceptionHandler {
+
+    @ExceptionHandler({ AttachmentTooLargeException.class, MaxUploadSizeExceededException.class })
+    public ResponseEntity<Void> handleTooLarge(RuntimeException e) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+    }
+
+    @ExceptionHandler(UploadConflictException.class)
+    public ResponseEntity<Void> handleConflict(UploadConflictException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(AttachmentController.UPLOAD_OFFSET, String.valueOf(e.getOffset())).build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.sharifrahim.onboard.controller;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.github.sharifrahim.onboard.audit.AuditLog;
+import com.github.sharifrahim.onboard.audit.AuditLogReader;
+import com.github.sharifrahim.onboard.audit.AuditQuery;
+import com.github.sharifrahim.onboard.audit.AuditRecord;
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/audit")
+@RequiredArgsConstructor
+public class AuditController {
+
+    private final AuditLog auditLog;
+
+    @GetMapping
+    public ResponseEntity<List<AuditRecord>> scan(@RequestParam(required = false) Long companyId,
+            @RequestParam(required = false) OnboardingEvent event,
+            @RequestParam(required = false) AuditRecord.Outcome outcome,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (!auditLog.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        AuditQuery query = new AuditQuery(companyId, event, outcome, from, to, limit);
+        return ResponseEntity.ok(AuditLogReader.scan(auditLog.getDirectory(), query));
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.sharifrahim.onboard.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.github.sharifrahim.onboard.exception.ClaimLostException;
+
+/**
+ * Maps actions on expired or foreign review claims to 409
+ */
+@RestControllerAdvice
+public class ClaimLostExceptionHandler {
+
+    @ExceptionHandler(ClaimLostException.class)
+    public ResponseEntity<String> handleClaimLost(ClaimLostException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+}
@@ -1,6 +1,8 @@
 package com.github.sharifrahim.onboard.controller;
 
 import jakarta.validation.Valid;
+import java.security.Principal;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,17 +19,26 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sharifrahim.onboard.audit.AuditLog;
+import com.github.sharifrahim.onboard.audit.AuditRecord;
 import com.github.sharifrahim.onboard.domain.Approval;
 import com.github.sharifrahim.onboard.domain.Company;
 import com.github.sharifrahim.onboard.dto.CompanyProfileRequest;
 import com.github.sharifrahim.onboard.dto.ContactInfoRequest;
 import com.github.sharifrahim.onboard.dto.OperationalInfoRequest;
+import com.github.sharifrahim.onboard.duplicate.DuplicateDetector;
+import com.github.sharifrahim.onboard.duplicate.NameMatch;
 import com.github.sharifrahim.onboard.repository.CompanyRepository;
+import com.github.sharifrahim.onboard.review.ReviewQueue;
 import com.github.sharifrahim.onboard.service.ApprovalService;
 import com.github.sharifrahim.onboard.service.approval.ApprovalProcessor;
 import com.github.sharifrahim.onboard.service.approval.ApprovalProcessorRegistry;
+import com.github.sharifrahim.onboard.service.approval.chain.ApprovalChain;
+import com.github.sharifrahim.onboard.service.approval.chain.ApprovalChainService;
 import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+import com.github.sharifrahim.onboard.statemachine.SubmissionContext;
 import com.github.sharifrahim.onboard.statemachine.service.OnboardingStateMachineService;
+import com.github.sharifrahim.onboard.exception.DecisionConflictException;
 import com.github.sharifrahim.onboard.exception.ValidationException;
 
 import lombok.RequiredArgsConstructor;
@@ -42,11 +53,16 @@ public class CompanyController {
     private final ObjectMapper objectMapper;
     private final OnboardingStateMachineService stateMachineService;
     private final ApprovalProcessorRegistry approvalProcessorRegistry;
+    private final DuplicateDetector duplicateDetector;
+    private final AuditLog auditLog;
+    private final ApprovalChainService approvalChainService;
+    private final ReviewQueue reviewQueue;
 
     @PostMapping("/profile")
-    public ResponseEntity<Long> createCompany(@Valid @RequestBody CompanyProfileRequest request) {
+    public ResponseEntity<Long> createCompany(@Valid @RequestBody CompanyProfileRequest request, Principal principal) {
         try {
-            Long approvalId = stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY, request, null);
+            Long approvalId = stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY, request, null,
+                    submitter(principal));
             return new ResponseEntity<>(approvalId, HttpStatus.CREATED);
         } catch (ValidationException e) {
             return ResponseEntity.badRequest().build();
@@ -54,8 +70,8 @@ public class CompanyController {
     }
 
     @PutMapping("/{id}/contact")
-    public ResponseEntity<Long> updateContactInfo(@PathVariable Long id,
-            @Valid @RequestBody ContactInfoRequest request) {
+    public ResponseEntity<Long> updateContactInfo(@PathVariable Long id, @Valid @RequestBody ContactInfoRequest request,
+            Principal principal) {
         Optional<Company> optional = companyRepository.findById(id);
         if (optional.isEmpty()) {
             return ResponseEntity.notFound().build();
@@ -63,7 +79,7 @@ public class CompanyController {
 
         try {
             Long approvalId = stateMachineService.submitEvent(OnboardingEvent.UPDATE_CONTACT_INFO, request,
-                    optional.get());
+                    optional.get(), submitter(principal));
             return ResponseEntity.ok(approvalId);
         } catch (ValidationException e) {
             return ResponseEntity.badRequest().build();
@@ -72,7 +88,7 @@ public class CompanyController {
 
     @PutMapping("/{id}/operations")
     public ResponseEntity<Long> updateOperationalInfo(@PathVariable Long id,
-            @Valid @RequestBody OperationalInfoRequest request) {
+            @Valid @RequestBody OperationalInfoRequest request, Principal principal) {
         Optional<Company> optional = companyRepository.findById(id);
         if (optional.isEmpty()) {
             return ResponseEntity.notFound().build();
@@ -80,7 +96,7 @@ public class CompanyController {
 
         try {
             Long approvalId = stateMachineService.submitEvent(OnboardingEvent.UPDATE_OPERATIONAL_INFO, request,
-                    optional.get());
+                    optional.get(), submitter(principal));
             return ResponseEntity.ok(approvalId);
         } catch (ValidationException e) {
             return ResponseEntity.badRequest().build();
@@ -98,20 +114,42 @@ public class CompanyController {
         return ResponseEntity.ok(company);
     }
 
+    @GetMapping("/approvals/{id}/similar")
+    public ResponseEntity<List<NameMatch>> findSimilarPendingCompanies(@PathVariable Long id) {
+        Optional<Approval> optional = approvalService.findById(id);
+        if (optional.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Company company = fromJson(optional.get().getNewData());
+        List<NameMatch> matches = duplicateDetector.findSimilarPendingNames(company.getName()).stream()
+                .filter(match -> !match.approvalId().equals(id)).toList();
+        return ResponseEntity.ok(matches);
+    }
+
     @GetMapping("/approvals")
-    public ResponseEntity<List<Approval>> getApprovalsByType(@RequestParam Approval.Type type) {
-        List<Approval> approvals = approvalService.findByType(type);
+    public ResponseEntity<List<Approval>> getApprovalsByType(@RequestParam Approval.Type type,
+            @RequestParam(defaultValue = "false") boolean archived) {
+        List<Approval> approvals = approvalService.findByType(type, archived);
         return ResponseEntity.ok(approvals);
     }
 
     @PostMapping("/approvals/{id}/approve")
-    public ResponseEntity<Void> approve(@PathVariable Long id) {
-        Optional<Approval> optional = approvalService.findById(id);
+    public ResponseEntity<Void> approve(@PathVariable Long id, Principal principal) {
+        // archived approvals are decided already and must not be decided again
+        Optional<Approval> optional = approvalService.findHotById(id);
         if (optional.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
         Approval approval = optional.get();
+        if (approval.getApprovalStatus() != Approval.ApprovalStatus.PENDING) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        String reviewer = reviewer(principal);
+        if (approvalChainService.hasChain(id)) {
+            return decide(approval, reviewer, ApprovalChain.Verdict.APPROVE, null);
+        }
+        reviewQueue.checkDecision(id, reviewer);
 
         try {
             Optional<ApprovalProcessor> processorOpt = approvalProcessorRegistry.findProcessor(approval.getType());
@@ -120,21 +158,36 @@ public class CompanyController {
             }
 
             ApprovalProcessor processor = processorOpt.get();
-            processor.approve(approval);
+            long start = System.nanoTime();
+            Approval approved = processor.approve(approval, reviewer);
+            auditDecision(approved, OnboardingEvent.APPROVE, AuditRecord.Outcome.APPROVED, start);
             return ResponseEntity.ok().build();
+        } catch (DecisionConflictException e) {
+            // decided or expired since it was loaded
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
 
     @PostMapping("/approvals/{id}/reject")
-    public ResponseEntity<Void> reject(@PathVariable Long id, @RequestParam(required = false) String reason) {
-        Optional<Approval> optional = approvalService.findById(id);
+    public ResponseEntity<Void> reject(@PathVariable Long id, @RequestParam(required = false) String reason,
+            Principal principal) {
+        // archived approvals are decided already and must not be decided again
+        Optional<Approval> optional = approvalService.findHotById(id);
         if (optional.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
         Approval approval = optional.get();
+        if (approval.getApprovalStatus() != Approval.ApprovalStatus.PENDING) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        String reviewer = reviewer(principal);
+        if (approvalChainService.hasChain(id)) {
+            return decide(approval, reviewer, ApprovalChain.Verdict.REJECT, reason);
+        }
+        reviewQueue.checkDecision(id, reviewer);
 
         try {
             Optional<ApprovalProcessor> processorOpt = approvalProcessorRegistry.findProcessor(approval.getType());
@@ -143,13 +196,59 @@ public class CompanyController {
             }
 
             ApprovalProcessor processor = processorOpt.get();
-            processor.reject(approval, reason != null ? reason : "No reason provided");
+            long start = System.nanoTime();
+            Approval rejected = processor.reject(approval, reason != null ? reason : "No reason provided", reviewer);
+            auditDecision(rejected, OnboardingEvent.REJECT, AuditRecord.Outcome.REJECTED, start);
             return ResponseEntity.ok().build();
+        } catch (DecisionConflictException e) {
+            // decided or expired since it was loaded
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    /**
+     * Count a reviewer's decision on a chained approval; 202 while more sign-off is needed
+     */
+    private ResponseEntity<Void> decide(Approval approval, String reviewer, ApprovalChain.Verdict verdict,
+            String remarks) {
+        long start = System.nanoTime();
+        ApprovalChain.Status status;
+        try {
+            status = approvalChainService.decide(approval, reviewer, verdict, remarks);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (status == ApprovalChain.Status.APPROVED) {
+            auditDecision(approval, OnboardingEvent.APPROVE, AuditRecord.Outcome.APPROVED, start);
+        } else if (status == ApprovalChain.Status.REJECTED) {
+            auditDecision(approval, OnboardingEvent.REJECT, AuditRecord.Outcome.REJECTED, start);
+        } else {
+            return ResponseEntity.accepted().build();
+        }
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Requests without an authenticated user are submitted by the system
+     */
+    private static String submitter(Principal principal) {
+        return principal != null ? principal.getName() : SubmissionContext.SYSTEM;
+    }
+
+    /**
+     * Reviewers are who the request is authenticated as, never a name the request claims for itself
+     */
+    private static String reviewer(Principal principal) {
+        return principal != null ? principal.getName() : null;
+    }
+
+    private void auditDecision(Approval approval, OnboardingEvent event, AuditRecord.Outcome outcome, long start) {
+        auditLog.append(new AuditRecord(Instant.now(), approval.getDataId(), null, null, event, outcome,
+                System.nanoTime() - start));
+    }
+
     private Company fromJson(String json) {
         try {
             return objectMapper.readValue(json, Company.class);
@@ -0,0 +1,49 @@
+package com.github.sharifrahim.onboard.controller;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.history.CompanyHistoryService;
+import com.github.sharifrahim.onboard.history.CompanyVersion;
+import com.github.sharifrahim.onboard.history.FieldChange;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/companies/{id}")
+@RequiredArgsConstructor
+public class CompanyHistoryController {
+
+    private final CompanyHistoryService historyService;
+
+    @GetMapping("/versions")
+    public ResponseEntity<List<CompanyVersion>> getVersions(@PathVariable Long id) {
+        List<CompanyVersion> versions = historyService.findVersions(id);
+        return versions.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(versions);
+    }
+
+    @GetMapping("/versions/{version}")
+    public ResponseEntity<Company> getVersion(@PathVariable Long id, @PathVariable int version) {
+        return ResponseEntity.of(historyService.findVersion(id, version));
+    }
+
+    @GetMapping("/versions/diff")
+    public ResponseEntity<List<FieldChange>> diff(@PathVariable Long id, @RequestParam int from, @RequestParam int to) {
+        return ResponseEntity.of(historyService.diff(id, from, to));
+    }
+
+    @GetMapping("/as-of")
+    public ResponseEntity<Company> getAsOf(@PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.of(historyService.findAsOf(id, at));
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.sharifrahim.onboard.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.github.sharifrahim.onboard.search.CompanySearchIndex;
+import com.github.sharifrahim.onboard.search.CompanySearchResult;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/companies/search")
+@RequiredArgsConstructor
+public class CompanySearchController {
+
+    private final CompanySearchIndex searchIndex;
+
+    @GetMapping
+    public ResponseEntity<CompanySearchResult> search(@RequestParam(required = false) String q,
+            @RequestParam(required = false) String country, @RequestParam(required = false) String industrySector,
+            @RequestParam(required = false) String progressState, @RequestParam(required = false) String companySize,
+            @RequestParam(defaultValue = "20") int limit) {
+        Map<String, String> filters = new LinkedHashMap<>();
+        filters.put("country", country);
+        filters.put("industrySector", industrySector);
+        filters.put("progressState", progressState);
+        filters.put("companySize", companySize);
+
+        try {
+            return ResponseEntity.ok(searchIndex.search(q, filters, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.sharifrahim.onboard.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.github.sharifrahim.onboard.exception.DecisionConflictException;
+
+/**
+ * Maps late or repeated reviewer decisions to 409
+ */
+@RestControllerAdvice
+public class DecisionConflictExceptionHandler {
+
+    @ExceptionHandler(DecisionConflictException.class)
+    public ResponseEntity<String> handleConflict(DecisionConflictException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+}
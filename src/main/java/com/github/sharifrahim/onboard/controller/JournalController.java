@@ -0,0 +1,29 @@
+package com.github.sharifrahim.onboard.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.github.sharifrahim.onboard.journal.JournalProjector;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/journal")
+@RequiredArgsConstructor
+public class JournalController {
+
+    private final JournalProjector projector;
+
+    @PostMapping("/projections/{name}/rebuild")
+    public ResponseEntity<Void> rebuild(@PathVariable String name) {
+        try {
+            projector.rebuild(name);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.github.sharifrahim.onboard.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.github.sharifrahim.onboard.exception.NotOwnerException;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Redirects requests for a company to the node owning it; 307 keeps the method and body. While a partition has no
+ * reachable owner the request gets 503 and may be retried.
+ */
+@RestControllerAdvice
+public class NotOwnerExceptionHandler {
+
+    @ExceptionHandler(NotOwnerException.class)
+    public ResponseEntity<Void> handleNotOwner(NotOwnerException e, HttpServletRequest request) {
+        if (e.getOwnerUrl() == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        String location = e.getOwnerUrl() + request.getRequestURI()
+                + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+        return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT).header(HttpHeaders.LOCATION, location).build();
+    }
+}
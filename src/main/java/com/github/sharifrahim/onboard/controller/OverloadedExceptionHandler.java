@@ -0,0 +1,23 @@
+package com.github.sharifrahim.onboard.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.github.sharifrahim.onboard.exception.OverloadedException;
+
+/**
+ * Maps shed requests to 503 with a Retry-After hint
+ */
+@RestControllerAdvice
+public class OverloadedExceptionHandler {
+
+    @ExceptionHandler(OverloadedException.class)
+    public ResponseEntity<Void> handleOverloaded(OverloadedException e) {
+        long seconds = Math.max(1, e.getRetryAfter().toSeconds());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds)).build();
+    }
+}
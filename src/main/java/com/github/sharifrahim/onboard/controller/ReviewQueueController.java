@@ -0,0 +1,71 @@
+package com.github.sharifrahim.onboard.controller;
+
+import java.security.Principal;
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.github.sharifrahim.onboard.exception.ValidationException;
+import com.github.sharifrahim.onboard.review.ReviewClaim;
+import com.github.sharifrahim.onboard.review.ReviewQueue;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/companies/approvals")
+@RequiredArgsConstructor
+public class ReviewQueueController {
+
+    private final ReviewQueue reviewQueue;
+
+    @PostMapping("/claims")
+    public ResponseEntity<List<ReviewClaim>> claim(@RequestParam(defaultValue = "1") int limit, Principal principal) {
+        try {
+            return ResponseEntity.ok(reviewQueue.claim(reviewer(principal), limit));
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/claims")
+    public ResponseEntity<List<ReviewClaim>> getClaims(Principal principal) {
+        if (principal == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(reviewQueue.findClaims(principal.getName()));
+    }
+
+    @PutMapping("/{id}/claim")
+    public ResponseEntity<ReviewClaim> renew(@PathVariable Long id, Principal principal) {
+        try {
+            return ResponseEntity.ok(reviewQueue.renew(id, reviewer(principal)));
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @DeleteMapping("/{id}/claim")
+    public ResponseEntity<Void> release(@PathVariable Long id, Principal principal) {
+        try {
+            return reviewQueue.release(id, reviewer(principal)) ? ResponseEntity.noContent().build()
+                    : ResponseEntity.notFound().build();
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Claims belong to the authenticated user of the request; without one the queue rejects the reviewer
+     */
+    private static String reviewer(Principal principal) {
+        return principal != null ? principal.getName() : null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.github.sharifrahim.onboard.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.github.sharifrahim.onboard.verification.ApprovalVerifier;
+import com.github.sharifrahim.onboard.verification.VerificationResult;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+public class VerificationController {
+
+    private final ApprovalVerifier approvalVerifier;
+
+    @GetMapping("/companies/approvals/{id}/verifications")
+    public ResponseEntity<List<VerificationResult>> getVerifications(@PathVariable Long id) {
+        return ResponseEntity.ok(approvalVerifier.findByApproval(id));
+    }
+}
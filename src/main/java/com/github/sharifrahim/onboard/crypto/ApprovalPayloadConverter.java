@@ -0,0 +1,70 @@
+package com.github.sharifrahim.onboard.crypto;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Encrypts the sensitive company fields inside approval JSON payloads, using the same mode as the company columns
+ */
+@Converter
+@RequiredArgsConstructor
+public class ApprovalPayloadConverter implements AttributeConverter<String, String> {
+
+    /**
+     * Sensitive payload fields, mapped to whether they are encrypted deterministically
+     */
+    static final Map<String, Boolean> SENSITIVE_FIELDS = Map.of("registrationNumber", true, "taxIdNumber", false,
+            "bankAccountNumber", false, "mainContactPhone", false, "emergencyContactNumber", false);
+
+    private final FieldCipher fieldCipher;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String convertToDatabaseColumn(String attribute) {
+        if (!fieldCipher.isEnabled()) {
+            return attribute;
+        }
+        return transform(attribute,
+                field -> SENSITIVE_FIELDS.get(field) ? fieldCipher::encryptDeterministic : fieldCipher::encrypt);
+    }
+
+    @Override
+    public String convertToEntityAttribute(String dbData) {
+        if (dbData == null || !dbData.contains(FieldCipher.RANDOMIZED + ":")
+                && !dbData.contains(FieldCipher.DETERMINISTIC + ":")) {
+            return dbData;
+        }
+        return transform(dbData, field -> fieldCipher::decrypt);
+    }
+
+    private String transform(String json, Function<String, UnaryOperator<String>> operation) {
+        if (json == null || json.isBlank()) {
+            return json;
+        }
+        try {
+            JsonNode root = objectMapper.readTree(json);
+            if (!(root instanceof ObjectNode node)) {
+                return json;
+            }
+            for (String field : SENSITIVE_FIELDS.keySet()) {
+                JsonNode value = node.get(field);
+                if (value != null && value.isTextual()) {
+                    node.put(field, operation.apply(field).apply(value.asText()));
+                }
+            }
+            return objectMapper.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Approval payload is not valid JSON", e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.sharifrahim.onboard.crypto;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuration of field-level encryption at rest
+ */
+@Data
+@ConfigurationProperties(prefix = "onboard.crypto")
+public class CryptoProperties {
+
+    /**
+     * Encrypt sensitive fields on write; existing ciphertext is decrypted either way as long as a keystore is set
+     */
+    private boolean enabled;
+
+    /**
+     * PKCS12 keystore holding the AES master key
+     */
+    private String keystorePath;
+
+    private String keystorePassword = "";
+
+    private String keyAlias = "onboard-master";
+
+    /**
+     * Generate a fresh master key when the keystore does not exist yet; meant for development and tests
+     */
+    private boolean generateIfMissing;
+}
@@ -0,0 +1,26 @@
+package com.github.sharifrahim.onboard.crypto;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Stores a string column encrypted deterministically, so equality queries still match and can use an index. Query
+ * parameters compared against the attribute go through the same conversion.
+ */
+@Converter
+@RequiredArgsConstructor
+public class DeterministicEncryptedStringConverter implements AttributeConverter<String, String> {
+
+    private final FieldCipher fieldCipher;
+
+    @Override
+    public String convertToDatabaseColumn(String attribute) {
+        return fieldCipher.encryptDeterministic(attribute);
+    }
+
+    @Override
+    public String convertToEntityAttribute(String dbData) {
+        return fieldCipher.decrypt(dbData);
+    }
+}
@@ -0,0 +1,25 @@
+package com.github.sharifrahim.onboard.crypto;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Stores a string column encrypted with a random IV
+ */
+@Converter
+@RequiredArgsConstructor
+public class EncryptedStringConverter implements AttributeConverter<String, String> {
+
+    private final FieldCipher fieldCipher;
+
+    @Override
+    public String convertToDatabaseColumn(String attribute) {
+        return fieldCipher.encrypt(attribute);
+    }
+
+    @Override
+    public String convertToEntityAttribute(String dbData) {
+        return fieldCipher.decrypt(dbData);
+    }
+}
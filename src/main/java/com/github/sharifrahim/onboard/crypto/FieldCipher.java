@@ -0,0 +1,269 @@
+package com.github.sharifrahim.onboard.crypto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.github.sharifrahim.onboard.datasource.sharding.ShardContext;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Encrypts individual field values under per-tenant data keys derived from a master key in a local keystore.
+ * <p>
+ * The tenant is the shard bound to the current thread. Its data keys are derived once with HMAC-SHA256 and cached, and
+ * {@link Cipher}/{@link Mac} instances are reused per thread, so the per-value cost is a key init plus the AES work.
+ * Randomized values use AES-GCM with a random IV. Deterministic values use a synthetic IV (HMAC of the plaintext) with
+ * AES-CTR, so equal plaintexts of a tenant encrypt equally and can be matched through an index. Ciphertext is stored as
+ * {@code <mode>:<tenant>:<base64>}; values without that prefix are treated as legacy plaintext. Indexes kept outside
+ * the database get a one-way blind index token instead, which is the same on every tenant.
+ */
+@Component
+@EnableConfigurationProperties(CryptoProperties.class)
+@Slf4j
+public class FieldCipher {
+
+    static final String RANDOMIZED = "ENC1";
+    static final String DETERMINISTIC = "DET1";
+
+    private static final String DEFAULT_TENANT = "default";
+    private static final int GCM_IV_LENGTH = 12;
+    private static final int GCM_TAG_BITS = 128;
+    private static final int SIV_LENGTH = 16;
+
+    private static final ThreadLocal<Cipher> GCM = ThreadLocal.withInitial(() -> cipher("AES/GCM/NoPadding"));
+    private static final ThreadLocal<Cipher> CTR = ThreadLocal.withInitial(() -> cipher("AES/CTR/NoPadding"));
+    private static final ThreadLocal<Mac> HMAC = ThreadLocal.withInitial(FieldCipher::hmac);
+
+    private final boolean enabled;
+    private final SecretKey masterKey;
+    private final SecretKey blindIndexKey;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, TenantKeys> tenantKeys = new ConcurrentHashMap<>();
+
+    public FieldCipher(CryptoProperties properties) throws IOException, GeneralSecurityException {
+        this.masterKey = properties.getKeystorePath() == null || properties.getKeystorePath().isBlank() ? null
+                : loadMasterKey(properties);
+        if (properties.isEnabled() && masterKey == null) {
+            throw new IllegalStateException("onboard.crypto.keystore-path is required when encryption is enabled");
+        }
+        this.enabled = properties.isEnabled();
+        this.blindIndexKey = masterKey != null ? derive("onboard-blind-index") : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Encrypt a value with a random IV
+     *
+     * @param plaintext
+     *            the value, may be null
+     *
+     * @return the ciphertext envelope, or the value itself when encryption is disabled
+     */
+    public String encrypt(String plaintext) {
+        if (!enabled || plaintext == null || isEncrypted(plaintext)) {
+            return plaintext;
+        }
+        String tenant = currentTenant();
+        byte[] iv = new byte[GCM_IV_LENGTH];
+        random.nextBytes(iv);
+        try {
+            Cipher cipher = GCM.get();
+            cipher.init(Cipher.ENCRYPT_MODE, keys(tenant).encryption(), new GCMParameterSpec(GCM_TAG_BITS, iv));
+            cipher.updateAAD(tenant.getBytes(StandardCharsets.UTF_8));
+            byte[] ciphertext = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+            return envelope(RANDOMIZED, tenant, iv, ciphertext);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to encrypt field", e);
+        }
+    }
+
+    /**
+     * Encrypt a value so that equal values of the same tenant produce equal ciphertext
+     *
+     * @param plaintext
+     *            the value, may be null
+     *
+     * @return the ciphertext envelope, or the value itself when encryption is disabled
+     */
+    public String encryptDeterministic(String plaintext) {
+        if (!enabled || plaintext == null || isEncrypted(plaintext)) {
+            return plaintext;
+        }
+        String tenant = currentTenant();
+        TenantKeys keys = keys(tenant);
+        byte[] bytes = plaintext.getBytes(StandardCharsets.UTF_8);
+        try {
+            byte[] siv = syntheticIv(keys, bytes);
+            Cipher cipher = CTR.get();
+            cipher.init(Cipher.ENCRYPT_MODE, keys.encryption(), new IvParameterSpec(siv));
+            return envelope(DETERMINISTIC, tenant, siv, cipher.doFinal(bytes));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to encrypt field", e);
+        }
+    }
+
+    /**
+     * Keyed one-way hash of a value, for equality lookups in indexes outside the database
+     *
+     * @param plaintext
+     *            the value, may be null
+     *
+     * @return the token, or the value itself when encryption is disabled
+     */
+    public String blindIndex(String plaintext) {
+        if (!enabled || plaintext == null) {
+            return plaintext;
+        }
+        try {
+            Mac mac = HMAC.get();
+            mac.init(blindIndexKey);
+            return Base64.getEncoder().encodeToString(mac.doFinal(plaintext.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to derive blind index", e);
+        }
+    }
+
+    /**
+     * Decrypt a value produced by either encryption mode; anything else is returned unchanged
+     */
+    public String decrypt(String value) {
+        if (!isEncrypted(value)) {
+            return value;
+        }
+        if (masterKey == null) {
+            throw new IllegalStateException("Encrypted field found but no keystore is configured");
+        }
+        int tenantEnd = value.indexOf(':', RANDOMIZED.length() + 1);
+        String tenant = value.substring(RANDOMIZED.length() + 1, tenantEnd);
+        byte[] payload = Base64.getDecoder().decode(value.substring(tenantEnd + 1));
+        TenantKeys keys = keys(tenant);
+        try {
+            if (value.startsWith(RANDOMIZED)) {
+                Cipher cipher = GCM.get();
+                cipher.init(Cipher.DECRYPT_MODE, keys.encryption(),
+                        new GCMParameterSpec(GCM_TAG_BITS, payload, 0, GCM_IV_LENGTH));
+                cipher.updateAAD(tenant.getBytes(StandardCharsets.UTF_8));
+                byte[] plaintext = cipher.doFinal(payload, GCM_IV_LENGTH, payload.length - GCM_IV_LENGTH);
+                return new String(plaintext, StandardCharsets.UTF_8);
+            }
+            Cipher cipher = CTR.get();
+            cipher.init(Cipher.DECRYPT_MODE, keys.encryption(), new IvParameterSpec(payload, 0, SIV_LENGTH));
+            byte[] plaintext = cipher.doFinal(payload, SIV_LENGTH, payload.length - SIV_LENGTH);
+            if (!MessageDigest.isEqual(syntheticIv(keys, plaintext), Arrays.copyOf(payload, SIV_LENGTH))) {
+                throw new GeneralSecurityException("Synthetic IV mismatch");
+            }
+            return new String(plaintext, StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to decrypt field for tenant " + tenant, e);
+        }
+    }
+
+    public static boolean isEncrypted(String value) {
+        return value != null && (value.startsWith(RANDOMIZED + ":") || value.startsWith(DETERMINISTIC + ":"));
+    }
+
+    private TenantKeys keys(String tenant) {
+        return tenantKeys.computeIfAbsent(tenant,
+                t -> new TenantKeys(derive("onboard-dek:" + t), derive("onboard-siv:" + t)));
+    }
+
+    private SecretKey derive(String label) {
+        try {
+            Mac mac = HMAC.get();
+            mac.init(masterKey);
+            return new SecretKeySpec(mac.doFinal(label.getBytes(StandardCharsets.UTF_8)), "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to derive data key", e);
+        }
+    }
+
+    private static byte[] syntheticIv(TenantKeys keys, byte[] plaintext) throws GeneralSecurityException {
+        Mac mac = HMAC.get();
+        mac.init(keys.siv());
+        return Arrays.copyOf(mac.doFinal(plaintext), SIV_LENGTH);
+    }
+
+    private static String envelope(String mode, String tenant, byte[] iv, byte[] ciphertext) {
+        byte[] payload = ByteBuffer.allocate(iv.length + ciphertext.length).put(iv).put(ciphertext).array();
+        return mode + ":" + tenant + ":" + Base64.getEncoder().encodeToString(payload);
+    }
+
+    private static String currentTenant() {
+        String shard = ShardContext.current();
+        return shard != null ? shard : DEFAULT_TENANT;
+    }
+
+    private static SecretKey loadMasterKey(CryptoProperties properties) throws IOException, GeneralSecurityException {
+        Path path = Path.of(properties.getKeystorePath());
+        char[] password = properties.getKeystorePassword().toCharArray();
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        KeyStore.PasswordProtection protection = new KeyStore.PasswordProtection(password);
+
+        if (Files.notExists(path) && properties.isGenerateIfMissing()) {
+            KeyGenerator generator = KeyGenerator.getInstance("AES");
+            generator.init(256);
+            keyStore.load(null, password);
+            keyStore.setEntry(properties.getKeyAlias(), new KeyStore.SecretKeyEntry(generator.generateKey()),
+                    protection);
+            try (OutputStream out = Files.newOutputStream(path)) {
+                keyStore.store(out, password);
+            }
+            log.warn("Generated new master key in {}", path);
+        }
+
+        try (InputStream in = Files.newInputStream(path)) {
+            keyStore.load(in, password);
+        }
+        KeyStore.Entry entry = keyStore.getEntry(properties.getKeyAlias(), protection);
+        if (!(entry instanceof KeyStore.SecretKeyEntry secretEntry)) {
+            throw new IllegalStateException("No secret key " + properties.getKeyAlias() + " in " + path);
+        }
+        return secretEntry.getSecretKey();
+    }
+
+    private static Cipher cipher(String transformation) {
+        try {
+            return Cipher.getInstance(transformation);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Mac hmac() {
+        try {
+            return Mac.getInstance("HmacSHA256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record TenantKeys(SecretKey encryption, SecretKey siv) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.sharifrahim.onboard.datasource.replica;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Remembers recently written entities so their reads stay on the primary until replicas have caught up
+ */
+public class RecentWriteTracker {
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Duration minimumWindow;
+    private final Map<Key, Long> expiries = new ConcurrentHashMap<>();
+
+    public RecentWriteTracker(ReplicaLagMonitor lagMonitor, Duration minimumWindow) {
+        this.lagMonitor = lagMonitor;
+        this.minimumWindow = minimumWindow;
+    }
+
+    /**
+     * Record a write; the entity is pinned to the primary for the larger of the configured window and the current
+     * replica lag
+     */
+    public void recordWrite(Class<?> type, Object id) {
+        if (id == null) {
+            return;
+        }
+        Duration lag = lagMonitor.getMaxServingLag();
+        Duration window = lag.compareTo(minimumWindow) > 0 ? lag : minimumWindow;
+        expiries.put(new Key(type, id), System.nanoTime() + window.toNanos());
+    }
+
+    public boolean isRecent(Class<?> type, Object id) {
+        Key key = new Key(type, id);
+        Long expiry = expiries.get(key);
+        if (expiry == null) {
+            return false;
+        }
+        if (expiry - System.nanoTime() > 0) {
+            return true;
+        }
+        expiries.remove(key, expiry);
+        return false;
+    }
+
+    /**
+     * Drop expired entries so the tracker only holds writes still inside their window
+     */
+    @Scheduled(fixedDelayString = "${onboard.read-replicas.purge-interval:PT30S}")
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        expiries.entrySet().removeIf(entry -> entry.getValue() - now <= 0);
+    }
+
+    private record Key(Class<?> type, Object id) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.sharifrahim.onboard.datasource.replica;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.github.sharifrahim.onboard.datasource.sharding.ShardingProperties;
+
+/**
+ * Wires read/write splitting when {@code onboard.read-replicas.enabled} is set: read-only transactions go to replicas
+ * within the lag budget, writes and read-your-writes reads go to the {@code spring.datasource} primary
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+@ConditionalOnProperty(prefix = "onboard.read-replicas", name = "enabled", havingValue = "true")
+public class ReplicaConfig {
+
+    @Bean
+    public ReplicaDataSources replicaDataSources(DataSourceProperties primaryProperties, ReplicaProperties properties,
+            ShardingProperties shardingProperties) {
+        if (shardingProperties.isEnabled()) {
+            throw new IllegalStateException("Read replicas cannot be combined with onboard.sharding");
+        }
+        if (properties.getNodes().isEmpty()) {
+            throw new IllegalStateException("onboard.read-replicas.enabled is set but no nodes are configured");
+        }
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (ReplicaProperties.Node node : properties.getNodes()) {
+            replicas.put(node.getName(), DataSourceBuilder.create().url(node.getUrl()).username(node.getUsername())
+                    .password(node.getPassword()).build());
+        }
+        return new ReplicaDataSources(primaryProperties.initializeDataSourceBuilder().build(), replicas);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaDataSources dataSources, ReplicaProperties properties) {
+        Map<String, JdbcTemplate> replicas = new LinkedHashMap<>();
+        dataSources.replicas().forEach((name, dataSource) -> replicas.put(name, new JdbcTemplate(dataSource)));
+        return new ReplicaLagMonitor(new JdbcTemplate(dataSources.primary()), replicas, properties.getMaxLag());
+    }
+
+    @Bean
+    public RecentWriteTracker recentWriteTracker(ReplicaLagMonitor lagMonitor, ReplicaProperties properties) {
+        return new RecentWriteTracker(lagMonitor, properties.getReadYourWritesWindow());
+    }
+
+    /**
+     * Lazy so the routing decision is made at the first statement, after the transaction's read-only flag is known
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaDataSources dataSources, ReplicaLagMonitor lagMonitor) {
+        Map<Object, Object> targets = new HashMap<>(dataSources.replicas());
+        targets.put(ReplicaRoutingDataSource.PRIMARY, dataSources.primary());
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(lagMonitor);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(dataSources.primary());
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public static BeanPostProcessor replicaRoutingRepositoryPostProcessor(
+            ObjectProvider<RecentWriteTracker> writeTracker) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory
+                            .addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> proxyFactory
+                                    .addAdvice(0, new ReplicaRoutingInterceptor(repositoryInformation.getDomainType(),
+                                            writeTracker.getObject()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.sharifrahim.onboard.datasource.replica;
+
+import java.util.function.Supplier;
+
+/**
+ * Lets the current thread pin read-only work to the primary
+ */
+public final class ReplicaContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+    private ReplicaContext() {
+    }
+
+    public static boolean isPrimaryForced() {
+        return Boolean.TRUE.equals(PRIMARY_FORCED.get());
+    }
+
+    /**
+     * Run read-only work on the primary, for reads that must not see a lagging replica
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        boolean previous = forcePrimary();
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    static boolean forcePrimary() {
+        boolean previous = isPrimaryForced();
+        PRIMARY_FORCED.set(Boolean.TRUE);
+        return previous;
+    }
+
+    static void restore(boolean previous) {
+        if (!previous) {
+            PRIMARY_FORCED.remove();
+        }
+    }
+}
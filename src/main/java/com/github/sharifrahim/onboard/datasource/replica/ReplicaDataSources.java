@@ -0,0 +1,11 @@
+package com.github.sharifrahim.onboard.datasource.replica;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+/**
+ * Physical primary and replica DataSources, replicas keyed by node name
+ */
+public record ReplicaDataSources(DataSource primary, Map<String, DataSource> replicas) {
+}
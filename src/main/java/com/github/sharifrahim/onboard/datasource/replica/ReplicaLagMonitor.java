@@ -0,0 +1,91 @@
+package com.github.sharifrahim.onboard.datasource.replica;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bumps the heartbeat row on the primary and measures how far each replica's copy of it lags behind
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final Duration UNKNOWN = Duration.ofDays(1);
+
+    private final JdbcTemplate primary;
+    private final Map<String, JdbcTemplate> replicas;
+    private final Duration maxLag;
+    private final Map<String, Duration> lags = new ConcurrentHashMap<>();
+    private volatile List<String> healthyReplicas = List.of();
+
+    public ReplicaLagMonitor(JdbcTemplate primary, Map<String, JdbcTemplate> replicas, Duration maxLag) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.maxLag = maxLag;
+    }
+
+    @Scheduled(fixedDelayString = "${onboard.read-replicas.heartbeat-interval:PT1S}")
+    public void beat() {
+        primary.update("UPDATE replication_heartbeat SET beat_at = ? WHERE id = 1", Timestamp.valueOf(now()));
+        refresh();
+    }
+
+    /**
+     * Re-read every replica's heartbeat and recompute the set of replicas within the lag budget
+     */
+    public void refresh() {
+        List<String> healthy = new ArrayList<>();
+        replicas.forEach((name, jdbc) -> {
+            Duration lag = measure(name, jdbc);
+            lags.put(name, lag);
+            if (lag.compareTo(maxLag) <= 0) {
+                healthy.add(name);
+            }
+        });
+        if (healthy.size() != healthyReplicas.size()) {
+            log.info("Healthy replicas changed: {} (lags: {})", healthy, lags);
+        }
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    public List<String> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+
+    /**
+     * Get the worst lag among the replicas currently serving reads
+     *
+     * @return the lag, zero when no replica is serving reads
+     */
+    public Duration getMaxServingLag() {
+        return healthyReplicas.stream().map(lags::get).max(Duration::compareTo).orElse(Duration.ZERO);
+    }
+
+    private Duration measure(String name, JdbcTemplate jdbc) {
+        try {
+            Timestamp beatAt = jdbc.queryForObject("SELECT beat_at FROM replication_heartbeat WHERE id = 1",
+                    Timestamp.class);
+            if (beatAt == null) {
+                return UNKNOWN;
+            }
+            Duration lag = Duration.between(beatAt.toLocalDateTime(), now());
+            return lag.isNegative() ? Duration.ZERO : lag;
+        } catch (RuntimeException e) {
+            log.warn("Replica {} heartbeat unavailable: {}", name, e.getMessage());
+            return UNKNOWN;
+        }
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now();
+    }
+}
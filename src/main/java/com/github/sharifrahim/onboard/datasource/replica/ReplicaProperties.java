@@ -0,0 +1,43 @@
+package com.github.sharifrahim.onboard.datasource.replica;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuration of the read replicas used for read-only transactions
+ */
+@Data
+@ConfigurationProperties(prefix = "onboard.read-replicas")
+public class ReplicaProperties {
+
+    private boolean enabled;
+
+    private List<Node> nodes = new ArrayList<>();
+
+    /**
+     * Replicas lagging further behind the primary than this are skipped
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * Minimum time reads of a freshly written entity stay on the primary; stretched to the observed replica lag
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(2);
+
+    @Data
+    public static class Node {
+
+        private String name;
+
+        private String url;
+
+        private String username;
+
+        private String password;
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.sharifrahim.onboard.datasource.replica;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.domain.Company;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Records repository writes and pins by-id reads of recently written entities to the primary
+ */
+@RequiredArgsConstructor
+public class ReplicaRoutingInterceptor implements MethodInterceptor {
+
+    private final Class<?> domainType;
+    private final RecentWriteTracker writeTracker;
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String name = invocation.getMethod().getName();
+        Object[] arguments = invocation.getArguments();
+        Object first = arguments.length > 0 ? arguments[0] : null;
+
+        if (name.startsWith("save")) {
+            Object result = invocation.proceed();
+            recordWrites(result);
+            return result;
+        }
+
+        if (first != null && name.endsWith("ById") && writeTracker.isRecent(domainType, first)) {
+            boolean previous = ReplicaContext.forcePrimary();
+            try {
+                return invocation.proceed();
+            } finally {
+                ReplicaContext.restore(previous);
+            }
+        }
+
+        return invocation.proceed();
+    }
+
+    private void recordWrites(Object result) {
+        if (result instanceof Iterable<?> entities) {
+            entities.forEach(this::recordWrite);
+        } else {
+            recordWrite(result);
+        }
+    }
+
+    private void recordWrite(Object entity) {
+        if (entity instanceof Company company) {
+            writeTracker.recordWrite(Company.class, company.getId());
+        } else if (entity instanceof Approval approval) {
+            writeTracker.recordWrite(Approval.class, approval.getId());
+            writeTracker.recordWrite(Company.class, approval.getDataId());
+        }
+    }
+}
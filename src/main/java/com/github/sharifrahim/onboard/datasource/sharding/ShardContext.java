@@ -0,0 +1,56 @@
+package com.github.sharifrahim.onboard.datasource.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the shard bound to the current thread
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * Get the shard bound to the current thread
+     *
+     * @return the shard name, or null if none is bound
+     */
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run the supplier with the given shard bound, restoring the previous binding afterwards
+     *
+     * @param shard
+     *            the shard name
+     * @param supplier
+     *            the work to run
+     *
+     * @return the supplier result
+     */
+    public static <T> T callOn(String shard, Supplier<T> supplier) {
+        String previous = bind(shard);
+        try {
+            return supplier.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    static String bind(String shard) {
+        String previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.github.sharifrahim.onboard.datasource.sharding;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+/**
+ * Physical DataSource of every shard, keyed by shard name in index order
+ */
+public record ShardDataSources(Map<String, DataSource> byName) {
+}
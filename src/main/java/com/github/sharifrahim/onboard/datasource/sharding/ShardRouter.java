@@ -0,0 +1,164 @@
+package com.github.sharifrahim.onboard.datasource.sharding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import com.github.sharifrahim.onboard.domain.Company;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Resolves the shard owning a company or approval and fans queries out across shards. When sharding is disabled every
+ * operation runs directly against the single database.
+ */
+@Component
+@Slf4j
+public class ShardRouter implements DisposableBean {
+
+    private final ShardingProperties properties;
+    private final List<String> shardNames;
+    private final ExecutorService scatterExecutor;
+
+    public ShardRouter(ShardingProperties properties) {
+        this.properties = properties;
+        this.shardNames = properties.isEnabled()
+                ? properties.getShards().stream().map(ShardingProperties.Shard::getName).toList() : List.of();
+        this.scatterExecutor = shardNames.size() > 1 ? Executors.newFixedThreadPool(shardNames.size(), r -> {
+            Thread thread = new Thread(r, "shard-scatter");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    public boolean isEnabled() {
+        return !shardNames.isEmpty();
+    }
+
+    /**
+     * Get all shard names in index order
+     *
+     * @return the shard names, empty when sharding is disabled
+     */
+    public List<String> getShards() {
+        return shardNames;
+    }
+
+    public String getDefaultShard() {
+        if (!isEnabled()) {
+            return null;
+        }
+        return properties.getDefaultShard() != null ? properties.getDefaultShard() : shardNames.get(0);
+    }
+
+    /**
+     * Find the shard that stores companies of the given country
+     *
+     * @param country
+     *            the company country, may be null
+     *
+     * @return the shard name, or null when sharding is disabled
+     */
+    public String shardForCountry(String country) {
+        if (!isEnabled()) {
+            return null;
+        }
+        String shard = country != null ? properties.getCountries().get(country.trim().toUpperCase()) : null;
+        return shard != null ? shard : getDefaultShard();
+    }
+
+    /**
+     * Find the shard that issued the given company or approval id. Shard k of n issues ids k+1, k+1+n, ...
+     *
+     * @param id
+     *            the entity id
+     *
+     * @return the shard name, or null when sharding is disabled
+     */
+    public String shardForId(Long id) {
+        if (!isEnabled()) {
+            return null;
+        }
+        if (id == null || id < 1) {
+            return getDefaultShard();
+        }
+        return shardNames.get((int) ((id - 1) % shardNames.size()));
+    }
+
+    /**
+     * Find the shard owning a company, preferring its id over its country
+     */
+    public String shardForCompany(Company company) {
+        if (company == null) {
+            return getDefaultShard();
+        }
+        return company.getId() != null ? shardForId(company.getId()) : shardForCountry(company.getCountry());
+    }
+
+    /**
+     * Run the supplier with the given shard bound
+     */
+    public <T> T onShard(String shard, Supplier<T> supplier) {
+        if (!isEnabled()) {
+            return supplier.get();
+        }
+        return ShardContext.callOn(shard, supplier);
+    }
+
+    /**
+     * Run the task once per shard with that shard bound, or once when sharding is disabled
+     */
+    public void forEachShard(Runnable task) {
+        if (!isEnabled()) {
+            task.run();
+            return;
+        }
+        for (String shard : shardNames) {
+            ShardContext.callOn(shard, () -> {
+                task.run();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Run a query on every shard in parallel and concatenate the results in shard order
+     *
+     * @param query
+     *            the query to run, executed once per shard with that shard bound
+     *
+     * @return the combined results
+     */
+    public <T> List<T> scatterGather(Supplier<List<T>> query) {
+        if (!isEnabled()) {
+            return query.get();
+        }
+        if (scatterExecutor == null) {
+            return ShardContext.callOn(shardNames.get(0), query);
+        }
+
+        List<CompletableFuture<List<T>>> futures = shardNames.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> ShardContext.callOn(shard, query), scatterExecutor))
+                .toList();
+
+        List<T> results = new ArrayList<>();
+        for (CompletableFuture<List<T>> future : futures) {
+            results.addAll(future.join());
+        }
+        log.debug("Gathered {} rows from {} shards", results.size(), shardNames.size());
+        return results;
+    }
+
+    @Override
+    public void destroy() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.github.sharifrahim.onboard.datasource.sharding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.domain.Company;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Binds the owning shard around repository calls that do not already run inside a shard context. The shard is derived
+ * from the entity or id argument. Lookups without a shard key, such as {@code findByRegistrationNumber} or
+ * {@code existsByRegistrationKey}, run on every shard and their results are combined; anything else goes to the default
+ * shard.
+ */
+@RequiredArgsConstructor
+public class ShardRoutingInterceptor implements MethodInterceptor {
+
+    private static final List<String> LOOKUP_PREFIXES = List.of("find", "exists", "count", "get", "read", "query");
+
+    private final ObjectProvider<ShardRouter> shardRouter;
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (ShardContext.current() != null) {
+            return invocation.proceed();
+        }
+
+        ShardRouter router = shardRouter.getObject();
+        String shard = resolveShard(router, invocation);
+        if (shard == null && isScatterable(invocation)) {
+            return scatter(router, (ProxyMethodInvocation) invocation);
+        }
+
+        String previous = ShardContext.bind(shard != null ? shard : router.getDefaultShard());
+        try {
+            return invocation.proceed();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    /**
+     * Find the shard named by the entity or id argument
+     *
+     * @return the shard, or null if the call carries no shard key
+     */
+    private static String resolveShard(ShardRouter router, MethodInvocation invocation) {
+        Object[] arguments = invocation.getArguments();
+        Object first = arguments.length > 0 ? arguments[0] : null;
+
+        if (first instanceof Company company) {
+            return router.shardForCompany(company);
+        }
+        if (first instanceof Approval approval) {
+            return router.shardForId(approval.getId() != null ? approval.getId() : approval.getDataId());
+        }
+        if (first instanceof Long id && invocation.getMethod().getName().endsWith("ById")) {
+            return router.shardForId(id);
+        }
+        return null;
+    }
+
+    /**
+     * Lookups whose results can be combined across shards. Paged and sorted queries stay on the default shard, since
+     * concatenated pages would break their limit and order; their callers iterate the shards themselves.
+     */
+    private static boolean isScatterable(MethodInvocation invocation) {
+        if (!(invocation instanceof ProxyMethodInvocation)) {
+            return false;
+        }
+        String name = invocation.getMethod().getName();
+        if (LOOKUP_PREFIXES.stream().noneMatch(name::startsWith)) {
+            return false;
+        }
+        for (Object argument : invocation.getArguments()) {
+            if (argument instanceof Pageable || argument instanceof Sort) {
+                return false;
+            }
+        }
+        Class<?> type = invocation.getMethod().getReturnType();
+        return type == Optional.class || type == boolean.class || type == Boolean.class || type == long.class
+                || type == Long.class || List.class.isAssignableFrom(type) || type == Collection.class;
+    }
+
+    private static Object scatter(ShardRouter router, ProxyMethodInvocation invocation) throws Throwable {
+        List<Object> results;
+        try {
+            // a method invocation can only proceed once, so every shard gets its own clone
+            results = router.scatterGather(() -> Collections.singletonList(proceed(invocation.invocableClone())));
+        } catch (RuntimeException e) {
+            Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+            throw cause instanceof ScatterException scatter ? scatter.getCause() : cause;
+        }
+
+        Class<?> type = invocation.getMethod().getReturnType();
+        if (type == Optional.class) {
+            return results.stream().map(Optional.class::cast).filter(Optional::isPresent).findFirst()
+                    .orElse(Optional.empty());
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return results.stream().anyMatch(Boolean.TRUE::equals);
+        }
+        if (type == long.class || type == Long.class) {
+            return results.stream().mapToLong(result -> result != null ? (Long) result : 0).sum();
+        }
+        List<Object> combined = new ArrayList<>();
+        results.stream().filter(result -> result != null).forEach(result -> combined.addAll((Collection<?>) result));
+        return combined;
+    }
+
+    private static Object proceed(MethodInvocation invocation) {
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            throw new ScatterException(e);
+        }
+    }
+
+    private static class ScatterException extends RuntimeException {
+
+        ScatterException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.sharifrahim.onboard.datasource.sharding;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Wires the shard routing DataSource, per-shard Flyway migrations and transparent repository routing when
+ * {@code onboard.sharding.enabled} is set
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@Slf4j
+public class ShardingConfig {
+
+    private static final String SHARD_MIGRATIONS = "classpath:db/shard";
+
+    @Bean
+    @ConditionalOnProperty(prefix = "onboard.sharding", name = "enabled", havingValue = "true")
+    public ShardDataSources shardDataSources(ShardingProperties properties) {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("onboard.sharding.enabled is set but no shards are configured");
+        }
+
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        for (ShardingProperties.Shard shard : properties.getShards()) {
+            dataSources.put(shard.getName(), DataSourceBuilder.create().url(shard.getUrl())
+                    .username(shard.getUsername()).password(shard.getPassword()).build());
+        }
+        return new ShardDataSources(dataSources);
+    }
+
+    /**
+     * The routing DataSource is wrapped in a lazy proxy so the physical connection is only fetched at the first
+     * statement, after the repository call has bound its shard
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "onboard.sharding", name = "enabled", havingValue = "true")
+    public DataSource dataSource(ShardDataSources shardDataSources, ShardRouter shardRouter) {
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(new HashMap<>(shardDataSources.byName()));
+        routing.setDefaultTargetDataSource(shardDataSources.byName().get(shardRouter.getDefaultShard()));
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * Runs the regular migrations plus the shard identity layout on every shard instead of the routing DataSource
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "onboard.sharding", name = "enabled", havingValue = "true")
+    public FlywayMigrationStrategy shardedFlywayMigrationStrategy(ShardDataSources shardDataSources) {
+        Map<String, DataSource> shards = shardDataSources.byName();
+        return flyway -> {
+            int index = 0;
+            for (Map.Entry<String, DataSource> shard : shards.entrySet()) {
+                Map<String, String> placeholders = new HashMap<>(flyway.getConfiguration().getPlaceholders());
+                placeholders.put("shardIdStart", String.valueOf(index + 1));
+                placeholders.put("shardIdStep", String.valueOf(shards.size()));
+
+                log.info("Migrating shard {} ({} of {})", shard.getKey(), index + 1, shards.size());
+                Flyway.configure().configuration(flyway.getConfiguration()).dataSource(shard.getValue())
+                        .locations(withShardLocation(flyway)).placeholders(placeholders).load().migrate();
+                index++;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "onboard.sharding", name = "enabled", havingValue = "true")
+    public static BeanPostProcessor shardRoutingRepositoryPostProcessor(ObjectProvider<ShardRouter> shardRouter) {
+        ShardRoutingInterceptor interceptor = new ShardRoutingInterceptor(shardRouter);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(0, interceptor)));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static String[] withShardLocation(Flyway flyway) {
+        var locations = flyway.getConfiguration().getLocations();
+        String[] result = new String[locations.length + 1];
+        for (int i = 0; i < locations.length; i++) {
+            result[i] = locations[i].getDescriptor();
+        }
+        result[locations.length] = SHARD_MIGRATIONS;
+        return result;
+    }
+}
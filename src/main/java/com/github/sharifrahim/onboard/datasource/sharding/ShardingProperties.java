@@ -0,0 +1,47 @@
+package com.github.sharifrahim.onboard.datasource.sharding;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuration of the country-based shards for company and approval data
+ */
+@Data
+@ConfigurationProperties(prefix = "onboard.sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+
+    /**
+     * Shard used for countries without an explicit mapping; defaults to the first shard
+     */
+    private String defaultShard;
+
+    /**
+     * Shards in index order. The order is part of the id layout and must not change once data exists
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * Country to shard name mapping
+     */
+    private Map<String, String> countries = new HashMap<>();
+
+    @Data
+    public static class Shard {
+
+        private String name;
+
+        private String url;
+
+        private String username;
+
+        private String password;
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.sharifrahim.onboard.domain;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -10,6 +11,13 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.github.sharifrahim.onboard.crypto.ApprovalPayloadConverter;
+import com.github.sharifrahim.onboard.crypto.DeterministicEncryptedStringConverter;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -48,9 +56,29 @@ public class Approval {
 
     private LocalDateTime approvedAt;
 
+    private LocalDateTime escalatedAt;
+
+    /**
+     * Normalized registration number of the submitted company, for duplicate lookups
+     */
+    @JsonIgnore
+    @Convert(converter = DeterministicEncryptedStringConverter.class)
+    private String registrationKey;
+
+    /**
+     * Normalized tax id of the submitted company, for duplicate lookups
+     */
+    @JsonIgnore
+    @Convert(converter = DeterministicEncryptedStringConverter.class)
+    private String taxIdKey;
+
+    @Convert(converter = ApprovalPayloadConverter.class)
+    @JdbcTypeCode(SqlTypes.JSON)
     @Column(columnDefinition = "jsonb")
     private String newData;
 
+    @Convert(converter = ApprovalPayloadConverter.class)
+    @JdbcTypeCode(SqlTypes.JSON)
     @Column(columnDefinition = "jsonb")
     private String oldData;
 
@@ -59,7 +87,7 @@ public class Approval {
     private String remarks;
 
     public enum Type {
-        CREATE_COMPANY
+        CREATE_COMPANY, UPDATE_CONTACT_INFO, UPDATE_OPERATIONAL_INFO
     }
 
     public enum OperationType {
@@ -67,6 +95,6 @@ public class Approval {
     }
 
     public enum ApprovalStatus {
-        PENDING, APPROVED, REJECTED
+        PENDING, APPROVED, REJECTED, EXPIRED
     }
 }
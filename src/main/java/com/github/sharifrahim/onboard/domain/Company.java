@@ -1,17 +1,25 @@
 package com.github.sharifrahim.onboard.domain;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Lob;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.EnumType;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.github.sharifrahim.onboard.crypto.DeterministicEncryptedStringConverter;
+import com.github.sharifrahim.onboard.crypto.EncryptedStringConverter;
 import com.github.sharifrahim.onboard.domain.ProgressState;
+import com.github.sharifrahim.onboard.duplicate.DuplicateKeys;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -32,6 +40,7 @@ public class Company {
 
     private String name;
 
+    @Convert(converter = DeterministicEncryptedStringConverter.class)
     private String registrationNumber;
 
     private String entityType;
@@ -49,6 +58,15 @@ public class Company {
     @Enumerated(EnumType.STRING)
     private ProgressState progressState;
 
+    private LocalDateTime progressUpdatedAt;
+
+    /**
+     * Workflow the company onboards through, fixed when onboarding starts
+     */
+    private String workflowName;
+
+    private Integer workflowVersion;
+
     private String companySize;
 
     @Lob
@@ -59,6 +77,7 @@ public class Company {
 
     private String mainContactEmail;
 
+    @Convert(converter = EncryptedStringConverter.class)
     private String mainContactPhone;
 
     private String contactPersonRole;
@@ -71,14 +90,17 @@ public class Company {
 
     private String authorizedPersons;
 
+    @Convert(converter = EncryptedStringConverter.class)
     private String emergencyContactNumber;
 
     private String preferredLanguage;
 
+    @Convert(converter = EncryptedStringConverter.class)
     private String taxIdNumber;
 
     private String bankName;
 
+    @Convert(converter = EncryptedStringConverter.class)
     private String bankAccountNumber;
 
     private String preferredPaymentMethod;
@@ -94,4 +116,25 @@ public class Company {
     private Boolean agreedToTermsOfService;
 
     private LocalDate agreedOnboardingDate;
+
+    /**
+     * Normalized registration number used for duplicate lookups
+     */
+    @JsonIgnore
+    @Convert(converter = DeterministicEncryptedStringConverter.class)
+    private String registrationKey;
+
+    /**
+     * Normalized tax id used for duplicate lookups
+     */
+    @JsonIgnore
+    @Convert(converter = DeterministicEncryptedStringConverter.class)
+    private String taxIdKey;
+
+    @PrePersist
+    @PreUpdate
+    public void deriveLookupKeys() {
+        registrationKey = DuplicateKeys.normalize(registrationNumber);
+        taxIdKey = DuplicateKeys.normalize(taxIdNumber);
+    }
 }
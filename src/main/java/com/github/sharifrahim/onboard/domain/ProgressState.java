@@ -1,13 +1,8 @@
 package com.github.sharifrahim.onboard.domain;
 
+/**
+ * Onboarding steps. Which steps a company goes through, and in what order, is up to its workflow definition.
+ */
 public enum ProgressState {
-    PROFILE, CONTACT, OPERATIONS, COMPLETED;
-
-    public ProgressState next() {
-        return switch (this) {
-        case PROFILE -> CONTACT;
-        case CONTACT -> OPERATIONS;
-        case OPERATIONS, COMPLETED -> COMPLETED;
-        };
-    }
+    PROFILE, CONTACT, OPERATIONS, COMPLETED
 }
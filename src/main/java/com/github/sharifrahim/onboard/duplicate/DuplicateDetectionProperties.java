@@ -0,0 +1,38 @@
+package com.github.sharifrahim.onboard.duplicate;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuration of duplicate company detection
+ */
+@Data
+@ConfigurationProperties(prefix = "onboard.duplicates")
+public class DuplicateDetectionProperties {
+
+    /**
+     * Number of identifiers the bloom filter is sized for
+     */
+    private long expectedKeys = 1_000_000;
+
+    /**
+     * Probability that a new identifier still needs a database lookup
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * Minimum trigram similarity for a pending company name to be reported
+     */
+    private double nameSimilarity = 0.5;
+
+    private int maxNameMatches = 10;
+
+    /**
+     * How often the filter and name index are rebuilt from the database, picking up other nodes' writes and dropping
+     * decided approvals
+     */
+    private Duration rebuildInterval = Duration.ofMinutes(10);
+}
@@ -0,0 +1,223 @@
+package com.github.sharifrahim.onboard.duplicate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sharifrahim.onboard.datasource.sharding.ShardRouter;
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.event.ApprovalSubmittedEvent;
+import com.github.sharifrahim.onboard.event.CompanyChangedEvent;
+import com.github.sharifrahim.onboard.repository.ApprovalRepository;
+import com.github.sharifrahim.onboard.repository.CompanyRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Finds companies and pending approvals that duplicate a new submission.
+ * <p>
+ * Registration numbers and tax ids are checked against an in-memory bloom filter of normalized keys first; only keys
+ * the filter may contain are looked up through the indexed key columns, so most genuinely new submissions never query
+ * the database. The filter and the trigram index over pending company names are updated from committed local writes and
+ * refreshed from the database periodically, which picks up other nodes' writes and drops decided approvals. Until a
+ * refresh, a key submitted on another node can be missed.
+ * <p>
+ * A refresh builds a new filter from the key columns while local writes go to both the current and the new filter, so
+ * no key is lost when the new one is swapped in. The name index is reconciled in place: only payloads of pending
+ * creations it does not hold yet are read.
+ */
+@Component
+@EnableConfigurationProperties(DuplicateDetectionProperties.class)
+@Slf4j
+public class DuplicateDetector {
+
+    private static final String REGISTRATION = "R:";
+    private static final String TAX_ID = "T:";
+
+    private final CompanyRepository companyRepository;
+    private final ApprovalRepository approvalRepository;
+    private final ShardRouter shardRouter;
+    private final ObjectMapper objectMapper;
+    private final DuplicateDetectionProperties properties;
+    private final Counter filtered;
+    private final Counter queried;
+    private volatile BloomFilter keys;
+    /** The filter being built by a refresh, which also receives local writes until it replaces {@link #keys} */
+    private volatile BloomFilter rebuilding;
+    private final TrigramNameIndex pendingNames = new TrigramNameIndex();
+
+    public DuplicateDetector(CompanyRepository companyRepository, ApprovalRepository approvalRepository,
+            ShardRouter shardRouter, ObjectMapper objectMapper, DuplicateDetectionProperties properties,
+            MeterRegistry meterRegistry) {
+        this.companyRepository = companyRepository;
+        this.approvalRepository = approvalRepository;
+        this.shardRouter = shardRouter;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.keys = newFilter();
+        this.filtered = lookups(meterRegistry, "filtered");
+        this.queried = lookups(meterRegistry, "queried");
+    }
+
+    /**
+     * Check whether a company or pending approval on the current shard already uses the registration number
+     */
+    public boolean isRegistrationNumberTaken(String registrationNumber) {
+        String key = DuplicateKeys.normalize(registrationNumber);
+        if (key == null || !mightExist(REGISTRATION + key)) {
+            return false;
+        }
+        return companyRepository.existsByRegistrationKey(key)
+                || approvalRepository.existsByRegistrationKeyAndApprovalStatus(key, Approval.ApprovalStatus.PENDING);
+    }
+
+    /**
+     * Check whether another company, or a pending approval for another company, already uses the tax id
+     */
+    public boolean isTaxIdTaken(String taxIdNumber, Long companyId) {
+        String key = DuplicateKeys.normalize(taxIdNumber);
+        if (key == null || !mightExist(TAX_ID + key)) {
+            return false;
+        }
+        return companyRepository.existsByTaxIdKeyAndIdNot(key, companyId) || approvalRepository
+                .existsByTaxIdKeyAndApprovalStatusAndDataIdNot(key, Approval.ApprovalStatus.PENDING, companyId);
+    }
+
+    /**
+     * Find pending company creations with a similar name
+     */
+    public List<NameMatch> findSimilarPendingNames(String name) {
+        return pendingNames.similar(name, properties.getNameSimilarity(), properties.getMaxNameMatches());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onApprovalSubmitted(ApprovalSubmittedEvent event) {
+        Approval approval = event.approval();
+        add(approval.getRegistrationKey(), approval.getTaxIdKey());
+        if (isPendingCreation(approval) && event.company() != null) {
+            pendingNames.put(approval.getId(), event.company().getName());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCompanyChanged(CompanyChangedEvent event) {
+        Company company = event.company();
+        add(DuplicateKeys.normalize(company.getRegistrationNumber()),
+                DuplicateKeys.normalize(company.getTaxIdNumber()));
+        if (event.approval() != null) {
+            pendingNames.remove(event.approval().getId());
+        }
+    }
+
+    /**
+     * Rebuild the filter and refresh the name index from every shard, deriving keys for rows written before they
+     * existed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${onboard.duplicates.rebuild-interval:PT10M}", fixedDelayString = "${onboard.duplicates.rebuild-interval:PT10M}")
+    public synchronized void rebuild() {
+        BloomFilter filter = newFilter();
+        // from here on local writes reach the new filter too, so none is lost between the reads and the swap
+        rebuilding = filter;
+        Set<Long> indexed = pendingNames.ids();
+        Set<Long> pending = new HashSet<>();
+        try {
+            shardRouter.forEachShard(() -> {
+                backfillCompanyKeys();
+                companyRepository.findRegistrationKeys().forEach(key -> filter.put(REGISTRATION + key));
+                companyRepository.findTaxIdKeys().forEach(key -> filter.put(TAX_ID + key));
+                approvalRepository.findPendingRegistrationKeys().forEach(key -> filter.put(REGISTRATION + key));
+                approvalRepository.findPendingTaxIdKeys().forEach(key -> filter.put(TAX_ID + key));
+
+                List<Long> ids = approvalRepository.findPendingCreationIds();
+                pending.addAll(ids);
+                List<Long> missing = ids.stream().filter(id -> !indexed.contains(id)).toList();
+                for (Approval approval : approvalRepository.findAllById(missing)) {
+                    pendingNames.put(approval.getId(), nameOf(approval));
+                }
+            });
+            keys = filter;
+        } finally {
+            rebuilding = null;
+        }
+        // names indexed since the refresh started are left alone; they were pending when they were added
+        indexed.stream().filter(id -> !pending.contains(id)).forEach(pendingNames::remove);
+        log.info("Rebuilt duplicate detection with {} pending company names", pendingNames.size());
+    }
+
+    private void backfillCompanyKeys() {
+        List<Company> missing = companyRepository.findMissingLookupKeys();
+        if (!missing.isEmpty()) {
+            missing.forEach(Company::deriveLookupKeys);
+            companyRepository.saveAll(missing);
+            log.info("Derived duplicate lookup keys for {} companies", missing.size());
+        }
+    }
+
+    private boolean mightExist(String key) {
+        if (!keys.mightContain(key)) {
+            filtered.increment();
+            return false;
+        }
+        queried.increment();
+        return true;
+    }
+
+    private void add(String registrationKey, String taxIdKey) {
+        // read the refresh's filter first: once it is cleared, keys already holds the new filter
+        BloomFilter next = rebuilding;
+        put(keys, registrationKey, taxIdKey);
+        if (next != null) {
+            put(next, registrationKey, taxIdKey);
+        }
+    }
+
+    private static void put(BloomFilter filter, String registrationKey, String taxIdKey) {
+        if (registrationKey != null) {
+            filter.put(REGISTRATION + registrationKey);
+        }
+        if (taxIdKey != null) {
+            filter.put(TAX_ID + taxIdKey);
+        }
+    }
+
+    private static boolean isPendingCreation(Approval approval) {
+        return approval.getType() == Approval.Type.CREATE_COMPANY
+                && approval.getOperationType() == Approval.OperationType.NEW;
+    }
+
+    private String nameOf(Approval approval) {
+        try {
+            JsonNode name = approval.getNewData() != null ? objectMapper.readTree(approval.getNewData()).get("name")
+                    : null;
+            return name != null ? name.asText() : null;
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping unreadable payload of approval {}", approval.getId());
+            return null;
+        }
+    }
+
+    private BloomFilter newFilter() {
+        return BloomFilter.create(properties.getExpectedKeys(), properties.getFalsePositiveRate());
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("onboard.duplicates.lookups")
+                .description("Duplicate identifier checks, by whether the bloom filter avoided the query")
+                .tag("result", result).register(meterRegistry);
+    }
+}
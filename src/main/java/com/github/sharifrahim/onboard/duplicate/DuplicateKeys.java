@@ -0,0 +1,25 @@
+package com.github.sharifrahim.onboard.duplicate;
+
+import java.util.Locale;
+
+/**
+ * Normalizes identifiers so that formatting differences do not hide duplicates
+ */
+public final class DuplicateKeys {
+
+    private DuplicateKeys() {
+    }
+
+    /**
+     * Upper-case the value and drop everything but letters and digits, e.g. "reg-001 / a" becomes "REG001A"
+     *
+     * @return the key, or null when the value has no letters or digits
+     */
+    public static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String key = value.toUpperCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]", "");
+        return key.isEmpty() ? null : key;
+    }
+}
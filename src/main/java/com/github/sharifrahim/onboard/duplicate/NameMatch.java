@@ -0,0 +1,14 @@
+package com.github.sharifrahim.onboard.duplicate;
+
+/**
+ * A pending company creation whose name resembles a queried name
+ *
+ * @param approvalId
+ *            the pending approval
+ * @param name
+ *            the company name in that approval
+ * @param similarity
+ *            trigram Jaccard similarity between 0 and 1
+ */
+public record NameMatch(Long approvalId, String name, double similarity) {
+}
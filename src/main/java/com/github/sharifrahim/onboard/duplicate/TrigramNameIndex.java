@@ -0,0 +1,117 @@
+package com.github.sharifrahim.onboard.duplicate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inverted index from character trigrams to company names, answering "which names look like this one" by Jaccard
+ * similarity of their trigram sets. Only names sharing at least one trigram with the query are scored.
+ */
+public class TrigramNameIndex {
+
+    private static final Set<String> LEGAL_SUFFIXES = Set.of("sdn", "bhd", "berhad", "ltd", "limited", "inc", "llc",
+            "corp", "corporation", "co", "company", "plc", "pte", "gmbh");
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    public synchronized void put(Long id, String name) {
+        remove(id);
+        Set<String> grams = trigrams(name);
+        if (grams.isEmpty()) {
+            return;
+        }
+        entries.put(id, new Entry(name, grams));
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String gram : entry.grams()) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get a snapshot of the indexed ids
+     */
+    public Set<Long> ids() {
+        return Set.copyOf(entries.keySet());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Find indexed names at least as similar as the threshold, most similar first
+     */
+    public List<NameMatch> similar(String name, double threshold, int limit) {
+        Set<String> grams = trigrams(name);
+        Map<Long, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                for (Long id : ids) {
+                    shared.merge(id, 1, Integer::sum);
+                }
+            }
+        }
+
+        List<NameMatch> matches = new ArrayList<>();
+        shared.forEach((id, common) -> {
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                return;
+            }
+            double similarity = (double) common / (grams.size() + entry.grams().size() - common);
+            if (similarity >= threshold) {
+                matches.add(new NameMatch(id, entry.name(), similarity));
+            }
+        });
+        matches.sort(Comparator.comparingDouble(NameMatch::similarity).reversed());
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    static Set<String> trigrams(String name) {
+        Set<String> grams = new HashSet<>();
+        if (name == null) {
+            return grams;
+        }
+        StringBuilder normalized = new StringBuilder();
+        for (String word : name.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty() && !LEGAL_SUFFIXES.contains(word)) {
+                normalized.append(' ').append(word);
+            }
+        }
+        if (normalized.isEmpty()) {
+            return grams;
+        }
+        String padded = normalized.append(' ').toString();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private record Entry(String name, Set<String> grams) {
+    }
+}
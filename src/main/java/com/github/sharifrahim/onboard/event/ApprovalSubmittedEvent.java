@@ -0,0 +1,15 @@
+package com.github.sharifrahim.onboard.event;
+
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.domain.Company;
+
+/**
+ * Published after a change request has been saved as a pending approval
+ *
+ * @param approval
+ *            the pending approval as saved
+ * @param company
+ *            the company as it will look once approved
+ */
+public record ApprovalSubmittedEvent(Approval approval, Company company) {
+}
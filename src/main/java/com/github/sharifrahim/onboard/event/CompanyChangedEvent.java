@@ -0,0 +1,15 @@
+package com.github.sharifrahim.onboard.event;
+
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.domain.Company;
+
+/**
+ * Published after an approved change has been written to a company
+ *
+ * @param company
+ *            the company as saved
+ * @param approval
+ *            the approval that caused the change
+ */
+public record CompanyChangedEvent(Company company, Approval approval) {
+}
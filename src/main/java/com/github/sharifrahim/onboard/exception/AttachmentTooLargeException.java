@@ -0,0 +1,11 @@
+package com.github.sharifrahim.onboard.exception;
+
+/**
+ * Exception thrown when an uploaded document exceeds the configured size limit
+ */
+public class AttachmentTooLargeException extends RuntimeException {
+
+    public AttachmentTooLargeException(long maxSize) {
+        super("Attachment exceeds " + maxSize + " bytes");
+    }
+}
@@ -0,0 +1,11 @@
+package com.github.sharifrahim.onboard.exception;
+
+/**
+ * Exception thrown when a reviewer acts on a claim whose lease expired or that another reviewer holds
+ */
+public class ClaimLostException extends RuntimeException {
+
+    public ClaimLostException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.github.sharifrahim.onboard.exception;
+
+/**
+ * Exception thrown when a reviewer's decision arrives after the reviewer, the stage or the approval was already decided
+ */
+public class DecisionConflictException extends RuntimeException {
+
+    public DecisionConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.github.sharifrahim.onboard.exception;
+
+/**
+ * Exception thrown when a request for a company reaches a node that does not own the company's partition
+ */
+public class NotOwnerException extends RuntimeException {
+
+    private final String ownerUrl;
+
+    public NotOwnerException(String message, String ownerUrl) {
+        super(message);
+        this.ownerUrl = ownerUrl;
+    }
+
+    public String getOwnerUrl() {
+        return ownerUrl;
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.sharifrahim.onboard.exception;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when a request is shed to protect the latency of requests already admitted
+ */
+public class OverloadedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public OverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
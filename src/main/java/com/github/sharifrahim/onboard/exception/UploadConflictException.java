@@ -0,0 +1,21 @@
+package com.github.sharifrahim.onboard.exception;
+
+/**
+ * Exception thrown when a chunk of a resumable upload does not start where the received content ends
+ */
+public class UploadConflictException extends RuntimeException {
+
+    private final long offset;
+
+    public UploadConflictException(String message, long offset) {
+        super(message);
+        this.offset = offset;
+    }
+
+    /**
+     * Offset the next chunk has to start at
+     */
+    public long getOffset() {
+        return offset;
+    }
+}
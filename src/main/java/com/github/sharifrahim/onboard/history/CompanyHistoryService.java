@@ -0,0 +1,140 @@
+package com.github.sharifrahim.onboard.history;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sharifrahim.onboard.archive.ApprovalArchive;
+import com.github.sharifrahim.onboard.datasource.sharding.ShardRouter;
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.repository.ApprovalRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Reconstructs past versions of a company from its approved approvals.
+ * <p>
+ * Every approval payload is a full company snapshot, so the company as of time T is simply the payload of the last
+ * approval approved at or before T: one index seek on (data_id, approval_status, approved_at), with no delta replay.
+ * The hot table is checked first; archival moves approvals oldest decision first, so anything archived is older than
+ * everything still hot.
+ */
+@Service
+@RequiredArgsConstructor
+public class CompanyHistoryService {
+
+    private final ApprovalRepository approvalRepository;
+    private final ApprovalArchive archive;
+    private final ShardRouter shardRouter;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * List the approved versions of a company, oldest first
+     */
+    @Transactional(readOnly = true)
+    public List<CompanyVersion> findVersions(Long companyId) {
+        List<Approval> approvals = approvedChanges(companyId);
+        List<CompanyVersion> versions = new ArrayList<>(approvals.size());
+        for (int i = 0; i < approvals.size(); i++) {
+            Approval approval = approvals.get(i);
+            versions.add(new CompanyVersion(i + 1, approval.getId(), approval.getType(), approval.getApprovedAt(),
+                    approval.getApprovedBy()));
+        }
+        return versions;
+    }
+
+    /**
+     * Get a company as it was after the given version was approved
+     */
+    @Transactional(readOnly = true)
+    public Optional<Company> findVersion(Long companyId, int version) {
+        List<Approval> approvals = approvedChanges(companyId);
+        if (version < 1 || version > approvals.size()) {
+            return Optional.empty();
+        }
+        return Optional.of(toCompany(approvals.get(version - 1), companyId));
+    }
+
+    /**
+     * Get a company as it was at the given time
+     *
+     * @return the company, or empty if it had not been approved yet at that time
+     */
+    @Transactional(readOnly = true)
+    public Optional<Company> findAsOf(Long companyId, LocalDateTime at) {
+        return shardRouter.onShard(shardRouter.shardForId(companyId),
+                () -> approvalRepository
+                        .findFirstByDataIdAndApprovalStatusAndApprovedAtLessThanEqualOrderByApprovedAtDesc(companyId,
+                                Approval.ApprovalStatus.APPROVED, at)
+                        .or(() -> archive.findLatestByDataIdAndStatus(companyId, Approval.ApprovalStatus.APPROVED, at))
+                        .map(approval -> toCompany(approval, companyId)));
+    }
+
+    /**
+     * Compare two versions of a company field by field
+     *
+     * @return the differing fields, or empty if either version does not exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<FieldChange>> diff(Long companyId, int fromVersion, int toVersion) {
+        List<Approval> approvals = approvedChanges(companyId);
+        if (Math.min(fromVersion, toVersion) < 1 || Math.max(fromVersion, toVersion) > approvals.size()) {
+            return Optional.empty();
+        }
+        JsonNode from = objectMapper.valueToTree(toCompany(approvals.get(fromVersion - 1), companyId));
+        JsonNode to = objectMapper.valueToTree(toCompany(approvals.get(toVersion - 1), companyId));
+        return Optional.of(diff(from, to));
+    }
+
+    static List<FieldChange> diff(JsonNode from, JsonNode to) {
+        Set<String> fields = new LinkedHashSet<>();
+        from.fieldNames().forEachRemaining(fields::add);
+        to.fieldNames().forEachRemaining(fields::add);
+
+        List<FieldChange> changes = new ArrayList<>();
+        for (String field : fields) {
+            JsonNode before = valueOf(from.get(field));
+            JsonNode after = valueOf(to.get(field));
+            if (!Objects.equals(before, after)) {
+                changes.add(new FieldChange(field, before, after));
+            }
+        }
+        return changes;
+    }
+
+    private List<Approval> approvedChanges(Long companyId) {
+        return shardRouter.onShard(shardRouter.shardForId(companyId), () -> {
+            List<Approval> approvals = new ArrayList<>(
+                    archive.findByDataIdAndStatus(companyId, Approval.ApprovalStatus.APPROVED));
+            approvals.addAll(approvalRepository.findByDataIdAndApprovalStatusOrderByApprovedAt(companyId,
+                    Approval.ApprovalStatus.APPROVED));
+            return approvals;
+        });
+    }
+
+    private Company toCompany(Approval approval, Long companyId) {
+        try {
+            Company company = objectMapper.readValue(approval.getNewData(), Company.class);
+            // the creation snapshot was taken before the company had an id
+            company.setId(companyId);
+            return company;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable payload in approval " + approval.getId(), e);
+        }
+    }
+
+    private static JsonNode valueOf(JsonNode node) {
+        return node == null || node.isNull() ? null : node;
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.sharifrahim.onboard.history;
+
+import java.time.LocalDateTime;
+
+import com.github.sharifrahim.onboard.domain.Approval;
+
+/**
+ * One approved version of a company
+ *
+ * @param version
+ *            1 for the approved creation, counting up with each approved change
+ * @param approvalId
+ *            the approval that produced this version
+ * @param type
+ *            the kind of change
+ * @param approvedAt
+ *            when this version took effect
+ * @param approvedBy
+ *            who approved it
+ */
+public record CompanyVersion(int version, Long approvalId, Approval.Type type, LocalDateTime approvedAt,
+        String approvedBy) {
+}
@@ -0,0 +1,16 @@
+package com.github.sharifrahim.onboard.history;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A company field that differs between two versions
+ *
+ * @param field
+ *            the company property name
+ * @param from
+ *            the value in the older version, null when unset
+ * @param to
+ *            the value in the newer version, null when unset
+ */
+public record FieldChange(String field, JsonNode from, JsonNode to) {
+}
@@ -0,0 +1,76 @@
+package com.github.sharifrahim.onboard.identity;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.Principal;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Makes the user named by the authenticating gateway the principal of the request, so controllers, the rate limiter and
+ * the approval flows see who is calling. The name is only trusted together with the gateway's shared secret; a request
+ * naming a user without it is rejected with 401, and a request naming nobody stays anonymous.
+ */
+@Slf4j
+public class GatewayIdentityFilter extends OncePerRequestFilter {
+
+    private final String userHeader;
+    private final String secretHeader;
+    private final byte[] secret;
+
+    public GatewayIdentityFilter(IdentityProperties properties) {
+        if (properties.getSecret() == null || properties.getSecret().isBlank()) {
+            throw new IllegalStateException("onboard.identity.secret is required when identity is enabled");
+        }
+        this.userHeader = properties.getUserHeader();
+        this.secretHeader = properties.getSecretHeader();
+        this.secret = properties.getSecret().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String user = request.getHeader(userHeader);
+        if (user == null || user.isBlank()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String presented = request.getHeader(secretHeader);
+        if (presented == null || !MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8))) {
+            log.warn("Rejecting request from {} naming user {} without the gateway secret", request.getRemoteAddr(),
+                    user);
+            response.sendError(HttpStatus.UNAUTHORIZED.value());
+            return;
+        }
+        chain.doFilter(new AuthenticatedRequest(request, user.trim()), response);
+    }
+
+    private static class AuthenticatedRequest extends HttpServletRequestWrapper {
+
+        private final Principal principal;
+
+        AuthenticatedRequest(HttpServletRequest request, String user) {
+            super(request);
+            this.principal = () -> user;
+        }
+
+        @Override
+        public Principal getUserPrincipal() {
+            return principal;
+        }
+
+        @Override
+        public String getRemoteUser() {
+            return principal.getName();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.github.sharifrahim.onboard.identity;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers the gateway identity filter ahead of every other filter when identity is enabled
+ */
+@Configuration
+@EnableConfigurationProperties(IdentityProperties.class)
+public class IdentityConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "onboard.identity", name = "enabled", havingValue = "true")
+    public FilterRegistrationBean<GatewayIdentityFilter> gatewayIdentityFilter(IdentityProperties properties) {
+        FilterRegistrationBean<GatewayIdentityFilter> registration = new FilterRegistrationBean<>(
+                new GatewayIdentityFilter(properties));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.sharifrahim.onboard.identity;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuration of the reviewer identity asserted by an authenticating gateway in front of the service
+ */
+@Data
+@ConfigurationProperties(prefix = "onboard.identity")
+public class IdentityProperties {
+
+    /**
+     * Trust the user the gateway names in {@link #userHeader}; without it every request is anonymous, so submissions
+     * are made by the system and approval chains and the review queue cannot be used
+     */
+    private boolean enabled = false;
+
+    /**
+     * Header carrying the name of the user the gateway authenticated
+     */
+    private String userHeader = "X-Authenticated-User";
+
+    /**
+     * Header carrying {@link #secret}, proving the user header was set by the gateway and not by the caller
+     */
+    private String secretHeader = "X-Gateway-Secret";
+
+    /**
+     * Secret shared with the gateway; required when enabled
+     */
+    private String secret;
+}
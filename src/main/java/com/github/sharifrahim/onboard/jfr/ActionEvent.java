@@ -0,0 +1,23 @@
+package com.github.sharifrahim.onboard.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recording of an accepted submission as an approval by its strategy's action
+ */
+@Name("onboard.Action")
+@Label("Onboarding Action")
+public class ActionEvent extends AllocationEvent {
+
+    @Label("Event")
+    String event;
+
+    @Label("Source State")
+    String source;
+
+    public ActionEvent(String event, String source) {
+        this.event = event;
+        this.source = source;
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.sharifrahim.onboard.jfr;
+
+import java.lang.management.ManagementFactory;
+
+import com.sun.management.ThreadMXBean;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base of the flight recorder events of the onboarding hot path. Next to its duration, every event records the bytes
+ * its thread allocated while it ran, so a recording breaks heap churn down by phase. Nothing is measured unless the
+ * event is enabled in a running recording.
+ */
+@Category("Onboard")
+@StackTrace(false)
+public abstract class AllocationEvent extends Event {
+
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Label("Allocated")
+    @Description("Bytes allocated by the thread during the event, including nested events")
+    @DataAmount
+    protected long allocated;
+
+    /**
+     * Start timing and counting allocations, if the event is enabled
+     */
+    public void start() {
+        if (isEnabled()) {
+            allocated = THREADS.getCurrentThreadAllocatedBytes();
+            begin();
+        }
+    }
+
+    /**
+     * Stop timing and commit the event, if it is enabled and above its threshold
+     */
+    public void finish() {
+        if (isEnabled()) {
+            end();
+            if (shouldCommit()) {
+                allocated = THREADS.getCurrentThreadAllocatedBytes() - allocated;
+                commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.sharifrahim.onboard.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Approval or rejection of an approval by its processor
+ */
+@Name("onboard.Approval")
+@Label("Approval Processing")
+public class ApprovalEvent extends AllocationEvent {
+
+    @Label("Approval Type")
+    String type;
+
+    @Label("Approval Id")
+    long approvalId;
+
+    @Label("Decision")
+    String decision;
+
+    public ApprovalEvent(String type, Long approvalId, String decision) {
+        this.type = type;
+        this.approvalId = approvalId != null ? approvalId : 0;
+        this.decision = decision;
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.sharifrahim.onboard.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Validation of a submission by its strategy's guard
+ */
+@Name("onboard.Guard")
+@Label("Onboarding Guard")
+public class GuardEvent extends AllocationEvent {
+
+    @Label("Event")
+    String event;
+
+    @Label("Source State")
+    String source;
+
+    @Label("Passed")
+    boolean passed;
+
+    public GuardEvent(String event, String source) {
+        this.event = event;
+        this.source = source;
+    }
+
+    public void passed(boolean passed) {
+        this.passed = passed;
+    }
+}
@@ -0,0 +1,26 @@
+package com.github.sharifrahim.onboard.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One submission through the onboarding state machine, guard and action included
+ */
+@Name("onboard.Submission")
+@Label("Onboarding Submission")
+public class SubmissionEvent extends AllocationEvent {
+
+    @Label("Event")
+    String event;
+
+    @Label("Accepted")
+    boolean accepted;
+
+    public SubmissionEvent(String event) {
+        this.event = event;
+    }
+
+    public void accepted() {
+        this.accepted = true;
+    }
+}
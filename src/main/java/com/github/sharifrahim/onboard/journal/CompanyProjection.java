@@ -0,0 +1,62 @@
+package com.github.sharifrahim.onboard.journal;
+
+import java.time.LocalDateTime;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.repository.CompanyRepository;
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Projects approvals in the journal onto {@code company}. Each approval carries the full company snapshot, so applying
+ * it again overwrites the row with the same values.
+ */
+@Component
+@RequiredArgsConstructor
+public class CompanyProjection implements JournalProjection {
+
+    static final String NAME = "company";
+
+    private final CompanyRepository companyRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Nothing is dropped before a replay: every approval entry carries the whole company, so replaying overwrites each
+     * journaled company completely, while deleting rows would also lose companies created before the journal was
+     * enabled
+     */
+    @Override
+    public void reset() {
+    }
+
+    @Override
+    public void apply(JournalEntry entry) {
+        if (entry.event() != OnboardingEvent.APPROVE || entry.companyId() == null) {
+            return;
+        }
+        Company company = fromJson(entry.payload());
+        company.setId(entry.companyId());
+        if (company.getProgressUpdatedAt() == null) {
+            company.setProgressUpdatedAt(entry.recordedAt() != null ? entry.recordedAt() : LocalDateTime.now());
+        }
+        companyRepository.save(company);
+    }
+
+    private Company fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, Company.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to parse journaled company", e);
+        }
+    }
+}
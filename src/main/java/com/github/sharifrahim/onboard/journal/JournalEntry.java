@@ -0,0 +1,25 @@
+package com.github.sharifrahim.onboard.journal;
+
+import java.time.LocalDateTime;
+
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+
+/**
+ * One accepted onboarding event
+ *
+ * @param sequence
+ *            position in the journal of its shard
+ * @param companyId
+ *            the company, null for a company that has not been approved yet
+ * @param approvalId
+ *            the approval the event belongs to
+ * @param event
+ *            the onboarding event
+ * @param payload
+ *            the company snapshot the event carries
+ * @param recordedAt
+ *            when the event was appended
+ */
+public record JournalEntry(long sequence, Long companyId, Long approvalId, OnboardingEvent event, String payload,
+        LocalDateTime recordedAt) {
+}
@@ -0,0 +1,21 @@
+package com.github.sharifrahim.onboard.journal;
+
+/**
+ * Read model built from the onboarding journal. Entries are applied in journal order, at least once, so applying an
+ * entry must be idempotent.
+ */
+public interface JournalProjection {
+
+    /**
+     * Name under which the projection's checkpoint is stored
+     */
+    String getName();
+
+    void apply(JournalEntry entry);
+
+    /**
+     * Drop the projection's state before a full replay
+     */
+    default void reset() {
+    }
+}
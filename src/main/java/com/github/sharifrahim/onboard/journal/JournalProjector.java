@@ -0,0 +1,94 @@
+package com.github.sharifrahim.onboard.journal;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.sharifrahim.onboard.datasource.sharding.ShardRouter;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies the onboarding journal to every {@link JournalProjection} asynchronously. Each projection keeps its own
+ * checkpoint per shard, advanced in the same transaction as the batch it covers, so a crash replays at most one batch.
+ * A new read model starts from the beginning of the journal; {@link #rebuild(String)} replays an existing one.
+ * <p>
+ * The checkpoint only moves over contiguous sequences. Entries after a missing sequence wait until it commits, or until
+ * they are older than {@link JournalProperties#getGapTimeout()}, so an entry that commits after a later one is not
+ * skipped.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JournalProjector {
+
+    private final OnboardingJournal journal;
+    private final List<JournalProjection> projections;
+    private final JournalProperties properties;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${onboard.journal.poll-interval:PT1S}")
+    public void poll() {
+        if (properties.isEnabled()) {
+            project();
+        }
+    }
+
+    /**
+     * Bring every projection up to date with the journal of every shard
+     */
+    public void project() {
+        shardRouter.forEachShard(() -> projections.forEach(this::catchUp));
+    }
+
+    /**
+     * Reset a projection and replay the whole journal of every shard into it
+     */
+    public void rebuild(String name) {
+        JournalProjection projection = projections.stream().filter(p -> p.getName().equals(name)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown projection: " + name));
+        projection.reset();
+        shardRouter.forEachShard(() -> {
+            journal.saveCheckpoint(name, 0L);
+            int applied = catchUp(projection);
+            log.info("Rebuilt projection {} from {} journal entries", name, applied);
+        });
+    }
+
+    private int catchUp(JournalProjection projection) {
+        int applied = 0;
+        while (true) {
+            Integer batch = transactionTemplate.execute(status -> {
+                long position = journal.checkpoint(projection.getName());
+                List<JournalEntry> entries = journal.readAfter(position, properties.getBatchSize());
+                LocalDateTime settled = LocalDateTime.now().minus(properties.getGapTimeout());
+                int count = 0;
+                for (JournalEntry entry : entries) {
+                    if (entry.sequence() != position + 1) {
+                        if (entry.recordedAt().isAfter(settled)) {
+                            break;
+                        }
+                        log.warn("Projection {} skips journal sequences {} to {}, missing for {}", projection.getName(),
+                                position + 1, entry.sequence() - 1, properties.getGapTimeout());
+                    }
+                    projection.apply(entry);
+                    position = entry.sequence();
+                    count++;
+                }
+                if (count > 0) {
+                    journal.saveCheckpoint(projection.getName(), position);
+                }
+                return count;
+            });
+            applied += batch;
+            if (batch < properties.getBatchSize()) {
+                return applied;
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.sharifrahim.onboard.journal;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuration of the event-sourced onboarding journal
+ */
+@Data
+@ConfigurationProperties(prefix = "onboard.journal")
+public class JournalProperties {
+
+    /**
+     * Append accepted events to the journal and let the projector write companies
+     */
+    private boolean enabled = false;
+
+    /**
+     * Delay between projector runs
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /**
+     * Entries read from the journal per projector batch
+     */
+    private int batchSize = 500;
+
+    /**
+     * How long the projector waits for a missing sequence before moving past it. Sequences are taken when an entry is
+     * inserted but become visible when its transaction commits, so a gap is usually an entry still in flight; once the
+     * entries after it are this old it is taken to be a rolled back insert.
+     */
+    private Duration gapTimeout = Duration.ofMinutes(1);
+}
@@ -0,0 +1,110 @@
+package com.github.sharifrahim.onboard.journal;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sharifrahim.onboard.crypto.ApprovalPayloadConverter;
+import com.github.sharifrahim.onboard.crypto.FieldCipher;
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.event.ApprovalSubmittedEvent;
+import com.github.sharifrahim.onboard.event.CompanyChangedEvent;
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+
+/**
+ * Append-only journal of accepted onboarding events in {@code onboarding_journal}, kept per shard. Submissions are
+ * recorded with the company snapshot they propose and approvals with the snapshot that became current, so replaying the
+ * approvals in order rebuilds every company. Sensitive payload fields are encrypted as in approvals.
+ */
+@Component
+@EnableConfigurationProperties(JournalProperties.class)
+public class OnboardingJournal {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JournalProperties properties;
+    private final ApprovalPayloadConverter payloadConverter;
+    private final RowMapper<JournalEntry> rowMapper;
+
+    public OnboardingJournal(JdbcTemplate jdbcTemplate, JournalProperties properties, ObjectMapper objectMapper,
+            FieldCipher fieldCipher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.payloadConverter = new ApprovalPayloadConverter(fieldCipher, objectMapper);
+        this.rowMapper = (rs, i) -> new JournalEntry(rs.getLong(1), (Long) rs.getObject(2, Long.class), rs.getLong(3),
+                OnboardingEvent.valueOf(rs.getString(4)), payloadConverter.convertToEntityAttribute(rs.getString(5)),
+                rs.getTimestamp(6).toLocalDateTime());
+    }
+
+    @EventListener
+    public void onApprovalSubmitted(ApprovalSubmittedEvent event) {
+        Approval approval = event.approval();
+        if (properties.isEnabled()) {
+            append(approval.getDataId(), approval.getId(), submissionEvent(approval.getType()), approval.getNewData());
+        }
+    }
+
+    @EventListener
+    public void onCompanyChanged(CompanyChangedEvent event) {
+        Approval approval = event.approval();
+        if (properties.isEnabled()) {
+            append(event.company().getId(), approval.getId(), OnboardingEvent.APPROVE, approval.getNewData());
+        }
+    }
+
+    /**
+     * Append an entry to the journal of the current shard
+     */
+    public void append(Long companyId, Long approvalId, OnboardingEvent event, String payload) {
+        jdbcTemplate.update(
+                "INSERT INTO onboarding_journal (company_id, approval_id, event, payload, recorded_at)"
+                        + " VALUES (?, ?, ?, ?, ?)",
+                companyId, approvalId, event.name(), payloadConverter.convertToDatabaseColumn(payload),
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Read entries of the current shard after the given position, in journal order
+     */
+    public List<JournalEntry> readAfter(long position, int limit) {
+        return jdbcTemplate.query(
+                "SELECT sequence, company_id, approval_id, event, payload, recorded_at FROM onboarding_journal"
+                        + " WHERE sequence > ? ORDER BY sequence FETCH FIRST " + limit + " ROWS ONLY",
+                rowMapper, position);
+    }
+
+    /**
+     * Position of a projection in the journal of the current shard, 0 before its first entry
+     */
+    public long checkpoint(String projection) {
+        List<Long> positions = jdbcTemplate.queryForList("SELECT position FROM journal_checkpoint WHERE projection = ?",
+                Long.class, projection);
+        return positions.isEmpty() ? 0L : positions.get(0);
+    }
+
+    public void saveCheckpoint(String projection, long position) {
+        int updated = jdbcTemplate.update("UPDATE journal_checkpoint SET position = ? WHERE projection = ?", position,
+                projection);
+        if (updated == 0) {
+            jdbcTemplate.update("INSERT INTO journal_checkpoint (projection, position) VALUES (?, ?)", projection,
+                    position);
+        }
+    }
+
+    private static OnboardingEvent submissionEvent(Approval.Type type) {
+        if (type == null) {
+            return OnboardingEvent.CREATE_COMPANY;
+        }
+        return switch (type) {
+        case CREATE_COMPANY -> OnboardingEvent.CREATE_COMPANY;
+        case UPDATE_CONTACT_INFO -> OnboardingEvent.UPDATE_CONTACT_INFO;
+        case UPDATE_OPERATIONAL_INFO -> OnboardingEvent.UPDATE_OPERATIONAL_INFO;
+        };
+    }
+}
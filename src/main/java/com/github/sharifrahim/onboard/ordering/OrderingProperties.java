@@ -0,0 +1,30 @@
+package com.github.sharifrahim.onboard.ordering;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuration of per-company submission ordering
+ */
+@Data
+@ConfigurationProperties(prefix = "onboard.ordering")
+public class OrderingProperties {
+
+    /**
+     * Number of serial stripes; submissions for different companies in different stripes run in parallel
+     */
+    private int stripes = 32;
+
+    /**
+     * Submissions queued per stripe before further ones are rejected
+     */
+    private int maxQueueDepth = 64;
+
+    /**
+     * Retry-After sent when a stripe is full
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
@@ -0,0 +1,139 @@
+package com.github.sharifrahim.onboard.ordering;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.github.sharifrahim.onboard.exception.OverloadedException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs tasks with the same key one at a time, in submission order, and tasks with keys in different stripes in
+ * parallel. Keys hash to a fixed number of stripes, each a lock-free queue drained by at most one pool thread at a
+ * time; a stripe is scheduled onto the pool when its first task arrives and gives the thread back once it is empty.
+ * Each stripe holds a bounded number of tasks, so one busy company cannot queue up unbounded work.
+ */
+@Component
+@EnableConfigurationProperties(OrderingProperties.class)
+public class StripedSerialExecutor implements DisposableBean {
+
+    private final OrderingProperties properties;
+    private final Stripe[] stripes;
+    private final ExecutorService pool;
+    private final Counter rejected;
+
+    public StripedSerialExecutor(OrderingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.stripes = new Stripe[properties.getStripes()];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(i);
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(stripes.length, r -> {
+            Thread thread = new Thread(r, "submission-stripe-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.rejected = Counter.builder("onboard.ordering.rejected")
+                .description("Submissions rejected because their stripe was full").register(meterRegistry);
+    }
+
+    /**
+     * Stripe that tasks with the given key run on
+     */
+    public int stripeFor(Object key) {
+        int hash = key.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), stripes.length);
+    }
+
+    /**
+     * Run a task after all earlier tasks with a key in the same stripe and wait for its result
+     *
+     * @param key
+     *            ordering key, typically the company id
+     * @param task
+     *            the task, given its stripe number
+     *
+     * @throws OverloadedException
+     *             when the stripe's queue is full
+     */
+    public <T> T call(Object key, IntFunction<T> task) {
+        Stripe stripe = stripes[stripeFor(key)];
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (!stripe.offer(() -> {
+            try {
+                result.complete(task.apply(stripe.number));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        })) {
+            rejected.increment();
+            throw new OverloadedException("Too many queued submissions for this company", properties.getRetryAfter());
+        }
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdown();
+    }
+
+    private final class Stripe implements Runnable {
+
+        private final int number;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Stripe(int number) {
+            this.number = number;
+        }
+
+        boolean offer(Runnable task) {
+            if (depth.incrementAndGet() > properties.getMaxQueueDepth()) {
+                depth.decrementAndGet();
+                return false;
+            }
+            tasks.offer(task);
+            if (scheduled.compareAndSet(false, true)) {
+                pool.execute(this);
+            }
+            return true;
+        }
+
+        @Override
+        public void run() {
+            do {
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    depth.decrementAndGet();
+                    task.run();
+                }
+                scheduled.set(false);
+                // a task offered after the last poll but before the flag was cleared is picked up here
+            } while (!tasks.isEmpty() && scheduled.compareAndSet(false, true));
+        }
+    }
+}
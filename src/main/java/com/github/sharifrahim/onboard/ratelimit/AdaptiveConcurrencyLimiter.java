@@ -0,0 +1,98 @@
+package com.github.sharifrahim.onboard.ratelimit;
+
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * AIMD concurrency limit for submissions. Each fast completion under load grows the limit by 1/limit, so roughly one
+ * slot per limit's worth of completions; a slow or failed one multiplies it by the backoff ratio. Requests beyond the
+ * limit are rejected immediately instead of queueing behind a saturated state machine and database.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private final RateLimitProperties.Concurrency properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+    private final Counter rejected;
+
+    public AdaptiveConcurrencyLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties.getConcurrency();
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(this.properties.getInitialLimit()));
+        this.rejected = Counter.builder("onboard.concurrency.rejected")
+                .description("Submissions shed by the concurrency limit").register(meterRegistry);
+        Gauge.builder("onboard.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive submission concurrency limit").register(meterRegistry);
+        Gauge.builder("onboard.concurrency.in-flight", inFlight, AtomicInteger::get)
+                .description("Submissions currently executing").register(meterRegistry);
+    }
+
+    /**
+     * Admit a request if a slot is free
+     *
+     * @return the admission start time to pass to {@link #release}, or empty when rejected
+     */
+    public OptionalLong tryAcquire() {
+        if (!properties.isEnabled()) {
+            return OptionalLong.of(System.nanoTime());
+        }
+        int limit = (int) getLimit();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return OptionalLong.empty();
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return OptionalLong.of(System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * Release a slot and adapt the limit to how the request went
+     *
+     * @param startNanos
+     *            the value returned by {@link #tryAcquire}
+     * @param failed
+     *            whether the request failed for reasons other than bad input
+     */
+    public void release(long startNanos, boolean failed) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int inFlightBefore = inFlight.getAndDecrement();
+        boolean congested = failed || System.nanoTime() - startNanos > properties.getLatencyThreshold().toNanos();
+        while (true) {
+            long bits = limitBits.get();
+            double limit = Double.longBitsToDouble(bits);
+            double next;
+            if (congested) {
+                next = Math.max(properties.getMinLimit(), limit * properties.getBackoffRatio());
+            } else if (inFlightBefore * 2 >= limit) {
+                // only grow when the limit is actually being used
+                next = Math.min(properties.getMaxLimit(), limit + 1 / limit);
+            } else {
+                return;
+            }
+            if (limitBits.compareAndSet(bits, Double.doubleToLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    public double getLimit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.sharifrahim.onboard.ratelimit;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Per-client token buckets held in a concurrent map; the hot path is a map lookup and one CAS
+ */
+@Component
+public class ClientRateLimiter {
+
+    private final RateLimitProperties properties;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Counter allowed;
+    private final Counter rejected;
+
+    public ClientRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.allowed = requests(meterRegistry, "allowed");
+        this.rejected = requests(meterRegistry, "rejected");
+        Gauge.builder("onboard.ratelimit.clients", buckets, Map::size).description("Clients with a tracked bucket")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Take a token for the client
+     *
+     * @return zero when allowed, otherwise how long the client should wait
+     */
+    public Duration tryAcquire(String client) {
+        long now = System.nanoTime();
+        long waitNanos = buckets
+                .computeIfAbsent(client,
+                        c -> new TokenBucket(properties.getBurst(), properties.getRequestsPerSecond(), now))
+                .tryAcquire(now);
+        if (waitNanos == 0) {
+            allowed.increment();
+            return Duration.ZERO;
+        }
+        rejected.increment();
+        return Duration.ofNanos(waitNanos);
+    }
+
+    /**
+     * Forget clients whose bucket has refilled, bounding memory to recently active clients
+     */
+    @Scheduled(fixedDelayString = "${onboard.rate-limit.idle-eviction:PT5M}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("onboard.ratelimit.requests").description("Rate limited requests by outcome")
+                .tag("outcome", outcome).register(meterRegistry);
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.sharifrahim.onboard.ratelimit;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Applies per-client rate limiting to the submission and approval endpoints
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@RequiredArgsConstructor
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    static final String[] LIMITED_PATHS = { "/companies/profile", "/companies/*/contact", "/companies/*/operations",
+            "/companies/approvals/*/approve", "/companies/approvals/*/reject" };
+
+    private final ClientRateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (properties.isEnabled()) {
+            registry.addInterceptor(new RateLimitInterceptor(rateLimiter)).addPathPatterns(LIMITED_PATHS);
+        }
+    }
+}
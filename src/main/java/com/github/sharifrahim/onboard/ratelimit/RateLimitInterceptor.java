@@ -0,0 +1,48 @@
+package com.github.sharifrahim.onboard.ratelimit;
+
+import java.security.Principal;
+import java.time.Duration;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Rejects requests of clients that exhausted their token bucket with 429 before any handler work is done
+ */
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final ClientRateLimiter rateLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Duration wait = rateLimiter.tryAcquire(clientOf(request));
+        if (wait.isZero()) {
+            return true;
+        }
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(wait)));
+        return false;
+    }
+
+    /**
+     * The authenticated principal, or the remote address for anonymous callers. Headers the caller sets are not
+     * trusted, since a fresh value would buy a fresh bucket.
+     */
+    static String clientOf(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? "principal:" + principal.getName() : "address:" + request.getRemoteAddr();
+    }
+
+    /**
+     * Whole seconds, rounded up, as Retry-After requires
+     */
+    static long retryAfterSeconds(Duration wait) {
+        return Math.max(1, (wait.toMillis() + 999) / 1000);
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.sharifrahim.onboard.ratelimit;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuration of per-client rate limiting and adaptive concurrency limiting
+ */
+@Data
+@ConfigurationProperties(prefix = "onboard.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Clients are told apart by authenticated principal or remote address, so behind a shared proxy every caller shares
+     * one bucket; off unless the deployment sees real client addresses
+     */
+    private boolean enabled = false;
+
+    /**
+     * Requests a client may send in a burst
+     */
+    private int burst = 20;
+
+    /**
+     * Sustained requests per second per client
+     */
+    private double requestsPerSecond = 5;
+
+    /**
+     * Buckets of clients idle this long are dropped; an idle client's bucket is full anyway
+     */
+    private Duration idleEviction = Duration.ofMinutes(5);
+
+    private Concurrency concurrency = new Concurrency();
+
+    @Data
+    public static class Concurrency {
+
+        private boolean enabled = true;
+
+        private int initialLimit = 20;
+
+        private int minLimit = 2;
+
+        private int maxLimit = 200;
+
+        /**
+         * Submissions slower than this count as congestion and shrink the limit
+         */
+        private Duration latencyThreshold = Duration.ofMillis(500);
+
+        /**
+         * Factor applied to the limit on congestion
+         */
+        private double backoffRatio = 0.9;
+
+        /**
+         * Retry-After advertised when a submission is shed
+         */
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+}
@@ -1,14 +1,116 @@
 package com.github.sharifrahim.onboard.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.sla.SlaCandidate;
 
 public interface ApprovalRepository extends JpaRepository<Approval, Long> {
 
     List<Approval> findByType(Approval.Type type);
 
     List<Approval> findByTypeAndApprovalStatus(Approval.Type type, Approval.ApprovalStatus status);
+
+    List<Approval> findByApprovalStatus(Approval.ApprovalStatus status);
+
+    List<Approval> findByDataIdAndApprovalStatusOrderByApprovedAt(Long dataId, Approval.ApprovalStatus status);
+
+    Optional<Approval> findFirstByDataIdAndApprovalStatusAndApprovedAtLessThanEqualOrderByApprovedAtDesc(Long dataId,
+            Approval.ApprovalStatus status, LocalDateTime approvedAt);
+
+    List<Approval> findByApprovalStatusInAndApprovedAtBeforeOrderByApprovedAt(
+            Collection<Approval.ApprovalStatus> statuses, LocalDateTime approvedBefore, Pageable page);
+
+    @Query("SELECT a.registrationKey FROM Approval a WHERE a.approvalStatus = 'PENDING' AND a.registrationKey IS NOT NULL")
+    List<String> findPendingRegistrationKeys();
+
+    @Query("SELECT a.taxIdKey FROM Approval a WHERE a.approvalStatus = 'PENDING' AND a.taxIdKey IS NOT NULL")
+    List<String> findPendingTaxIdKeys();
+
+    /**
+     * Find the ids of pending company creations, without loading their payloads
+     */
+    @Query("SELECT a.id FROM Approval a WHERE a.approvalStatus = 'PENDING' AND a.type = 'CREATE_COMPANY'"
+            + " AND a.operationType = 'NEW'")
+    List<Long> findPendingCreationIds();
+
+    boolean existsByRegistrationKeyAndApprovalStatus(String registrationKey, Approval.ApprovalStatus status);
+
+    boolean existsByTaxIdKeyAndApprovalStatusAndDataIdNot(String taxIdKey, Approval.ApprovalStatus status, Long dataId);
+
+    /**
+     * Find pending approvals of a type submitted at or before the deadline, oldest first
+     */
+    @Query("SELECT new com.github.sharifrahim.onboard.sla.SlaCandidate(a.id, a.submittedAt) FROM Approval a"
+            + " WHERE a.type = :type AND a.approvalStatus = 'PENDING' AND a.submittedAt <= :deadline"
+            + " ORDER BY a.submittedAt, a.id")
+    List<SlaCandidate> findSlaCandidates(@Param("type") Approval.Type type, @Param("deadline") LocalDateTime deadline,
+            Pageable page);
+
+    /**
+     * Find pending approvals of a type submitted at or before the deadline and after the (submittedAt, id) position
+     */
+    @Query("SELECT new com.github.sharifrahim.onboard.sla.SlaCandidate(a.id, a.submittedAt) FROM Approval a"
+            + " WHERE a.type = :type AND a.approvalStatus = 'PENDING' AND a.submittedAt <= :deadline"
+            + " AND (a.submittedAt > :afterSubmittedAt OR (a.submittedAt = :afterSubmittedAt AND a.id > :afterId))"
+            + " ORDER BY a.submittedAt, a.id")
+    List<SlaCandidate> findSlaCandidatesAfter(@Param("type") Approval.Type type,
+            @Param("deadline") LocalDateTime deadline, @Param("afterSubmittedAt") LocalDateTime afterSubmittedAt,
+            @Param("afterId") Long afterId, Pageable page);
+
+    /**
+     * Approve an approval unless it was decided or expired in the meantime
+     *
+     * @return 1 if the approval was still pending and is now approved, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Approval a SET a.approvalStatus = 'APPROVED', a.approvedBy = :by, a.approvedAt = :at"
+            + " WHERE a.id = :id AND a.approvalStatus = 'PENDING'")
+    int approvePendingById(@Param("id") Long id, @Param("by") String by, @Param("at") LocalDateTime at);
+
+    /**
+     * Reject an approval unless it was decided or expired in the meantime
+     *
+     * @return 1 if the approval was still pending and is now rejected, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Approval a SET a.approvalStatus = 'REJECTED', a.approvedBy = :by, a.approvedAt = :at,"
+            + " a.remarks = :remarks WHERE a.id = :id AND a.approvalStatus = 'PENDING'")
+    int rejectPendingById(@Param("id") Long id, @Param("by") String by, @Param("at") LocalDateTime at,
+            @Param("remarks") String remarks);
+
+    /**
+     * Expire the given approvals unless a reviewer decided them in the meantime
+     *
+     * @return the number of approvals expired
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Approval a SET a.approvalStatus = 'EXPIRED', a.approvedBy = :by, a.approvedAt = :at,"
+            + " a.remarks = :remarks WHERE a.id IN :ids AND a.approvalStatus = 'PENDING'")
+    int expirePending(@Param("ids") Collection<Long> ids, @Param("by") String by, @Param("at") LocalDateTime at,
+            @Param("remarks") String remarks);
+
+    /**
+     * Mark the given approvals as escalated unless they were decided or escalated in the meantime
+     *
+     * @return the number of approvals escalated
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Approval a SET a.escalatedAt = :at"
+            + " WHERE a.id IN :ids AND a.approvalStatus = 'PENDING' AND a.escalatedAt IS NULL")
+    int escalatePending(@Param("ids") Collection<Long> ids, @Param("at") LocalDateTime at);
 }
@@ -1,8 +1,31 @@
 package com.github.sharifrahim.onboard.repository;
 
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.github.sharifrahim.onboard.domain.Company;
 
 public interface CompanyRepository extends JpaRepository<Company, Long> {
+
+    Optional<Company> findByRegistrationNumber(String registrationNumber);
+
+    boolean existsByRegistrationKey(String registrationKey);
+
+    boolean existsByTaxIdKeyAndIdNot(String taxIdKey, Long id);
+
+    @Query("SELECT c.registrationKey FROM Company c WHERE c.registrationKey IS NOT NULL")
+    List<String> findRegistrationKeys();
+
+    @Query("SELECT c.taxIdKey FROM Company c WHERE c.taxIdKey IS NOT NULL")
+    List<String> findTaxIdKeys();
+
+    /**
+     * Find companies saved before their duplicate lookup keys were derived
+     */
+    @Query("SELECT c FROM Company c WHERE (c.registrationKey IS NULL AND c.registrationNumber IS NOT NULL)"
+            + " OR (c.taxIdKey IS NULL AND c.taxIdNumber IS NOT NULL)")
+    List<Company> findMissingLookupKeys();
 }
@@ -0,0 +1,11 @@
+package com.github.sharifrahim.onboard.review;
+
+import java.time.Instant;
+
+import com.github.sharifrahim.onboard.domain.Approval;
+
+/**
+ * A pending approval held by a reviewer until the lease ends
+ */
+public record ReviewClaim(Long approvalId, Approval.Type type, String reviewer, Instant claimedAt, Instant leaseUntil) {
+}
@@ -0,0 +1,326 @@
+package com.github.sharifrahim.onboard.review;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.sharifrahim.onboard.datasource.sharding.ShardRouter;
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.exception.ClaimLostException;
+import com.github.sharifrahim.onboard.exception.ValidationException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hands pending approvals out to reviewers so that no two reviewers work on the same approval.
+ * <p>
+ * A claim reads the oldest unclaimed approvals of every type through the (type, approval_status, submitted_at, id)
+ * index, picks from them by {@link WeightedFairScheduler weighted fair queuing}, and then locks the picked rows with
+ * {@code FOR UPDATE SKIP LOCKED}. Rows another reviewer is claiming at that moment are skipped instead of waited for,
+ * so a large team claiming at once never queues up on the same hot rows. While the row lock is held the claim is
+ * written to {@code approval_claim}, conditional on there being no unexpired claim, which keeps claiming correct on
+ * databases that skip more rows than strictly locked. Claims expire with their lease unless renewed, and every reviewer
+ * holds at most a configured number of approvals at a time. The limit is kept by locking the reviewer's row in
+ * {@code review_reviewer} for the whole claim, so the reviewer's parallel requests, on this node or any other, count
+ * and claim one after another.
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(ReviewQueueProperties.class)
+public class ReviewQueue {
+
+    /**
+     * Rounds of picking and locking per claim request; later rounds only run when other reviewers won earlier picks
+     */
+    private static final int CLAIM_ROUNDS = 3;
+
+    private static final RowMapper<ReviewClaim> CLAIM_MAPPER = (rs, i) -> new ReviewClaim(rs.getLong("approval_id"),
+            Approval.Type.valueOf(rs.getString("type")), rs.getString("reviewer"),
+            rs.getTimestamp("claimed_at").toInstant(), rs.getTimestamp("lease_until").toInstant());
+
+    private record Candidate(Long id, Approval.Type type, Timestamp submittedAt) {
+    }
+
+    private final ReviewQueueProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final MeterRegistry meterRegistry;
+    private final WeightedFairScheduler scheduler;
+    private final TransactionTemplate suspended;
+
+    public ReviewQueue(ReviewQueueProperties properties, JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate, ShardRouter shardRouter, MeterRegistry meterRegistry,
+            PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.meterRegistry = meterRegistry;
+        this.scheduler = new WeightedFairScheduler(properties);
+        this.suspended = new TransactionTemplate(transactionManager);
+        this.suspended.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+    }
+
+    /**
+     * Claim up to {@code limit} pending approvals for the reviewer, bounded by the batch size and the approvals the
+     * reviewer already holds
+     *
+     * @return the new claims in the order they should be reviewed; empty when the queue is drained or the reviewer is
+     *         at the limit
+     */
+    public List<ReviewClaim> claim(String reviewer, int limit) {
+        requireReviewer(reviewer);
+        String defaultShard = shardRouter.getDefaultShard();
+        shardRouter.onShard(defaultShard, () -> register(reviewer));
+        // the reviewer's row stays locked until the claims are written, so parallel requests cannot both pass the limit
+        List<ReviewClaim> claims = shardRouter.onShard(defaultShard, () -> transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForList("SELECT reviewer FROM review_reviewer WHERE reviewer = ? FOR UPDATE",
+                    String.class, reviewer);
+            // claims on other shards commit in their own transactions, not in the one holding the reviewer's row
+            return shardRouter.isEnabled() ? suspended.execute(inner -> claimAsLocked(reviewer, limit))
+                    : claimAsLocked(reviewer, limit);
+        }));
+        claims.forEach(claim -> claimed(claim.type()).increment());
+        if (!claims.isEmpty()) {
+            log.debug("Reviewer {} claimed {} approvals", reviewer, claims.size());
+        }
+        return claims;
+    }
+
+    /**
+     * Extend the lease of a claim the reviewer still holds
+     *
+     * @throws ClaimLostException
+     *             if the lease expired or the approval is no longer pending
+     */
+    public ReviewClaim renew(Long approvalId, String reviewer) {
+        requireReviewer(reviewer);
+        Instant now = Instant.now();
+        Optional<ReviewClaim> renewed = shardRouter.onShard(shardRouter.shardForId(approvalId),
+                () -> jdbcTemplate.update(
+                        "UPDATE approval_claim SET lease_until = ? WHERE approval_id = ? AND reviewer = ?"
+                                + " AND lease_until > ?",
+                        Timestamp.from(now.plus(properties.getLeaseDuration())), approvalId, reviewer,
+                        Timestamp.from(now)) == 1 ? findClaim(approvalId) : Optional.empty());
+        return renewed.orElseThrow(
+                () -> new ClaimLostException("Reviewer " + reviewer + " no longer holds approval " + approvalId));
+    }
+
+    /**
+     * Hand a claimed approval back to the queue
+     *
+     * @return whether the reviewer held the claim
+     */
+    public boolean release(Long approvalId, String reviewer) {
+        requireReviewer(reviewer);
+        return shardRouter.onShard(shardRouter.shardForId(approvalId), () -> jdbcTemplate
+                .update("DELETE FROM approval_claim WHERE approval_id = ? AND reviewer = ?", approvalId, reviewer) > 0);
+    }
+
+    /**
+     * The unexpired claim on a pending approval, if any
+     */
+    public Optional<ReviewClaim> findClaim(Long approvalId) {
+        return shardRouter.onShard(shardRouter.shardForId(approvalId), () -> jdbcTemplate
+                .query("SELECT c.*, a.type FROM approval_claim c JOIN approval_table a"
+                        + " ON a.id = c.approval_id WHERE c.approval_id = ? AND c.lease_until > ?"
+                        + " AND a.approval_status = 'PENDING'", CLAIM_MAPPER, approvalId, Timestamp.from(Instant.now()))
+                .stream().findFirst());
+    }
+
+    /**
+     * Unexpired claims of a reviewer on pending approvals, in the order they were claimed
+     */
+    public List<ReviewClaim> findClaims(String reviewer) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<ReviewClaim> claims = new ArrayList<>(shardRouter.scatterGather(() -> jdbcTemplate.query(
+                "SELECT c.*, a.type FROM approval_claim c JOIN approval_table a ON a.id = c.approval_id"
+                        + " WHERE c.reviewer = ? AND c.lease_until > ? AND a.approval_status = 'PENDING'",
+                CLAIM_MAPPER, reviewer, now)));
+        claims.sort(Comparator.comparing(ReviewClaim::claimedAt).thenComparing(ReviewClaim::approvalId));
+        return claims;
+    }
+
+    /**
+     * Make sure a decision on the approval is not taken from under the reviewer holding it
+     *
+     * @throws ClaimLostException
+     *             if another reviewer holds an unexpired claim on the approval
+     */
+    public void checkDecision(Long approvalId, String reviewer) {
+        findClaim(approvalId).filter(claim -> !claim.reviewer().equals(reviewer)).ifPresent(claim -> {
+            throw new ClaimLostException(
+                    "Approval " + approvalId + " is claimed by " + claim.reviewer() + " until " + claim.leaseUntil());
+        });
+    }
+
+    /**
+     * Remove expired claims and claims of approvals that were decided
+     */
+    @Scheduled(initialDelayString = "${onboard.review-queue.cleanup-interval:PT5M}", fixedDelayString = "${onboard.review-queue.cleanup-interval:PT5M}")
+    public void cleanup() {
+        Timestamp now = Timestamp.from(Instant.now());
+        shardRouter.forEachShard(() -> {
+            int removed = jdbcTemplate.update("DELETE FROM approval_claim WHERE lease_until <= ? OR NOT EXISTS"
+                    + " (SELECT 1 FROM approval_table a WHERE a.id = approval_claim.approval_id"
+                    + " AND a.approval_status = 'PENDING')", now);
+            if (removed > 0) {
+                log.debug("Removed {} stale review claims", removed);
+            }
+        });
+    }
+
+    /**
+     * Claim for a reviewer whose row is locked
+     */
+    private List<ReviewClaim> claimAsLocked(String reviewer, int limit) {
+        Instant now = Instant.now();
+        int wanted = Math.min(Math.min(limit, properties.getMaxBatch()),
+                properties.getMaxClaimsPerReviewer() - countClaims(reviewer, now));
+        List<ReviewClaim> claims = new ArrayList<>();
+        Set<Long> tried = new HashSet<>();
+        for (int round = 0; round < CLAIM_ROUNDS && claims.size() < wanted; round++) {
+            Map<Approval.Type, ArrayDeque<Candidate>> backlog = candidates(reviewer, now,
+                    wanted - claims.size() + tried.size(), tried);
+            List<Candidate> picked = scheduler.schedule(backlog, wanted - claims.size());
+            if (picked.isEmpty()) {
+                break;
+            }
+            picked.forEach(candidate -> tried.add(candidate.id()));
+            claims.addAll(lock(reviewer, picked, now));
+        }
+        return claims;
+    }
+
+    /**
+     * Make sure the reviewer has a row to lock
+     */
+    private Void register(String reviewer) {
+        try {
+            jdbcTemplate.update("INSERT INTO review_reviewer (reviewer) SELECT ? WHERE NOT EXISTS"
+                    + " (SELECT 1 FROM review_reviewer WHERE reviewer = ?)", reviewer, reviewer);
+        } catch (DuplicateKeyException e) {
+            // the reviewer's first claims raced on another request
+        }
+        return null;
+    }
+
+    private int countClaims(String reviewer, Instant now) {
+        Timestamp at = Timestamp.from(now);
+        return shardRouter.scatterGather(() -> jdbcTemplate.queryForList(
+                "SELECT COUNT(*) FROM approval_claim c JOIN approval_table a ON a.id = c.approval_id"
+                        + " WHERE c.reviewer = ? AND c.lease_until > ? AND a.approval_status = 'PENDING'",
+                Integer.class, reviewer, at)).stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * Oldest unclaimed approvals per type across all shards, leaving out the reviewer's own submissions and approvals
+     * already tried in this request
+     */
+    private Map<Approval.Type, ArrayDeque<Candidate>> candidates(String reviewer, Instant now, int window,
+            Set<Long> tried) {
+        Timestamp at = Timestamp.from(now);
+        List<Candidate> rows = new ArrayList<>(shardRouter.scatterGather(() -> {
+            List<Candidate> found = new ArrayList<>();
+            for (Approval.Type type : Approval.Type.values()) {
+                found.addAll(jdbcTemplate.query(
+                        "SELECT a.id, a.submitted_at FROM approval_table a WHERE a.type = ?"
+                                + " AND a.approval_status = 'PENDING' AND a.submitted_by <> ? AND NOT EXISTS"
+                                + " (SELECT 1 FROM approval_claim c WHERE c.approval_id = a.id AND c.lease_until > ?)"
+                                + " ORDER BY a.submitted_at, a.id LIMIT ?",
+                        (rs, i) -> new Candidate(rs.getLong(1), type, rs.getTimestamp(2)), type.name(), reviewer, at,
+                        window));
+            }
+            return found;
+        }));
+        rows.sort(Comparator.comparing(Candidate::submittedAt).thenComparing(Candidate::id));
+
+        Map<Approval.Type, ArrayDeque<Candidate>> backlog = new EnumMap<>(Approval.Type.class);
+        for (Approval.Type type : Approval.Type.values()) {
+            backlog.put(type, new ArrayDeque<>());
+        }
+        rows.stream().filter(row -> !tried.contains(row.id())).forEach(row -> backlog.get(row.type()).add(row));
+        return backlog;
+    }
+
+    /**
+     * Lock the picked approvals shard by shard, skipping rows other reviewers hold locked, and claim those that are
+     * still pending and unclaimed
+     */
+    private List<ReviewClaim> lock(String reviewer, List<Candidate> picked, Instant now) {
+        Map<String, List<Candidate>> byShard = new LinkedHashMap<>();
+        for (Candidate candidate : picked) {
+            byShard.computeIfAbsent(shardRouter.shardForId(candidate.id()), shard -> new ArrayList<>()).add(candidate);
+        }
+        Timestamp claimedAt = Timestamp.from(now);
+        Timestamp leaseUntil = Timestamp.from(now.plus(properties.getLeaseDuration()));
+        List<ReviewClaim> claims = new ArrayList<>();
+        byShard.forEach((shard, candidates) -> claims
+                .addAll(shardRouter.onShard(shard, () -> transactionTemplate.execute(status -> {
+                    String ids = String.join(",", Collections.nCopies(candidates.size(), "?"));
+                    Set<Long> locked = new HashSet<>(jdbcTemplate.queryForList(
+                            "SELECT id FROM approval_table WHERE id IN (" + ids + ")"
+                                    + " AND approval_status = 'PENDING' FOR UPDATE SKIP LOCKED",
+                            Long.class, candidates.stream().map(Candidate::id).toArray()));
+                    List<ReviewClaim> taken = new ArrayList<>();
+                    for (Candidate candidate : candidates) {
+                        if (locked.contains(candidate.id()) && take(candidate.id(), reviewer, claimedAt, leaseUntil)) {
+                            taken.add(new ReviewClaim(candidate.id(), candidate.type(), reviewer, now,
+                                    leaseUntil.toInstant()));
+                        }
+                    }
+                    return taken;
+                }))));
+        return claims;
+    }
+
+    /**
+     * Write the claim unless another reviewer holds an unexpired one; expired claims are taken over in place
+     */
+    private boolean take(Long approvalId, String reviewer, Timestamp claimedAt, Timestamp leaseUntil) {
+        if (jdbcTemplate.update(
+                "UPDATE approval_claim SET reviewer = ?, claimed_at = ?, lease_until = ?"
+                        + " WHERE approval_id = ? AND lease_until <= ?",
+                reviewer, claimedAt, leaseUntil, approvalId, claimedAt) == 1) {
+            return true;
+        }
+        return jdbcTemplate.update(
+                "INSERT INTO approval_claim (approval_id, reviewer, claimed_at, lease_until)"
+                        + " SELECT ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM approval_claim WHERE approval_id = ?)",
+                approvalId, reviewer, claimedAt, leaseUntil, approvalId) == 1;
+    }
+
+    private Counter claimed(Approval.Type type) {
+        return Counter.builder("onboard.review.claims").description("Approvals claimed by reviewers")
+                .tag("type", type.name()).register(meterRegistry);
+    }
+
+    private static void requireReviewer(String reviewer) {
+        if (reviewer == null || reviewer.isBlank()) {
+            throw new ValidationException("A reviewer is required");
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.sharifrahim.onboard.review;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.github.sharifrahim.onboard.domain.Approval;
+
+import lombok.Data;
+
+/**
+ * Configuration of the reviewer work queue
+ */
+@Data
+@ConfigurationProperties(prefix = "onboard.review-queue")
+public class ReviewQueueProperties {
+
+    /**
+     * How long a claim stays with a reviewer without being renewed
+     */
+    private Duration leaseDuration = Duration.ofMinutes(15);
+
+    /**
+     * Approvals a reviewer may hold at the same time
+     */
+    private int maxClaimsPerReviewer = 10;
+
+    /**
+     * Approvals handed out by one claim request
+     */
+    private int maxBatch = 50;
+
+    /**
+     * Share of claimed work per approval type, relative to the other types; types without a weight count 1
+     */
+    private Map<Approval.Type, Integer> weights = new EnumMap<>(Approval.Type.class);
+
+    /**
+     * Interval of the removal of expired claims and claims of decided approvals
+     */
+    private Duration cleanupInterval = Duration.ofMinutes(5);
+
+    int weight(Approval.Type type) {
+        return Math.max(1, weights.getOrDefault(type, 1));
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.sharifrahim.onboard.review;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.sharifrahim.onboard.domain.Approval;
+
+/**
+ * Weighted fair queuing of pending approvals across their types.
+ * <p>
+ * The oldest pending approval of every type is tagged with a virtual finish time, {@code 1 / weight} after the finish
+ * time of the type's previous approval, and the type with the earliest tag goes next. A type that had no pending work
+ * starts again from the current virtual time, so being idle does not build up credit to flood reviewers with later.
+ * Tags outlive a single claim, so reviewers claiming one approval at a time still see the types interleaved by weight.
+ */
+class WeightedFairScheduler {
+
+    private final ReviewQueueProperties properties;
+    private final Map<Approval.Type, Double> finish = new EnumMap<>(Approval.Type.class);
+    private final Map<Approval.Type, Double> tags = new EnumMap<>(Approval.Type.class);
+    private double virtualTime;
+
+    WeightedFairScheduler(ReviewQueueProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Take up to {@code count} items off the per-type backlogs in fair order, oldest first within a type
+     */
+    synchronized <T> List<T> schedule(Map<Approval.Type, ? extends Deque<T>> backlog, int count) {
+        List<T> scheduled = new ArrayList<>(count);
+        while (scheduled.size() < count) {
+            Approval.Type next = null;
+            for (Map.Entry<Approval.Type, ? extends Deque<T>> entry : backlog.entrySet()) {
+                Approval.Type type = entry.getKey();
+                if (entry.getValue().isEmpty()) {
+                    tags.remove(type);
+                    continue;
+                }
+                double tag = tags.computeIfAbsent(type,
+                        t -> Math.max(virtualTime, finish.getOrDefault(t, 0.0)) + 1.0 / properties.weight(t));
+                if (next == null || tag < tags.get(next)) {
+                    next = type;
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            scheduled.add(backlog.get(next).poll());
+            double served = tags.remove(next);
+            finish.put(next, served);
+            virtualTime = Math.max(virtualTime, served - 1.0 / properties.weight(next));
+        }
+        return scheduled;
+    }
+}
@@ -0,0 +1,329 @@
+package com.github.sharifrahim.onboard.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.facet.DrillDownQuery;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.Facets;
+import org.apache.lucene.facet.FacetsCollectorManager;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.github.sharifrahim.onboard.crypto.FieldCipher;
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.duplicate.DuplicateKeys;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Embedded Lucene index over companies supporting full-text search and facet counts. Updates become searchable through
+ * near-real-time reopen; commits to disk happen on a schedule.
+ * <p>
+ * With field encryption enabled the registration number is neither stored nor tokenized; only a blind index token of
+ * its normalized form is indexed, so it is still found by an exact search but cannot be read back from the index.
+ */
+@Component
+@EnableConfigurationProperties(CompanySearchProperties.class)
+@Slf4j
+public class CompanySearchIndex implements DisposableBean {
+
+    public static final List<String> FACET_DIMENSIONS = List.of("country", "industrySector", "progressState",
+            "companySize");
+
+    private static final String ID = "id";
+    private static final String REGISTRATION_KEY = "registrationKey";
+    private static final String ENCRYPTED = "encrypted";
+    private static final String[] TEXT_FIELDS = { "name", "registrationNumber", "description" };
+    private static final String[] UNENCRYPTED_TEXT_FIELDS = { "name", "description" };
+    private static final Map<String, Float> TEXT_BOOSTS = Map.of("name", 3f, "registrationNumber", 2f, "description",
+            1f);
+    private static final int MAX_FACET_VALUES = 50;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final FacetsConfig facetsConfig = new FacetsConfig();
+    private final FieldCipher fieldCipher;
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final int maxResults;
+    private volatile DefaultSortedSetDocValuesReaderState facetState;
+
+    public CompanySearchIndex(CompanySearchProperties properties, FieldCipher fieldCipher) throws IOException {
+        this.fieldCipher = fieldCipher;
+        // without a configured directory the index lives in memory only; it is rebuilt from the DB on startup anyway
+        boolean inMemory = properties.getIndexDir() == null || properties.getIndexDir().isBlank();
+        this.directory = inMemory ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(properties.getIndexDir()));
+        this.writer = new IndexWriter(directory,
+                new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        dropIfEncryptionChanged();
+        this.searcherManager = new SearcherManager(writer, null);
+        this.maxResults = properties.getMaxResults();
+        log.info("Company search index opened {} with {} documents",
+                inMemory ? "in memory" : "at " + properties.getIndexDir(), writer.getDocStats().numDocs);
+    }
+
+    /**
+     * Add or replace a company in the index and make it searchable
+     */
+    public void index(Company company) {
+        indexAll(List.of(company));
+    }
+
+    /**
+     * Add or replace a batch of companies and make them searchable with a single reopen
+     */
+    public void indexAll(Collection<Company> companies) {
+        try {
+            for (Company company : companies) {
+                if (company.getId() != null) {
+                    writer.updateDocument(new Term(ID, company.getId().toString()),
+                            facetsConfig.build(toDocument(company)));
+                }
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to index companies", e);
+        }
+    }
+
+    public int size() {
+        return writer.getDocStats().numDocs;
+    }
+
+    /**
+     * Search companies by free text and exact facet filters
+     *
+     * @param text
+     *            query over name, registration number and description; blank matches everything
+     * @param filters
+     *            facet dimension to required value
+     * @param limit
+     *            maximum number of hits to return
+     *
+     * @return the hits plus facet counts over all matches
+     */
+    public CompanySearchResult search(String text, Map<String, String> filters, int limit) {
+        Query query = buildQuery(text, filters);
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                var result = FacetsCollectorManager.search(searcher, query, Math.max(1, Math.min(limit, maxResults)),
+                        new FacetsCollectorManager());
+
+                List<CompanySearchResult.Hit> hits = new ArrayList<>();
+                for (ScoreDoc scoreDoc : result.topDocs().scoreDocs) {
+                    hits.add(toHit(searcher.storedFields().document(scoreDoc.doc), scoreDoc.score));
+                }
+                long total = result.facetsCollector().getMatchingDocs().stream().mapToLong(docs -> docs.totalHits)
+                        .sum();
+
+                return new CompanySearchResult(total, hits, countFacets(searcher.getIndexReader(), result));
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Company search failed", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${onboard.search.commit-interval:PT30S}")
+    public void commit() throws IOException {
+        if (writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        commit();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * Documents written with encryption on and off do not mix, so an index written the other way is emptied and then
+     * rebuilt from the database on startup; this also removes plaintext left over from before encryption was enabled
+     */
+    private void dropIfEncryptionChanged() throws IOException {
+        String encrypted = String.valueOf(fieldCipher.isEnabled());
+        Map<String, String> commitData = new LinkedHashMap<>();
+        if (writer.getLiveCommitData() != null) {
+            writer.getLiveCommitData().forEach(entry -> commitData.put(entry.getKey(), entry.getValue()));
+        }
+        // indexes written before the flag was recorded hold plaintext
+        if (encrypted.equals(commitData.getOrDefault(ENCRYPTED, "false"))) {
+            return;
+        }
+        if (writer.getDocStats().numDocs > 0) {
+            log.warn("Company search index was written with encryption {}; dropping it",
+                    fieldCipher.isEnabled() ? "off" : "on");
+            writer.deleteAll();
+        }
+        commitData.put(ENCRYPTED, encrypted);
+        writer.setLiveCommitData(commitData.entrySet());
+        writer.commit();
+    }
+
+    private Query buildQuery(String text, Map<String, String> filters) {
+        Query base;
+        if (text == null || text.isBlank()) {
+            base = new MatchAllDocsQuery();
+        } else {
+            try {
+                base = new MultiFieldQueryParser(fieldCipher.isEnabled() ? UNENCRYPTED_TEXT_FIELDS : TEXT_FIELDS,
+                        analyzer, TEXT_BOOSTS).parse(text);
+            } catch (ParseException e) {
+                throw new IllegalArgumentException("Invalid search query: " + e.getMessage(), e);
+            }
+            String key = registrationKey(text);
+            if (key != null) {
+                base = new BooleanQuery.Builder().add(base, BooleanClause.Occur.SHOULD)
+                        .add(new BoostQuery(new TermQuery(new Term(REGISTRATION_KEY, key)),
+                                TEXT_BOOSTS.get("registrationNumber")), BooleanClause.Occur.SHOULD)
+                        .build();
+            }
+        }
+
+        DrillDownQuery drillDown = new DrillDownQuery(facetsConfig, base);
+        filters.forEach((dimension, value) -> {
+            if (!FACET_DIMENSIONS.contains(dimension)) {
+                throw new IllegalArgumentException("Unknown facet: " + dimension);
+            }
+            if (value != null && !value.isBlank()) {
+                drillDown.add(dimension, value);
+            }
+        });
+        return drillDown;
+    }
+
+    private Map<String, Map<String, Integer>> countFacets(IndexReader reader,
+            FacetsCollectorManager.FacetsResult result) throws IOException {
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+        if (reader.numDocs() == 0) {
+            return counts;
+        }
+
+        Facets facets = new SortedSetDocValuesFacetCounts(facetState(reader), result.facetsCollector());
+        for (String dimension : FACET_DIMENSIONS) {
+            Map<String, Integer> values = new LinkedHashMap<>();
+            FacetResult facetResult = topChildren(facets, dimension);
+            if (facetResult != null) {
+                for (LabelAndValue labelAndValue : facetResult.labelValues) {
+                    values.put(labelAndValue.label, labelAndValue.value.intValue());
+                }
+            }
+            counts.put(dimension, values);
+        }
+        return counts;
+    }
+
+    private static FacetResult topChildren(Facets facets, String dimension) throws IOException {
+        try {
+            return facets.getTopChildren(MAX_FACET_VALUES, dimension);
+        } catch (IllegalArgumentException e) {
+            // dimension has no values in the current reader yet
+            return null;
+        }
+    }
+
+    /**
+     * Facet ordinal state is tied to a reader, so it is rebuilt only when a refresh produced a new one
+     */
+    private DefaultSortedSetDocValuesReaderState facetState(IndexReader reader) throws IOException {
+        DefaultSortedSetDocValuesReaderState state = facetState;
+        if (state == null || state.getReader() != reader) {
+            state = new DefaultSortedSetDocValuesReaderState(reader, facetsConfig);
+            facetState = state;
+        }
+        return state;
+    }
+
+    private Document toDocument(Company company) {
+        Document document = new Document();
+        document.add(new StringField(ID, company.getId().toString(), Field.Store.YES));
+        addText(document, "name", company.getName(), true);
+        if (fieldCipher.isEnabled()) {
+            String key = registrationKey(company.getRegistrationNumber());
+            if (key != null) {
+                document.add(new StringField(REGISTRATION_KEY, key, Field.Store.NO));
+            }
+        } else {
+            addText(document, "registrationNumber", company.getRegistrationNumber(), true);
+        }
+        addText(document, "description", company.getDescription(), false);
+
+        addFacet(document, "country", company.getCountry());
+        addFacet(document, "industrySector", company.getIndustrySector());
+        addFacet(document, "progressState",
+                company.getProgressState() != null ? company.getProgressState().name() : null);
+        addFacet(document, "companySize", company.getCompanySize());
+        return document;
+    }
+
+    /**
+     * Blind index token of a registration number when encryption is enabled, or null when it is indexed as text
+     */
+    private String registrationKey(String registrationNumber) {
+        String key = fieldCipher.isEnabled() ? DuplicateKeys.normalize(registrationNumber) : null;
+        return key != null ? fieldCipher.blindIndex(key) : null;
+    }
+
+    private static void addText(Document document, String field, String value, boolean store) {
+        if (value != null) {
+            document.add(new TextField(field, value, store ? Field.Store.YES : Field.Store.NO));
+        }
+    }
+
+    private static void addFacet(Document document, String dimension, String value) {
+        if (value != null && !value.isBlank()) {
+            document.add(new SortedSetDocValuesFacetField(dimension, value));
+            document.add(new StoredField(dimension, value));
+        }
+    }
+
+    private static CompanySearchResult.Hit toHit(Document document, float score) {
+        return new CompanySearchResult.Hit(Long.valueOf(document.get(ID)), document.get("name"),
+                document.get("registrationNumber"), document.get("country"), document.get("industrySector"),
+                document.get("progressState"), document.get("companySize"), score);
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.sharifrahim.onboard.search;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.sharifrahim.onboard.datasource.sharding.ShardRouter;
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.event.CompanyChangedEvent;
+import com.github.sharifrahim.onboard.repository.CompanyRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the company search index in step with approved company changes. Changes are indexed on a background thread once
+ * their transaction has committed, so an index failure never fails the approval that caused it; failures are logged and
+ * retried with backoff.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CompanySearchIndexer implements DisposableBean {
+
+    private final CompanySearchIndex searchIndex;
+    private final CompanyRepository companyRepository;
+    private final ShardRouter shardRouter;
+    private final CompanySearchProperties properties;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "search-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Populate an empty index from the database, e.g. on first start or after the index directory was wiped
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (searchIndex.size() > 0) {
+            return;
+        }
+        var companies = shardRouter.scatterGather(companyRepository::findAll);
+        searchIndex.indexAll(companies);
+        log.info("Indexed {} companies into empty search index", companies.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCompanyChanged(CompanyChangedEvent event) {
+        executor.execute(() -> index(event.company(), 1));
+    }
+
+    private void index(Company company, int attempt) {
+        try {
+            searchIndex.index(company);
+        } catch (RuntimeException e) {
+            if (attempt >= properties.getIndexAttempts()) {
+                log.error("Giving up indexing company {} after {} attempts", company.getId(), attempt, e);
+                return;
+            }
+            long delay = properties.getRetryBackoff().toMillis() << (attempt - 1);
+            log.warn("Indexing company {} failed, retrying in {} ms", company.getId(), delay, e);
+            // a retry re-reads the company so it never overwrites a change indexed in the meantime
+            executor.schedule(() -> index(latest(company), attempt + 1), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private Company latest(Company company) {
+        if (company.getId() == null) {
+            return company;
+        }
+        return companyRepository.findById(company.getId()).orElse(company);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
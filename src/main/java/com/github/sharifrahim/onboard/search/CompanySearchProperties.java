@@ -0,0 +1,35 @@
+package com.github.sharifrahim.onboard.search;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuration of the embedded company search index
+ */
+@Data
+@ConfigurationProperties(prefix = "onboard.search")
+public class CompanySearchProperties {
+
+    /**
+     * Directory holding the Lucene index; the index is held in memory when blank
+     */
+    private String indexDir;
+
+    /**
+     * Upper bound on the page size a caller may request
+     */
+    private int maxResults = 100;
+
+    /**
+     * Attempts at indexing a changed company before it is left for the next change or rebuild
+     */
+    private int indexAttempts = 3;
+
+    /**
+     * Delay before the first retry of a failed indexing; doubled on every further attempt
+     */
+    private Duration retryBackoff = Duration.ofSeconds(1);
+}
@@ -0,0 +1,21 @@
+package com.github.sharifrahim.onboard.search;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a company search
+ *
+ * @param total
+ *            number of matching companies
+ * @param hits
+ *            the requested page of matches, best first
+ * @param facets
+ *            per facet dimension, the value counts over all matches
+ */
+public record CompanySearchResult(long total, List<Hit> hits, Map<String, Map<String, Integer>> facets) {
+
+    public record Hit(Long id, String name, String registrationNumber, String country, String industrySector,
+            String progressState, String companySize, float score) {
+    }
+}
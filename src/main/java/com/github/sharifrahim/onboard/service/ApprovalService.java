@@ -1,10 +1,16 @@
 package com.github.sharifrahim.onboard.service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.github.sharifrahim.onboard.archive.ApprovalArchive;
+import com.github.sharifrahim.onboard.datasource.sharding.ShardRouter;
 import com.github.sharifrahim.onboard.domain.Approval;
 import com.github.sharifrahim.onboard.repository.ApprovalRepository;
 
@@ -15,24 +21,97 @@ import lombok.RequiredArgsConstructor;
 public class ApprovalService {
 
     private final ApprovalRepository approvalRepository;
+    private final ShardRouter shardRouter;
+    private final ApprovalArchive archive;
 
     public Approval save(Approval approval) {
         return approvalRepository.save(approval);
     }
 
-    public Optional<Approval> findById(Long id) {
+    /**
+     * Find an approval in the hot table only. Decisions and other writes go through this, so an archived approval can
+     * never be decided or changed again
+     */
+    @Transactional(readOnly = true)
+    public Optional<Approval> findHotById(Long id) {
         return approvalRepository.findById(id);
     }
 
+    /**
+     * Find an approval in the hot table, falling back to the archive; for reading only
+     */
+    @Transactional(readOnly = true)
+    public Optional<Approval> findById(Long id) {
+        Optional<Approval> approval = approvalRepository.findById(id);
+        if (approval.isPresent()) {
+            return approval;
+        }
+        return shardRouter.onShard(shardRouter.shardForId(id), () -> archive.findById(id));
+    }
+
+    @Transactional(readOnly = true)
     public List<Approval> findAll() {
-        return approvalRepository.findAll();
+        return findAll(false);
     }
 
+    /**
+     * List approvals of every shard
+     *
+     * @param includeArchived
+     *            whether to decompress and merge the archive as well; it only ever grows, so listings leave it out
+     *            unless asked
+     */
+    @Transactional(readOnly = true)
+    public List<Approval> findAll(boolean includeArchived) {
+        return gather(() -> includeArchived ? bothTiers(approvalRepository.findAll(), archive.findAll())
+                : approvalRepository.findAll());
+    }
+
+    @Transactional(readOnly = true)
     public List<Approval> findByType(Approval.Type type) {
-        return approvalRepository.findByType(type);
+        return findByType(type, false);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Approval> findByType(Approval.Type type, boolean includeArchived) {
+        return gather(() -> includeArchived ? bothTiers(approvalRepository.findByType(type), archive.findByType(type))
+                : approvalRepository.findByType(type));
     }
 
+    @Transactional(readOnly = true)
     public List<Approval> findByTypeAndStatus(Approval.Type type, Approval.ApprovalStatus status) {
-        return approvalRepository.findByTypeAndApprovalStatus(type, status);
+        return findByTypeAndStatus(type, status, false);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Approval> findByTypeAndStatus(Approval.Type type, Approval.ApprovalStatus status,
+            boolean includeArchived) {
+        if (!includeArchived || status == Approval.ApprovalStatus.PENDING) {
+            // only decided approvals are ever archived
+            return gather(() -> approvalRepository.findByTypeAndApprovalStatus(type, status));
+        }
+        return gather(() -> bothTiers(approvalRepository.findByTypeAndApprovalStatus(type, status),
+                archive.findByTypeAndStatus(type, status)));
+    }
+
+    /**
+     * Listings span every shard; the merged result is ordered by id so it does not depend on shard response order
+     */
+    private List<Approval> gather(Supplier<List<Approval>> query) {
+        if (!shardRouter.isEnabled()) {
+            return query.get();
+        }
+        return shardRouter.scatterGather(query).stream().sorted(Comparator.comparing(Approval::getId)).toList();
+    }
+
+    private static List<Approval> bothTiers(List<Approval> hot, List<Approval> archived) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<Approval> merged = new ArrayList<>(hot.size() + archived.size());
+        merged.addAll(archived);
+        merged.addAll(hot);
+        merged.sort(Comparator.comparing(Approval::getId));
+        return merged;
     }
 }
@@ -12,10 +12,19 @@ public interface ApprovalProcessor {
      *
      * @param approval
      *            the approval to process
+     * @param reviewer
+     *            the reviewer recorded as deciding, or null for the system
      *
      * @return the processed approval
      */
-    Approval approve(Approval approval);
+    Approval approve(Approval approval, String reviewer);
+
+    /**
+     * Process an approval request on behalf of the system
+     */
+    default Approval approve(Approval approval) {
+        return approve(approval, null);
+    }
 
     /**
      * Process a rejection request
@@ -24,10 +33,19 @@ public interface ApprovalProcessor {
      *            the approval to reject
      * @param reason
      *            the reason for rejection
+     * @param reviewer
+     *            the reviewer recorded as deciding, or null for the system
      *
      * @return the processed approval
      */
-    Approval reject(Approval approval, String reason);
+    Approval reject(Approval approval, String reason, String reviewer);
+
+    /**
+     * Process a rejection request on behalf of the system
+     */
+    default Approval reject(Approval approval, String reason) {
+        return reject(approval, reason, null);
+    }
 
     /**
      * Get the approval type this processor handles
@@ -7,19 +7,22 @@ import org.springframework.stereotype.Component;
 
 import com.github.sharifrahim.onboard.domain.Approval;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Registry for managing approval processors
+ * Registry for managing approval processors. Processors are handed out wrapped to emit a flight recorder event per
+ * decision
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class ApprovalProcessorRegistry {
 
     private final List<ApprovalProcessor> processors;
 
+    public ApprovalProcessorRegistry(List<ApprovalProcessor> processors) {
+        this.processors = processors.stream().<ApprovalProcessor> map(RecordedApprovalProcessor::new).toList();
+    }
+
     /**
      * Find the appropriate processor for the given approval type
      *
@@ -34,7 +37,8 @@ public class ApprovalProcessorRegistry {
         Optional<ApprovalProcessor> processor = processors.stream().filter(p -> p.canHandle(type)).findFirst();
 
         if (processor.isPresent()) {
-            log.debug("Found processor: {} for type: {}", processor.get().getClass().getSimpleName(), type);
+            // formatted only when debug is on; the wrapper names the processor it wraps
+            log.debug("Found processor: {} for type: {}", processor.get(), type);
         } else {
             log.warn("No processor found for approval type: {}", type);
         }
@@ -48,7 +52,7 @@ public class ApprovalProcessorRegistry {
      * @return list of all registered processors
      */
     public List<ApprovalProcessor> getAllProcessors() {
-        return List.copyOf(processors);
+        return processors;
     }
 
     /**
@@ -5,46 +5,68 @@ import java.time.LocalDateTime;
 import org.springframework.stereotype.Service;
 
 import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.exception.DecisionConflictException;
+import com.github.sharifrahim.onboard.repository.ApprovalRepository;
 import com.github.sharifrahim.onboard.service.ApprovalService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Common service for handling approval status updates
+ * Common service for handling approval status updates. Decisions are written with a conditional update on a pending
+ * approval, so a reviewer's decision and the SLA scheduler's expiry cannot overwrite each other; processors record the
+ * decision before they apply the approval's data
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ApprovalStatusService {
 
+    /** Recorded as the decider when no reviewer is known */
+    private static final String SYSTEM = "system";
+
     private final ApprovalService approvalService;
+    private final ApprovalRepository approvalRepository;
 
     /**
-     * Marks an approval as approved and saves it
+     * Marks a pending approval as approved by a reviewer, or by the system when the reviewer is null
+     *
+     * @throws DecisionConflictException
+     *             if the approval is no longer pending
      */
-    public Approval markAsApproved(Approval approval) {
+    public Approval markAsApproved(Approval approval, String reviewer) {
         log.info("Marking approval {} as APPROVED", approval.getId());
 
+        String approvedBy = reviewer != null ? reviewer : SYSTEM;
+        LocalDateTime now = LocalDateTime.now();
+        if (approvalRepository.approvePendingById(approval.getId(), approvedBy, now) == 0) {
+            throw notPending(approval);
+        }
         approval.setApprovalStatus(Approval.ApprovalStatus.APPROVED);
-        approval.setApprovedBy("system");
-        approval.setApprovedAt(LocalDateTime.now());
-
-        return approvalService.save(approval);
+        approval.setApprovedBy(approvedBy);
+        approval.setApprovedAt(now);
+        return approval;
     }
 
     /**
-     * Marks an approval as rejected with a reason and saves it
+     * Marks a pending approval as rejected with a reason by a reviewer, or by the system when the reviewer is null
+     *
+     * @throws DecisionConflictException
+     *             if the approval is no longer pending
      */
-    public Approval markAsRejected(Approval approval, String reason) {
+    public Approval markAsRejected(Approval approval, String reason, String reviewer) {
         log.info("Marking approval {} as REJECTED with reason: {}", approval.getId(), reason);
 
+        String rejectedBy = reviewer != null ? reviewer : SYSTEM;
+        LocalDateTime now = LocalDateTime.now();
+        if (approvalRepository.rejectPendingById(approval.getId(), rejectedBy, now, reason) == 0) {
+            throw notPending(approval);
+        }
         approval.setApprovalStatus(Approval.ApprovalStatus.REJECTED);
-        approval.setApprovedBy("system");
-        approval.setApprovedAt(LocalDateTime.now());
+        approval.setApprovedBy(rejectedBy);
+        approval.setApprovedAt(now);
         approval.setRemarks(reason);
-
-        return approvalService.save(approval);
+        return approval;
     }
 
     /**
@@ -56,4 +78,8 @@ public class ApprovalStatusService {
         approval.setDataId(dataId);
         return approvalService.save(approval);
     }
+
+    private static DecisionConflictException notPending(Approval approval) {
+        return new DecisionConflictException("Approval " + approval.getId() + " is no longer pending");
+    }
 }
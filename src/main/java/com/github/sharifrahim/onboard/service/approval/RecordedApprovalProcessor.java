@@ -0,0 +1,56 @@
+package com.github.sharifrahim.onboard.service.approval;
+
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.jfr.ApprovalEvent;
+
+/**
+ * Emits an {@link ApprovalEvent} around the decisions of the processor it wraps
+ */
+class RecordedApprovalProcessor implements ApprovalProcessor {
+
+    private final ApprovalProcessor delegate;
+
+    RecordedApprovalProcessor(ApprovalProcessor delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Approval approve(Approval approval, String reviewer) {
+        ApprovalEvent recorded = new ApprovalEvent(delegate.getType().name(), approval.getId(), "APPROVE");
+        recorded.start();
+        try {
+            return delegate.approve(approval, reviewer);
+        } finally {
+            recorded.finish();
+        }
+    }
+
+    @Override
+    public Approval reject(Approval approval, String reason, String reviewer) {
+        ApprovalEvent recorded = new ApprovalEvent(delegate.getType().name(), approval.getId(), "REJECT");
+        recorded.start();
+        try {
+            return delegate.reject(approval, reason, reviewer);
+        } finally {
+            recorded.finish();
+        }
+    }
+
+    @Override
+    public Approval.Type getType() {
+        return delegate.getType();
+    }
+
+    @Override
+    public boolean canHandle(Approval.Type type) {
+        return delegate.canHandle(type);
+    }
+
+    /**
+     * The simple class name of the wrapped processor, as the registry logs it
+     */
+    @Override
+    public String toString() {
+        return delegate.getClass().getSimpleName();
+    }
+}
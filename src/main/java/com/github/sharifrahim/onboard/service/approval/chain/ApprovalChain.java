@@ -0,0 +1,26 @@
+package com.github.sharifrahim.onboard.service.approval.chain;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Sign-off progress of an approval
+ */
+public record ApprovalChain(Long approvalId, String chain, int step, Status status, List<Stage> stages,
+        List<Decision> decisions) {
+
+    public enum Status {
+        WAITING, OPEN, APPROVED, REJECTED
+    }
+
+    public enum Verdict {
+        APPROVE, REJECT
+    }
+
+    public record Stage(int stage, String name, int step, List<String> reviewers, int required, int vetoes,
+            int approvals, int rejections, Status status) {
+    }
+
+    public record Decision(String reviewer, int stage, Verdict verdict, String remarks, Instant decidedAt) {
+    }
+}
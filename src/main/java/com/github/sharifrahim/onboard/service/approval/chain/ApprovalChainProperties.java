@@ -0,0 +1,57 @@
+package com.github.sharifrahim.onboard.service.approval.chain;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.github.sharifrahim.onboard.domain.Approval;
+
+import lombok.Data;
+
+/**
+ * Configuration of multi-reviewer approval chains
+ */
+@Data
+@ConfigurationProperties(prefix = "onboard.approvals")
+public class ApprovalChainProperties {
+
+    /**
+     * Stages of each chain by chain name
+     */
+    private Map<String, List<Stage>> chains = new HashMap<>();
+
+    /**
+     * Chain that approvals of a type go through; approvals of other types are decided by a single reviewer
+     */
+    private Map<Approval.Type, String> byType = new EnumMap<>(Approval.Type.class);
+
+    @Data
+    public static class Stage {
+
+        private String name;
+
+        /**
+         * Stages with the same step are decided in parallel; the next step opens once all of them are approved
+         */
+        private int step = 1;
+
+        /**
+         * Reviewers who may decide in this stage; anyone but the submitter when empty
+         */
+        private List<String> reviewers = new ArrayList<>();
+
+        /**
+         * Approvals that complete the stage
+         */
+        private int required = 1;
+
+        /**
+         * Rejections that reject the whole approval
+         */
+        private int vetoes = 1;
+    }
+}
@@ -0,0 +1,275 @@
+package com.github.sharifrahim.onboard.service.approval.chain;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.sharifrahim.onboard.datasource.sharding.ShardRouter;
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.event.ApprovalSubmittedEvent;
+import com.github.sharifrahim.onboard.exception.DecisionConflictException;
+import com.github.sharifrahim.onboard.exception.ValidationException;
+import com.github.sharifrahim.onboard.service.ApprovalService;
+import com.github.sharifrahim.onboard.service.approval.ApprovalProcessor;
+import com.github.sharifrahim.onboard.service.approval.ApprovalProcessorRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Multi-reviewer sign-off of approvals whose type is assigned a chain.
+ * <p>
+ * The chain is laid out in {@code approval_stage} when the approval is submitted, one row per stage with its quorum and
+ * counters. A reviewer's decision is recorded in {@code approval_decision}, one per reviewer, and counted with a
+ * conditional update that only succeeds while the stage is open and short of its quorum. Concurrent reviewers therefore
+ * serialize on the stage row, and exactly one of them completes the stage. Completed stages are counted down the same
+ * way on the {@code approval_chain} row; the reviewer who completes the last step applies the approval through its
+ * {@link ApprovalProcessor} in the same transaction. A veto rejects the approval at once.
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(ApprovalChainProperties.class)
+public class ApprovalChainService {
+
+    private static final RowMapper<ApprovalChain.Stage> STAGE_MAPPER = (rs, i) -> new ApprovalChain.Stage(
+            rs.getInt("stage"), rs.getString("name"), rs.getInt("step"), reviewers(rs.getString("reviewers")),
+            rs.getInt("required"), rs.getInt("vetoes"), rs.getInt("approvals"), rs.getInt("rejections"),
+            ApprovalChain.Status.valueOf(rs.getString("status")));
+
+    private static final RowMapper<ApprovalChain.Decision> DECISION_MAPPER = (rs, i) -> new ApprovalChain.Decision(
+            rs.getString("reviewer"), rs.getInt("stage"), ApprovalChain.Verdict.valueOf(rs.getString("verdict")),
+            rs.getString("remarks"), rs.getTimestamp("decided_at").toInstant());
+
+    private final ApprovalChainProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final ApprovalService approvalService;
+    private final ApprovalProcessorRegistry processorRegistry;
+
+    public ApprovalChainService(ApprovalChainProperties properties, JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate, ShardRouter shardRouter, ApprovalService approvalService,
+            ApprovalProcessorRegistry processorRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.approvalService = approvalService;
+        this.processorRegistry = processorRegistry;
+        properties.getByType().forEach((type, chain) -> checkChain(chain));
+    }
+
+    @EventListener
+    public void onApprovalSubmitted(ApprovalSubmittedEvent event) {
+        Approval approval = event.approval();
+        String chain = properties.getByType().get(approval.getType());
+        if (chain == null) {
+            return;
+        }
+        List<ApprovalChainProperties.Stage> stages = properties.getChains().get(chain);
+        int firstStep = stages.stream().mapToInt(ApprovalChainProperties.Stage::getStep).min().orElseThrow();
+        shardRouter.onShard(shardRouter.shardForId(approval.getId()), () -> transactionTemplate.execute(status -> {
+            int open = 0;
+            for (int i = 0; i < stages.size(); i++) {
+                ApprovalChainProperties.Stage stage = stages.get(i);
+                boolean opens = stage.getStep() == firstStep;
+                open += opens ? 1 : 0;
+                jdbcTemplate.update(
+                        "INSERT INTO approval_stage (approval_id, stage, name, step, reviewers, required, vetoes,"
+                                + " status) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                        approval.getId(), i + 1, stage.getName() != null ? stage.getName() : "Stage " + (i + 1),
+                        stage.getStep(), stage.getReviewers().isEmpty() ? null : String.join(",", stage.getReviewers()),
+                        stage.getRequired(), stage.getVetoes(),
+                        (opens ? ApprovalChain.Status.OPEN : ApprovalChain.Status.WAITING).name());
+            }
+            jdbcTemplate.update(
+                    "INSERT INTO approval_chain (approval_id, chain, step, open_stages, status) VALUES (?, ?, ?, ?, ?)",
+                    approval.getId(), chain, firstStep, open, ApprovalChain.Status.OPEN.name());
+            return null;
+        }));
+        log.info("Approval {} needs sign-off through chain {}", approval.getId(), chain);
+    }
+
+    /**
+     * Whether the approval goes through a chain rather than a single reviewer
+     */
+    public boolean hasChain(Long approvalId) {
+        return shardRouter.onShard(shardRouter.shardForId(approvalId), () -> !jdbcTemplate
+                .queryForList("SELECT step FROM approval_chain WHERE approval_id = ?", Integer.class, approvalId)
+                .isEmpty());
+    }
+
+    /**
+     * Sign-off progress of an approval, if it goes through a chain
+     */
+    public Optional<ApprovalChain> findChain(Long approvalId) {
+        return shardRouter.onShard(shardRouter.shardForId(approvalId), () -> {
+            List<ApprovalChain> chains = jdbcTemplate.query(
+                    "SELECT chain, step, status FROM approval_chain WHERE approval_id = ?",
+                    (rs, i) -> new ApprovalChain(approvalId, rs.getString("chain"), rs.getInt("step"),
+                            ApprovalChain.Status.valueOf(rs.getString("status")),
+                            jdbcTemplate.query("SELECT * FROM approval_stage WHERE approval_id = ? ORDER BY stage",
+                                    STAGE_MAPPER, approvalId),
+                            jdbcTemplate.query(
+                                    "SELECT * FROM approval_decision WHERE approval_id = ? ORDER BY decided_at, reviewer",
+                                    DECISION_MAPPER, approvalId)),
+                    approvalId);
+            return chains.stream().findFirst();
+        });
+    }
+
+    /**
+     * Record a reviewer's decision in the first open stage the reviewer may decide in
+     *
+     * @return the chain status after the decision; APPROVED or REJECTED once the approval itself was decided
+     *
+     * @throws ValidationException
+     *             if the reviewer may not decide the approval at its current step
+     * @throws DecisionConflictException
+     *             if the reviewer already decided, or the stage or approval was decided in the meantime
+     */
+    public ApprovalChain.Status decide(Approval approval, String reviewer, ApprovalChain.Verdict verdict,
+            String remarks) {
+        if (reviewer == null || reviewer.isBlank()) {
+            throw new ValidationException("A reviewer is required to decide approval " + approval.getId());
+        }
+        if (reviewer.equals(approval.getSubmittedBy())) {
+            throw new ValidationException("Approval " + approval.getId() + " cannot be decided by its submitter");
+        }
+        Long id = approval.getId();
+        return shardRouter.onShard(shardRouter.shardForId(id), () -> transactionTemplate.execute(status -> {
+            Map<String, Object> chain = jdbcTemplate
+                    .queryForList("SELECT step, status FROM approval_chain WHERE approval_id = ?", id).stream()
+                    .findFirst().orElseThrow(() -> new IllegalStateException("Approval " + id + " has no chain"));
+            if (!ApprovalChain.Status.OPEN.name().equals(chain.get("status"))
+                    || approval.getApprovalStatus() != Approval.ApprovalStatus.PENDING) {
+                throw new DecisionConflictException("Approval " + id + " is already decided");
+            }
+            int step = ((Number) chain.get("step")).intValue();
+            List<ApprovalChain.Stage> eligible = jdbcTemplate
+                    .query("SELECT * FROM approval_stage WHERE approval_id = ? AND step = ? ORDER BY stage",
+                            STAGE_MAPPER, id, step)
+                    .stream().filter(s -> s.reviewers().isEmpty() || s.reviewers().contains(reviewer)).toList();
+            if (eligible.isEmpty()) {
+                throw new ValidationException(
+                        "Reviewer " + reviewer + " cannot decide approval " + id + " at step " + step);
+            }
+            ApprovalChain.Stage stage = eligible.stream().filter(s -> s.status() == ApprovalChain.Status.OPEN)
+                    .findFirst().orElseThrow(() -> new DecisionConflictException(
+                            "The stages reviewer " + reviewer + " may decide are already decided"));
+
+            try {
+                jdbcTemplate.update(
+                        "INSERT INTO approval_decision (approval_id, reviewer, stage, verdict, remarks, decided_at)"
+                                + " VALUES (?, ?, ?, ?, ?, ?)",
+                        id, reviewer, stage.stage(), verdict.name(), truncate(remarks), Timestamp.from(Instant.now()));
+            } catch (DuplicateKeyException e) {
+                throw new DecisionConflictException("Reviewer " + reviewer + " already decided approval " + id);
+            }
+            return verdict == ApprovalChain.Verdict.APPROVE ? approve(approval, stage, step, reviewer)
+                    : reject(approval, stage, remarks, reviewer);
+        }));
+    }
+
+    /**
+     * Count an approval towards its stage; the reviewer completing the last stage is recorded as approving
+     */
+    private ApprovalChain.Status approve(Approval approval, ApprovalChain.Stage stage, int step, String reviewer) {
+        Long id = approval.getId();
+        // the row lock taken here orders concurrent reviewers; only one of them can reach the quorum
+        if (jdbcTemplate.update("UPDATE approval_stage SET approvals = approvals + 1 WHERE approval_id = ?"
+                + " AND stage = ? AND status = 'OPEN' AND approvals < required", id, stage.stage()) == 0) {
+            throw new DecisionConflictException(stage.name() + " of approval " + id + " is already decided");
+        }
+        Integer missing = jdbcTemplate.queryForObject(
+                "SELECT required - approvals FROM approval_stage WHERE approval_id = ? AND stage = ?", Integer.class,
+                id, stage.stage());
+        if (missing > 0) {
+            return ApprovalChain.Status.OPEN;
+        }
+        jdbcTemplate.update("UPDATE approval_stage SET status = 'APPROVED' WHERE approval_id = ? AND stage = ?", id,
+                stage.stage());
+        jdbcTemplate.update("UPDATE approval_chain SET open_stages = open_stages - 1 WHERE approval_id = ?"
+                + " AND step = ? AND status = 'OPEN'", id, step);
+        Integer open = jdbcTemplate.queryForObject("SELECT open_stages FROM approval_chain WHERE approval_id = ?",
+                Integer.class, id);
+        if (open > 0) {
+            return ApprovalChain.Status.OPEN;
+        }
+
+        Integer next = jdbcTemplate.queryForObject(
+                "SELECT MIN(step) FROM approval_stage WHERE approval_id = ? AND step > ?", Integer.class, id, step);
+        if (next != null) {
+            int opened = jdbcTemplate
+                    .update("UPDATE approval_stage SET status = 'OPEN' WHERE approval_id = ? AND step = ?", id, next);
+            jdbcTemplate.update("UPDATE approval_chain SET step = ?, open_stages = ? WHERE approval_id = ?", next,
+                    opened, id);
+            log.info("Approval {} moved to step {} of its chain", id, next);
+            return ApprovalChain.Status.OPEN;
+        }
+        jdbcTemplate.update("UPDATE approval_chain SET status = 'APPROVED' WHERE approval_id = ?", id);
+        processor(approval).approve(approval, reviewer);
+        return ApprovalChain.Status.APPROVED;
+    }
+
+    private ApprovalChain.Status reject(Approval approval, ApprovalChain.Stage stage, String remarks, String reviewer) {
+        Long id = approval.getId();
+        if (jdbcTemplate.update("UPDATE approval_stage SET rejections = rejections + 1 WHERE approval_id = ?"
+                + " AND stage = ? AND status = 'OPEN' AND rejections < vetoes", id, stage.stage()) == 0) {
+            throw new DecisionConflictException(stage.name() + " of approval " + id + " is already decided");
+        }
+        Integer missing = jdbcTemplate.queryForObject(
+                "SELECT vetoes - rejections FROM approval_stage WHERE approval_id = ? AND stage = ?", Integer.class, id,
+                stage.stage());
+        if (missing > 0) {
+            return ApprovalChain.Status.OPEN;
+        }
+        jdbcTemplate.update("UPDATE approval_stage SET status = 'REJECTED' WHERE approval_id = ? AND stage = ?", id,
+                stage.stage());
+        if (jdbcTemplate.update(
+                "UPDATE approval_chain SET status = 'REJECTED' WHERE approval_id = ? AND status = 'OPEN'", id) == 0) {
+            throw new DecisionConflictException("Approval " + id + " is already decided");
+        }
+        processor(approval).reject(approval, remarks != null ? remarks : "Rejected in " + stage.name(), reviewer);
+        return ApprovalChain.Status.REJECTED;
+    }
+
+    private ApprovalProcessor processor(Approval approval) {
+        return processorRegistry.findProcessor(approval.getType())
+                .orElseThrow(() -> new IllegalStateException("No processor for approval type " + approval.getType()));
+    }
+
+    private void checkChain(String name) {
+        List<ApprovalChainProperties.Stage> stages = properties.getChains().get(name);
+        if (stages == null || stages.isEmpty()) {
+            throw new IllegalStateException("Approval chain " + name + " has no stages");
+        }
+        for (ApprovalChainProperties.Stage stage : stages) {
+            if (stage.getRequired() < 1 || stage.getVetoes() < 1) {
+                throw new IllegalStateException("Stages of approval chain " + name + " need a quorum and a veto");
+            }
+            if (!stage.getReviewers().isEmpty() && stage.getReviewers().size() < stage.getRequired()) {
+                throw new IllegalStateException("A stage of approval chain " + name + " needs " + stage.getRequired()
+                        + " approvals but lists fewer reviewers");
+            }
+        }
+    }
+
+    private static List<String> reviewers(String reviewers) {
+        return reviewers != null ? Arrays.asList(reviewers.split(",")) : List.of();
+    }
+
+    private static String truncate(String remarks) {
+        return remarks != null && remarks.length() > 500 ? remarks.substring(0, 500) : remarks;
+    }
+}
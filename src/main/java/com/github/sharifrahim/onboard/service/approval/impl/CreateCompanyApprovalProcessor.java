@@ -1,11 +1,16 @@
 package com.github.sharifrahim.onboard.service.approval.impl;
 
+import java.time.LocalDateTime;
+
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.sharifrahim.onboard.domain.Approval;
 import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.event.CompanyChangedEvent;
+import com.github.sharifrahim.onboard.journal.JournalProperties;
 import com.github.sharifrahim.onboard.repository.CompanyRepository;
 import com.github.sharifrahim.onboard.service.approval.ApprovalProcessor;
 import com.github.sharifrahim.onboard.service.approval.ApprovalStatusService;
@@ -24,14 +29,22 @@ public class CreateCompanyApprovalProcessor implements ApprovalProcessor {
     private final CompanyRepository companyRepository;
     private final ApprovalStatusService approvalStatusService;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JournalProperties journalProperties;
 
     @Override
-    public Approval approve(Approval approval) {
+    public Approval approve(Approval approval, String reviewer) {
         log.info("Processing approval for CREATE_COMPANY with ID: {}", approval.getId());
 
+        // Claim the decision first; an approval decided or expired in the meantime leaves the company untouched
+        Approval approved = approvalStatusService.markAsApproved(approval, reviewer);
+
         try {
             // Parse the company data from JSON
             Company company = fromJson(approval.getNewData());
+            if (company.getProgressUpdatedAt() == null) {
+                company.setProgressUpdatedAt(LocalDateTime.now());
+            }
 
             // Save the company
             Company savedCompany;
@@ -41,14 +54,15 @@ public class CreateCompanyApprovalProcessor implements ApprovalProcessor {
                 log.info("Created new company with ID: {}", savedCompany.getId());
             } else if (approval.getOperationType() == Approval.OperationType.UPDATE) {
                 company.setId(approval.getDataId());
-                savedCompany = companyRepository.save(company);
+                // In journal mode the projector writes the update from the journal
+                savedCompany = journalProperties.isEnabled() ? company : companyRepository.save(company);
                 log.info("Updated company with ID: {}", savedCompany.getId());
             } else {
                 throw new IllegalArgumentException("Unsupported operation type: " + approval.getOperationType());
             }
 
-            // Update approval status using common service
-            return approvalStatusService.markAsApproved(approval);
+            eventPublisher.publishEvent(new CompanyChangedEvent(savedCompany, approved));
+            return approved;
 
         } catch (Exception e) {
             log.error("Error processing CREATE_COMPANY approval: {}", e.getMessage(), e);
@@ -57,10 +71,10 @@ public class CreateCompanyApprovalProcessor implements ApprovalProcessor {
     }
 
     @Override
-    public Approval reject(Approval approval, String reason) {
+    public Approval reject(Approval approval, String reason, String reviewer) {
         log.info("Rejecting CREATE_COMPANY approval with ID: {} for reason: {}", approval.getId(), reason);
 
-        return approvalStatusService.markAsRejected(approval, reason);
+        return approvalStatusService.markAsRejected(approval, reason, reviewer);
     }
 
     @Override
@@ -2,15 +2,18 @@ package com.github.sharifrahim.onboard.service.approval.impl;
 
 import java.time.LocalDateTime;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.sharifrahim.onboard.domain.Approval;
 import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.event.CompanyChangedEvent;
+import com.github.sharifrahim.onboard.journal.JournalProperties;
 import com.github.sharifrahim.onboard.repository.CompanyRepository;
-import com.github.sharifrahim.onboard.service.ApprovalService;
 import com.github.sharifrahim.onboard.service.approval.ApprovalProcessor;
+import com.github.sharifrahim.onboard.service.approval.ApprovalStatusService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,28 +27,32 @@ import lombok.extern.slf4j.Slf4j;
 public class UpdateOperationalInfoApprovalProcessor implements ApprovalProcessor {
 
     private final CompanyRepository companyRepository;
-    private final ApprovalService approvalService;
+    private final ApprovalStatusService approvalStatusService;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JournalProperties journalProperties;
 
     @Override
-    public Approval approve(Approval approval) {
+    public Approval approve(Approval approval, String reviewer) {
         log.info("Processing approval for UPDATE_OPERATIONAL_INFO with ID: {}", approval.getId());
 
+        // Claim the decision first; an approval decided or expired in the meantime leaves the company untouched
+        Approval approved = approvalStatusService.markAsApproved(approval, reviewer);
+
         try {
             // Parse the company data from JSON
             Company company = fromJson(approval.getNewData());
+            if (company.getProgressUpdatedAt() == null) {
+                company.setProgressUpdatedAt(LocalDateTime.now());
+            }
             company.setId(approval.getDataId());
 
-            // Update the company
-            Company savedCompany = companyRepository.save(company);
+            // Update the company; in journal mode the projector writes it from the journal
+            Company savedCompany = journalProperties.isEnabled() ? company : companyRepository.save(company);
             log.info("Updated company operational info with ID: {}", savedCompany.getId());
 
-            // Update approval status
-            approval.setApprovalStatus(Approval.ApprovalStatus.APPROVED);
-            approval.setApprovedBy("system");
-            approval.setApprovedAt(LocalDateTime.now());
-
-            return approvalService.save(approval);
+            eventPublisher.publishEvent(new CompanyChangedEvent(savedCompany, approved));
+            return approved;
 
         } catch (Exception e) {
             log.error("Error processing UPDATE_OPERATIONAL_INFO approval: {}", e.getMessage(), e);
@@ -54,15 +61,10 @@ public class UpdateOperationalInfoApprovalProcessor implements ApprovalProcessor
     }
 
     @Override
-    public Approval reject(Approval approval, String reason) {
+    public Approval reject(Approval approval, String reason, String reviewer) {
         log.info("Rejecting UPDATE_OPERATIONAL_INFO approval with ID: {} for reason: {}", approval.getId(), reason);
 
-        approval.setApprovalStatus(Approval.ApprovalStatus.REJECTED);
-        approval.setApprovedBy("system");
-        approval.setApprovedAt(LocalDateTime.now());
-        approval.setRemarks(reason);
-
-        return approvalService.save(approval);
+        return approvalStatusService.markAsRejected(approval, reason, reviewer);
     }
 
     @Override
@@ -0,0 +1,52 @@
+package com.github.sharifrahim.onboard.sla;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.github.sharifrahim.onboard.domain.Approval;
+
+import lombok.Data;
+
+/**
+ * Per approval type service level agreements
+ */
+@Data
+@ConfigurationProperties(prefix = "onboard.approval.sla")
+public class ApprovalSlaProperties {
+
+    /**
+     * Maximum number of approvals handled per query, bounding memory and transaction size
+     */
+    private int batchSize = 500;
+
+    /**
+     * SLA policy per approval type; types without a policy never breach
+     */
+    private Map<Approval.Type, Policy> policies = new EnumMap<>(Approval.Type.class);
+
+    @Data
+    public static class Policy {
+
+        /**
+         * How long an approval may stay pending after submission
+         */
+        private Duration timeout;
+
+        private Action action = Action.ESCALATE;
+    }
+
+    public enum Action {
+        /**
+         * Flag the approval for reviewer attention, leaving it pending
+         */
+        ESCALATE,
+
+        /**
+         * Close the approval as expired
+         */
+        EXPIRE
+    }
+}
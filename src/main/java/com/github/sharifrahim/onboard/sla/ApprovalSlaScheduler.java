@@ -0,0 +1,137 @@
+package com.github.sharifrahim.onboard.sla;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.github.sharifrahim.onboard.datasource.sharding.ShardRouter;
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.repository.ApprovalRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Detects pending approvals that outlived their SLA and escalates or expires them.
+ * <p>
+ * Every scan is a range seek on the (type, approval_status, submitted_at, id) index, so its cost follows the number of
+ * breached rows rather than the size of the pending backlog. Expired rows leave the pending range by themselves; for
+ * escalation, which keeps rows pending, a persisted (submitted_at, id) watermark per type makes each run resume after
+ * the last escalated row. Updates are conditional on the row still being pending, so a reviewer decision or another
+ * node's scan is never overwritten.
+ */
+@Component
+@EnableConfigurationProperties(ApprovalSlaProperties.class)
+@RequiredArgsConstructor
+@Slf4j
+public class ApprovalSlaScheduler {
+
+    static final String SLA_ACTOR = "sla";
+
+    private static final LocalDateTime WATERMARK_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final ApprovalRepository approvalRepository;
+    private final ApprovalSlaProperties properties;
+    private final ShardRouter shardRouter;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Scan every shard for approvals breaching their type's SLA
+     */
+    @Scheduled(initialDelayString = "${onboard.approval.sla.scan-interval:PT1M}", fixedDelayString = "${onboard.approval.sla.scan-interval:PT1M}")
+    public void scan() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        for (Map.Entry<Approval.Type, ApprovalSlaProperties.Policy> entry : properties.getPolicies().entrySet()) {
+            ApprovalSlaProperties.Policy policy = entry.getValue();
+            if (policy.getTimeout() == null) {
+                continue;
+            }
+            shardRouter.forEachShard(() -> scan(entry.getKey(), policy));
+        }
+        sample.stop(meterRegistry.timer("onboard.approval.sla.scan"));
+    }
+
+    private void scan(Approval.Type type, ApprovalSlaProperties.Policy policy) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime deadline = now.minus(policy.getTimeout());
+        int breached = policy.getAction() == ApprovalSlaProperties.Action.EXPIRE ? expire(type, deadline, now)
+                : escalate(type, deadline, now);
+        if (breached > 0) {
+            breaches(type, policy.getAction()).increment(breached);
+            log.info("{} {} approvals pending longer than {}", policy.getAction(), breached, policy.getTimeout());
+        }
+    }
+
+    private int expire(Approval.Type type, LocalDateTime deadline, LocalDateTime now) {
+        String remarks = "Expired after exceeding the " + type + " SLA";
+        PageRequest batch = PageRequest.ofSize(properties.getBatchSize());
+        int expired = 0;
+        while (true) {
+            List<SlaCandidate> candidates = approvalRepository.findSlaCandidates(type, deadline, batch);
+            if (candidates.isEmpty()) {
+                return expired;
+            }
+            expired += approvalRepository.expirePending(ids(candidates), SLA_ACTOR, now, remarks);
+            if (candidates.size() < batch.getPageSize()) {
+                return expired;
+            }
+        }
+    }
+
+    private int escalate(Approval.Type type, LocalDateTime deadline, LocalDateTime now) {
+        SlaCandidate watermark = loadWatermark(type);
+        PageRequest batch = PageRequest.ofSize(properties.getBatchSize());
+        int escalated = 0;
+        while (true) {
+            List<SlaCandidate> candidates = approvalRepository.findSlaCandidatesAfter(type, deadline,
+                    watermark.submittedAt(), watermark.id(), batch);
+            if (candidates.isEmpty()) {
+                return escalated;
+            }
+            escalated += approvalRepository.escalatePending(ids(candidates), now);
+            watermark = candidates.get(candidates.size() - 1);
+            saveWatermark(type, watermark);
+            if (candidates.size() < batch.getPageSize()) {
+                return escalated;
+            }
+        }
+    }
+
+    private SlaCandidate loadWatermark(Approval.Type type) {
+        List<SlaCandidate> rows = jdbcTemplate.query(
+                "SELECT approval_id, submitted_at FROM approval_sla_watermark WHERE type = ?",
+                (rs, i) -> new SlaCandidate(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime()), type.name());
+        return rows.isEmpty() ? new SlaCandidate(0L, WATERMARK_START) : rows.get(0);
+    }
+
+    private void saveWatermark(Approval.Type type, SlaCandidate watermark) {
+        Timestamp submittedAt = Timestamp.valueOf(watermark.submittedAt());
+        int updated = jdbcTemplate.update(
+                "UPDATE approval_sla_watermark SET submitted_at = ?, approval_id = ? WHERE type = ?", submittedAt,
+                watermark.id(), type.name());
+        if (updated == 0) {
+            jdbcTemplate.update("INSERT INTO approval_sla_watermark (type, submitted_at, approval_id) VALUES (?, ?, ?)",
+                    type.name(), submittedAt, watermark.id());
+        }
+    }
+
+    private Counter breaches(Approval.Type type, ApprovalSlaProperties.Action action) {
+        return Counter.builder("onboard.approval.sla.breaches").description("Approvals that exceeded their SLA")
+                .tag("type", type.name()).tag("action", action.name()).register(meterRegistry);
+    }
+
+    private static List<Long> ids(List<SlaCandidate> candidates) {
+        return candidates.stream().map(SlaCandidate::id).toList();
+    }
+}
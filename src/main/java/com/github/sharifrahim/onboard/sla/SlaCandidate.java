@@ -0,0 +1,9 @@
+package com.github.sharifrahim.onboard.sla;
+
+import java.time.LocalDateTime;
+
+/**
+ * Key of a pending approval found by an SLA scan; the payload columns are never loaded
+ */
+public record SlaCandidate(Long id, LocalDateTime submittedAt) {
+}
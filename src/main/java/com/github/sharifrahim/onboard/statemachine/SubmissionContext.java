@@ -0,0 +1,92 @@
+package com.github.sharifrahim.onboard.statemachine;
+
+import java.util.List;
+
+import org.springframework.statemachine.ExtendedState;
+import org.springframework.statemachine.StateContext;
+import org.springframework.statemachine.StateMachine;
+
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.domain.ProgressState;
+import com.github.sharifrahim.onboard.duplicate.NameMatch;
+import com.github.sharifrahim.onboard.workflow.Workflow;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Typed context of one submission: what a strategy's guard and action read, and what they hand back. The submission in
+ * flight is bound to a slot that the machine keeps in its extended state, so a submission sets one field instead of
+ * putting and removing extended state variables, and the machine can be sent the same cached event message every time
+ */
+@Getter
+public class SubmissionContext {
+
+    private static final String SLOT = "submission";
+
+    /**
+     * Submitter of requests that come without an authenticated user
+     */
+    public static final String SYSTEM = "system";
+
+    private final OnboardingEvent event;
+    private final Object request;
+    private final Company company;
+    private final Workflow workflow;
+    private final String submittedBy;
+    private final long startNanos = System.nanoTime();
+
+    @Setter
+    private List<String> validationErrors = List.of();
+
+    @Setter
+    private List<NameMatch> similarPendingApprovals = List.of();
+
+    @Setter
+    private Long approvalId;
+
+    @Setter
+    private Company updatedCompany;
+
+    public SubmissionContext(OnboardingEvent event, Object request, Company company, Workflow workflow,
+            String submittedBy) {
+        this.event = event;
+        this.request = request;
+        this.company = company;
+        this.workflow = workflow;
+        this.submittedBy = submittedBy;
+    }
+
+    /**
+     * The request, if it is of the given type
+     */
+    public <R> R getRequest(Class<R> type) {
+        return type.isInstance(request) ? type.cast(request) : null;
+    }
+
+    /**
+     * The submission the machine of the context is processing, or null outside of a submission
+     */
+    public static SubmissionContext of(StateContext<ProgressState, OnboardingEvent> context) {
+        Slot slot = context.getExtendedState().get(SLOT, Slot.class);
+        return slot != null ? slot.current : null;
+    }
+
+    /**
+     * Make the submission the one the machine is processing; {@code null} ends it
+     */
+    public static void bind(StateMachine<ProgressState, OnboardingEvent> machine, SubmissionContext submission) {
+        ExtendedState extendedState = machine.getExtendedState();
+        Slot slot = extendedState.get(SLOT, Slot.class);
+        if (slot == null) {
+            slot = new Slot();
+            extendedState.getVariables().put(SLOT, slot);
+        }
+        slot.current = submission;
+    }
+
+    private static final class Slot {
+
+        private SubmissionContext current;
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.sharifrahim.onboard.statemachine.config;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.statemachine.StateContext;
+import org.springframework.statemachine.StateMachine;
+import org.springframework.statemachine.action.Action;
+import org.springframework.statemachine.config.StateMachineBuilder;
+import org.springframework.statemachine.config.StateMachineFactory;
+import org.springframework.statemachine.config.builders.StateMachineTransitionConfigurer;
+import org.springframework.statemachine.config.configurers.ExternalTransitionConfigurer;
+import org.springframework.statemachine.config.configurers.StateConfigurer;
+import org.springframework.statemachine.guard.Guard;
+import org.springframework.stereotype.Component;
+
+import com.github.sharifrahim.onboard.audit.AuditStateMachineListener;
+import com.github.sharifrahim.onboard.domain.ProgressState;
+import com.github.sharifrahim.onboard.jfr.ActionEvent;
+import com.github.sharifrahim.onboard.jfr.GuardEvent;
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+import com.github.sharifrahim.onboard.statemachine.strategy.OnboardingStateMachineStrategy;
+import com.github.sharifrahim.onboard.statemachine.strategy.OnboardingStrategyRegistry;
+import com.github.sharifrahim.onboard.workflow.Workflow;
+import com.github.sharifrahim.onboard.workflow.WorkflowDefinition;
+import com.github.sharifrahim.onboard.workflow.WorkflowProperties;
+import com.github.sharifrahim.onboard.workflow.WorkflowRegistry;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Builds onboarding state machines using registry pattern. Machines are built with {@link StateMachineBuilder} when
+ * asked for rather than from an annotation-driven configuration at startup, which keeps the context fast to start and
+ * compatible with Spring AOT. States and transitions come from a {@link Workflow} definition; machines asked for
+ * without one follow the current version of the default workflow.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OnboardingStateMachineFactory implements StateMachineFactory<ProgressState, OnboardingEvent> {
+
+    private final OnboardingStrategyRegistry strategyRegistry;
+    private final AuditStateMachineListener auditListener;
+    private final WorkflowRegistry workflowRegistry;
+    private final WorkflowProperties workflowProperties;
+
+    /**
+     * Generic guard method that delegates to the appropriate strategy using registry
+     */
+    private boolean validate(StateContext<ProgressState, OnboardingEvent> context) {
+        log.debug("Validating for state: {} and event: {}", context.getSource().getId(), context.getEvent());
+
+        Optional<OnboardingStateMachineStrategy> strategy = strategyRegistry.findStrategy(context);
+
+        if (strategy.isPresent()) {
+            GuardEvent recorded = new GuardEvent(String.valueOf(context.getEvent()),
+                    String.valueOf(context.getSource().getId()));
+            recorded.start();
+            try {
+                boolean passed = strategy.get().validate(context);
+                recorded.passed(passed);
+                if (!passed) {
+                    auditListener.denied(context);
+                }
+                return passed;
+            } finally {
+                recorded.finish();
+            }
+        } else {
+            log.warn("No strategy found for validation - state: {}, event: {}", context.getSource().getId(),
+                    context.getEvent());
+            return false;
+        }
+    }
+
+    /**
+     * Generic action method that delegates to the appropriate strategy using registry
+     */
+    private void onSuccess(StateContext<ProgressState, OnboardingEvent> context) {
+        log.debug("Executing onSuccess for state: {} and event: {}", context.getSource().getId(), context.getEvent());
+
+        Optional<OnboardingStateMachineStrategy> strategy = strategyRegistry.findStrategy(context);
+
+        if (strategy.isPresent()) {
+            ActionEvent recorded = new ActionEvent(String.valueOf(context.getEvent()),
+                    String.valueOf(context.getSource().getId()));
+            recorded.start();
+            try {
+                strategy.get().onSuccess(context);
+            } finally {
+                recorded.finish();
+            }
+        } else {
+            log.error("No strategy found for onSuccess - state: {}, event: {}", context.getSource().getId(),
+                    context.getEvent());
+            throw new IllegalStateException("No strategy found for event: " + context.getEvent());
+        }
+    }
+
+    // Guard instances
+    private final Guard<ProgressState, OnboardingEvent> genericGuard = this::validate;
+
+    // Action instances
+    private final Action<ProgressState, OnboardingEvent> genericAction = this::onSuccess;
+
+    @Override
+    public StateMachine<ProgressState, OnboardingEvent> getStateMachine() {
+        return getStateMachine((String) null);
+    }
+
+    @Override
+    public StateMachine<ProgressState, OnboardingEvent> getStateMachine(UUID uuid) {
+        return getStateMachine(uuid.toString());
+    }
+
+    @Override
+    public StateMachine<ProgressState, OnboardingEvent> getStateMachine(String machineId) {
+        return getStateMachine(machineId, workflowRegistry.currentVersion(workflowProperties.getDefaultWorkflow()));
+    }
+
+    /**
+     * Build a machine whose states and transitions are those of the workflow. Transitions on submission events run the
+     * event's strategy as guard and action; other transitions are plain.
+     */
+    public StateMachine<ProgressState, OnboardingEvent> getStateMachine(String machineId, Workflow workflow) {
+        try {
+            StateMachineBuilder.Builder<ProgressState, OnboardingEvent> builder = StateMachineBuilder.builder();
+            builder.configureConfiguration().withConfiguration().machineId(machineId).listener(auditListener);
+            StateConfigurer<ProgressState, OnboardingEvent> states = builder.configureStates().withStates()
+                    .initial(workflow.getInitial()).end(workflow.getEnd());
+            for (ProgressState state : workflow.getStates()) {
+                if (state != workflow.getInitial() && state != workflow.getEnd()) {
+                    states.state(state);
+                }
+            }
+            StateMachineTransitionConfigurer<ProgressState, OnboardingEvent> transitions = builder
+                    .configureTransitions();
+            for (WorkflowDefinition.Transition transition : workflow.getTransitions()) {
+                ExternalTransitionConfigurer<ProgressState, OnboardingEvent> external = transitions.withExternal()
+                        .source(transition.source()).target(transition.target()).event(transition.event());
+                if (strategyRegistry.findStrategyByEvent(transition.event()).isPresent()) {
+                    external.guard(genericGuard).action(genericAction);
+                }
+            }
+            return builder.build();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to build onboarding state machine for workflow " + workflow, e);
+        }
+    }
+}
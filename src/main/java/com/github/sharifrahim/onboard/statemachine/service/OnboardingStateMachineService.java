@@ -1,28 +1,84 @@
 package com.github.sharifrahim.onboard.statemachine.service;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.messaging.Message;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.statemachine.StateMachine;
+import org.springframework.statemachine.StateMachineContext;
 import org.springframework.statemachine.StateMachineEventResult;
+import org.springframework.statemachine.support.DefaultStateMachineContext;
 import org.springframework.stereotype.Service;
 
+import com.github.sharifrahim.onboard.analytics.ProgressFunnelService;
+import com.github.sharifrahim.onboard.cluster.LeaseCoordinator;
+import com.github.sharifrahim.onboard.datasource.replica.ReplicaContext;
+import com.github.sharifrahim.onboard.datasource.sharding.ShardRouter;
 import com.github.sharifrahim.onboard.domain.Company;
 import com.github.sharifrahim.onboard.domain.ProgressState;
+import com.github.sharifrahim.onboard.dto.CompanyProfileRequest;
+import com.github.sharifrahim.onboard.duplicate.DuplicateKeys;
+import com.github.sharifrahim.onboard.exception.OverloadedException;
 import com.github.sharifrahim.onboard.exception.ValidationException;
+import com.github.sharifrahim.onboard.jfr.SubmissionEvent;
+import com.github.sharifrahim.onboard.ordering.StripedSerialExecutor;
+import com.github.sharifrahim.onboard.ratelimit.AdaptiveConcurrencyLimiter;
+import com.github.sharifrahim.onboard.ratelimit.RateLimitProperties;
+import com.github.sharifrahim.onboard.repository.CompanyRepository;
 import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+import com.github.sharifrahim.onboard.statemachine.SubmissionContext;
+import com.github.sharifrahim.onboard.statemachine.config.OnboardingStateMachineFactory;
+import com.github.sharifrahim.onboard.workflow.Workflow;
+import com.github.sharifrahim.onboard.workflow.WorkflowRegistry;
 
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Mono;
 
 /**
- * Service that wraps Spring State Machine for onboarding process
+ * Service that wraps Spring State Machine for onboarding process. Submissions for the same company run one at a time in
+ * submission order on a stripe of the {@link StripedSerialExecutor}; each stripe has its own state machine, so
+ * submissions for companies on different stripes run in parallel. A stripe's machine for a workflow version is built on
+ * the first submission of a company on that version.
  */
 @Service
 @RequiredArgsConstructor
 public class OnboardingStateMachineService {
 
-    private final StateMachine<ProgressState, OnboardingEvent> stateMachine;
+    private final OnboardingStateMachineFactory stateMachineFactory;
+    private final StripedSerialExecutor stripedExecutor;
+    private final LeaseCoordinator leaseCoordinator;
+    private final CompanyRepository companyRepository;
+    private final ShardRouter shardRouter;
+    private final ProgressFunnelService funnelService;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final RateLimitProperties rateLimitProperties;
+    private final WorkflowRegistry workflowRegistry;
+    private final Map<MachineKey, StateMachine<ProgressState, OnboardingEvent>> stripeMachines = new ConcurrentHashMap<>();
+
+    /**
+     * Event messages carry no per-submission data, so one immutable message per event is built once and re-sent
+     */
+    private static final Map<OnboardingEvent, Mono<Message<OnboardingEvent>>> EVENT_MESSAGES = new EnumMap<>(
+            OnboardingEvent.class);
+
+    private static final Map<ProgressState, StateMachineContext<ProgressState, OnboardingEvent>> RESET_CONTEXTS = new EnumMap<>(
+            ProgressState.class);
+
+    static {
+        for (OnboardingEvent event : OnboardingEvent.values()) {
+            EVENT_MESSAGES.put(event, Mono.just(MessageBuilder.withPayload(event).build()));
+        }
+        for (ProgressState state : ProgressState.values()) {
+            // a null extended state keeps the machine's own, including the submission slot
+            RESET_CONTEXTS.put(state, new DefaultStateMachineContext<>(state, null, null, null));
+        }
+    }
+
+    private record MachineKey(int stripe, String workflow, int version) {
+    }
 
     /**
      * Submits an event to the state machine
@@ -37,42 +93,152 @@ public class OnboardingStateMachineService {
      * @return the approval ID
      */
     public <T> Long submitEvent(OnboardingEvent event, T request, Company company) {
-        // Reset the state machine to initial state for new processing
-        if (!stateMachine.getState().getId().equals(ProgressState.PROFILE)) {
-            stateMachine.stopReactively().block();
-            stateMachine.startReactively().block();
+        return submitEvent(event, request, company, SubmissionContext.SYSTEM);
+    }
+
+    /**
+     * Submits an event to the state machine on behalf of a user, who is recorded as the submitter of the approval
+     *
+     * @param event
+     *            the onboarding event
+     * @param request
+     *            the request data
+     * @param company
+     *            the current company (can be null for new company creation)
+     * @param submittedBy
+     *            the user submitting the request
+     *
+     * @return the approval ID
+     */
+    public <T> Long submitEvent(OnboardingEvent event, T request, Company company, String submittedBy) {
+        // Only the node leasing the company's partition runs its submissions
+        Object orderingKey = orderingKey(request, company);
+        leaseCoordinator.requireOwner(orderingKey);
+
+        long admittedAt = concurrencyLimiter.tryAcquire()
+                .orElseThrow(() -> new OverloadedException("Too many concurrent submissions",
+                        rateLimitProperties.getConcurrency().getRetryAfter()));
+        boolean failed = true;
+        try {
+            // Bind the company's shard so the approval lands next to the company it describes
+            String shard = resolveShard(request, company);
+            // the lease is checked again while the submission is written, in case it passed to another node since
+            Long approvalId = stripedExecutor.call(orderingKey,
+                    stripe -> leaseCoordinator.fenced(orderingKey, () -> shardRouter.onShard(shard,
+                            () -> submitOnStripe(stripe, event, request, company, submittedBy))));
+            failed = false;
+            return approvalId;
+        } catch (ValidationException e) {
+            failed = false;
+            throw e;
+        } finally {
+            concurrencyLimiter.release(admittedAt, failed);
         }
+    }
 
-        // Put request and company data in extended state
-        stateMachine.getExtendedState().getVariables().put("request", request);
-        stateMachine.getExtendedState().getVariables().put("company", company);
+    private <T> Long submitOnStripe(int stripe, OnboardingEvent event, T request, Company company, String submittedBy) {
+        SubmissionEvent recorded = new SubmissionEvent(event.name());
+        recorded.start();
+        try {
+            Company latest = current(company);
+            Workflow workflow = workflowFor(request, latest);
+            Long id = doSubmitEvent(stripeMachine(stripe, workflow), workflow, event, request, latest, submittedBy);
+            recorded.accepted();
+            return id;
+        } finally {
+            recorded.finish();
+        }
+    }
 
-        // Clear any previous validation errors
-        stateMachine.getExtendedState().getVariables().remove("validationErrors");
+    private <T> Long doSubmitEvent(StateMachine<ProgressState, OnboardingEvent> stateMachine, Workflow workflow,
+            OnboardingEvent event, T request, Company company, String submittedBy) {
+        // Start from the company's persisted progress instead of replaying from the initial state
+        ProgressState state = company != null && company.getProgressState() != null ? company.getProgressState()
+                : workflow.getInitial();
+        resetTo(stateMachine, state);
 
-        // Send the event
-        StateMachineEventResult<ProgressState, OnboardingEvent> eventResult = stateMachine
-                .sendEvent(Mono.just(MessageBuilder.withPayload(event).build())).blockFirst();
+        SubmissionContext submission = new SubmissionContext(event, request, company, workflow, submittedBy);
+        SubmissionContext.bind(stateMachine, submission);
+        StateMachineEventResult<ProgressState, OnboardingEvent> eventResult;
+        try {
+            eventResult = stateMachine.sendEvent(EVENT_MESSAGES.get(event)).blockFirst();
+        } finally {
+            SubmissionContext.bind(stateMachine, null);
+        }
 
-        if (eventResult == null || eventResult.getResultType() != StateMachineEventResult.ResultType.ACCEPTED) {
-            // Check if there were validation errors
-            @SuppressWarnings("unchecked")
-            List<String> validationErrors = (List<String>) stateMachine.getExtendedState().getVariables()
-                    .get("validationErrors");
+        // A guard that denies the transition still leaves the event ACCEPTED, so validation errors are checked too
+        List<String> validationErrors = submission.getValidationErrors();
+        boolean accepted = eventResult != null
+                && eventResult.getResultType() == StateMachineEventResult.ResultType.ACCEPTED
+                && validationErrors.isEmpty();
+        funnelService.recordSubmission(event, accepted);
 
-            if (validationErrors != null && !validationErrors.isEmpty()) {
+        if (!accepted) {
+            if (!validationErrors.isEmpty()) {
                 throw new ValidationException("Validation failed: " + String.join("; ", validationErrors));
+            } else if (workflow.target(state, event) == null) {
+                throw new ValidationException(
+                        "Cannot " + event + " in current state " + state + " of workflow " + workflow);
             } else {
                 throw new ValidationException("Event not accepted by state machine");
             }
         }
 
-        // Get the approval ID from the extended state
-        Long approvalId = (Long) stateMachine.getExtendedState().getVariables().get("approvalId");
+        Long approvalId = submission.getApprovalId();
         if (approvalId == null) {
-            throw new RuntimeException("Approval ID not found in state machine extended state");
+            throw new RuntimeException("Approval ID not handed back by the " + event + " action");
         }
 
         return approvalId;
     }
+
+    private StateMachine<ProgressState, OnboardingEvent> stripeMachine(int stripe, Workflow workflow) {
+        return stripeMachines.computeIfAbsent(new MachineKey(stripe, workflow.getName(), workflow.getVersion()),
+                key -> stateMachineFactory.getStateMachine(null, workflow));
+    }
+
+    private Workflow workflowFor(Object request, Company company) {
+        if (company != null) {
+            return workflowRegistry.forCompany(company);
+        }
+        return workflowRegistry
+                .forNewCompany(request instanceof CompanyProfileRequest profile ? profile.getCompanySize() : null);
+    }
+
+    private static void resetTo(StateMachine<ProgressState, OnboardingEvent> stateMachine, ProgressState state) {
+        if (stateMachine.getState() != null && stateMachine.getState().getId() == state) {
+            return;
+        }
+        stateMachine.stopReactively().block();
+        stateMachine.getStateMachineAccessor()
+                .doWithAllRegions(access -> access.resetStateMachineReactively(RESET_CONTEXTS.get(state)).block());
+        stateMachine.startReactively().block();
+    }
+
+    /**
+     * Re-read the company once the submission is next in line, so it sees every earlier submission's outcome
+     */
+    private Company current(Company company) {
+        if (company == null || company.getId() == null) {
+            return company;
+        }
+        // the submission starts from this state, so a replica that has not seen the last approval must not serve it
+        return ReplicaContext.onPrimary(() -> companyRepository.findById(company.getId()).orElse(company));
+    }
+
+    private static Object orderingKey(Object request, Company company) {
+        if (company == null && request instanceof CompanyProfileRequest profile
+                && profile.getRegistrationNumber() != null) {
+            // racing creations of the same company are ordered by registration number
+            return DuplicateKeys.normalize(profile.getRegistrationNumber());
+        }
+        return company != null && company.getId() != null ? company.getId() : request;
+    }
+
+    private String resolveShard(Object request, Company company) {
+        if (company == null && request instanceof CompanyProfileRequest profile) {
+            return shardRouter.shardForCountry(profile.getCountry());
+        }
+        return shardRouter.shardForCompany(company);
+    }
 }
@@ -1,7 +1,9 @@
 package com.github.sharifrahim.onboard.statemachine.strategy.impl;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.statemachine.StateContext;
 import org.springframework.stereotype.Component;
 
@@ -13,60 +15,87 @@ import com.github.sharifrahim.onboard.domain.Approval.OperationType;
 import com.github.sharifrahim.onboard.domain.Company;
 import com.github.sharifrahim.onboard.domain.ProgressState;
 import com.github.sharifrahim.onboard.dto.CompanyProfileRequest;
+import com.github.sharifrahim.onboard.duplicate.DuplicateDetector;
+import com.github.sharifrahim.onboard.duplicate.DuplicateKeys;
+import com.github.sharifrahim.onboard.duplicate.NameMatch;
+import com.github.sharifrahim.onboard.event.ApprovalSubmittedEvent;
 import com.github.sharifrahim.onboard.service.ApprovalService;
 import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+import com.github.sharifrahim.onboard.statemachine.SubmissionContext;
 import com.github.sharifrahim.onboard.statemachine.strategy.OnboardingStateMachineStrategy;
+import com.github.sharifrahim.onboard.strategy.ParallelValidator;
 import com.github.sharifrahim.onboard.strategy.ValidationResult;
+import com.github.sharifrahim.onboard.strategy.ValidationRule;
+import com.github.sharifrahim.onboard.workflow.Workflow;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Strategy for CREATE_COMPANY event
  */
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class CreateCompanyStateMachineStrategy implements OnboardingStateMachineStrategy {
 
     private final ApprovalService approvalService;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DuplicateDetector duplicateDetector;
+    private final ParallelValidator parallelValidator;
 
     @Override
     public boolean validate(StateContext<ProgressState, OnboardingEvent> context) {
-        CompanyProfileRequest request = context.getExtendedState().get("request", CompanyProfileRequest.class);
-        Company company = context.getExtendedState().get("company", Company.class);
+        SubmissionContext submission = SubmissionContext.of(context);
+        CompanyProfileRequest request = submission.getRequest(CompanyProfileRequest.class);
+        Company company = submission.getCompany();
 
         ValidationResult result = performValidation(request, company);
 
         if (!result.isValid()) {
-            context.getExtendedState().getVariables().put("validationErrors", result.getErrors());
+            submission.setValidationErrors(result.getErrors());
             return false;
         }
 
+        // Similar names are not rejected, only surfaced for the reviewer
+        List<NameMatch> similar = duplicateDetector.findSimilarPendingNames(request.getName());
+        if (!similar.isEmpty()) {
+            log.warn("Company '{}' resembles pending approvals {}", request.getName(),
+                    similar.stream().map(NameMatch::approvalId).toList());
+            submission.setSimilarPendingApprovals(similar);
+        }
+
         return true;
     }
 
     @Override
     public void onSuccess(StateContext<ProgressState, OnboardingEvent> context) {
-        CompanyProfileRequest request = context.getExtendedState().get("request", CompanyProfileRequest.class);
+        SubmissionContext submission = SubmissionContext.of(context);
+        CompanyProfileRequest request = submission.getRequest(CompanyProfileRequest.class);
+        Workflow workflow = submission.getWorkflow();
 
-        // Create the company entity
+        // Create the company entity on the workflow it will stay on
         Company company = Company.builder().name(request.getName()).registrationNumber(request.getRegistrationNumber())
                 .entityType(request.getEntityType()).industrySector(request.getIndustrySector())
                 .dateOfIncorporation(request.getDateOfIncorporation()).registeredAddress(request.getRegisteredAddress())
                 .operatingAddress(request.getOperatingAddress()).country(request.getCountry())
-                .progressState(ProgressState.PROFILE).companySize(request.getCompanySize())
+                .progressState(context.getTarget().getId()).workflowName(workflow.getName())
+                .workflowVersion(workflow.getVersion()).companySize(request.getCompanySize())
                 .description(request.getDescription()).build();
 
         // Create approval record
         Approval approval = Approval.builder().dataType("COMPANY").type(Approval.Type.CREATE_COMPANY)
-                .operationType(OperationType.NEW).submittedBy("system").submittedAt(LocalDateTime.now())
-                .approvalStatus(ApprovalStatus.PENDING).newData(toJson(company)).build();
+                .operationType(OperationType.NEW).submittedBy(submission.getSubmittedBy())
+                .submittedAt(LocalDateTime.now()).approvalStatus(ApprovalStatus.PENDING).newData(toJson(company))
+                .registrationKey(DuplicateKeys.normalize(request.getRegistrationNumber())).build();
 
         Approval saved = approvalService.save(approval);
+        eventPublisher.publishEvent(new ApprovalSubmittedEvent(saved, company));
 
-        // Store the result in extended state
-        context.getExtendedState().getVariables().put("approvalId", saved.getId());
-        context.getExtendedState().getVariables().put("updatedCompany", company);
+        // Hand the result back to the submission
+        submission.setApprovalId(saved.getId());
+        submission.setUpdatedCompany(company);
     }
 
     @Override
@@ -75,12 +104,10 @@ public class CreateCompanyStateMachineStrategy implements OnboardingStateMachine
     }
 
     private ValidationResult performValidation(CompanyProfileRequest request, Company company) {
-        ValidationResult result = new ValidationResult();
-
         // Validate that this is a new company creation (company should be null)
-        if (company != null) {
-            result.addError("Company already exists, cannot create new profile");
-        }
+        ValidationResult result = company != null
+                ? ValidationResult.failure("Company already exists, cannot create new profile")
+                : new ValidationResult();
 
         // Additional business validations
         if (request == null) {
@@ -88,14 +115,33 @@ public class CreateCompanyStateMachineStrategy implements OnboardingStateMachine
             return result;
         }
 
+        // The registration number lookup is answered by the bloom filter unless it may be a duplicate
+        return result.merge(
+                parallelValidator.validate(List.of(ValidationRule.inline("Company name", () -> validateName(request)),
+                        ValidationRule.inline("Registration number", () -> validateRegistrationNumber(request)),
+                        ValidationRule.inline("Entity", () -> validateEntity(request)))));
+    }
+
+    private ValidationResult validateName(CompanyProfileRequest request) {
         if (request.getName() == null || request.getName().trim().isEmpty()) {
-            result.addError("Company name is required");
+            return ValidationResult.failure("Company name is required");
         }
+        return ValidationResult.success();
+    }
 
+    private ValidationResult validateRegistrationNumber(CompanyProfileRequest request) {
         if (request.getRegistrationNumber() == null || request.getRegistrationNumber().trim().isEmpty()) {
-            result.addError("Registration number is required");
+            return ValidationResult.failure("Registration number is required");
+        }
+        if (duplicateDetector.isRegistrationNumberTaken(request.getRegistrationNumber())) {
+            return ValidationResult
+                    .failure("A company with this registration number already exists or is pending approval");
         }
+        return ValidationResult.success();
+    }
 
+    private ValidationResult validateEntity(CompanyProfileRequest request) {
+        ValidationResult result = new ValidationResult();
         if (request.getEntityType() == null || request.getEntityType().trim().isEmpty()) {
             result.addError("Entity type is required");
         }
@@ -103,7 +149,6 @@ public class CreateCompanyStateMachineStrategy implements OnboardingStateMachine
         if (request.getCountry() == null || request.getCountry().trim().isEmpty()) {
             result.addError("Country is required");
         }
-
         return result;
     }
 
@@ -2,6 +2,7 @@ package com.github.sharifrahim.onboard.statemachine.strategy.impl;
 
 import java.time.LocalDateTime;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.statemachine.StateContext;
 import org.springframework.stereotype.Component;
 
@@ -13,8 +14,10 @@ import com.github.sharifrahim.onboard.domain.Approval.OperationType;
 import com.github.sharifrahim.onboard.domain.Company;
 import com.github.sharifrahim.onboard.domain.ProgressState;
 import com.github.sharifrahim.onboard.dto.ContactInfoRequest;
+import com.github.sharifrahim.onboard.event.ApprovalSubmittedEvent;
 import com.github.sharifrahim.onboard.service.ApprovalService;
 import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+import com.github.sharifrahim.onboard.statemachine.SubmissionContext;
 import com.github.sharifrahim.onboard.statemachine.strategy.OnboardingStateMachineStrategy;
 import com.github.sharifrahim.onboard.strategy.ValidationResult;
 
@@ -29,16 +32,18 @@ public class UpdateContactInfoStateMachineStrategy implements OnboardingStateMac
 
     private final ApprovalService approvalService;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public boolean validate(StateContext<ProgressState, OnboardingEvent> context) {
-        ContactInfoRequest request = context.getExtendedState().get("request", ContactInfoRequest.class);
-        Company company = context.getExtendedState().get("company", Company.class);
+        SubmissionContext submission = SubmissionContext.of(context);
+        ContactInfoRequest request = submission.getRequest(ContactInfoRequest.class);
+        Company company = submission.getCompany();
 
         ValidationResult result = performValidation(request, company);
 
         if (!result.isValid()) {
-            context.getExtendedState().getVariables().put("validationErrors", result.getErrors());
+            submission.setValidationErrors(result.getErrors());
             return false;
         }
 
@@ -47,15 +52,20 @@ public class UpdateContactInfoStateMachineStrategy implements OnboardingStateMac
 
     @Override
     public void onSuccess(StateContext<ProgressState, OnboardingEvent> context) {
-        ContactInfoRequest request = context.getExtendedState().get("request", ContactInfoRequest.class);
-        Company company = context.getExtendedState().get("company", Company.class);
+        SubmissionContext submission = SubmissionContext.of(context);
+        ContactInfoRequest request = submission.getRequest(ContactInfoRequest.class);
+        Company company = submission.getCompany();
 
         // Create a copy of the existing company with updated contact info
         Company updated = Company.builder().id(company.getId()).name(company.getName())
                 .registrationNumber(company.getRegistrationNumber()).entityType(company.getEntityType())
                 .industrySector(company.getIndustrySector()).dateOfIncorporation(company.getDateOfIncorporation())
                 .registeredAddress(company.getRegisteredAddress()).operatingAddress(company.getOperatingAddress())
-                .country(company.getCountry()).progressState(ProgressState.CONTACT) // Advance to next state
+                .country(company.getCountry()).progressState(context.getTarget().getId()) // Advance to the target
+                // Entry time is kept on re-submission and stamped on approval when the state advances
+                .progressUpdatedAt(company.getProgressState() == context.getTarget().getId()
+                        ? company.getProgressUpdatedAt() : null)
+                .workflowName(company.getWorkflowName()).workflowVersion(company.getWorkflowVersion())
                 .companySize(company.getCompanySize()).description(company.getDescription()).build();
 
         // Set contact information
@@ -71,16 +81,17 @@ public class UpdateContactInfoStateMachineStrategy implements OnboardingStateMac
         updated.setPreferredLanguage(request.getPreferredLanguage());
 
         // Create approval record
-        Approval approval = Approval.builder().dataType("COMPANY").type(Approval.Type.CREATE_COMPANY)
-                .dataId(company.getId()).operationType(OperationType.UPDATE).submittedBy("system")
+        Approval approval = Approval.builder().dataType("COMPANY").type(Approval.Type.UPDATE_CONTACT_INFO)
+                .dataId(company.getId()).operationType(OperationType.UPDATE).submittedBy(submission.getSubmittedBy())
                 .submittedAt(LocalDateTime.now()).approvalStatus(ApprovalStatus.PENDING).newData(toJson(updated))
                 .oldData(toJson(company)).build();
 
         Approval saved = approvalService.save(approval);
+        eventPublisher.publishEvent(new ApprovalSubmittedEvent(saved, updated));
 
-        // Store the result in extended state
-        context.getExtendedState().getVariables().put("approvalId", saved.getId());
-        context.getExtendedState().getVariables().put("updatedCompany", updated);
+        // Hand the result back to the submission
+        submission.setApprovalId(saved.getId());
+        submission.setUpdatedCompany(updated);
     }
 
     @Override
@@ -102,12 +113,6 @@ public class UpdateContactInfoStateMachineStrategy implements OnboardingStateMac
             return result;
         }
 
-        // Validate that company is in the right state
-        if (company.getProgressState() != ProgressState.PROFILE
-                && company.getProgressState() != ProgressState.CONTACT) {
-            result.addError("Cannot update contact info in current state: " + company.getProgressState());
-        }
-
         // Business validations
         if (request.getMainContactName() == null || request.getMainContactName().trim().isEmpty()) {
             result.addError("Main contact name is required");
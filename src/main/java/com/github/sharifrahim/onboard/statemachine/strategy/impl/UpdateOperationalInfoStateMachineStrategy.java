@@ -1,7 +1,9 @@
 package com.github.sharifrahim.onboard.statemachine.strategy.impl;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.statemachine.StateContext;
 import org.springframework.stereotype.Component;
 
@@ -13,10 +15,16 @@ import com.github.sharifrahim.onboard.domain.Approval.OperationType;
 import com.github.sharifrahim.onboard.domain.Company;
 import com.github.sharifrahim.onboard.domain.ProgressState;
 import com.github.sharifrahim.onboard.dto.OperationalInfoRequest;
+import com.github.sharifrahim.onboard.duplicate.DuplicateDetector;
+import com.github.sharifrahim.onboard.duplicate.DuplicateKeys;
+import com.github.sharifrahim.onboard.event.ApprovalSubmittedEvent;
 import com.github.sharifrahim.onboard.service.ApprovalService;
 import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+import com.github.sharifrahim.onboard.statemachine.SubmissionContext;
 import com.github.sharifrahim.onboard.statemachine.strategy.OnboardingStateMachineStrategy;
+import com.github.sharifrahim.onboard.strategy.ParallelValidator;
 import com.github.sharifrahim.onboard.strategy.ValidationResult;
+import com.github.sharifrahim.onboard.strategy.ValidationRule;
 
 import lombok.RequiredArgsConstructor;
 
@@ -29,16 +37,20 @@ public class UpdateOperationalInfoStateMachineStrategy implements OnboardingStat
 
     private final ApprovalService approvalService;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DuplicateDetector duplicateDetector;
+    private final ParallelValidator parallelValidator;
 
     @Override
     public boolean validate(StateContext<ProgressState, OnboardingEvent> context) {
-        OperationalInfoRequest request = context.getExtendedState().get("request", OperationalInfoRequest.class);
-        Company company = context.getExtendedState().get("company", Company.class);
+        SubmissionContext submission = SubmissionContext.of(context);
+        OperationalInfoRequest request = submission.getRequest(OperationalInfoRequest.class);
+        Company company = submission.getCompany();
 
         ValidationResult result = performValidation(request, company);
 
         if (!result.isValid()) {
-            context.getExtendedState().getVariables().put("validationErrors", result.getErrors());
+            submission.setValidationErrors(result.getErrors());
             return false;
         }
 
@@ -47,15 +59,20 @@ public class UpdateOperationalInfoStateMachineStrategy implements OnboardingStat
 
     @Override
     public void onSuccess(StateContext<ProgressState, OnboardingEvent> context) {
-        OperationalInfoRequest request = context.getExtendedState().get("request", OperationalInfoRequest.class);
-        Company company = context.getExtendedState().get("company", Company.class);
+        SubmissionContext submission = SubmissionContext.of(context);
+        OperationalInfoRequest request = submission.getRequest(OperationalInfoRequest.class);
+        Company company = submission.getCompany();
 
         // Create a copy of the existing company with updated operational info
         Company updated = Company.builder().id(company.getId()).name(company.getName())
                 .registrationNumber(company.getRegistrationNumber()).entityType(company.getEntityType())
                 .industrySector(company.getIndustrySector()).dateOfIncorporation(company.getDateOfIncorporation())
                 .registeredAddress(company.getRegisteredAddress()).operatingAddress(company.getOperatingAddress())
-                .country(company.getCountry()).progressState(ProgressState.OPERATIONS) // Advance to next state
+                .country(company.getCountry()).progressState(context.getTarget().getId()) // Advance to the target
+                // Entry time is kept on re-submission and stamped on approval when the state advances
+                .progressUpdatedAt(company.getProgressState() == context.getTarget().getId()
+                        ? company.getProgressUpdatedAt() : null)
+                .workflowName(company.getWorkflowName()).workflowVersion(company.getWorkflowVersion())
                 .companySize(company.getCompanySize()).description(company.getDescription())
                 .mainContactName(company.getMainContactName()).mainContactEmail(company.getMainContactEmail())
                 .mainContactPhone(company.getMainContactPhone()).contactPersonRole(company.getContactPersonRole())
@@ -78,16 +95,17 @@ public class UpdateOperationalInfoStateMachineStrategy implements OnboardingStat
         updated.setAgreedOnboardingDate(request.getAgreedOnboardingDate());
 
         // Create approval record
-        Approval approval = Approval.builder().dataType("COMPANY").type(Approval.Type.CREATE_COMPANY)
-                .dataId(company.getId()).operationType(OperationType.UPDATE).submittedBy("system")
+        Approval approval = Approval.builder().dataType("COMPANY").type(Approval.Type.UPDATE_OPERATIONAL_INFO)
+                .dataId(company.getId()).operationType(OperationType.UPDATE).submittedBy(submission.getSubmittedBy())
                 .submittedAt(LocalDateTime.now()).approvalStatus(ApprovalStatus.PENDING).newData(toJson(updated))
-                .oldData(toJson(company)).build();
+                .oldData(toJson(company)).taxIdKey(DuplicateKeys.normalize(request.getTaxIdNumber())).build();
 
         Approval saved = approvalService.save(approval);
+        eventPublisher.publishEvent(new ApprovalSubmittedEvent(saved, updated));
 
-        // Store the result in extended state
-        context.getExtendedState().getVariables().put("approvalId", saved.getId());
-        context.getExtendedState().getVariables().put("updatedCompany", updated);
+        // Hand the result back to the submission
+        submission.setApprovalId(saved.getId());
+        submission.setUpdatedCompany(updated);
     }
 
     @Override
@@ -96,30 +114,35 @@ public class UpdateOperationalInfoStateMachineStrategy implements OnboardingStat
     }
 
     private ValidationResult performValidation(OperationalInfoRequest request, Company company) {
-        ValidationResult result = new ValidationResult();
-
         // Validate that company exists
         if (company == null) {
-            result.addError("Company does not exist");
-            return result;
+            return ValidationResult.failure("Company does not exist");
         }
 
         if (request == null) {
-            result.addError("Request cannot be null");
-            return result;
+            return ValidationResult.failure("Request cannot be null");
         }
 
-        // Validate that company is in the right state
-        if (company.getProgressState() != ProgressState.CONTACT
-                && company.getProgressState() != ProgressState.OPERATIONS) {
-            result.addError("Cannot update operational info in current state: " + company.getProgressState());
-        }
+        // The tax ID lookup is answered by the bloom filter unless it may be a duplicate
+        return parallelValidator
+                .validate(List.of(ValidationRule.inline("Tax ID", () -> validateTaxId(request, company)),
+                        ValidationRule.inline("Bank account", () -> validateBankAccount(request)),
+                        ValidationRule.inline("Platform usage", () -> validatePlatformUsage(request)),
+                        ValidationRule.inline("Compliance", () -> validateCompliance(request))));
+    }
 
-        // Business validations
+    private ValidationResult validateTaxId(OperationalInfoRequest request, Company company) {
+        ValidationResult result = new ValidationResult();
         if (request.getTaxIdNumber() == null || request.getTaxIdNumber().trim().isEmpty()) {
             result.addError("Tax ID number is required");
+        } else if (duplicateDetector.isTaxIdTaken(request.getTaxIdNumber(), company.getId())) {
+            result.addError("Another company with this tax ID already exists or is pending approval");
         }
+        return result;
+    }
 
+    private ValidationResult validateBankAccount(OperationalInfoRequest request) {
+        ValidationResult result = new ValidationResult();
         if (request.getBankName() == null || request.getBankName().trim().isEmpty()) {
             result.addError("Bank name is required");
         }
@@ -127,7 +150,11 @@ public class UpdateOperationalInfoStateMachineStrategy implements OnboardingStat
         if (request.getBankAccountNumber() == null || request.getBankAccountNumber().trim().isEmpty()) {
             result.addError("Bank account number is required");
         }
+        return result;
+    }
 
+    private ValidationResult validatePlatformUsage(OperationalInfoRequest request) {
+        ValidationResult result = new ValidationResult();
         if (request.getPreferredPaymentMethod() == null || request.getPreferredPaymentMethod().trim().isEmpty()) {
             result.addError("Preferred payment method is required");
         }
@@ -139,8 +166,11 @@ public class UpdateOperationalInfoStateMachineStrategy implements OnboardingStat
         if (request.getOperatingHours() == null || request.getOperatingHours().trim().isEmpty()) {
             result.addError("Operating hours are required");
         }
+        return result;
+    }
 
-        // Boolean validations
+    private ValidationResult validateCompliance(OperationalInfoRequest request) {
+        ValidationResult result = new ValidationResult();
         if (request.getHasComplianceCertification() == null) {
             result.addError("Compliance certification status is required");
         }
@@ -152,7 +182,6 @@ public class UpdateOperationalInfoStateMachineStrategy implements OnboardingStat
         if (Boolean.TRUE.equals(request.getAgreedToTermsOfService()) && request.getAgreedOnboardingDate() == null) {
             result.addError("Agreed onboarding date is required when terms of service are accepted");
         }
-
         return result;
     }
 
@@ -0,0 +1,116 @@
+package com.github.sharifrahim.onboard.strategy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.github.sharifrahim.onboard.datasource.sharding.ShardContext;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs independent validation rules concurrently, so a submission costs as much as its slowest rule rather than the sum
+ * of all of them.
+ * <p>
+ * Forked rules start first, on a bounded pool and with the caller's shard bound. Inline rules then run on the caller's
+ * thread while they are in flight. Every rule answers within its deadline; one that does not, or that throws, fails
+ * validation under its own name. Results are merged in the order the rules were given, never in completion order, so
+ * the same submission always reports the same errors.
+ * <p>
+ * With at most one forked rule there is nothing to overlap it with but cheap inline rules, so every rule runs on the
+ * caller's thread and the hand-off to the pool is saved; deadlines then do not apply. The pool itself is only built the
+ * first time more than one rule is forked, so while every rule is inline, as in the built-in strategies, it never
+ * exists.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(ValidationProperties.class)
+public class ParallelValidator implements DisposableBean {
+
+    private final ValidationProperties properties;
+    private final AtomicInteger threads = new AtomicInteger();
+    private volatile ThreadPoolExecutor executor;
+
+    public ParallelValidator(ValidationProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Run the rules and merge their results in declaration order
+     */
+    public ValidationResult validate(List<ValidationRule> rules) {
+        if (rules.stream().filter(ValidationRule::forked).count() <= 1) {
+            return ValidationResult.merge(rules.stream().map(ParallelValidator::run).toList());
+        }
+        String shard = ShardContext.current();
+        List<CompletableFuture<ValidationResult>> results = new ArrayList<>(rules.size());
+        for (ValidationRule rule : rules) {
+            results.add(rule.forked() ? fork(rule, shard) : null);
+        }
+        for (int i = 0; i < rules.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, CompletableFuture.completedFuture(run(rules.get(i))));
+            }
+        }
+        return ValidationResult.merge(results.stream().map(CompletableFuture::join).toList());
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private CompletableFuture<ValidationResult> fork(ValidationRule rule, String shard) {
+        Duration deadline = rule.deadline() != null ? rule.deadline() : properties.getRuleTimeout();
+        ThreadPoolExecutor pool = executor();
+        return CompletableFuture
+                .supplyAsync(() -> shard != null ? ShardContext.callOn(shard, () -> run(rule)) : run(rule), pool)
+                .completeOnTimeout(ValidationResult.failure(rule.name() + " check did not finish in time"),
+                        deadline.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The pool for forked rules, built by the first validation that needs it
+     */
+    private ThreadPoolExecutor executor() {
+        ThreadPoolExecutor pool = executor;
+        if (pool == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    executor = newExecutor();
+                }
+                pool = executor;
+            }
+        }
+        return pool;
+    }
+
+    private ThreadPoolExecutor newExecutor() {
+        return new ThreadPoolExecutor(properties.getParallelism(), properties.getParallelism(), 0,
+                TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()), task -> {
+                    Thread thread = new Thread(task, "validation-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    private static ValidationResult run(ValidationRule rule) {
+        try {
+            return rule.check().get();
+        } catch (RuntimeException e) {
+            log.warn("Validation rule {} failed", rule.name(), e);
+            return ValidationResult.failure(rule.name() + " check could not be completed");
+        }
+    }
+}
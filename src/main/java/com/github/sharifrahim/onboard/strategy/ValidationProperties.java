@@ -0,0 +1,27 @@
+package com.github.sharifrahim.onboard.strategy;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuration of the pool running forked validation rules
+ */
+@Data
+@ConfigurationProperties(prefix = "onboard.validation")
+public class ValidationProperties {
+
+    /**
+     * Threads running forked rules; when all are busy and the queue is full rules run on the caller's thread
+     */
+    private int parallelism = 4;
+
+    private int queueCapacity = 1_000;
+
+    /**
+     * Deadline of a forked rule that does not set its own
+     */
+    private Duration ruleTimeout = Duration.ofSeconds(2);
+}
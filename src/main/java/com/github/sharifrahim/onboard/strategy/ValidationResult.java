@@ -37,6 +37,30 @@ public class ValidationResult {
         return result;
     }
 
+    /**
+     * Merge the results in the given order, so the combined errors do not depend on which check finished first
+     */
+    public static ValidationResult merge(List<ValidationResult> results) {
+        ValidationResult merged = new ValidationResult();
+        for (ValidationResult result : results) {
+            merged.merge(result);
+        }
+        return merged;
+    }
+
+    /**
+     * Append the other result's errors to this one
+     *
+     * @return this result
+     */
+    public ValidationResult merge(ValidationResult other) {
+        if (!other.isValid()) {
+            this.valid = false;
+        }
+        this.errors.addAll(other.errors);
+        return this;
+    }
+
     public void addError(String error) {
         this.valid = false;
         this.errors.add(error);
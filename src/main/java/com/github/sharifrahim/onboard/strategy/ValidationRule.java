@@ -0,0 +1,38 @@
+package com.github.sharifrahim.onboard.strategy;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * One independent check of a submission
+ *
+ * @param name
+ *            the rule name, used in the error reported when the rule fails to answer
+ * @param forked
+ *            whether the rule runs on the validation pool rather than the caller's thread
+ * @param deadline
+ *            how long a forked rule may run, or null for {@code onboard.validation.rule-timeout}
+ * @param check
+ *            the check itself
+ */
+public record ValidationRule(String name, boolean forked, Duration deadline, Supplier<ValidationResult> check) {
+
+    /**
+     * A cheap rule, run on the caller's thread while the forked rules are in flight
+     */
+    public static ValidationRule inline(String name, Supplier<ValidationResult> check) {
+        return new ValidationRule(name, false, null, check);
+    }
+
+    /**
+     * A rule that blocks on I/O for long enough to be worth running concurrently, such as a call to a remote registry;
+     * lookups answered from memory most of the time are cheaper inline
+     */
+    public static ValidationRule forked(String name, Supplier<ValidationResult> check) {
+        return new ValidationRule(name, true, null, check);
+    }
+
+    public static ValidationRule forked(String name, Duration deadline, Supplier<ValidationResult> check) {
+        return new ValidationRule(name, true, deadline, check);
+    }
+}
@@ -5,15 +5,21 @@ import org.springframework.stereotype.Component;
 import com.github.sharifrahim.onboard.domain.Company;
 import com.github.sharifrahim.onboard.domain.ProgressState;
 import com.github.sharifrahim.onboard.dto.CompanyProfileRequest;
+import com.github.sharifrahim.onboard.duplicate.DuplicateDetector;
 import com.github.sharifrahim.onboard.strategy.OnboardingStrategy;
 import com.github.sharifrahim.onboard.strategy.ValidationResult;
 
+import lombok.RequiredArgsConstructor;
+
 /**
  * Strategy for creating a new company profile
  */
 @Component
+@RequiredArgsConstructor
 public class CreateCompanyStrategy implements OnboardingStrategy<CompanyProfileRequest> {
 
+    private final DuplicateDetector duplicateDetector;
+
     @Override
     public ValidationResult validate(CompanyProfileRequest request, Company company) {
         ValidationResult result = new ValidationResult();
@@ -30,6 +36,8 @@ public class CreateCompanyStrategy implements OnboardingStrategy<CompanyProfileR
 
         if (request.getRegistrationNumber() == null || request.getRegistrationNumber().trim().isEmpty()) {
             result.addError("Registration number is required");
+        } else if (duplicateDetector.isRegistrationNumberTaken(request.getRegistrationNumber())) {
+            result.addError("A company with this registration number already exists or is pending approval");
         }
 
         if (request.getEntityType() == null || request.getEntityType().trim().isEmpty()) {
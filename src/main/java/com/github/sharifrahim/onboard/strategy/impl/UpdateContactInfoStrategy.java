@@ -73,6 +73,10 @@ public class UpdateContactInfoStrategy implements OnboardingStrategy<ContactInfo
                 .industrySector(company.getIndustrySector()).dateOfIncorporation(company.getDateOfIncorporation())
                 .registeredAddress(company.getRegisteredAddress()).operatingAddress(company.getOperatingAddress())
                 .country(company.getCountry()).progressState(ProgressState.CONTACT) // Advance to next state
+                // Entry time is kept on re-submission and stamped on approval when the state advances
+                .progressUpdatedAt(
+                        company.getProgressState() == ProgressState.CONTACT ? company.getProgressUpdatedAt() : null)
+                .workflowName(company.getWorkflowName()).workflowVersion(company.getWorkflowVersion())
                 .companySize(company.getCompanySize()).description(company.getDescription()).build();
 
         // Set contact information
@@ -79,6 +79,10 @@ public class UpdateOperationalInfoStrategy implements OnboardingStrategy<Operati
                 .industrySector(company.getIndustrySector()).dateOfIncorporation(company.getDateOfIncorporation())
                 .registeredAddress(company.getRegisteredAddress()).operatingAddress(company.getOperatingAddress())
                 .country(company.getCountry()).progressState(ProgressState.OPERATIONS) // Advance to next state
+                // Entry time is kept on re-submission and stamped on approval when the state advances
+                .progressUpdatedAt(
+                        company.getProgressState() == ProgressState.OPERATIONS ? company.getProgressUpdatedAt() : null)
+                .workflowName(company.getWorkflowName()).workflowVersion(company.getWorkflowVersion())
                 .companySize(company.getCompanySize()).description(company.getDescription())
                 .mainContactName(company.getMainContactName()).mainContactEmail(company.getMainContactEmail())
                 .mainContactPhone(company.getMainContactPhone()).contactPersonRole(company.getContactPersonRole())
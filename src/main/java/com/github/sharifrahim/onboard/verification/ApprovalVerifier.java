@@ -0,0 +1,140 @@
+package com.github.sharifrahim.onboard.verification;
+
+import java.sql.Timestamp;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.sharifrahim.onboard.datasource.sharding.ShardRouter;
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.event.ApprovalSubmittedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Verification stage after a step is submitted. Once the submission commits, the identifiers the step introduced are
+ * sent to their registries concurrently and the submission returns without waiting; answers are recorded against the
+ * approval in {@code approval_verification} as they arrive, for reviewers to see before deciding. A submission that
+ * rolls back never reaches the registries.
+ */
+@Slf4j
+@Component
+public class ApprovalVerifier implements DisposableBean {
+
+    private static final RowMapper<VerificationResult> ROW_MAPPER = (rs, i) -> new VerificationResult(
+            VerificationCheck.valueOf(rs.getString(1)), VerificationResult.Status.valueOf(rs.getString(2)),
+            rs.getString(3), rs.getTimestamp(4).toInstant());
+
+    private final VerificationProperties properties;
+    private final VerificationClient client;
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final ThreadPoolExecutor recorder;
+
+    public ApprovalVerifier(VerificationProperties properties, VerificationClient verificationClient,
+            JdbcTemplate jdbcTemplate, ShardRouter shardRouter, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.client = new ResilientVerificationClient(verificationClient, properties, meterRegistry);
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        AtomicInteger threads = new AtomicInteger();
+        Counter discarded = Counter.builder("onboard.verification.discarded")
+                .description("Registry answers dropped because the recorder fell behind").register(meterRegistry);
+        // results are written off the registry client's threads and never on the submitting thread
+        this.recorder = new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(10_000),
+                task -> {
+                    Thread thread = new Thread(task, "verification-recorder-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardOldestPolicy() {
+                    @Override
+                    public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+                        if (!executor.isShutdown()) {
+                            discarded.increment();
+                            log.warn("Verification recorder is full; dropping its oldest unrecorded answer");
+                        }
+                        super.rejectedExecution(task, executor);
+                    }
+                });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onApprovalSubmitted(ApprovalSubmittedEvent event) {
+        if (!properties.isEnabled() || event.company() == null) {
+            return;
+        }
+        Approval approval = event.approval();
+        identifiers(approval.getType(), event.company()).forEach((check, value) -> {
+            if (client.supports(check)) {
+                client.verify(check, value, event.company().getCountry())
+                        .thenAcceptAsync(result -> record(approval.getId(), result), recorder).exceptionally(e -> {
+                            log.warn("Could not record {} check of approval {}", check, approval.getId(), e);
+                            return null;
+                        });
+            }
+        });
+    }
+
+    /**
+     * Answers recorded so far for an approval
+     */
+    public List<VerificationResult> findByApproval(Long approvalId) {
+        return shardRouter.onShard(shardRouter.shardForId(approvalId),
+                () -> jdbcTemplate.query("SELECT check_type, status, detail, checked_at FROM approval_verification"
+                        + " WHERE approval_id = ? ORDER BY check_type", ROW_MAPPER, approvalId));
+    }
+
+    @Override
+    public void destroy() {
+        recorder.shutdown();
+    }
+
+    private static Map<VerificationCheck, String> identifiers(Approval.Type type, Company company) {
+        Map<VerificationCheck, String> identifiers = new EnumMap<>(VerificationCheck.class);
+        if (type == Approval.Type.CREATE_COMPANY) {
+            put(identifiers, VerificationCheck.REGISTRATION_NUMBER, company.getRegistrationNumber());
+        } else if (type == Approval.Type.UPDATE_OPERATIONAL_INFO) {
+            put(identifiers, VerificationCheck.TAX_ID, company.getTaxIdNumber());
+            put(identifiers, VerificationCheck.BANK_ACCOUNT, company.getBankAccountNumber());
+        }
+        return identifiers;
+    }
+
+    private static void put(Map<VerificationCheck, String> identifiers, VerificationCheck check, String value) {
+        if (value != null && !value.isBlank()) {
+            identifiers.put(check, value);
+        }
+    }
+
+    private void record(Long approvalId, VerificationResult result) {
+        Timestamp checkedAt = Timestamp.from(result.checkedAt());
+        String detail = result.detail() != null && result.detail().length() > 500 ? result.detail().substring(0, 500)
+                : result.detail();
+        shardRouter.onShard(shardRouter.shardForId(approvalId), () -> {
+            if (jdbcTemplate.update(
+                    "UPDATE approval_verification SET status = ?, detail = ?, checked_at = ?"
+                            + " WHERE approval_id = ? AND check_type = ?",
+                    result.status().name(), detail, checkedAt, approvalId, result.check().name()) == 0) {
+                jdbcTemplate.update(
+                        "INSERT INTO approval_verification (approval_id, check_type, status, detail,"
+                                + " checked_at) VALUES (?, ?, ?, ?, ?)",
+                        approvalId, result.check().name(), result.status().name(), detail, checkedAt);
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.sharifrahim.onboard.verification;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Registry client over HTTP. A registry answers {@code GET <url>?value=&country=} with {@code {"valid": true|false,
+ * "detail": "..."}}, or 404 for identifiers it does not know.
+ */
+public class HttpVerificationClient implements VerificationClient {
+
+    private final HttpClient httpClient;
+    private final VerificationProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public HttpVerificationClient(VerificationProperties properties, ObjectMapper objectMapper) {
+        this.httpClient = HttpClient.newBuilder().connectTimeout(properties.getTimeout()).build();
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean supports(VerificationCheck check) {
+        return properties.getRegistries().containsKey(check);
+    }
+
+    @Override
+    public CompletableFuture<VerificationResult> verify(VerificationCheck check, String value, String country) {
+        URI uri = URI.create(
+                properties.getRegistries().get(check) + "?value=" + encode(value) + "&country=" + encode(country));
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(properties.getTimeout())
+                .header("Accept", "application/json").GET().build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> parse(check, response));
+    }
+
+    private VerificationResult parse(VerificationCheck check, HttpResponse<String> response) {
+        if (response.statusCode() == 404) {
+            return new VerificationResult(check, VerificationResult.Status.FAILED, "Not registered", Instant.now());
+        }
+        if (response.statusCode() != 200) {
+            // counts as a registry failure rather than an answer about the identifier
+            throw new IllegalStateException(check + " registry answered " + response.statusCode());
+        }
+        try {
+            JsonNode body = objectMapper.readTree(response.body());
+            VerificationResult.Status status = body.path("valid").asBoolean() ? VerificationResult.Status.VERIFIED
+                    : VerificationResult.Status.FAILED;
+            return new VerificationResult(check, status, body.path("detail").asText(null), Instant.now());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(check + " registry answered malformed JSON", e);
+        }
+    }
+
+    private static String encode(String value) {
+        return value != null ? URLEncoder.encode(value, StandardCharsets.UTF_8) : "";
+    }
+}
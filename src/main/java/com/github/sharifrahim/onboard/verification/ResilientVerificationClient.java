@@ -0,0 +1,123 @@
+package com.github.sharifrahim.onboard.verification;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Guards a {@link VerificationClient} per registry. It fails fast, and never waits, when:
+ * <ul>
+ * <li>the bulkhead is full;</li>
+ * <li>the circuit is open;</li>
+ * <li>a call times out.</li>
+ * </ul>
+ * Registry answers are cached per identifier. A bulkhead permit is held until the registry call itself ends, not just
+ * until the caller stops waiting for it, so calls left running after a timeout still count against the limit; the
+ * delegate's own request timeout bounds how long they run.
+ */
+@Slf4j
+public class ResilientVerificationClient implements VerificationClient {
+
+    private record CacheEntry(VerificationResult result, long expiresAt) {
+    }
+
+    private final VerificationClient delegate;
+    private final VerificationProperties properties;
+    private final Map<VerificationCheck, CircuitBreaker> breakers = new EnumMap<>(VerificationCheck.class);
+    private final Map<VerificationCheck, Semaphore> bulkheads = new EnumMap<>(VerificationCheck.class);
+    private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public ResilientVerificationClient(VerificationClient delegate, VerificationProperties properties,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        for (VerificationCheck check : VerificationCheck.values()) {
+            breakers.put(check, new CircuitBreaker(properties.getFailureThreshold(), properties.getOpenDuration()));
+            bulkheads.put(check, new Semaphore(properties.getMaxConcurrentCalls()));
+        }
+    }
+
+    @Override
+    public boolean supports(VerificationCheck check) {
+        return delegate.supports(check);
+    }
+
+    @Override
+    public CompletableFuture<VerificationResult> verify(VerificationCheck check, String value, String country) {
+        String key = check + ":" + country + ":" + value;
+        CacheEntry cached = cache.get(key);
+        if (cached != null && cached.expiresAt() - System.nanoTime() > 0) {
+            return CompletableFuture.completedFuture(count(cached.result(), "cache"));
+        }
+
+        Semaphore bulkhead = bulkheads.get(check);
+        if (!bulkhead.tryAcquire()) {
+            return CompletableFuture.completedFuture(
+                    count(VerificationResult.unavailable(check, "Too many concurrent calls"), "bulkhead"));
+        }
+        CircuitBreaker breaker = breakers.get(check);
+        if (!breaker.tryAcquire()) {
+            bulkhead.release();
+            return CompletableFuture
+                    .completedFuture(count(VerificationResult.unavailable(check, "Circuit open"), "circuit-open"));
+        }
+
+        CompletableFuture<VerificationResult> call;
+        try {
+            call = delegate.verify(check, value, country);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((result, error) -> bulkhead.release());
+        // time out a copy, so that giving up on the answer does not complete the call and free its permit early
+        return call.copy().orTimeout(properties.getTimeout().toNanos(), TimeUnit.NANOSECONDS)
+                .handle((result, error) -> {
+                    if (error != null) {
+                        breaker.onFailure();
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        log.debug("{} check failed", check, cause);
+                        return count(
+                                VerificationResult.unavailable(check,
+                                        cause instanceof TimeoutException ? "Timed out" : cause.getMessage()),
+                                "registry");
+                    }
+                    breaker.onSuccess();
+                    if (result.status() != VerificationResult.Status.UNAVAILABLE) {
+                        remember(key, result);
+                    }
+                    return count(result, "registry");
+                });
+    }
+
+    CircuitBreaker.State getCircuitState(VerificationCheck check) {
+        return breakers.get(check).getState();
+    }
+
+    private void remember(String key, VerificationResult result) {
+        long now = System.nanoTime();
+        if (cache.size() >= properties.getCacheSize()) {
+            cache.values().removeIf(entry -> entry.expiresAt() - now <= 0);
+            if (cache.size() >= properties.getCacheSize()) {
+                return;
+            }
+        }
+        cache.put(key, new CacheEntry(result, now + properties.getCacheTtl().toNanos()));
+    }
+
+    private VerificationResult count(VerificationResult result, String source) {
+        Counter.builder("onboard.verification.checks").description("Registry checks by outcome")
+                .tag("check", result.check().name()).tag("status", result.status().name()).tag("source", source)
+                .register(meterRegistry).increment();
+        return result;
+    }
+}
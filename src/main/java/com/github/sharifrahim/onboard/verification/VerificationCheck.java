@@ -0,0 +1,8 @@
+package com.github.sharifrahim.onboard.verification;
+
+/**
+ * Identifiers checked against external registries
+ */
+public enum VerificationCheck {
+    REGISTRATION_NUMBER, TAX_ID, BANK_ACCOUNT
+}
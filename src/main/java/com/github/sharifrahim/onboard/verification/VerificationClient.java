@@ -0,0 +1,19 @@
+package com.github.sharifrahim.onboard.verification;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Checks identifiers against external registries. Implementations must return without waiting for the registry; declare
+ * a bean of this type to replace the HTTP client.
+ */
+public interface VerificationClient {
+
+    CompletableFuture<VerificationResult> verify(VerificationCheck check, String value, String country);
+
+    /**
+     * Whether this client has a registry for the check; unsupported checks are not issued
+     */
+    default boolean supports(VerificationCheck check) {
+        return true;
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.sharifrahim.onboard.verification;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Configuration
+@EnableConfigurationProperties(VerificationProperties.class)
+public class VerificationConfig {
+
+    /**
+     * Registry client used unless the application declares its own
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public VerificationClient verificationClient(VerificationProperties properties, ObjectMapper objectMapper) {
+        return new HttpVerificationClient(properties, objectMapper);
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.sharifrahim.onboard.verification;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "onboard.verification")
+public class VerificationProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Registry endpoint per check, called as {@code GET <url>?value=&country=}
+     */
+    private Map<VerificationCheck, String> registries = new EnumMap<>(VerificationCheck.class);
+
+    /**
+     * Deadline of one registry call
+     */
+    private Duration timeout = Duration.ofSeconds(2);
+
+    /**
+     * Calls in flight per registry; further calls are answered UNAVAILABLE without waiting
+     */
+    private int maxConcurrentCalls = 16;
+
+    /**
+     * Consecutive failures of a registry that open its circuit
+     */
+    private int failureThreshold = 5;
+
+    /**
+     * How long an open circuit rejects calls before letting one trial call through
+     */
+    private Duration openDuration = Duration.ofSeconds(30);
+
+    /**
+     * How long a registry answer is reused for the same identifier
+     */
+    private Duration cacheTtl = Duration.ofHours(1);
+
+    private int cacheSize = 10_000;
+}
@@ -0,0 +1,18 @@
+package com.github.sharifrahim.onboard.verification;
+
+import java.time.Instant;
+
+/**
+ * Outcome of one registry check. {@code UNAVAILABLE} means the registry gave no answer (timeout, error, open circuit or
+ * full bulkhead) and says nothing about the identifier.
+ */
+public record VerificationResult(VerificationCheck check, Status status, String detail, Instant checkedAt) {
+
+    public enum Status {
+        VERIFIED, FAILED, UNAVAILABLE
+    }
+
+    public static VerificationResult unavailable(VerificationCheck check, String detail) {
+        return new VerificationResult(check, Status.UNAVAILABLE, detail, Instant.now());
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.sharifrahim.onboard.workflow;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.sharifrahim.onboard.domain.ProgressState;
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+
+/**
+ * A version of a workflow definition compiled into an immutable transition table. A transition is found with two enum
+ * map lookups, whatever the size of the definition.
+ */
+public final class Workflow {
+
+    private final String name;
+    private final int version;
+    private final WorkflowDefinition definition;
+    private final Map<ProgressState, Map<OnboardingEvent, ProgressState>> table;
+    private final Set<ProgressState> states;
+
+    private Workflow(String name, int version, WorkflowDefinition definition,
+            Map<ProgressState, Map<OnboardingEvent, ProgressState>> table, Set<ProgressState> states) {
+        this.name = name;
+        this.version = version;
+        this.definition = definition;
+        this.table = table;
+        this.states = states;
+    }
+
+    /**
+     * Check the definition and compile it
+     *
+     * @throws IllegalArgumentException
+     *             if the definition is incomplete, repeats a transition or has unreachable states
+     */
+    public static Workflow compile(WorkflowDefinition definition, int version) {
+        if (definition.name() == null || definition.name().isBlank()) {
+            throw new IllegalArgumentException("Workflow name is required");
+        }
+        String name = definition.name();
+        if (definition.initial() == null || definition.end() == null) {
+            throw new IllegalArgumentException("Workflow " + name + " needs an initial and an end state");
+        }
+        if (definition.transitions() == null || definition.transitions().isEmpty()) {
+            throw new IllegalArgumentException("Workflow " + name + " has no transitions");
+        }
+
+        Map<ProgressState, Map<OnboardingEvent, ProgressState>> table = new EnumMap<>(ProgressState.class);
+        Set<ProgressState> states = EnumSet.of(definition.initial(), definition.end());
+        for (WorkflowDefinition.Transition transition : definition.transitions()) {
+            if (transition.source() == null || transition.event() == null || transition.target() == null) {
+                throw new IllegalArgumentException(
+                        "Workflow " + name + " has a transition without source, event or target");
+            }
+            if (transition.source() == definition.end()) {
+                throw new IllegalArgumentException("Workflow " + name + " leaves its end state " + definition.end());
+            }
+            ProgressState previous = table
+                    .computeIfAbsent(transition.source(), s -> new EnumMap<>(OnboardingEvent.class))
+                    .put(transition.event(), transition.target());
+            if (previous != null) {
+                throw new IllegalArgumentException("Workflow " + name + " has two " + transition.event()
+                        + " transitions from " + transition.source());
+            }
+            states.add(transition.source());
+            states.add(transition.target());
+        }
+
+        Set<ProgressState> reachable = EnumSet.of(definition.initial());
+        for (boolean grew = true; grew;) {
+            grew = false;
+            for (ProgressState state : EnumSet.copyOf(reachable)) {
+                grew |= reachable.addAll(table.getOrDefault(state, Map.of()).values());
+            }
+        }
+        if (!reachable.containsAll(states)) {
+            Set<ProgressState> unreachable = EnumSet.copyOf(states);
+            unreachable.removeAll(reachable);
+            throw new IllegalArgumentException("Workflow " + name + " cannot reach " + unreachable);
+        }
+
+        table.replaceAll((state, transitions) -> Collections.unmodifiableMap(transitions));
+        return new Workflow(name, version, definition, Collections.unmodifiableMap(table),
+                Collections.unmodifiableSet(states));
+    }
+
+    /**
+     * Find where the event leads from the state
+     *
+     * @return the target state, or null if the workflow does not allow the event there
+     */
+    public ProgressState target(ProgressState state, OnboardingEvent event) {
+        Map<OnboardingEvent, ProgressState> transitions = table.get(state);
+        return transitions != null ? transitions.get(event) : null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public ProgressState getInitial() {
+        return definition.initial();
+    }
+
+    public ProgressState getEnd() {
+        return definition.end();
+    }
+
+    public Set<ProgressState> getStates() {
+        return states;
+    }
+
+    public List<WorkflowDefinition.Transition> getTransitions() {
+        return definition.transitions();
+    }
+
+    WorkflowDefinition getDefinition() {
+        return definition;
+    }
+
+    @Override
+    public String toString() {
+        return name + " v" + version;
+    }
+}
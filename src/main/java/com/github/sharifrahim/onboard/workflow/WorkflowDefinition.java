@@ -0,0 +1,24 @@
+package com.github.sharifrahim.onboard.workflow;
+
+import java.util.List;
+
+import com.github.sharifrahim.onboard.domain.ProgressState;
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+
+/**
+ * Onboarding workflow as written in a {@code workflows/*.yml} definition
+ *
+ * @param name
+ *            the workflow name companies are assigned by
+ * @param initial
+ *            the state a new company starts in
+ * @param end
+ *            the state that completes onboarding
+ * @param transitions
+ *            the allowed transitions; submission events run their strategy's guard and action
+ */
+public record WorkflowDefinition(String name, ProgressState initial, ProgressState end, List<Transition> transitions) {
+
+    public record Transition(ProgressState source, OnboardingEvent event, ProgressState target) {
+    }
+}
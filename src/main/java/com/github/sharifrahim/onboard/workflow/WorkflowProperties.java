@@ -0,0 +1,37 @@
+package com.github.sharifrahim.onboard.workflow;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuration of onboarding workflow definitions
+ */
+@Data
+@ConfigurationProperties(prefix = "onboard.workflows")
+public class WorkflowProperties {
+
+    /**
+     * Workflow of new companies whose size has no workflow of its own
+     */
+    private String defaultWorkflow = "standard";
+
+    /**
+     * Workflow of new companies by company size
+     */
+    private Map<String, String> byCompanySize = new HashMap<>();
+
+    /**
+     * Directory of {@code *.yml} definitions that override the bundled ones and are reloaded without a restart
+     */
+    private String directory;
+
+    /**
+     * How often the definitions are reloaded
+     */
+    private Duration reloadInterval = Duration.ofMinutes(1);
+}
@@ -0,0 +1,235 @@
+package com.github.sharifrahim.onboard.workflow;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sharifrahim.onboard.datasource.sharding.ShardRouter;
+import com.github.sharifrahim.onboard.domain.Company;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads workflow definitions and hands out their compiled versions.
+ * <p>
+ * Definitions are read from the bundled {@code workflows/*.yml} and from {@code onboard.workflows.directory}, which
+ * overrides bundled definitions of the same name and is reloaded periodically without a restart. Every distinct
+ * definition of a workflow is registered in {@code workflow_definition} on the default shard under the next version
+ * number. New companies are assigned the current version of their segment's workflow and keep it, so a reload only
+ * affects companies that start onboarding afterwards. A definition that does not compile is logged and the previous
+ * version stays current.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(WorkflowProperties.class)
+public class WorkflowRegistry {
+
+    private final WorkflowProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Workflow> versions = new ConcurrentHashMap<>();
+    private volatile Map<String, Workflow> current;
+
+    public WorkflowRegistry(WorkflowProperties properties, JdbcTemplate jdbcTemplate, ShardRouter shardRouter,
+            ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Find the workflow a new company of the given size onboards through
+     */
+    public Workflow forNewCompany(String companySize) {
+        String name = companySize != null
+                ? properties.getByCompanySize().getOrDefault(companySize, properties.getDefaultWorkflow())
+                : properties.getDefaultWorkflow();
+        return currentVersion(name);
+    }
+
+    /**
+     * Find the workflow version the company was assigned when it started onboarding. Companies that started before
+     * workflows were versioned follow version 1 of the default workflow.
+     */
+    public Workflow forCompany(Company company) {
+        String name = company.getWorkflowName() != null ? company.getWorkflowName() : properties.getDefaultWorkflow();
+        return version(name, company.getWorkflowVersion() != null ? company.getWorkflowVersion() : 1);
+    }
+
+    /**
+     * Find the current version of a workflow
+     */
+    public Workflow currentVersion(String name) {
+        Map<String, Workflow> workflows = current != null ? current : reload();
+        Workflow workflow = workflows.get(name);
+        if (workflow == null) {
+            throw new IllegalStateException("No workflow named " + name);
+        }
+        return workflow;
+    }
+
+    /**
+     * Find a version of a workflow, including versions that are no longer current
+     */
+    public Workflow version(String name, int version) {
+        String key = name + ":" + version;
+        Workflow workflow = versions.get(key);
+        if (workflow != null) {
+            return workflow;
+        }
+        if (current == null) {
+            // registers the definitions, so version 1 of the default workflow exists
+            reload();
+        }
+        List<String> stored = shardRouter.onShard(shardRouter.getDefaultShard(),
+                () -> jdbcTemplate.queryForList(
+                        "SELECT definition FROM workflow_definition WHERE name = ? AND version = ?", String.class, name,
+                        version));
+        if (stored.isEmpty()) {
+            throw new IllegalStateException("No version " + version + " of workflow " + name);
+        }
+        try {
+            workflow = Workflow.compile(objectMapper.readValue(stored.get(0), WorkflowDefinition.class), version);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored workflow " + key + " is not readable", e);
+        }
+        Workflow previous = versions.putIfAbsent(key, workflow);
+        return previous != null ? previous : workflow;
+    }
+
+    /**
+     * Read every definition again and register those that changed
+     *
+     * @return the current version of each workflow
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${onboard.workflows.reload-interval:PT1M}", fixedDelayString = "${onboard.workflows.reload-interval:PT1M}")
+    public synchronized Map<String, Workflow> reload() {
+        Map<String, Workflow> workflows = new HashMap<>(current != null ? current : Map.of());
+        for (WorkflowDefinition definition : readDefinitions()) {
+            try {
+                Workflow.compile(definition, 0);
+                Workflow workflow = register(definition);
+                Workflow previous = workflows.put(definition.name(), workflow);
+                if (previous == null || previous.getVersion() != workflow.getVersion()) {
+                    log.info("Workflow {} is now current", workflow);
+                }
+            } catch (RuntimeException e) {
+                log.error("Keeping the current version of workflow {}: {}", definition.name(), e.getMessage());
+            }
+        }
+        current = Map.copyOf(workflows);
+        return current;
+    }
+
+    private List<WorkflowDefinition> readDefinitions() {
+        Map<String, WorkflowDefinition> definitions = new HashMap<>();
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver()
+                    .getResources("classpath*:workflows/*.yml")) {
+                try (InputStream in = resource.getInputStream()) {
+                    read(in, resource.getDescription(), definitions);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Could not read bundled workflow definitions", e);
+        }
+        if (properties.getDirectory() != null && Files.isDirectory(Path.of(properties.getDirectory()))) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(Path.of(properties.getDirectory()),
+                    "*.{yml,yaml}")) {
+                for (Path file : files) {
+                    try (InputStream in = Files.newInputStream(file)) {
+                        read(in, file.toString(), definitions);
+                    }
+                }
+            } catch (IOException e) {
+                log.error("Could not read workflow definitions from {}", properties.getDirectory(), e);
+            }
+        }
+        return List.copyOf(definitions.values());
+    }
+
+    private void read(InputStream in, String source, Map<String, WorkflowDefinition> definitions) {
+        try {
+            Object yaml = new Yaml(new SafeConstructor(new LoaderOptions())).load(in);
+            WorkflowDefinition definition = objectMapper.convertValue(yaml, WorkflowDefinition.class);
+            definitions.put(definition.name(), definition);
+        } catch (RuntimeException e) {
+            log.error("Skipping workflow definition {}: {}", source, e.getMessage());
+        }
+    }
+
+    private Workflow register(WorkflowDefinition definition) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(definition);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize workflow " + definition.name(), e);
+        }
+        String checksum = sha256(json);
+        int version = shardRouter.onShard(shardRouter.getDefaultShard(), () -> {
+            for (int attempt = 0;; attempt++) {
+                Integer known = jdbcTemplate.queryForObject(
+                        "SELECT MIN(version) FROM workflow_definition WHERE name = ? AND checksum = ?", Integer.class,
+                        definition.name(), checksum);
+                if (known != null) {
+                    return known;
+                }
+                Integer next = jdbcTemplate.queryForObject(
+                        "SELECT COALESCE(MAX(version), 0) + 1 FROM workflow_definition WHERE name = ?", Integer.class,
+                        definition.name());
+                try {
+                    jdbcTemplate.update(
+                            "INSERT INTO workflow_definition (name, version, checksum, definition, registered_at)"
+                                    + " VALUES (?, ?, ?, ?, ?)",
+                            definition.name(), next, checksum, json, Timestamp.from(Instant.now()));
+                    return next;
+                } catch (DuplicateKeyException e) {
+                    // another node registered a version first
+                    if (attempt == 2) {
+                        throw e;
+                    }
+                }
+            }
+        });
+        return versions.computeIfAbsent(definition.name() + ":" + version, k -> Workflow.compile(definition, version));
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of()
+                    .formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
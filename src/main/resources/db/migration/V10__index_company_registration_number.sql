@@ -0,0 +1,2 @@
+-- registration_number is encrypted deterministically, so equality lookups can still seek this index
+CREATE INDEX idx_company_registration_number ON company (registration_number);
@@ -0,0 +1,10 @@
+-- Normalized, deterministically encrypted identifiers used for duplicate detection
+ALTER TABLE company ADD COLUMN registration_key VARCHAR(255);
+ALTER TABLE company ADD COLUMN tax_id_key VARCHAR(255);
+ALTER TABLE approval_table ADD COLUMN registration_key VARCHAR(255);
+ALTER TABLE approval_table ADD COLUMN tax_id_key VARCHAR(255);
+
+CREATE INDEX idx_company_registration_key ON company (registration_key);
+CREATE INDEX idx_company_tax_id_key ON company (tax_id_key);
+CREATE INDEX idx_approval_registration_key ON approval_table (registration_key, approval_status);
+CREATE INDEX idx_approval_tax_id_key ON approval_table (tax_id_key, approval_status);
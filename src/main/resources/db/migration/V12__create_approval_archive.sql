@@ -0,0 +1,17 @@
+-- Cold tier for decided approvals: one gzip-compressed JSON document per approval
+CREATE TABLE approval_archive (
+    id BIGINT PRIMARY KEY,
+    data_id BIGINT,
+    type VARCHAR(50),
+    approval_status VARCHAR(10),
+    submitted_at TIMESTAMP,
+    approved_at TIMESTAMP,
+    archived_at TIMESTAMP NOT NULL,
+    payload BYTEA NOT NULL
+);
+
+CREATE INDEX idx_approval_archive_data_id ON approval_archive (data_id);
+CREATE INDEX idx_approval_archive_type_status ON approval_archive (type, approval_status);
+
+-- Lets the archival job find decided approvals past retention without scanning the hot table
+CREATE INDEX idx_approval_status_approved_at ON approval_table (approval_status, approved_at);
@@ -0,0 +1,5 @@
+-- Serves "latest approved change of a company at or before T" as a single index seek
+CREATE INDEX idx_approval_data_status_approved_at ON approval_table (data_id, approval_status, approved_at);
+
+DROP INDEX idx_approval_archive_data_id;
+CREATE INDEX idx_approval_archive_history ON approval_archive (data_id, approval_status, approved_at);
@@ -0,0 +1,15 @@
+-- Append-only journal of accepted onboarding events, the source of truth in event-sourced mode
+CREATE TABLE onboarding_journal (
+    sequence BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    company_id BIGINT,
+    approval_id BIGINT NOT NULL,
+    event VARCHAR(50) NOT NULL,
+    payload TEXT,
+    recorded_at TIMESTAMP NOT NULL
+);
+
+-- Position of each projection in the journal of this database
+CREATE TABLE journal_checkpoint (
+    projection VARCHAR(100) PRIMARY KEY,
+    position BIGINT NOT NULL
+);
@@ -0,0 +1,16 @@
+-- Nodes of the cluster and their last heartbeat
+CREATE TABLE cluster_node (
+    node_id VARCHAR(100) PRIMARY KEY,
+    url VARCHAR(255),
+    heartbeat_at TIMESTAMP NOT NULL
+);
+
+-- Company partitions and the node holding each one's lease
+CREATE TABLE partition_lease (
+    partition_id INT PRIMARY KEY,
+    owner VARCHAR(100),
+    owner_url VARCHAR(255),
+    expires_at TIMESTAMP
+);
+
+CREATE INDEX idx_partition_lease_owner ON partition_lease (owner);
@@ -0,0 +1,27 @@
+-- Documents attached to an approval for review; content lives in the blob store under its SHA-256
+CREATE TABLE approval_attachment (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    approval_id BIGINT NOT NULL,
+    kind VARCHAR(50) NOT NULL,
+    file_name VARCHAR(255) NOT NULL,
+    content_type VARCHAR(255),
+    size BIGINT NOT NULL,
+    sha256 CHAR(64) NOT NULL,
+    uploaded_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_approval_attachment_approval_id ON approval_attachment (approval_id);
+
+-- Resumable uploads in progress; received bytes sit in a part file named after the upload id
+CREATE TABLE attachment_upload (
+    id VARCHAR(36) PRIMARY KEY,
+    approval_id BIGINT NOT NULL,
+    kind VARCHAR(50) NOT NULL,
+    file_name VARCHAR(255) NOT NULL,
+    content_type VARCHAR(255),
+    total_size BIGINT NOT NULL,
+    received BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_attachment_upload_created_at ON attachment_upload (created_at);
@@ -0,0 +1,9 @@
+-- Latest registry answer per check of an approval, written asynchronously after submission
+CREATE TABLE approval_verification (
+    approval_id BIGINT NOT NULL,
+    check_type VARCHAR(50) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    detail VARCHAR(500),
+    checked_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (approval_id, check_type)
+);
@@ -0,0 +1,12 @@
+-- Every registered version of a workflow definition; companies keep the version they started onboarding on
+CREATE TABLE workflow_definition (
+    name VARCHAR(100) NOT NULL,
+    version INT NOT NULL,
+    checksum CHAR(64) NOT NULL,
+    definition TEXT NOT NULL,
+    registered_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (name, version)
+);
+
+ALTER TABLE company ADD COLUMN workflow_name VARCHAR(100);
+ALTER TABLE company ADD COLUMN workflow_version INT;
@@ -0,0 +1,33 @@
+-- Sign-off progress of approvals that need more than one reviewer. Stages sharing a step are decided in parallel;
+-- the counters are only ever changed by conditional updates so concurrent reviewers cannot lose each other's votes
+CREATE TABLE approval_chain (
+    approval_id BIGINT PRIMARY KEY,
+    chain VARCHAR(100) NOT NULL,
+    step SMALLINT NOT NULL,
+    open_stages SMALLINT NOT NULL,
+    status VARCHAR(20) NOT NULL
+);
+
+CREATE TABLE approval_stage (
+    approval_id BIGINT NOT NULL,
+    stage SMALLINT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    step SMALLINT NOT NULL,
+    reviewers VARCHAR(1000),
+    required SMALLINT NOT NULL,
+    vetoes SMALLINT NOT NULL,
+    approvals SMALLINT NOT NULL DEFAULT 0,
+    rejections SMALLINT NOT NULL DEFAULT 0,
+    status VARCHAR(20) NOT NULL,
+    PRIMARY KEY (approval_id, stage)
+);
+
+CREATE TABLE approval_decision (
+    approval_id BIGINT NOT NULL,
+    reviewer VARCHAR(100) NOT NULL,
+    stage SMALLINT NOT NULL,
+    verdict VARCHAR(20) NOT NULL,
+    remarks VARCHAR(500),
+    decided_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (approval_id, reviewer)
+);
@@ -0,0 +1,11 @@
+-- Reviewer claims on pending approvals. A claim is only valid until its lease ends; an expired claim may be taken
+-- over by the next reviewer without waiting for the cleanup
+CREATE TABLE approval_claim (
+    approval_id BIGINT PRIMARY KEY,
+    reviewer VARCHAR(100) NOT NULL,
+    claimed_at TIMESTAMP NOT NULL,
+    lease_until TIMESTAMP NOT NULL
+);
+
+-- Counts a reviewer's open claims against the per-reviewer limit
+CREATE INDEX idx_approval_claim_reviewer ON approval_claim (reviewer, lease_until);
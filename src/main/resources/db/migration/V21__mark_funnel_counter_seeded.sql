@@ -0,0 +1,4 @@
+-- Funnel counters seed the company counts once, guarded by a marker row; databases already seeded get the marker
+INSERT INTO funnel_counter (name, counter_value)
+SELECT 'seeded', 1 WHERE EXISTS (SELECT 1 FROM funnel_counter)
+    AND NOT EXISTS (SELECT 1 FROM funnel_counter WHERE name = 'seeded');
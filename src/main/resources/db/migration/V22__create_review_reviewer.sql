@@ -0,0 +1,5 @@
+-- One row per reviewer who ever claimed; claiming locks the reviewer's row on the default shard, so one reviewer's
+-- claims are counted against the limit one request at a time, whichever node serves them
+CREATE TABLE review_reviewer (
+    reviewer VARCHAR(100) PRIMARY KEY
+);
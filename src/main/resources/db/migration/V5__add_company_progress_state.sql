@@ -0,0 +1 @@
+ALTER TABLE company ADD COLUMN progress_state VARCHAR(255);
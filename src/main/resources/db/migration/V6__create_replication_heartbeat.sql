@@ -0,0 +1,7 @@
+-- Single row bumped on the primary; replicas report their lag by how stale their copy is
+CREATE TABLE replication_heartbeat (
+    id INT PRIMARY KEY,
+    beat_at TIMESTAMP NOT NULL
+);
+
+INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, CURRENT_TIMESTAMP);
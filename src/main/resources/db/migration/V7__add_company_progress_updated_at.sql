@@ -0,0 +1 @@
+ALTER TABLE company ADD COLUMN progress_updated_at TIMESTAMP;
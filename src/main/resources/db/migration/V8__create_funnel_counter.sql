@@ -0,0 +1,5 @@
+-- Incrementally maintained analytics counters; nodes flush deltas so concurrent writers never lose counts
+CREATE TABLE funnel_counter (
+    name VARCHAR(100) PRIMARY KEY,
+    counter_value BIGINT NOT NULL
+);
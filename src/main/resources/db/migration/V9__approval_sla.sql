@@ -0,0 +1,11 @@
+ALTER TABLE approval_table ADD COLUMN escalated_at TIMESTAMP;
+
+-- Serves the SLA scan as a range seek over pending rows ordered by submission time
+CREATE INDEX idx_approval_type_status_submitted ON approval_table (type, approval_status, submitted_at, id);
+
+-- Position of the escalation scan per approval type, so each run only visits newly breached rows
+CREATE TABLE approval_sla_watermark (
+    type VARCHAR(50) PRIMARY KEY,
+    submitted_at TIMESTAMP NOT NULL,
+    approval_id BIGINT NOT NULL
+);
@@ -0,0 +1,7 @@
+-- Applied to shards only: shard k of n hands out ids k+1, k+1+n, k+1+2n, ...
+-- so ids never collide across shards and the owning shard can be derived from the id alone.
+ALTER TABLE company ALTER COLUMN id RESTART WITH ${shardIdStart};
+ALTER TABLE company ALTER COLUMN id SET INCREMENT BY ${shardIdStep};
+
+ALTER TABLE approval_table ALTER COLUMN id RESTART WITH ${shardIdStart};
+ALTER TABLE approval_table ALTER COLUMN id SET INCREMENT BY ${shardIdStep};
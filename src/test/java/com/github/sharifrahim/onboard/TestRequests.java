@@ -0,0 +1,83 @@
+package com.github.sharifrahim.onboard;
+
+import java.time.LocalDate;
+
+import com.github.sharifrahim.onboard.dto.CompanyProfileRequest;
+import com.github.sharifrahim.onboard.dto.ContactInfoRequest;
+import com.github.sharifrahim.onboard.dto.OperationalInfoRequest;
+
+/**
+ * Valid request bodies for each onboarding step, shared by the tests. Each call returns a fresh request so a test can
+ * change a field without affecting the others
+ */
+public final class TestRequests {
+
+    private TestRequests() {
+    }
+
+    /**
+     * A Malaysian company named after its registration number
+     */
+    public static CompanyProfileRequest profile(String registrationNumber) {
+        return profile("Test Co " + registrationNumber, registrationNumber);
+    }
+
+    /**
+     * A Malaysian company with the given name and registration number
+     */
+    public static CompanyProfileRequest profile(String name, String registrationNumber) {
+        return profile(name, registrationNumber, "MY");
+    }
+
+    /**
+     * A company with the given name and registration number, incorporated in {@code country}
+     */
+    public static CompanyProfileRequest profile(String name, String registrationNumber, String country) {
+        CompanyProfileRequest request = new CompanyProfileRequest();
+        request.setName(name);
+        request.setRegistrationNumber(registrationNumber);
+        request.setEntityType("CORPORATION");
+        request.setIndustrySector("TECH");
+        request.setDateOfIncorporation(LocalDate.of(2020, 1, 1));
+        request.setRegisteredAddress("1 Main Street");
+        request.setCountry(country);
+        request.setCompanySize("SMALL");
+        request.setDescription("Test company");
+        return request;
+    }
+
+    /**
+     * Contact details with Hana Lee as the main contact
+     */
+    public static ContactInfoRequest contact() {
+        ContactInfoRequest request = new ContactInfoRequest();
+        request.setMainContactName("Hana Lee");
+        request.setMainContactEmail("hana@example.com");
+        request.setMainContactPhone("+60111111111");
+        request.setContactPersonRole("CFO");
+        request.setTechnicalContactEmail("tech@example.com");
+        request.setBillingContactEmail("billing@example.com");
+        request.setAuthorizedPersons("Hana Lee");
+        request.setEmergencyContactNumber("+60122222222");
+        request.setPreferredLanguage("EN");
+        return request;
+    }
+
+    /**
+     * Operational details whose tax id, bank and account are derived from the registration number
+     */
+    public static OperationalInfoRequest operations(String registrationNumber) {
+        OperationalInfoRequest request = new OperationalInfoRequest();
+        request.setTaxIdNumber("TAX-" + registrationNumber);
+        request.setBankName("Bank " + registrationNumber);
+        request.setBankAccountNumber("ACC-" + registrationNumber);
+        request.setPreferredPaymentMethod("BANK_TRANSFER");
+        request.setRoleOnPlatform("SELLER");
+        request.setRequestedFeatures("INVOICING");
+        request.setOperatingHours("9-5");
+        request.setHasComplianceCertification(true);
+        request.setAgreedToTermsOfService(true);
+        request.setAgreedOnboardingDate(LocalDate.of(2024, 1, 1));
+        return request;
+    }
+}
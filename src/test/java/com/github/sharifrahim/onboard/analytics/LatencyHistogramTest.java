@@ -0,0 +1,35 @@
+package com.github.sharifrahim.onboard.analytics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testBucketUpperBoundCoversValue() {
+        for (long value : new long[] { 0, 1, 3, 4, 7, 8, 100, 1_000, 65_537, 86_400_000L, Long.MAX_VALUE / 2 }) {
+            int bucket = LatencyHistogram.bucketFor(value);
+            assertTrue(LatencyHistogram.upperBound(bucket) >= value, "upper bound below " + value);
+            assertTrue(LatencyHistogram.upperBound(bucket) <= value + value / 4 + 1, "bucket too wide for " + value);
+        }
+    }
+
+    @Test
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 10L);
+        }
+
+        assertEquals(100, histogram.count());
+        assertEquals(500, histogram.percentile(50), 500 / 4.0);
+        assertEquals(990, histogram.percentile(99), 990 / 4.0);
+        assertTrue(histogram.percentile(100) >= 1000);
+    }
+
+    @Test
+    void testEmptyHistogram() {
+        assertEquals(0, new LatencyHistogram().percentile(99));
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.sharifrahim.onboard.analytics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.sharifrahim.onboard.datasource.sharding.ShardRouter;
+import com.github.sharifrahim.onboard.datasource.sharding.ShardingProperties;
+import com.github.sharifrahim.onboard.domain.ProgressState;
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+
+class ProgressFunnelCountersTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:funnel;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate
+                .execute("CREATE TABLE funnel_counter (name VARCHAR(100) PRIMARY KEY, counter_value BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE company (id BIGINT PRIMARY KEY, progress_state VARCHAR(50))");
+        jdbcTemplate.update("INSERT INTO company VALUES (1, 'PROFILE'), (2, 'PROFILE'), (3, 'CONTACT')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void testSeedRunsOncePerDatabase() {
+        ProgressFunnelCounters first = node();
+        ProgressFunnelCounters second = node();
+
+        assertEquals(2, first.companiesIn(ProgressState.PROFILE).value());
+        assertEquals(2, second.companiesIn(ProgressState.PROFILE).value());
+        assertEquals(2, row("companies.PROFILE"));
+        assertEquals(1, row("companies.CONTACT"));
+    }
+
+    @Test
+    void testCheckpointFlushesDeltasOfEveryNode() {
+        ProgressFunnelCounters first = node();
+        ProgressFunnelCounters second = node();
+        first.accepted(OnboardingEvent.CREATE_COMPANY).add(3);
+        second.accepted(OnboardingEvent.CREATE_COMPANY).add(2);
+        second.companiesIn(ProgressState.PROFILE).increment();
+
+        first.checkpoint();
+        second.checkpoint();
+        // a checkpoint with nothing to flush still picks up the other node's totals
+        first.checkpoint();
+
+        assertEquals(5, row("submissions.CREATE_COMPANY.accepted"));
+        assertEquals(5, first.accepted(OnboardingEvent.CREATE_COMPANY).value());
+        assertEquals(5, second.accepted(OnboardingEvent.CREATE_COMPANY).value());
+        assertEquals(3, first.companiesIn(ProgressState.PROFILE).value());
+    }
+
+    @Test
+    void testFailedFlushKeepsDeltaForNextCheckpoint() {
+        ProgressFunnelCounters counters = node();
+        counters.rejected(OnboardingEvent.UPDATE_CONTACT_INFO).add(4);
+
+        jdbcTemplate.execute("ALTER TABLE funnel_counter RENAME TO funnel_counter_away");
+        assertThrows(RuntimeException.class, counters::checkpoint);
+        jdbcTemplate.execute("ALTER TABLE funnel_counter_away RENAME TO funnel_counter");
+        counters.checkpoint();
+
+        assertEquals(4, row("submissions.UPDATE_CONTACT_INFO.rejected"));
+        assertEquals(4, counters.rejected(OnboardingEvent.UPDATE_CONTACT_INFO).value());
+    }
+
+    private ProgressFunnelCounters node() {
+        ProgressFunnelCounters counters = new ProgressFunnelCounters(jdbcTemplate, transactionTemplate,
+                new ShardRouter(new ShardingProperties()));
+        counters.load();
+        return counters;
+    }
+
+    private long row(String name) {
+        return jdbcTemplate.queryForObject("SELECT counter_value FROM funnel_counter WHERE name = ?", Long.class, name);
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.sharifrahim.onboard.aot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.dto.OperationalInfoRequest;
+import com.github.sharifrahim.onboard.sla.SlaCandidate;
+
+class OnboardRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    {
+        new OnboardRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void testJsonPayloadTypesAreBindable() throws NoSuchMethodException {
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Company.class.getMethod("getBankName")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Company.class.getMethod("setBankName", String.class))
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Approval.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Approval.Type.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(OperationalInfoRequest.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(SlaCandidate.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+    }
+
+    @Test
+    void testMigrationsAndWorkflowsAreIncludedAsResources() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/V11__add_duplicate_lookup_keys.sql")
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/shard/V4_1__interleave_shard_identity.sql")
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("workflows/standard.yml").test(hints));
+    }
+}
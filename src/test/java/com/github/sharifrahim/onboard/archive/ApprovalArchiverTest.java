@@ -0,0 +1,127 @@
+package com.github.sharifrahim.onboard.archive;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.github.sharifrahim.onboard.controller.CompanyController;
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.repository.ApprovalRepository;
+import com.github.sharifrahim.onboard.service.ApprovalService;
+
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:archive;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "onboard.archive.batch-size=2" })
+class ApprovalArchiverTest {
+
+    @Autowired
+    private ApprovalArchiver archiver;
+
+    @Autowired
+    private ApprovalRepository approvalRepository;
+
+    @Autowired
+    private ApprovalService approvalService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CompanyController companyController;
+
+    @Test
+    void testDecidedApprovalsPastRetentionMoveToArchiveAndStayReadable() {
+        LocalDateTime now = LocalDateTime.now();
+        Approval old = save(Approval.ApprovalStatus.APPROVED, now.minusDays(200), "{\"name\":\"Old Co\"}");
+        Approval oldRejected = save(Approval.ApprovalStatus.REJECTED, now.minusDays(150), "{\"name\":\"Gone Co\"}");
+        Approval oldApproved = save(Approval.ApprovalStatus.APPROVED, now.minusDays(120), "{\"name\":\"Aged Co\"}");
+        Approval recent = save(Approval.ApprovalStatus.APPROVED, now.minusDays(1), "{\"name\":\"New Co\"}");
+        Approval pending = save(Approval.ApprovalStatus.PENDING, null, "{\"name\":\"Waiting Co\"}");
+
+        assertEquals(3, archiver.archiveBefore(now.minusDays(90)));
+
+        assertTrue(approvalRepository.findById(old.getId()).isEmpty());
+        assertTrue(approvalRepository.findById(recent.getId()).isPresent());
+        assertTrue(approvalRepository.findById(pending.getId()).isPresent());
+
+        Approval restored = approvalService.findById(old.getId()).orElseThrow();
+        assertEquals("{\"name\":\"Old Co\"}", restored.getNewData());
+        assertEquals(Approval.ApprovalStatus.APPROVED, restored.getApprovalStatus());
+        assertEquals(old.getSubmittedAt().truncatedTo(ChronoUnit.SECONDS),
+                restored.getSubmittedAt().truncatedTo(ChronoUnit.SECONDS));
+
+        List<Long> ids = List.of(old.getId(), oldRejected.getId(), oldApproved.getId(), recent.getId(),
+                pending.getId());
+        assertEquals(ids, listed(approvalService.findByType(Approval.Type.UPDATE_CONTACT_INFO, true), ids));
+        assertEquals(List.of(recent.getId(), pending.getId()),
+                listed(approvalService.findByType(Approval.Type.UPDATE_CONTACT_INFO), ids));
+        assertEquals(List.of(oldRejected.getId()), listed(approvalService
+                .findByTypeAndStatus(Approval.Type.UPDATE_CONTACT_INFO, Approval.ApprovalStatus.REJECTED, true), ids));
+
+        assertEquals(0, archiver.archiveBefore(now.minusDays(90)));
+    }
+
+    @Test
+    void testRelatedRowsLeaveTheHotTablesWithTheirApproval() {
+        LocalDateTime now = LocalDateTime.now();
+        Approval old = save(Approval.ApprovalStatus.APPROVED, now.minusDays(200), "{\"name\":\"Linked Co\"}");
+        Approval recent = save(Approval.ApprovalStatus.APPROVED, now.minusDays(1), "{\"name\":\"Fresh Co\"}");
+        for (Approval approval : List.of(old, recent)) {
+            jdbcTemplate.update("INSERT INTO approval_verification (approval_id, check_type, status, checked_at)"
+                    + " VALUES (?, 'REGISTRY', 'VERIFIED', CURRENT_TIMESTAMP)", approval.getId());
+            jdbcTemplate.update("INSERT INTO approval_claim (approval_id, reviewer, claimed_at, lease_until)"
+                    + " VALUES (?, 'alice', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", approval.getId());
+        }
+
+        archiver.archiveBefore(now.minusDays(90));
+
+        assertEquals(0, countFor("approval_verification", old));
+        assertEquals(0, countFor("approval_claim", old));
+        assertEquals(1, countFor("approval_verification", recent));
+        assertEquals(1, countFor("approval_claim", recent));
+        assertEquals("{\"name\":\"Linked Co\"}", approvalService.findById(old.getId()).orElseThrow().getNewData());
+    }
+
+    @Test
+    void testArchivedAndDecidedApprovalsCannotBeDecidedAgain() {
+        LocalDateTime now = LocalDateTime.now();
+        Approval old = save(Approval.ApprovalStatus.APPROVED, now.minusDays(200), "{\"name\":\"Settled Co\"}");
+        Approval recent = save(Approval.ApprovalStatus.REJECTED, now.minusDays(1), "{\"name\":\"Decided Co\"}");
+        archiver.archiveBefore(now.minusDays(90));
+
+        assertEquals(HttpStatus.NOT_FOUND, companyController.approve(old.getId(), null).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, companyController.reject(old.getId(), "again", null).getStatusCode());
+        assertTrue(approvalRepository.findById(old.getId()).isEmpty());
+        assertEquals(HttpStatus.CONFLICT, companyController.approve(recent.getId(), null).getStatusCode());
+        assertEquals(Approval.ApprovalStatus.REJECTED,
+                approvalRepository.findById(recent.getId()).orElseThrow().getApprovalStatus());
+        // reading an archived approval still works
+        assertTrue(approvalService.findById(old.getId()).isPresent());
+    }
+
+    /**
+     * Ids of the listed approvals this test created; the database is shared with the other tests
+     */
+    private static List<Long> listed(List<Approval> approvals, List<Long> ids) {
+        return approvals.stream().map(Approval::getId).filter(ids::contains).toList();
+    }
+
+    private int countFor(String table, Approval approval) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE approval_id = ?", Integer.class,
+                approval.getId());
+    }
+
+    private Approval save(Approval.ApprovalStatus status, LocalDateTime approvedAt, String newData) {
+        return approvalRepository.save(Approval.builder().dataType("COMPANY").dataId(7L)
+                .type(Approval.Type.UPDATE_CONTACT_INFO).operationType(Approval.OperationType.UPDATE)
+                .submittedBy("tester").submittedAt(LocalDateTime.now().minusDays(300)).approvalStatus(status)
+                .approvedBy(approvedAt != null ? "reviewer" : null).approvedAt(approvedAt).newData(newData).build());
+    }
+}
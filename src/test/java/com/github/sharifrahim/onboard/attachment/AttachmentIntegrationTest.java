@@ -0,0 +1,171 @@
+package com.github.sharifrahim.onboard.attachment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sharifrahim.onboard.dto.CompanyProfileRequest;
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+import com.github.sharifrahim.onboard.statemachine.service.OnboardingStateMachineService;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:attachment;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "onboard.attachments.max-size=1KB" })
+class AttachmentIntegrationTest {
+
+    private static Path directory;
+
+    @DynamicPropertySource
+    static void attachmentDirectory(DynamicPropertyRegistry registry) throws IOException {
+        directory = Files.createTempDirectory("onboard-attachments");
+        registry.add("onboard.attachments.directory", directory::toString);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private OnboardingStateMachineService stateMachineService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void testIdenticalDocumentsShareOneBlobAndDownloadsHonourRanges() throws Exception {
+        Long first = submitProfile("ATTACH-1");
+        Long second = submitProfile("ATTACH-2");
+        byte[] certificate = "certificate of incorporation".getBytes(StandardCharsets.UTF_8);
+
+        HttpResponse<String> created = multipart(first, AttachmentKind.CERTIFICATE_OF_INCORPORATION, certificate);
+        assertEquals(201, created.statusCode());
+        Attachment attachment = objectMapper.readValue(created.body(), Attachment.class);
+        assertEquals(sha256(certificate), attachment.sha256());
+        long blobs = blobCount();
+        assertEquals(201, multipart(second, AttachmentKind.CERTIFICATE_OF_INCORPORATION, certificate).statusCode());
+        assertEquals(blobs, blobCount());
+
+        HttpResponse<String> range = client
+                .send(HttpRequest.newBuilder(url(created.headers().firstValue("Location").orElseThrow()))
+                        .header("Range", "bytes=0-10").build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(206, range.statusCode());
+        assertEquals("certificate", range.body());
+
+        // a compliance certificate belongs to the operations step, not the profile
+        assertEquals(400, multipart(first, AttachmentKind.COMPLIANCE_CERTIFICATE, certificate).statusCode());
+        assertEquals(413, multipart(first, AttachmentKind.SUPPORTING_DOCUMENT, new byte[2048]).statusCode());
+    }
+
+    @Test
+    void testResumableUploadContinuesFromTheRecordedOffset() throws Exception {
+        Long approvalId = submitProfile("ATTACH-3");
+        byte[] document = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+        HttpResponse<String> started = client.send(HttpRequest
+                .newBuilder(url("/companies/approvals/" + approvalId
+                        + "/attachments/uploads?kind=SUPPORTING_DOCUMENT&fileName=scan.pdf&size=10"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, started.statusCode());
+        URI upload = url(started.headers().firstValue("Location").orElseThrow());
+
+        HttpResponse<String> partial = patch(upload, 0, document, 0, 4);
+        assertEquals(204, partial.statusCode());
+        assertEquals("4", partial.headers().firstValue("Upload-Offset").orElseThrow());
+
+        // a retried first chunk is refused with the offset to resume from
+        HttpResponse<String> retried = patch(upload, 0, document, 0, 4);
+        assertEquals(409, retried.statusCode());
+        assertEquals("4", retried.headers().firstValue("Upload-Offset").orElseThrow());
+        assertEquals(
+                "4", client
+                        .send(HttpRequest.newBuilder(upload).method("HEAD", HttpRequest.BodyPublishers.noBody())
+                                .build(), HttpResponse.BodyHandlers.discarding())
+                        .headers().firstValue("Upload-Offset").orElseThrow());
+
+        HttpResponse<String> completed = patch(upload, 4, document, 4, 6);
+        assertEquals(201, completed.statusCode());
+        Attachment attachment = objectMapper.readValue(completed.body(), Attachment.class);
+        assertEquals(sha256(document), attachment.sha256());
+        assertEquals(10, attachment.size());
+
+        List<?> attachments = objectMapper.readValue(
+                client.send(HttpRequest.newBuilder(url("/companies/approvals/" + approvalId + "/attachments")).build(),
+                        HttpResponse.BodyHandlers.ofString()).body(),
+                List.class);
+        assertEquals(1, attachments.size());
+        assertEquals(404, client.send(HttpRequest.newBuilder(upload).build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode());
+    }
+
+    private Long submitProfile(String registrationNumber) {
+        CompanyProfileRequest request = new CompanyProfileRequest();
+        request.setName("Attachment Co " + registrationNumber);
+        request.setRegistrationNumber(registrationNumber);
+        request.setEntityType("CORPORATION");
+        request.setIndustrySector("TECH");
+        request.setDateOfIncorporation(LocalDate.of(2019, 3, 1));
+        request.setRegisteredAddress("3 Paper Street");
+        request.setCountry("MY");
+        request.setCompanySize("SMALL");
+        request.setDescription("Attachment test");
+        return stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY, request, null);
+    }
+
+    private HttpResponse<String> multipart(Long approvalId, AttachmentKind kind, byte[] content) throws Exception {
+        String boundary = "onboard-boundary";
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"doc.pdf\""
+                + "\r\nContent-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(content);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return client.send(
+                HttpRequest.newBuilder(url("/companies/approvals/" + approvalId + "/attachments?kind=" + kind))
+                        .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray())).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> patch(URI upload, long offset, byte[] content, int from, int length) throws Exception {
+        return client.send(
+                HttpRequest.newBuilder(upload).header("Upload-Offset", String.valueOf(offset))
+                        .header("Content-Type", "application/offset+octet-stream")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofByteArray(content, from, length)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI url(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static long blobCount() throws IOException {
+        try (Stream<Path> files = Files.walk(directory.resolve("blobs"))) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
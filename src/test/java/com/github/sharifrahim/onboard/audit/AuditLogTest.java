@@ -0,0 +1,127 @@
+package com.github.sharifrahim.onboard.audit;
+
+import static com.github.sharifrahim.onboard.TestRequests.profile;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.github.sharifrahim.onboard.controller.CompanyController;
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.domain.ProgressState;
+import com.github.sharifrahim.onboard.exception.ValidationException;
+import com.github.sharifrahim.onboard.repository.CompanyRepository;
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+import com.github.sharifrahim.onboard.statemachine.service.OnboardingStateMachineService;
+
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:audit;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "onboard.audit.enabled=true", "onboard.audit.segment-size=64" })
+class AuditLogTest {
+
+    private static Path directory;
+
+    @DynamicPropertySource
+    static void auditDirectory(DynamicPropertyRegistry registry) throws IOException {
+        directory = Files.createTempDirectory("onboard-audit");
+        registry.add("onboard.audit.directory", directory::toString);
+    }
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private OnboardingStateMachineService stateMachineService;
+
+    @Autowired
+    private CompanyController companyController;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Test
+    void testTransitionsRejectionsAndDecisionsAreLogged() {
+        Long approvalId = stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY,
+                profile("Audit Co", "AUDIT-1"), null);
+        assertThrows(ValidationException.class, () -> stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY,
+                profile("Audit Co", "AUDIT-1"), null));
+        companyController.approve(approvalId, null);
+        Company company = companyRepository.findByRegistrationNumber("AUDIT-1").orElseThrow();
+        assertTrue(auditLog.awaitWritten(Duration.ofSeconds(5)));
+
+        List<AuditRecord> records = AuditLogReader.scan(directory,
+                new AuditQuery(null, null, null, null, null, Integer.MAX_VALUE));
+        assertEquals(List.of(AuditRecord.Outcome.ACCEPTED, AuditRecord.Outcome.DENIED, AuditRecord.Outcome.APPROVED),
+                records.stream().map(AuditRecord::outcome).toList());
+        assertEquals(ProgressState.PROFILE, records.get(0).target());
+        assertEquals(OnboardingEvent.APPROVE, records.get(2).event());
+        assertEquals(company.getId(), records.get(2).companyId());
+        assertTrue(records.get(0).latencyNanos() > 0);
+
+        // two records per 64 byte segment
+        assertEquals(2, AuditLogReader.segments(directory).size());
+        assertEquals(1, AuditLogReader
+                .scan(directory, new AuditQuery(null, null, AuditRecord.Outcome.DENIED, null, null, 10)).size());
+        assertTrue(AuditLogReader
+                .scan(directory, new AuditQuery(null, null, null, Instant.now().plusSeconds(60), null, 10)).isEmpty());
+
+        // bounded scans: the limit, a range ending before the first record and one starting at the last
+        assertEquals(records.subList(0, 1),
+                AuditLogReader.scan(directory, new AuditQuery(null, null, null, null, null, 1)));
+        assertTrue(AuditLogReader
+                .scan(directory, new AuditQuery(null, null, null, null, records.get(0).timestamp(), 10)).isEmpty());
+        List<AuditRecord> latest = AuditLogReader.scan(directory,
+                new AuditQuery(null, null, null, records.get(2).timestamp(), null, 10));
+        assertEquals(records.get(2), latest.get(latest.size() - 1));
+    }
+
+    @Test
+    void testRingBufferHandsOverEveryRecordFromConcurrentProducers() throws Exception {
+        AuditRingBuffer buffer = new AuditRingBuffer(64);
+        int producers = 4;
+        int perProducer = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            long base = (long) p * perProducer;
+            executor.submit(() -> {
+                start.await();
+                for (long i = 0; i < perProducer; i++) {
+                    AuditRecord record = new AuditRecord(Instant.now(), base + i + 1, null, null, null,
+                            AuditRecord.Outcome.ACCEPTED, 0L);
+                    while (!buffer.offer(record)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        Set<Long> seen = new HashSet<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (seen.size() < producers * perProducer && System.nanoTime() < deadline) {
+            AuditRecord record = buffer.poll();
+            if (record != null) {
+                assertTrue(seen.add(record.companyId()));
+            }
+        }
+        executor.shutdown();
+        assertEquals(producers * perProducer, seen.size());
+        assertNull(buffer.poll());
+    }
+}
@@ -0,0 +1,137 @@
+package com.github.sharifrahim.onboard.cluster;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sharifrahim.onboard.OnboardApplication;
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.domain.ProgressState;
+import com.github.sharifrahim.onboard.dto.ContactInfoRequest;
+import com.github.sharifrahim.onboard.exception.NotOwnerException;
+import com.github.sharifrahim.onboard.repository.CompanyRepository;
+
+/**
+ * Two nodes in one JVM sharing one database
+ */
+class LeaseCoordinatorTest {
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+
+    @AfterEach
+    void tearDown() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    @Test
+    void testPartitionsAreSharedRedirectedAndTakenOver() throws Exception {
+        nodeA = start("node-a");
+        nodeB = start("node-b");
+        LeaseCoordinator a = nodeA.getBean(LeaseCoordinator.class);
+        LeaseCoordinator b = nodeB.getBean(LeaseCoordinator.class);
+
+        // A took everything while alone; B joins, A gives up its excess, B picks it up
+        assertTrue(b.getOwnedPartitions().isEmpty());
+        a.heartbeat();
+        b.heartbeat();
+        assertEquals(Set.of(0, 1, 2, 3), a.getOwnedPartitions());
+        assertEquals(Set.of(4, 5, 6, 7), b.getOwnedPartitions());
+
+        Company company = nodeA.getBean(CompanyRepository.class)
+                .save(Company.builder().name("Cluster Co").registrationNumber("CLUSTER-1").entityType("CORPORATION")
+                        .industrySector("TECH").dateOfIncorporation(LocalDate.of(2020, 1, 1))
+                        .registeredAddress("8 Node Street").country("MY").companySize("SMALL")
+                        .progressState(ProgressState.PROFILE).build());
+        boolean ownedByA = a.isOwner(a.partitionFor(company.getId()));
+        LeaseCoordinator owner = ownedByA ? a : b;
+        LeaseCoordinator other = ownedByA ? b : a;
+
+        HttpClient client = HttpClient.newHttpClient();
+        String path = "/companies/" + company.getId() + "/contact";
+        HttpResponse<String> redirected = client.send(contactRequest(other.getUrl() + path),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(307, redirected.statusCode());
+        String location = redirected.headers().firstValue("Location").orElseThrow();
+        assertEquals(owner.getUrl() + path, location);
+        assertEquals(200, client.send(contactRequest(location), HttpResponse.BodyHandlers.ofString()).statusCode());
+
+        // B leaves; its partitions go to A on A's next heartbeat
+        nodeB.close();
+        nodeB = null;
+        a.heartbeat();
+        assertEquals(IntStream.range(0, 8).boxed().collect(Collectors.toSet()), a.getOwnedPartitions());
+    }
+
+    @Test
+    void testStaleOwnerIsFencedOff() {
+        nodeA = start("node-a");
+        LeaseCoordinator a = nodeA.getBean(LeaseCoordinator.class);
+        JdbcTemplate jdbcTemplate = nodeA.getBean(JdbcTemplate.class);
+        long key = 42L;
+        int partition = a.partitionFor(key);
+        assertTrue(a.isOwner(partition));
+        assertEquals("written", a.fenced(key, () -> "written"));
+
+        try {
+            // another node took the partition over while A was not looking; A still believes it owns it
+            jdbcTemplate.update("UPDATE partition_lease SET owner = 'node-z', owner_url = 'http://node-z'"
+                    + " WHERE partition_id = ?", partition);
+            assertTrue(a.isOwner(partition));
+            NotOwnerException fenced = assertThrows(NotOwnerException.class, () -> a.fenced(key, () -> "written"));
+            assertEquals("http://node-z", fenced.getOwnerUrl());
+            assertFalse(a.isOwner(partition));
+
+            // an owner that has not advertised its URL yet is not this node either
+            jdbcTemplate.update("UPDATE partition_lease SET owner_url = NULL WHERE partition_id = ?", partition);
+            assertNull(assertThrows(NotOwnerException.class, () -> a.requireOwner(key)).getOwnerUrl());
+        } finally {
+            // the database outlives the nodes; leave the partition vacant for the other test
+            jdbcTemplate.update("UPDATE partition_lease SET owner = NULL, owner_url = NULL, expires_at = NULL"
+                    + " WHERE partition_id = ?", partition);
+        }
+    }
+
+    private HttpRequest contactRequest(String url) throws Exception {
+        ContactInfoRequest request = new ContactInfoRequest();
+        request.setMainContactName("Nora Lim");
+        request.setMainContactEmail("nora@example.com");
+        request.setMainContactPhone("+60155555555");
+        request.setContactPersonRole("CEO");
+        request.setTechnicalContactEmail("tech@example.com");
+        request.setBillingContactEmail("billing@example.com");
+        request.setAuthorizedPersons("Nora Lim");
+        request.setEmergencyContactNumber("+60166666666");
+        request.setPreferredLanguage("EN");
+        String body = nodeA.getBean(ObjectMapper.class).writeValueAsString(request);
+        return HttpRequest.newBuilder(URI.create(url)).header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private static ConfigurableApplicationContext start(String nodeId) {
+        return new SpringApplicationBuilder(OnboardApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:cluster;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "--server.port=0",
+                "--onboard.cluster.enabled=true", "--onboard.cluster.node-id=" + nodeId,
+                "--onboard.cluster.partitions=8", "--onboard.cluster.heartbeat-interval=PT1H",
+                "--spring.jmx.enabled=false");
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.sharifrahim.onboard.crypto;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sharifrahim.onboard.datasource.sharding.ShardContext;
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.repository.ApprovalRepository;
+import com.github.sharifrahim.onboard.repository.CompanyRepository;
+
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:crypto;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "onboard.crypto.enabled=true", "onboard.crypto.keystore-password=test-secret",
+        "onboard.crypto.generate-if-missing=true" })
+class FieldEncryptionIntegrationTest {
+
+    @DynamicPropertySource
+    static void keystore(DynamicPropertyRegistry registry) throws IOException {
+        String path = Files.createTempDirectory("onboard-keys").resolve("master.p12").toString();
+        registry.add("onboard.crypto.keystore-path", () -> path);
+    }
+
+    @Autowired
+    private FieldCipher fieldCipher;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private ApprovalRepository approvalRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void randomizedAndDeterministicModesRoundTrip() {
+        String first = fieldCipher.encrypt("1234-5678");
+        assertNotEquals(first, fieldCipher.encrypt("1234-5678"));
+        assertEquals("1234-5678", fieldCipher.decrypt(first));
+
+        String deterministic = fieldCipher.encryptDeterministic("REG-1");
+        assertEquals(deterministic, fieldCipher.encryptDeterministic("REG-1"));
+        assertNotEquals(deterministic, fieldCipher.encryptDeterministic("REG-2"));
+        assertEquals("REG-1", fieldCipher.decrypt(deterministic));
+
+        String otherTenant = ShardContext.callOn("apac", () -> fieldCipher.encryptDeterministic("REG-1"));
+        assertNotEquals(deterministic, otherTenant);
+        assertEquals("REG-1", fieldCipher.decrypt(otherTenant));
+
+        assertEquals("plain", fieldCipher.decrypt("plain"));
+    }
+
+    @Test
+    void companyColumnsAreEncryptedAndStillQueryable() {
+        Company saved = companyRepository.save(Company.builder().name("Cipher Corp").registrationNumber("REG-9001")
+                .bankAccountNumber("9988776655").taxIdNumber("TAX-42").mainContactPhone("+60123456789").build());
+
+        String[] raw = jdbcTemplate.queryForObject(
+                "SELECT registration_number, bank_account_number, tax_id_number, main_contact_phone, name FROM company"
+                        + " WHERE id = ?",
+                (rs, i) -> new String[] { rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                        rs.getString(5) },
+                saved.getId());
+        assertTrue(raw[0].startsWith(FieldCipher.DETERMINISTIC + ":"));
+        for (int i = 1; i < 4; i++) {
+            assertTrue(raw[i].startsWith(FieldCipher.RANDOMIZED + ":"), raw[i]);
+        }
+        assertEquals("Cipher Corp", raw[4]);
+
+        Company found = companyRepository.findByRegistrationNumber("REG-9001").orElseThrow();
+        assertEquals(saved.getId(), found.getId());
+        assertEquals("9988776655", found.getBankAccountNumber());
+        assertEquals("+60123456789", found.getMainContactPhone());
+    }
+
+    @Test
+    void approvalPayloadFieldsAreEncrypted() throws Exception {
+        String payload = "{\"name\":\"Cipher Corp\",\"bankAccountNumber\":\"9988776655\",\"taxIdNumber\":\"TAX-42\"}";
+        Approval saved = approvalRepository.save(Approval.builder().dataType("COMPANY")
+                .type(Approval.Type.CREATE_COMPANY).operationType(Approval.OperationType.NEW).submittedBy("tester")
+                .submittedAt(LocalDateTime.now()).approvalStatus(Approval.ApprovalStatus.PENDING).newData(payload)
+                .build());
+
+        String raw = jdbcTemplate.queryForObject("SELECT CAST(new_data AS VARCHAR) FROM approval_table WHERE id = ?",
+                String.class, saved.getId());
+        JsonNode stored = objectMapper
+                .readTree(objectMapper.readTree(raw).isTextual() ? objectMapper.readTree(raw).asText() : raw);
+        assertEquals("Cipher Corp", stored.get("name").asText());
+        assertFalse(raw.contains("9988776655"));
+        assertFalse(raw.contains("TAX-42"));
+
+        JsonNode loaded = objectMapper.readTree(approvalRepository.findById(saved.getId()).orElseThrow().getNewData());
+        assertEquals("9988776655", loaded.get("bankAccountNumber").asText());
+        assertEquals("TAX-42", loaded.get("taxIdNumber").asText());
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.sharifrahim.onboard.datasource.replica;
+
+import static com.github.sharifrahim.onboard.TestRequests.profile;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.github.sharifrahim.onboard.service.ApprovalService;
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+import com.github.sharifrahim.onboard.statemachine.service.OnboardingStateMachineService;
+
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:rw_primary;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "onboard.read-replicas.enabled=true", "onboard.read-replicas.nodes[0].name=replica-1",
+        "onboard.read-replicas.nodes[0].url=" + ReadReplicaRoutingIntegrationTest.REPLICA_URL,
+        "onboard.read-replicas.nodes[0].username=sa", "onboard.read-replicas.max-lag=PT30S",
+        "onboard.read-replicas.heartbeat-interval=PT1H" })
+class ReadReplicaRoutingIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:rw_replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    private static final long REPLICA_ONLY_APPROVAL_ID = 1000L;
+
+    private static JdbcTemplate replica;
+
+    @Autowired
+    private ApprovalService approvalService;
+
+    @Autowired
+    private OnboardingStateMachineService stateMachineService;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @BeforeAll
+    static void createReplica() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        replica = new JdbcTemplate(dataSource);
+        replica.update("INSERT INTO approval_table (id, data_type, type, operation_type, submitted_by, submitted_at,"
+                + " approval_status, new_data) VALUES (?, 'COMPANY', 'CREATE_COMPANY', 'NEW', 'system', ?, 'PENDING',"
+                + " '{}' FORMAT JSON)", REPLICA_ONLY_APPROVAL_ID, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    @BeforeEach
+    void replicaCaughtUp() {
+        setReplicaHeartbeat(LocalDateTime.now());
+    }
+
+    @Test
+    void testReadOnlyReadsAreServedByReplica() {
+        assertTrue(approvalService.findById(REPLICA_ONLY_APPROVAL_ID).isPresent());
+    }
+
+    @Test
+    void testForcedReadsAreServedByPrimary() {
+        assertTrue(ReplicaContext.onPrimary(() -> approvalService.findById(REPLICA_ONLY_APPROVAL_ID)).isEmpty());
+        assertTrue(approvalService.findById(REPLICA_ONLY_APPROVAL_ID).isPresent());
+    }
+
+    @Test
+    void testReadYourWritesFallsBackToPrimary() {
+        Long approvalId = stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY,
+                profile("Replica Test Co", "REG-RW-1"), null);
+
+        assertEquals(0,
+                replica.queryForObject("SELECT COUNT(*) FROM approval_table WHERE id = ?", Long.class, approvalId));
+        assertTrue(approvalService.findById(approvalId).isPresent());
+    }
+
+    @Test
+    void testLaggingReplicaIsSkipped() {
+        setReplicaHeartbeat(LocalDateTime.now().minusMinutes(5));
+
+        assertTrue(lagMonitor.getHealthyReplicas().isEmpty());
+        assertTrue(approvalService.findById(REPLICA_ONLY_APPROVAL_ID).isEmpty());
+    }
+
+    private void setReplicaHeartbeat(LocalDateTime beatAt) {
+        replica.update("UPDATE replication_heartbeat SET beat_at = ? WHERE id = 1", Timestamp.valueOf(beatAt));
+        lagMonitor.refresh();
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.sharifrahim.onboard.datasource.sharding;
+
+import static com.github.sharifrahim.onboard.TestRequests.profile;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.dto.CompanyProfileRequest;
+import com.github.sharifrahim.onboard.repository.CompanyRepository;
+import com.github.sharifrahim.onboard.service.ApprovalService;
+import com.github.sharifrahim.onboard.service.approval.ApprovalProcessorRegistry;
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+import com.github.sharifrahim.onboard.statemachine.service.OnboardingStateMachineService;
+
+@SpringBootTest(properties = { "onboard.sharding.enabled=true", "onboard.sharding.shards[0].name=emea",
+        "onboard.sharding.shards[0].url=jdbc:h2:mem:shard_emea;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "onboard.sharding.shards[0].username=sa", "onboard.sharding.shards[1].name=amer",
+        "onboard.sharding.shards[1].url=jdbc:h2:mem:shard_amer;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "onboard.sharding.shards[1].username=sa", "onboard.sharding.shards[2].name=apac",
+        "onboard.sharding.shards[2].url=jdbc:h2:mem:shard_apac;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "onboard.sharding.shards[2].username=sa", "onboard.sharding.countries.US=amer",
+        "onboard.sharding.countries.MY=apac" })
+class ShardingIntegrationTest {
+
+    @Autowired
+    private OnboardingStateMachineService stateMachineService;
+
+    @Autowired
+    private ApprovalService approvalService;
+
+    @Autowired
+    private ApprovalProcessorRegistry approvalProcessorRegistry;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private ShardDataSources shardDataSources;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Test
+    void testCompaniesAndApprovalsAreRoutedByCountry() {
+        // the shards are shared with the other tests, so only the rows this test adds are counted
+        long amerApprovals = countRows("amer", "approval_table");
+        long apacApprovals = countRows("apac", "approval_table");
+        long emeaApprovals = countRows("emea", "approval_table");
+        long amerCompanies = countRows("amer", "company");
+
+        Long usApprovalId = stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY,
+                profile("Acme", "REG-ACME", "US"), null);
+        Long myApprovalId = stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY,
+                profile("Maju", "REG-MAJU", "MY"), null);
+
+        assertEquals("amer", shardRouter.shardForId(usApprovalId));
+        assertEquals("apac", shardRouter.shardForId(myApprovalId));
+        assertEquals(amerApprovals + 1, countRows("amer", "approval_table"));
+        assertEquals(apacApprovals + 1, countRows("apac", "approval_table"));
+        assertEquals(emeaApprovals, countRows("emea", "approval_table"));
+
+        Approval usApproval = approvalService.findById(usApprovalId).orElseThrow();
+        approvalProcessorRegistry.findProcessor(usApproval.getType()).orElseThrow().approve(usApproval);
+
+        Long companyId = approvalService.findById(usApprovalId).orElseThrow().getDataId();
+        assertEquals("amer", shardRouter.shardForId(companyId));
+        assertEquals(amerCompanies + 1, countRows("amer", "company"));
+
+        Company company = companyRepository.findById(companyId).orElseThrow();
+        assertEquals("Acme", company.getName());
+    }
+
+    @Test
+    void testFindByTypeGathersAcrossShards() {
+        stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY, profile("Berlin GmbH", "REG-BERLIN", "DE"),
+                null);
+        stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY, profile("Texas Inc", "REG-TEXAS", "US"), null);
+        stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY, profile("Penang Sdn", "REG-PENANG", "MY"),
+                null);
+
+        List<Approval> approvals = approvalService.findByType(Approval.Type.CREATE_COMPANY);
+
+        List<Long> ids = approvals.stream().map(Approval::getId).toList();
+        assertEquals(ids.stream().sorted().toList(), ids);
+        assertTrue(approvals.stream().map(a -> shardRouter.shardForId(a.getId())).distinct().count() >= 3);
+    }
+
+    @Test
+    void testLookupsWithoutShardKeyFindCompaniesOnOtherShards() {
+        CompanyProfileRequest request = profile("Lookup LLC", "REG-LOOKUP", "US");
+        Long approvalId = stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY, request, null);
+        Approval approval = approvalService.findById(approvalId).orElseThrow();
+        approvalProcessorRegistry.findProcessor(approval.getType()).orElseThrow().approve(approval);
+
+        // the company lives on amer while unkeyed lookups used to go to the default shard, emea
+        Company company = companyRepository.findByRegistrationNumber(request.getRegistrationNumber()).orElseThrow();
+        assertEquals("amer", shardRouter.shardForId(company.getId()));
+        assertTrue(companyRepository.existsByRegistrationKey(company.getRegistrationKey()));
+        assertFalse(companyRepository.existsByRegistrationKey("NO-SUCH-KEY"));
+    }
+
+    private long countRows(String shard, String table) {
+        return new JdbcTemplate(dataSource(shard)).queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    private DataSource dataSource(String shard) {
+        return shardDataSources.byName().get(shard);
+    }
+}
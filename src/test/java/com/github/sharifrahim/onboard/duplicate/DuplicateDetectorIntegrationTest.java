@@ -0,0 +1,115 @@
+package com.github.sharifrahim.onboard.duplicate;
+
+import static com.github.sharifrahim.onboard.TestRequests.profile;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.event.ApprovalSubmittedEvent;
+import com.github.sharifrahim.onboard.exception.ValidationException;
+import com.github.sharifrahim.onboard.repository.CompanyRepository;
+import com.github.sharifrahim.onboard.service.ApprovalService;
+import com.github.sharifrahim.onboard.service.approval.ApprovalProcessorRegistry;
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+import com.github.sharifrahim.onboard.statemachine.service.OnboardingStateMachineService;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:duplicates;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+class DuplicateDetectorIntegrationTest {
+
+    @Autowired
+    private OnboardingStateMachineService stateMachineService;
+
+    @Autowired
+    private ApprovalService approvalService;
+
+    @Autowired
+    private ApprovalProcessorRegistry processorRegistry;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private DuplicateDetector duplicateDetector;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void testPendingRegistrationNumberIsRejectedRegardlessOfFormatting() {
+        stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY, profile("Pending Dup Co", "DUP-100"), null);
+
+        assertThrows(ValidationException.class, () -> stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY,
+                profile("Other Name Co", "dup 100"), null));
+        assertFalse(duplicateDetector.isRegistrationNumberTaken("DUP-101"));
+    }
+
+    @Test
+    void testApprovedCompanyRegistrationNumberSurvivesRebuild() {
+        Long approvalId = stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY,
+                profile("Approved Dup Co", "DUP-200"), null);
+        Approval approval = approvalService.findById(approvalId).orElseThrow();
+        processorRegistry.findProcessor(approval.getType()).orElseThrow().approve(approval);
+
+        duplicateDetector.rebuild();
+
+        assertTrue(duplicateDetector.isRegistrationNumberTaken("DUP200"));
+        Company company = companyRepository.findByRegistrationNumber("DUP-200").orElseThrow();
+        assertFalse(duplicateDetector.isTaxIdTaken(null, company.getId()));
+    }
+
+    @Test
+    void testSimilarPendingNamesAreFound() {
+        Long approvalId = stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY,
+                profile("Kuala Lumpur Robotics Sdn Bhd", "DUP-300"), null);
+
+        List<NameMatch> matches = duplicateDetector.findSimilarPendingNames("Kuala Lumpur Robotic Ltd");
+
+        assertEquals(approvalId, matches.get(0).approvalId());
+        assertTrue(duplicateDetector.findSimilarPendingNames("Penang Bakery").stream()
+                .noneMatch(match -> match.approvalId().equals(approvalId)));
+    }
+
+    @Test
+    void testRebuildKeepsPendingNamesAndDropsDecidedOnes() {
+        Long pendingId = stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY,
+                profile("Ipoh Solar Works", "DUP-400"), null);
+        Long decidedId = stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY,
+                profile("Ipoh Solar Worx", "DUP-401"), null);
+        Approval decided = approvalService.findById(decidedId).orElseThrow();
+        processorRegistry.findProcessor(decided.getType()).orElseThrow().reject(decided, "duplicate");
+
+        duplicateDetector.rebuild();
+
+        List<Long> matches = duplicateDetector.findSimilarPendingNames("Ipoh Solar Works").stream()
+                .map(NameMatch::approvalId).toList();
+        assertTrue(matches.contains(pendingId));
+        assertFalse(matches.contains(decidedId));
+        assertTrue(duplicateDetector.isRegistrationNumberTaken("DUP-400"));
+    }
+
+    @Test
+    void testRolledBackSubmissionLeavesNoPendingName() {
+        Approval approval = Approval.builder().id(-500L).type(Approval.Type.CREATE_COMPANY)
+                .operationType(Approval.OperationType.NEW).registrationKey("DUP500").build();
+        Company company = Company.builder().name("Melaka Spice Traders").registrationNumber("DUP-500").build();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new ApprovalSubmittedEvent(approval, company));
+            status.setRollbackOnly();
+        });
+
+        assertTrue(duplicateDetector.findSimilarPendingNames("Melaka Spice Traders").stream()
+                .noneMatch(match -> match.approvalId().equals(-500L)));
+    }
+}
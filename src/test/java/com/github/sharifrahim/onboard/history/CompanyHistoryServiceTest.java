@@ -0,0 +1,78 @@
+package com.github.sharifrahim.onboard.history;
+
+import static com.github.sharifrahim.onboard.TestRequests.contact;
+import static com.github.sharifrahim.onboard.TestRequests.profile;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.github.sharifrahim.onboard.archive.ApprovalArchiver;
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.repository.CompanyRepository;
+import com.github.sharifrahim.onboard.service.ApprovalService;
+import com.github.sharifrahim.onboard.service.approval.ApprovalProcessorRegistry;
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+import com.github.sharifrahim.onboard.statemachine.service.OnboardingStateMachineService;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:history;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+class CompanyHistoryServiceTest {
+
+    @Autowired
+    private CompanyHistoryService historyService;
+
+    @Autowired
+    private OnboardingStateMachineService stateMachineService;
+
+    @Autowired
+    private ApprovalService approvalService;
+
+    @Autowired
+    private ApprovalProcessorRegistry processorRegistry;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private ApprovalArchiver archiver;
+
+    @Test
+    void testVersionsAsOfAndDiffAcrossBothTiers() throws Exception {
+        approve(stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY, profile("History Co", "HIST-1"), null));
+        Company created = companyRepository.findByRegistrationNumber("HIST-1").orElseThrow();
+        Thread.sleep(5);
+        LocalDateTime betweenVersions = LocalDateTime.now();
+        Thread.sleep(5);
+        approve(stateMachineService.submitEvent(OnboardingEvent.UPDATE_CONTACT_INFO, contact(), created));
+
+        // the creation is archived, the contact update stays hot
+        archiver.archiveBefore(betweenVersions);
+
+        List<CompanyVersion> versions = historyService.findVersions(created.getId());
+        assertEquals(2, versions.size());
+        assertEquals(Approval.Type.UPDATE_CONTACT_INFO, versions.get(1).type());
+
+        Company before = historyService.findAsOf(created.getId(), betweenVersions).orElseThrow();
+        assertNull(before.getMainContactName());
+        assertEquals(created.getId(), before.getId());
+        Company after = historyService.findAsOf(created.getId(), LocalDateTime.now()).orElseThrow();
+        assertEquals("Hana Lee", after.getMainContactName());
+        assertTrue(historyService.findAsOf(created.getId(), betweenVersions.minusDays(1)).isEmpty());
+
+        List<String> changed = historyService.diff(created.getId(), 1, 2).orElseThrow().stream().map(FieldChange::field)
+                .toList();
+        assertTrue(changed.containsAll(List.of("progressState", "mainContactName", "mainContactPhone")));
+        assertFalse(changed.contains("name"));
+        assertTrue(historyService.diff(created.getId(), 1, 3).isEmpty());
+    }
+
+    private void approve(Long approvalId) {
+        Approval approval = approvalService.findById(approvalId).orElseThrow();
+        processorRegistry.findProcessor(approval.getType()).orElseThrow().approve(approval);
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.sharifrahim.onboard.identity;
+
+import static com.github.sharifrahim.onboard.TestRequests.contact;
+import static com.github.sharifrahim.onboard.TestRequests.profile;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.repository.CompanyRepository;
+import com.github.sharifrahim.onboard.service.ApprovalService;
+import com.github.sharifrahim.onboard.service.approval.ApprovalProcessorRegistry;
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+import com.github.sharifrahim.onboard.statemachine.service.OnboardingStateMachineService;
+
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:identity;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "onboard.identity.enabled=true", "onboard.identity.secret=gateway-secret",
+        "onboard.approvals.by-type.CREATE_COMPANY=two-eyes", "onboard.approvals.chains.two-eyes[0].name=Compliance",
+        "onboard.approvals.chains.two-eyes[0].required=2" })
+@AutoConfigureMockMvc
+class GatewayIdentityFilterTest {
+
+    private static final String SECRET = "gateway-secret";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApprovalService approvalService;
+
+    @Autowired
+    private ApprovalProcessorRegistry processorRegistry;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private OnboardingStateMachineService stateMachineService;
+
+    @Test
+    void testChainedApprovalIsSignedOffByTheGatewayUsers() throws Exception {
+        Long id = Long.valueOf(mockMvc
+                .perform(as("alice",
+                        post("/companies/profile").contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(profile("ID-100")))))
+                .andExpect(status().isCreated()).andReturn().getResponse().getContentAsString());
+        assertEquals("alice", approvalService.findById(id).orElseThrow().getSubmittedBy());
+
+        // the submitter may not sign off their own submission
+        mockMvc.perform(as("alice", post("/companies/approvals/{id}/approve", id))).andExpect(status().isBadRequest());
+        mockMvc.perform(as("bob", post("/companies/approvals/{id}/approve", id))).andExpect(status().isAccepted());
+        mockMvc.perform(as("carol", post("/companies/approvals/{id}/approve", id))).andExpect(status().isOk());
+
+        Approval approved = approvalService.findById(id).orElseThrow();
+        assertEquals(Approval.ApprovalStatus.APPROVED, approved.getApprovalStatus());
+        assertEquals("carol", approved.getApprovedBy());
+    }
+
+    @Test
+    void testClaimedApprovalIsDecidedByTheClaimingUser() throws Exception {
+        Company company = approvedCompany("ID-200");
+        Long id = Long.valueOf(mockMvc
+                .perform(as("alice",
+                        put("/companies/{id}/contact", company.getId()).contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(contact()))))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+
+        mockMvc.perform(as("bob", post("/companies/approvals/claims").param("limit", "5"))).andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].approvalId", hasItem(id.intValue())))
+                .andExpect(jsonPath("$[0].reviewer").value("bob"));
+        mockMvc.perform(as("carol", post("/companies/approvals/{id}/approve", id))).andExpect(status().isConflict());
+        mockMvc.perform(as("bob", post("/companies/approvals/{id}/approve", id))).andExpect(status().isOk());
+
+        Approval approved = approvalService.findById(id).orElseThrow();
+        assertEquals("alice", approved.getSubmittedBy());
+        assertEquals("bob", approved.getApprovedBy());
+    }
+
+    @Test
+    void testUserNamedWithoutTheGatewaySecretIsRejected() throws Exception {
+        mockMvc.perform(post("/companies/approvals/claims").header("X-Authenticated-User", "mallory")
+                .header("X-Gateway-Secret", "guessed")).andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/companies/approvals/claims").header("X-Authenticated-User", "mallory"))
+                .andExpect(status().isUnauthorized());
+        // a request naming nobody stays anonymous, and anonymous callers cannot claim
+        mockMvc.perform(post("/companies/approvals/claims")).andExpect(status().isBadRequest());
+    }
+
+    private static MockHttpServletRequestBuilder as(String user, MockHttpServletRequestBuilder request) {
+        return request.header("X-Authenticated-User", user).header("X-Gateway-Secret", SECRET);
+    }
+
+    private Company approvedCompany(String registrationNumber) {
+        Long id = stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY, profile(registrationNumber), null);
+        Approval approval = approvalService.findById(id).orElseThrow();
+        processorRegistry.findProcessor(approval.getType()).orElseThrow().approve(approval);
+        return companyRepository.findByRegistrationNumber(registrationNumber).orElseThrow();
+    }
+}
@@ -0,0 +1,119 @@
+package com.github.sharifrahim.onboard.jfr;
+
+import static com.github.sharifrahim.onboard.TestRequests.profile;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.service.ApprovalService;
+import com.github.sharifrahim.onboard.service.approval.ApprovalProcessorRegistry;
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+import com.github.sharifrahim.onboard.statemachine.service.OnboardingStateMachineService;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Bytes allocated per request on the onboarding hot path, by phase, against tracked budgets. A request is a company
+ * profile submission followed by its approval; the allocations come from the flight recorder events of the hot path
+ * (see {@link AllocationEvent}), recorded after a warm-up. Budgets are bytes per request and can be overridden with
+ * {@code -Donboard.allocation.budget.<phase>}; the report goes to {@code target/allocation-profile.txt} next to the
+ * recording. SQL logging is off, so the figures are the application's own.
+ */
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:allocation;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false" })
+class AllocationBudgetTest {
+
+    private static final int WARMUP = Integer.getInteger("onboard.allocation.warmup", 50);
+
+    private static final int REQUESTS = Integer.getInteger("onboard.allocation.requests", 100);
+
+    /**
+     * Budget per phase in bytes per request; the submission includes its guard and action
+     */
+    private static final Map<String, Long> BUDGETS = new LinkedHashMap<>();
+
+    static {
+        BUDGETS.put("onboard.Submission", budget("submission", 256 * 1024));
+        BUDGETS.put("onboard.Guard", budget("guard", 16 * 1024));
+        BUDGETS.put("onboard.Action", budget("action", 128 * 1024));
+        BUDGETS.put("onboard.Approval", budget("approval", 2048 * 1024));
+    }
+
+    @Autowired
+    private OnboardingStateMachineService stateMachineService;
+
+    @Autowired
+    private ApprovalService approvalService;
+
+    @Autowired
+    private ApprovalProcessorRegistry processorRegistry;
+
+    @Test
+    void testHotPathAllocationWithinBudget() throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            request(i);
+        }
+
+        Path file = Path.of("target", "allocation-profile.jfr");
+        try (Recording recording = new Recording()) {
+            BUDGETS.keySet().forEach(phase -> recording.enable(phase).withThreshold(Duration.ZERO));
+            recording.start();
+            for (int i = 0; i < REQUESTS; i++) {
+                request(WARMUP + i);
+            }
+            recording.stop();
+            recording.dump(file);
+        }
+
+        Map<String, long[]> totals = new LinkedHashMap<>();
+        BUDGETS.keySet().forEach(phase -> totals.put(phase, new long[2]));
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            long[] total = totals.get(event.getEventType().getName());
+            if (total != null) {
+                total[0]++;
+                total[1] += event.getLong("allocated");
+            }
+        }
+
+        StringBuilder report = new StringBuilder(
+                String.format("allocation per request over %d requests after %d warm-up%n", REQUESTS, WARMUP));
+        List<String> overBudget = new ArrayList<>();
+        totals.forEach((phase, total) -> {
+            long perRequest = total[1] / REQUESTS;
+            report.append(String.format("%-20s events=%-6d bytes/request=%-10d budget=%d%n", phase, total[0],
+                    perRequest, BUDGETS.get(phase)));
+            if (perRequest > BUDGETS.get(phase)) {
+                overBudget.add(phase);
+            }
+        });
+        System.out.print(report);
+        Files.writeString(Path.of("target", "allocation-profile.txt"), report);
+
+        assertEquals(REQUESTS, totals.get("onboard.Submission")[0], "every submission is recorded");
+        assertEquals(REQUESTS, totals.get("onboard.Approval")[0], "every approval is recorded");
+        assertTrue(overBudget.isEmpty(), "over budget: " + overBudget + "\n" + report);
+    }
+
+    private void request(int i) {
+        Long id = stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY, profile("ALLOC-" + i), null);
+        Approval approval = approvalService.findById(id).orElseThrow();
+        processorRegistry.findProcessor(approval.getType()).orElseThrow().approve(approval);
+    }
+
+    private static long budget(String phase, long defaultBytes) {
+        return Long.getLong("onboard.allocation.budget." + phase, defaultBytes);
+    }
+}
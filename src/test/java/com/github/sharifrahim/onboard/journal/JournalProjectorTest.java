@@ -0,0 +1,139 @@
+package com.github.sharifrahim.onboard.journal;
+
+import static com.github.sharifrahim.onboard.TestRequests.contact;
+import static com.github.sharifrahim.onboard.TestRequests.profile;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.sharifrahim.onboard.datasource.sharding.ShardRouter;
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.repository.CompanyRepository;
+import com.github.sharifrahim.onboard.service.ApprovalService;
+import com.github.sharifrahim.onboard.service.approval.ApprovalProcessorRegistry;
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+import com.github.sharifrahim.onboard.statemachine.service.OnboardingStateMachineService;
+
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:journal;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "onboard.journal.enabled=true", "onboard.journal.poll-interval=PT1H" })
+class JournalProjectorTest {
+
+    @Autowired
+    private OnboardingJournal journal;
+
+    @Autowired
+    private JournalProjector projector;
+
+    @Autowired
+    private OnboardingStateMachineService stateMachineService;
+
+    @Autowired
+    private ApprovalService approvalService;
+
+    @Autowired
+    private ApprovalProcessorRegistry processorRegistry;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private JournalProperties properties;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testCompaniesAreProjectedFromTheJournal() {
+        approve(stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY, profile("Journal Co", "JRNL-1"), null));
+        Company created = companyRepository.findByRegistrationNumber("JRNL-1").orElseThrow();
+        approve(stateMachineService.submitEvent(OnboardingEvent.UPDATE_CONTACT_INFO, contact(), created));
+
+        List<JournalEntry> entries = journal.readAfter(0L, 100);
+        assertEquals(List.of(OnboardingEvent.CREATE_COMPANY, OnboardingEvent.APPROVE,
+                OnboardingEvent.UPDATE_CONTACT_INFO, OnboardingEvent.APPROVE),
+                entries.stream().map(JournalEntry::event).toList());
+        assertEquals(created.getId(), entries.get(3).companyId());
+
+        // the approved update is only in the journal until the projector runs
+        assertNull(companyRepository.findById(created.getId()).orElseThrow().getMainContactName());
+        projector.project();
+        assertEquals("Hana Lee", companyRepository.findById(created.getId()).orElseThrow().getMainContactName());
+        assertEquals(entries.get(3).sequence(), journal.checkpoint(CompanyProjection.NAME));
+
+        // a damaged read model is repaired by replaying the journal
+        Company damaged = companyRepository.findById(created.getId()).orElseThrow();
+        damaged.setName("Damaged");
+        companyRepository.save(damaged);
+        projector.rebuild(CompanyProjection.NAME);
+        Company rebuilt = companyRepository.findById(created.getId()).orElseThrow();
+        assertEquals("Journal Co", rebuilt.getName());
+        assertEquals("Hana Lee", rebuilt.getMainContactName());
+        assertThrows(IllegalArgumentException.class, () -> projector.rebuild("unknown"));
+    }
+
+    @Test
+    void testProjectorWaitsForEntriesThatCommitLate() {
+        // sequences far above the generated ones, removed again so the journal the other test reads stays its own
+        long base = 1_000_000;
+        List<Long> applied = new ArrayList<>();
+        JournalProjector recording = new JournalProjector(journal, List.of(new JournalProjection() {
+            @Override
+            public String getName() {
+                return "recording";
+            }
+
+            @Override
+            public void apply(JournalEntry entry) {
+                applied.add(entry.sequence());
+            }
+        }), properties, shardRouter, transactionTemplate);
+        journal.saveCheckpoint("recording", base);
+        try {
+            insert(base + 1, LocalDateTime.now());
+            insert(base + 3, LocalDateTime.now());
+            recording.project();
+            assertEquals(List.of(base + 1), applied);
+
+            // base + 2 was in flight and commits after base + 3
+            insert(base + 2, LocalDateTime.now());
+            recording.project();
+            assertEquals(List.of(base + 1, base + 2, base + 3), applied);
+
+            // base + 4 never commits; the projector moves on once the entries after it are past the timeout
+            insert(base + 5, LocalDateTime.now().minus(properties.getGapTimeout()).minusSeconds(1));
+            recording.project();
+            assertEquals(List.of(base + 1, base + 2, base + 3, base + 5), applied);
+            assertEquals(base + 5, journal.checkpoint("recording"));
+        } finally {
+            jdbcTemplate.update("DELETE FROM onboarding_journal WHERE sequence > ?", base);
+            jdbcTemplate.update("DELETE FROM journal_checkpoint WHERE projection = 'recording'");
+        }
+    }
+
+    private void insert(long sequence, LocalDateTime recordedAt) {
+        jdbcTemplate.update(
+                "INSERT INTO onboarding_journal (sequence, approval_id, event, recorded_at)" + " VALUES (?, ?, ?, ?)",
+                sequence, sequence, OnboardingEvent.CREATE_COMPANY.name(), Timestamp.valueOf(recordedAt));
+    }
+
+    private void approve(Long approvalId) {
+        Approval approval = approvalService.findById(approvalId).orElseThrow();
+        processorRegistry.findProcessor(approval.getType()).orElseThrow().approve(approval);
+    }
+}
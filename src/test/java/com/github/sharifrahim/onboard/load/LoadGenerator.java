@@ -0,0 +1,156 @@
+package com.github.sharifrahim.onboard.load;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+import com.github.sharifrahim.onboard.analytics.LatencyHistogram;
+
+/**
+ * Open-model load at a fixed arrival rate. Request {@code n} is due at {@code start + n / rps} and its latency is
+ * measured from that time, so a server that stalls shows up as queueing in the percentiles rather than as a quietly
+ * lower request rate. Workers bound the requests in flight; when all are busy the generator falls behind and the
+ * throughput in the report drops below the target.
+ */
+class LoadGenerator {
+
+    /**
+     * A mix of requests against the system under test
+     */
+    @FunctionalInterface
+    interface Scenario {
+
+        /**
+         * Run one request
+         *
+         * @param sequence
+         *            position of the request in the run, for a reproducible choice of operation
+         *
+         * @return the operation that ran and whether it succeeded
+         */
+        Outcome execute(long sequence);
+    }
+
+    record Outcome(String operation, boolean success) {
+    }
+
+    /**
+     * Latencies of one operation in microseconds
+     */
+    record OperationStats(LatencyHistogram latencies, long errors) {
+
+        long count() {
+            return latencies.count();
+        }
+    }
+
+    /**
+     * Result of one run; statements are those executed against the database while it lasted
+     */
+    record Report(Duration elapsed, Map<String, OperationStats> operations, long statements) {
+
+        long requests() {
+            return operations.values().stream().mapToLong(OperationStats::count).sum();
+        }
+
+        long errors() {
+            return operations.values().stream().mapToLong(OperationStats::errors).sum();
+        }
+
+        double throughput() {
+            return requests() * 1e9 / Math.max(1, elapsed.toNanos());
+        }
+
+        double errorRate() {
+            return requests() == 0 ? 0 : (double) errors() / requests();
+        }
+
+        String format() {
+            StringBuilder report = new StringBuilder(String.format(
+                    "requests=%d elapsed=%dms throughput=%.1f/s errors=%d (%.2f%%) statements/request=%.1f%n",
+                    requests(), elapsed.toMillis(), throughput(), errors(), errorRate() * 100,
+                    requests() == 0 ? 0.0 : (double) statements / requests()));
+            report.append(String.format("%-16s %8s %8s %10s %10s %10s%n", "operation", "count", "errors", "p50(ms)",
+                    "p99(ms)", "p999(ms)"));
+            operations.forEach(
+                    (operation, stats) -> report.append(String.format("%-16s %8d %8d %10.2f %10.2f %10.2f%n", operation,
+                            stats.count(), stats.errors(), millis(stats, 50), millis(stats, 99), millis(stats, 99.9))));
+            return report.toString();
+        }
+
+        private static double millis(OperationStats stats, double percentile) {
+            return stats.latencies().percentile(percentile) / 1000.0;
+        }
+    }
+
+    private final double requestsPerSecond;
+    private final int workers;
+    private final LongSupplier statements;
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * @param statements
+     *            running count of database statements, sampled around each run
+     */
+    LoadGenerator(double requestsPerSecond, int workers, LongSupplier statements) {
+        this.requestsPerSecond = requestsPerSecond;
+        this.workers = workers;
+        this.statements = statements;
+    }
+
+    /**
+     * Drive the scenario at the target rate for the given time; sequence numbers continue across runs
+     */
+    Report run(Scenario scenario, Duration duration) throws InterruptedException {
+        Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+        Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+        long first = sequence.get();
+        long interval = (long) (1e9 / requestsPerSecond);
+        long statementsBefore = statements.getAsLong();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        for (int i = 0; i < workers; i++) {
+            executor.execute(() -> {
+                while (true) {
+                    long n = sequence.getAndIncrement();
+                    long due = start + (n - first) * interval;
+                    if (due >= end) {
+                        return;
+                    }
+                    for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    Outcome outcome = scenario.execute(n);
+                    long micros = (System.nanoTime() - due) / 1000;
+                    latencies.computeIfAbsent(outcome.operation(), key -> new LatencyHistogram()).record(micros);
+                    if (!outcome.success()) {
+                        errors.computeIfAbsent(outcome.operation(), key -> new LongAdder()).increment();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(duration.toMillis() + TimeUnit.MINUTES.toMillis(5), TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+            throw new IllegalStateException("Load run did not finish within five minutes of its end");
+        }
+        // the workers overshoot by one claimed sequence each; keep the numbering contiguous for the next run
+        sequence.set(first + Math.max(0, (end - start + interval - 1) / interval));
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        Map<String, OperationStats> operations = new TreeMap<>();
+        latencies.forEach((operation, histogram) -> operations.put(operation,
+                new OperationStats(histogram, errors.getOrDefault(operation, new LongAdder()).sum())));
+        return new Report(elapsed, operations, statements.getAsLong() - statementsBefore);
+    }
+}
@@ -0,0 +1,147 @@
+package com.github.sharifrahim.onboard.load;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sharifrahim.onboard.repository.CompanyRepository;
+
+/**
+ * The onboarding mix against the embedded server at a target request rate, reporting throughput, latency percentiles
+ * per operation, error rate and database statements per request to {@code target/load-report.txt}. Neither run is part
+ * of the regular build. The load run ({@code -Donboard.load=true}) is short by default; size it with
+ * {@code -Donboard.load.rps}, {@code -Donboard.load.duration} and {@code -Donboard.load.workers}. The soak run
+ * ({@code -Donboard.load.soak=true}) keeps the load up for {@code onboard.load.soak.duration} and fails when the heap
+ * left after a full collection grows by more than {@code onboard.load.soak.max-heap-growth} bytes; its report goes to
+ * {@code target/soak-report.txt}. The database is kept in direct buffers, so table data stays off the heap and nothing
+ * is left on disk.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:nioMemFS:load;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "spring.jpa.show-sql=false" })
+class OnboardingLoadTest {
+
+    private static final double RPS = Double.parseDouble(System.getProperty("onboard.load.rps", "50"));
+
+    private static final Duration DURATION = Duration.parse(System.getProperty("onboard.load.duration", "PT5S"));
+
+    private static final int WORKERS = Integer.getInteger("onboard.load.workers", 16);
+
+    private static final int SEED_COMPANIES = Integer.getInteger("onboard.load.seed-companies", 20);
+
+    private static final long SEED = Long.getLong("onboard.load.seed", 42);
+
+    private static final double MAX_ERROR_RATE = Double
+            .parseDouble(System.getProperty("onboard.load.max-error-rate", "0.01"));
+
+    @TestConfiguration
+    static class StatementCounting {
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return "dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                            ? new StatementCountingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Test
+    @EnabledIfSystemProperty(named = "onboard.load", matches = "true")
+    void testMixedLoadAtTargetRate() throws Exception {
+        OnboardingScenario scenario = scenario(SEED);
+        scenario.seed(SEED_COMPANIES);
+
+        LoadGenerator.Report report = generator().run(scenario, DURATION);
+        String text = String.format("target=%.1f/s workers=%d seed=%d%n%s", RPS, WORKERS, SEED, report.format());
+        System.out.print(text);
+        Files.writeString(Path.of("target", "load-report.txt"), text);
+
+        assertTrue(report.errorRate() <= MAX_ERROR_RATE, text);
+        assertTrue(report.throughput() >= RPS * 0.8, "fell behind the target rate\n" + text);
+        assertTrue(report.statements() > 0, "statements are counted");
+        assertTrue(report.operations().get(OnboardingScenario.Operation.APPROVE.name()).count() > 0, text);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "onboard.load.soak", matches = "true")
+    void testSoakKeepsHeapFlat() throws Exception {
+        Duration duration = Duration.parse(System.getProperty("onboard.load.soak.duration", "PT30M"));
+        Duration window = Duration.parse(System.getProperty("onboard.load.soak.window", "PT1M"));
+        long maxHeapGrowth = Long.getLong("onboard.load.soak.max-heap-growth", 64L * 1024 * 1024);
+
+        OnboardingScenario scenario = scenario(SEED + 1);
+        scenario.seed(SEED_COMPANIES);
+        LoadGenerator generator = generator();
+        StringBuilder text = new StringBuilder(
+                String.format("soak target=%.1f/s workers=%d window=%s%n", RPS, WORKERS, window));
+        System.out.print(text);
+        long baseline = -1;
+        long heap = 0;
+        for (Duration elapsed = Duration.ZERO; elapsed.compareTo(duration) < 0; elapsed = elapsed.plus(window)) {
+            LoadGenerator.Report report = generator.run(scenario, window);
+            heap = heapAfterGc();
+            // the first window warms up caches and pools; growth is measured from the end of it
+            baseline = baseline < 0 ? heap : baseline;
+            String line = String.format("%s heap=%dKiB growth=%dKiB throughput=%.1f/s errors=%.2f%% p99=%s%n",
+                    elapsed.plus(window), heap / 1024, (heap - baseline) / 1024, report.throughput(),
+                    report.errorRate() * 100, p99(report));
+            System.out.print(line);
+            text.append(line);
+            Files.writeString(Path.of("target", "soak-report.txt"), text);
+            assertTrue(report.errorRate() <= MAX_ERROR_RATE, text + report.format());
+        }
+        assertTrue(heap - baseline <= maxHeapGrowth, "heap grew during the soak\n" + text);
+    }
+
+    private OnboardingScenario scenario(long seed) {
+        return new OnboardingScenario("http://localhost:" + port, objectMapper, companyRepository, seed);
+    }
+
+    private LoadGenerator generator() {
+        return new LoadGenerator(RPS, WORKERS, ((StatementCountingDataSource) dataSource)::getStatementCount);
+    }
+
+    private static String p99(LoadGenerator.Report report) {
+        StringBuilder p99 = new StringBuilder();
+        report.operations().forEach((operation, stats) -> p99.append(operation).append('=')
+                .append(stats.latencies().percentile(99) / 1000).append("ms "));
+        return p99.toString().trim();
+    }
+
+    private static long heapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
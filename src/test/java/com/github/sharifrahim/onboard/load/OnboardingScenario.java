@@ -0,0 +1,239 @@
+package com.github.sharifrahim.onboard.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sharifrahim.onboard.TestRequests;
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.dto.OperationalInfoRequest;
+import com.github.sharifrahim.onboard.repository.CompanyRepository;
+
+/**
+ * The onboarding flow over HTTP: companies are created, move through contact and operational info, and reviewers
+ * approve or reject what is pending while others list and search. The operation of each request follows from the seed
+ * and its sequence number; an operation with nothing to work on (no company waiting for its contact info, no pending
+ * approval) falls back to creating a company or to a search, and is reported as what actually ran.
+ */
+class OnboardingScenario implements LoadGenerator.Scenario {
+
+    enum Operation {
+        CREATE(15), CONTACT(12), OPERATIONS(8), APPROVE(28), REJECT(7), SEARCH(28), LIST_APPROVALS(2);
+
+        private final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private record Pending(long approvalId, Approval.Type type, String registrationNumber, Long companyId) {
+    }
+
+    private static final int TOTAL_WEIGHT = Arrays.stream(Operation.values()).mapToInt(o -> o.weight).sum();
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final CompanyRepository companyRepository;
+    private final long seed;
+
+    private final Queue<Pending> pending = new ConcurrentLinkedQueue<>();
+    /** Companies waiting for their contact info */
+    private final Queue<Long> profiled = new ConcurrentLinkedQueue<>();
+    /** Companies waiting for their operational info */
+    private final Queue<Long> contacted = new ConcurrentLinkedQueue<>();
+
+    OnboardingScenario(String baseUrl, ObjectMapper objectMapper, CompanyRepository companyRepository, long seed) {
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+        this.companyRepository = companyRepository;
+        this.seed = seed;
+    }
+
+    /**
+     * Create and approve companies up front so contact and operations requests have something to work on
+     */
+    void seed(int companies) {
+        for (int i = 0; i < companies; i++) {
+            long sequence = -1 - i;
+            if (!create(sequence).success() || !decide(pending.poll(), true)) {
+                throw new IllegalStateException("Seeding company " + i + " failed");
+            }
+        }
+    }
+
+    @Override
+    public LoadGenerator.Outcome execute(long sequence) {
+        return switch (choose(sequence)) {
+        case CREATE -> create(sequence);
+        case CONTACT -> {
+            Long companyId = profiled.poll();
+            yield companyId != null ? contact(companyId) : create(sequence);
+        }
+        case OPERATIONS -> {
+            Long companyId = contacted.poll();
+            yield companyId != null ? operations(sequence, companyId) : create(sequence);
+        }
+        case APPROVE, REJECT -> {
+            Pending approval = pending.poll();
+            if (approval == null) {
+                yield search();
+            }
+            boolean approve = choose(sequence) == Operation.APPROVE;
+            yield new LoadGenerator.Outcome((approve ? Operation.APPROVE : Operation.REJECT).name(),
+                    decide(approval, approve));
+        }
+        case SEARCH -> search();
+        case LIST_APPROVALS -> outcome(Operation.LIST_APPROVALS,
+                send(get("/companies/approvals?type=" + Approval.Type.CREATE_COMPANY)));
+        };
+    }
+
+    private Operation choose(long sequence) {
+        int pick = new SplittableRandom(seed + sequence).nextInt(TOTAL_WEIGHT);
+        for (Operation operation : Operation.values()) {
+            pick -= operation.weight;
+            if (pick < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private LoadGenerator.Outcome create(long sequence) {
+        String registrationNumber = identifier("LOAD", sequence);
+        HttpResponse<String> response = send(post("/companies/profile", TestRequests.profile(registrationNumber)));
+        if (isSuccess(response)) {
+            pending.add(new Pending(Long.parseLong(response.body()), Approval.Type.CREATE_COMPANY, registrationNumber,
+                    null));
+        }
+        return outcome(Operation.CREATE, response);
+    }
+
+    private LoadGenerator.Outcome contact(long companyId) {
+        HttpResponse<String> response = send(put("/companies/" + companyId + "/contact", TestRequests.contact()));
+        if (isSuccess(response)) {
+            pending.add(
+                    new Pending(Long.parseLong(response.body()), Approval.Type.UPDATE_CONTACT_INFO, null, companyId));
+        } else {
+            profiled.add(companyId);
+        }
+        return outcome(Operation.CONTACT, response);
+    }
+
+    private LoadGenerator.Outcome operations(long sequence, long companyId) {
+        HttpResponse<String> response = send(put("/companies/" + companyId + "/operations", operationalInfo(sequence)));
+        if (isSuccess(response)) {
+            pending.add(new Pending(Long.parseLong(response.body()), Approval.Type.UPDATE_OPERATIONAL_INFO, null,
+                    companyId));
+        } else {
+            contacted.add(companyId);
+        }
+        return outcome(Operation.OPERATIONS, response);
+    }
+
+    /**
+     * Decide an approval and move its company on; a rejected update leaves the company to submit it again
+     */
+    private boolean decide(Pending approval, boolean approve) {
+        String path = "/companies/approvals/" + approval.approvalId() + (approve ? "/approve" : "/reject?reason=load");
+        if (!isSuccess(send(post(path, null)))) {
+            return false;
+        }
+        switch (approval.type()) {
+        case CREATE_COMPANY -> {
+            if (approve) {
+                companyRepository.findByRegistrationNumber(approval.registrationNumber())
+                        .ifPresent(company -> profiled.add(company.getId()));
+            }
+        }
+        case UPDATE_CONTACT_INFO -> (approve ? contacted : profiled).add(approval.companyId());
+        case UPDATE_OPERATIONAL_INFO -> {
+            if (!approve) {
+                contacted.add(approval.companyId());
+            }
+        }
+        default -> {
+        }
+        }
+        return true;
+    }
+
+    private LoadGenerator.Outcome search() {
+        return outcome(Operation.SEARCH, send(get("/companies/search?country=MY&limit=20")));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) {
+        try {
+            return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, Object body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Content-Type", "application/json").POST(
+                body != null ? HttpRequest.BodyPublishers.ofString(toJson(body)) : HttpRequest.BodyPublishers.noBody());
+    }
+
+    private HttpRequest.Builder put(String path, Object body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(toJson(body)));
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize request", e);
+        }
+    }
+
+    /**
+     * Unique per seed and request even after duplicate detection strips the punctuation; seeding uses negative sequence
+     * numbers
+     */
+    private String identifier(String prefix, long sequence) {
+        return prefix + "-" + seed + (sequence < 0 ? "-S" : "-R") + Math.abs(sequence);
+    }
+
+    private static boolean isSuccess(HttpResponse<String> response) {
+        return response != null && response.statusCode() / 100 == 2;
+    }
+
+    private static LoadGenerator.Outcome outcome(Operation operation, HttpResponse<String> response) {
+        return new LoadGenerator.Outcome(operation.name(), isSuccess(response));
+    }
+
+    private OperationalInfoRequest operationalInfo(long sequence) {
+        OperationalInfoRequest request = new OperationalInfoRequest();
+        request.setTaxIdNumber(identifier("TAX", sequence));
+        request.setBankName("Load Bank");
+        request.setBankAccountNumber(identifier("ACC", sequence));
+        request.setPreferredPaymentMethod("BANK_TRANSFER");
+        request.setRoleOnPlatform("SELLER");
+        request.setRequestedFeatures("INVOICING");
+        request.setOperatingHours("9-5");
+        request.setHasComplianceCertification(true);
+        request.setAgreedToTermsOfService(true);
+        request.setAgreedOnboardingDate(LocalDate.of(2024, 1, 1));
+        return request;
+    }
+}
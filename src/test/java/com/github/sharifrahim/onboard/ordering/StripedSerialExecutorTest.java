@@ -0,0 +1,123 @@
+package com.github.sharifrahim.onboard.ordering;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.sharifrahim.onboard.exception.OverloadedException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class StripedSerialExecutorTest {
+
+    private final OrderingProperties properties = new OrderingProperties();
+    private StripedSerialExecutor executor;
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.destroy();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void testSameKeyNeverRunsConcurrently() {
+        executor = new StripedSerialExecutor(properties, new SimpleMeterRegistry());
+        AtomicInteger running = new AtomicInteger();
+        List<Integer> ran = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Integer>> calls = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            int n = i;
+            calls.add(CompletableFuture.supplyAsync(() -> executor.call(42L, stripe -> {
+                assertEquals(1, running.incrementAndGet());
+                ran.add(n);
+                running.decrementAndGet();
+                return n;
+            }), callers));
+        }
+        calls.forEach(CompletableFuture::join);
+        assertEquals(50, ran.size());
+        assertEquals(executor.stripeFor(42L), (int) executor.<Integer> call(42L, stripe -> stripe));
+    }
+
+    @Test
+    void testDifferentStripesRunInParallel() throws Exception {
+        executor = new StripedSerialExecutor(properties, new SimpleMeterRegistry());
+        long other = 43L;
+        while (executor.stripeFor(other) == executor.stripeFor(42L)) {
+            other++;
+        }
+        long otherKey = other;
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        // each task waits for the other, which only finishes if the stripes are not serialized together
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> executor.call(42L, stripe -> {
+            bothRunning.countDown();
+            return await(bothRunning);
+        }), callers);
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> executor.call(otherKey, stripe -> {
+            bothRunning.countDown();
+            return await(bothRunning);
+        }), callers);
+        assertTrue(first.get(10, TimeUnit.SECONDS));
+        assertTrue(second.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testFullStripeRejectsAndTaskFailuresPropagate() throws Exception {
+        properties.setMaxQueueDepth(1);
+        executor = new StripedSerialExecutor(properties, new SimpleMeterRegistry());
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Boolean> blocker = CompletableFuture.supplyAsync(() -> executor.call(7L, stripe -> {
+            started.countDown();
+            return await(release);
+        }), callers);
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        // with the stripe busy only one of two further tasks fits in its queue
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() -> executor.call(7L, stripe -> 2),
+                callers);
+        CompletableFuture<Integer> third = CompletableFuture.supplyAsync(() -> executor.call(7L, stripe -> 3), callers);
+        CompletableFuture.anyOf(second, third).handle((r, e) -> r).get(10, TimeUnit.SECONDS);
+        release.countDown();
+        assertTrue(blocker.get(10, TimeUnit.SECONDS));
+        List<Integer> completed = new ArrayList<>();
+        int rejected = 0;
+        for (CompletableFuture<Integer> call : List.of(second, third)) {
+            try {
+                completed.add(call.get(10, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                assertInstanceOf(OverloadedException.class, e.getCause());
+                rejected++;
+            }
+        }
+        assertEquals(1, completed.size());
+        assertEquals(1, rejected);
+
+        assertThrows(IllegalStateException.class, () -> executor.call(7L, stripe -> {
+            throw new IllegalStateException("boom");
+        }));
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
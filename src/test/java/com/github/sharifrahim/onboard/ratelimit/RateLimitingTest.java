@@ -0,0 +1,105 @@
+package com.github.sharifrahim.onboard.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RateLimitingTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void testTokenBucketAllowsBurstThenRefillsAtRate() {
+        TokenBucket bucket = new TokenBucket(3, 2, 0);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(0));
+        }
+        assertEquals(SECOND / 2, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(SECOND / 2));
+        assertFalse(bucket.isFull(SECOND / 2));
+        assertTrue(bucket.isFull(10 * SECOND));
+    }
+
+    @Test
+    void testInterceptorRejectsExhaustedClientWithRetryAfter() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setBurst(1);
+        properties.setRequestsPerSecond(0.5);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(new ClientRateLimiter(properties, registry));
+
+        assertTrue(interceptor.preHandle(request("10.0.0.1"), new MockHttpServletResponse(), null));
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request("10.0.0.1"), rejected, null));
+        assertEquals(429, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+
+        // a made-up client header does not buy a fresh bucket
+        MockHttpServletRequest spoofed = request("10.0.0.1");
+        spoofed.addHeader("X-Client-Id", "partner-b");
+        assertFalse(interceptor.preHandle(spoofed, new MockHttpServletResponse(), null));
+
+        // other clients keep their own budget
+        assertTrue(interceptor.preHandle(request("10.0.0.2"), new MockHttpServletResponse(), null));
+        assertEquals(2.0, registry.counter("onboard.ratelimit.requests", "outcome", "rejected").count());
+    }
+
+    @Test
+    void testClientIsThePrincipalWhenAuthenticated() {
+        MockHttpServletRequest request = request("10.0.0.1");
+        assertEquals("address:10.0.0.1", RateLimitInterceptor.clientOf(request));
+
+        request.setUserPrincipal(() -> "partner-a");
+        assertEquals("principal:partner-a", RateLimitInterceptor.clientOf(request));
+    }
+
+    @Test
+    void testIdleBucketsAreEvicted() throws InterruptedException {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setBurst(1);
+        properties.setRequestsPerSecond(1000);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ClientRateLimiter limiter = new ClientRateLimiter(properties, registry);
+
+        limiter.tryAcquire("address:10.0.0.1");
+        assertEquals(1.0, registry.get("onboard.ratelimit.clients").gauge().value());
+
+        Thread.sleep(5);
+        limiter.evictIdle();
+        assertEquals(0.0, registry.get("onboard.ratelimit.clients").gauge().value());
+    }
+
+    @Test
+    void testConcurrencyLimitShedsExcessAndBacksOffOnSlowRequests() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getConcurrency().setInitialLimit(2);
+        properties.getConcurrency().setMinLimit(1);
+        properties.getConcurrency().setBackoffRatio(0.5);
+        properties.getConcurrency().setLatencyThreshold(Duration.ofSeconds(10));
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, new SimpleMeterRegistry());
+
+        long first = limiter.tryAcquire().orElseThrow();
+        long second = limiter.tryAcquire().orElseThrow();
+        assertTrue(limiter.tryAcquire().isEmpty());
+
+        limiter.release(second, false);
+        assertTrue(limiter.getLimit() > 2);
+
+        limiter.release(first, true);
+        assertEquals(0, limiter.getInFlight());
+        assertTrue(limiter.getLimit() < 2);
+    }
+
+    private static MockHttpServletRequest request(String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/companies/profile");
+        request.setRemoteAddr(remoteAddress);
+        return request;
+    }
+}
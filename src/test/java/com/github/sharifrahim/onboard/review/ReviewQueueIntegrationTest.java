@@ -0,0 +1,186 @@
+package com.github.sharifrahim.onboard.review;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.sharifrahim.onboard.datasource.sharding.ShardRouter;
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.exception.ClaimLostException;
+import com.github.sharifrahim.onboard.repository.ApprovalRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:review;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "onboard.review-queue.max-claims-per-reviewer=10", "onboard.review-queue.weights.CREATE_COMPANY=2" })
+class ReviewQueueIntegrationTest {
+
+    @Autowired
+    private ReviewQueue reviewQueue;
+
+    @Autowired
+    private ApprovalRepository approvalRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReviewQueueProperties properties;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void emptyQueue() {
+        jdbcTemplate.update("DELETE FROM approval_claim");
+        jdbcTemplate.update("UPDATE approval_table SET approval_status = 'APPROVED'");
+    }
+
+    @Test
+    void testConcurrentReviewersNeverClaimTheSameApproval() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 40; i++) {
+            save(Approval.Type.CREATE_COMPANY, now.minusMinutes(40 - i));
+        }
+
+        ExecutorService reviewers = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<List<ReviewClaim>>> work = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    List<ReviewClaim> claimed = new ArrayList<>();
+                    List<ReviewClaim> batch;
+                    do {
+                        batch = reviewQueue.claim("reviewer-" + i, 3);
+                        claimed.addAll(batch);
+                    } while (!batch.isEmpty());
+                    return claimed;
+                }, reviewers)).toList();
+        start.countDown();
+        List<ReviewClaim> claims = new ArrayList<>();
+        work.forEach(future -> claims.addAll(future.join()));
+        reviewers.shutdown();
+        // a reviewer may give up while others still hold the last rows locked; a late reviewer sweeps up the rest
+        claims.addAll(reviewQueue.claim("sweeper", 10));
+
+        Set<Long> distinct = new HashSet<>();
+        claims.forEach(claim -> assertTrue(distinct.add(claim.approvalId()), "claimed twice: " + claim));
+        assertEquals(40, distinct.size());
+        claims.forEach(claim -> assertEquals(claim.reviewer(),
+                reviewQueue.findClaim(claim.approvalId()).orElseThrow().reviewer()));
+        assertTrue(reviewQueue.findClaims("reviewer-0").size() <= 10);
+    }
+
+    @Test
+    void testTypesAreHandedOutByWeight() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 8; i++) {
+            // the contact updates are older, yet only get their weighted share
+            save(Approval.Type.UPDATE_CONTACT_INFO, now.minusHours(2).plusMinutes(i));
+            save(Approval.Type.CREATE_COMPANY, now.minusHours(1).plusMinutes(i));
+        }
+        assertTrue(reviewQueue.claim("tester", 5).isEmpty(), "submitters do not review their own approvals");
+
+        List<Approval.Type> types = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            types.add(reviewQueue.claim("reviewer-" + i, 1).get(0).type());
+        }
+        // two company creations per contact update, give or take the position the earlier claims left off at
+        assertEquals(8, types.stream().filter(type -> type == Approval.Type.CREATE_COMPANY).count(), 1);
+    }
+
+    @Test
+    void testExpiredClaimsAreTakenOverAndReviewersAreLimited() {
+        LocalDateTime now = LocalDateTime.now();
+        save(Approval.Type.CREATE_COMPANY, now.minusHours(1));
+        for (int i = 0; i < 14; i++) {
+            save(Approval.Type.UPDATE_OPERATIONAL_INFO, now.minusMinutes(30 - i));
+        }
+
+        ReviewClaim claim = reviewQueue.claim("alice", 1).get(0);
+        Long id = claim.approvalId();
+        assertThrows(ClaimLostException.class, () -> reviewQueue.checkDecision(id, "bob"));
+        reviewQueue.checkDecision(id, "alice");
+        assertFalse(reviewQueue.renew(id, "alice").leaseUntil().isBefore(claim.leaseUntil()));
+
+        jdbcTemplate.update("UPDATE approval_claim SET lease_until = ? WHERE approval_id = ?",
+                LocalDateTime.now().minusSeconds(1), id);
+        List<ReviewClaim> bobs = reviewQueue.claim("bob", 50);
+        assertEquals(10, bobs.size());
+        assertTrue(bobs.stream().anyMatch(bob -> bob.approvalId().equals(id)));
+        assertThrows(ClaimLostException.class, () -> reviewQueue.renew(id, "alice"));
+        assertTrue(reviewQueue.claim("bob", 1).isEmpty());
+
+        assertTrue(reviewQueue.release(id, "bob"));
+        assertTrue(reviewQueue.claim("carol", 10).stream().anyMatch(carol -> carol.approvalId().equals(id)));
+        assertEquals(6, reviewQueue.findClaims("carol").size());
+
+        jdbcTemplate.update("UPDATE approval_table SET approval_status = 'APPROVED' WHERE id = ?", id);
+        reviewQueue.cleanup();
+        assertEquals(5, reviewQueue.findClaims("carol").size());
+        assertEquals(14, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM approval_claim", Integer.class));
+    }
+
+    @Test
+    void testParallelClaimsOfOneReviewerStayWithinTheLimit() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 40; i++) {
+            save(Approval.Type.CREATE_COMPANY, now.minusMinutes(40 - i));
+        }
+        // a second queue over the same database stands in for another node
+        List<ReviewQueue> nodes = List.of(reviewQueue, new ReviewQueue(properties, jdbcTemplate, transactionTemplate,
+                shardRouter, new SimpleMeterRegistry(), transactionManager));
+
+        ExecutorService requests = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Integer>> work = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return nodes.get(i % 2).claim("dave", 4).size();
+                }, requests)).toList();
+        start.countDown();
+        int claimed = work.stream().mapToInt(CompletableFuture::join).sum();
+        requests.shutdown();
+
+        assertEquals(10, claimed);
+        assertEquals(10, reviewQueue.findClaims("dave").size());
+        assertTrue(reviewQueue.claim("dave", 1).isEmpty());
+    }
+
+    private Approval save(Approval.Type type, LocalDateTime submittedAt) {
+        return approvalRepository.save(Approval.builder().dataType("COMPANY").type(type)
+                .operationType(Approval.OperationType.NEW).submittedBy("tester").submittedAt(submittedAt)
+                .approvalStatus(Approval.ApprovalStatus.PENDING).newData("{}").build());
+    }
+}
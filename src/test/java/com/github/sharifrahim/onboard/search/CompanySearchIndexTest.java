@@ -0,0 +1,130 @@
+package com.github.sharifrahim.onboard.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.sharifrahim.onboard.crypto.CryptoProperties;
+import com.github.sharifrahim.onboard.crypto.FieldCipher;
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.domain.ProgressState;
+
+class CompanySearchIndexTest {
+
+    @TempDir
+    Path indexDir;
+
+    private CompanySearchIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        CompanySearchProperties properties = new CompanySearchProperties();
+        properties.setIndexDir(indexDir.toString());
+        index = new CompanySearchIndex(properties, new FieldCipher(new CryptoProperties()));
+
+        index.indexAll(List.of(company(1L, "Acme Robotics", "REG-001", "US", "TECH", ProgressState.CONTACT),
+                company(2L, "Acme Foods", "REG-002", "MY", "FOOD", ProgressState.PROFILE),
+                company(3L, "Borneo Logistics", "REG-003", "MY", "LOGISTICS", ProgressState.CONTACT)));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        index.destroy();
+    }
+
+    @Test
+    void testFullTextSearchWithFacets() {
+        CompanySearchResult result = index.search("acme", Map.of(), 10);
+
+        assertEquals(2, result.total());
+        assertEquals(Map.of("US", 1, "MY", 1), result.facets().get("country"));
+    }
+
+    @Test
+    void testFacetFilterNarrowsResults() {
+        CompanySearchResult result = index.search(null, Map.of("country", "MY", "progressState", "CONTACT"), 10);
+
+        assertEquals(1, result.total());
+        assertEquals("Borneo Logistics", result.hits().get(0).name());
+    }
+
+    @Test
+    void testReindexReplacesDocument() {
+        index.index(company(2L, "Acme Foods", "REG-002", "MY", "FOOD", ProgressState.OPERATIONS));
+
+        assertEquals(3, index.size());
+        assertEquals(1, index.search("REG-002", Map.of("progressState", "OPERATIONS"), 10).total());
+        assertEquals(0, index.search(null, Map.of("progressState", "PROFILE"), 10).total());
+    }
+
+    @Test
+    void testUnknownFacetIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> index.search(null, Map.of("bankName", "X"), 10));
+    }
+
+    @Test
+    void testIndexWithoutDirectoryIsHeldInMemory() throws Exception {
+        CompanySearchIndex inMemory = new CompanySearchIndex(new CompanySearchProperties(),
+                new FieldCipher(new CryptoProperties()));
+        try {
+            inMemory.index(company(4L, "Kinabalu Trading", "REG-004", "MY", "RETAIL", ProgressState.CONTACT));
+            inMemory.commit();
+
+            assertEquals(1, inMemory.search("kinabalu", Map.of(), 10).total());
+        } finally {
+            inMemory.destroy();
+        }
+    }
+
+    @Test
+    void testEncryptedRegistrationNumberIsFoundButNotStored() throws Exception {
+        CompanySearchProperties properties = new CompanySearchProperties();
+        properties.setIndexDir(indexDir.resolve("encrypted").toString());
+
+        CompanySearchIndex encrypted = new CompanySearchIndex(properties, encryption());
+        try {
+            encrypted.index(company(5L, "Cipher Holdings", "REG-005", "MY", "FINANCE", ProgressState.CONTACT));
+
+            CompanySearchResult result = encrypted.search("reg 005", Map.of(), 10);
+            assertEquals(1, result.total());
+            assertNull(result.hits().get(0).registrationNumber());
+            assertEquals(0, encrypted.search("REG", Map.of(), 10).total());
+        } finally {
+            encrypted.destroy();
+        }
+    }
+
+    @Test
+    void testPlaintextIndexIsDroppedWhenEncryptionIsEnabled() throws Exception {
+        index.destroy();
+        CompanySearchProperties properties = new CompanySearchProperties();
+        properties.setIndexDir(indexDir.toString());
+
+        index = new CompanySearchIndex(properties, encryption());
+
+        assertEquals(0, index.size());
+    }
+
+    private FieldCipher encryption() throws Exception {
+        CryptoProperties crypto = new CryptoProperties();
+        crypto.setEnabled(true);
+        crypto.setKeystorePath(indexDir.resolve("master.p12").toString());
+        crypto.setKeystorePassword("test-secret");
+        crypto.setGenerateIfMissing(true);
+        return new FieldCipher(crypto);
+    }
+
+    private static Company company(Long id, String name, String registrationNumber, String country,
+            String industrySector, ProgressState state) {
+        return Company.builder().id(id).name(name).registrationNumber(registrationNumber).country(country)
+                .industrySector(industrySector).progressState(state).companySize("SMALL")
+                .description(name + " description").build();
+    }
+}
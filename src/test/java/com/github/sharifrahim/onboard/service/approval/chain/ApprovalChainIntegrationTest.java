@@ -0,0 +1,120 @@
+package com.github.sharifrahim.onboard.service.approval.chain;
+
+import static com.github.sharifrahim.onboard.TestRequests.profile;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.exception.DecisionConflictException;
+import com.github.sharifrahim.onboard.exception.ValidationException;
+import com.github.sharifrahim.onboard.repository.CompanyRepository;
+import com.github.sharifrahim.onboard.service.ApprovalService;
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+import com.github.sharifrahim.onboard.statemachine.service.OnboardingStateMachineService;
+
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:chain;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "onboard.approvals.by-type.CREATE_COMPANY=high-risk", "onboard.approvals.chains.high-risk[0].name=Compliance",
+        "onboard.approvals.chains.high-risk[0].required=2", "onboard.approvals.chains.high-risk[1].name=Risk",
+        "onboard.approvals.chains.high-risk[1].reviewers=risk-officer",
+        "onboard.approvals.chains.high-risk[2].name=Director", "onboard.approvals.chains.high-risk[2].step=2",
+        "onboard.approvals.chains.high-risk[2].reviewers=director" })
+class ApprovalChainIntegrationTest {
+
+    @Autowired
+    private ApprovalChainService approvalChainService;
+
+    @Autowired
+    private OnboardingStateMachineService stateMachineService;
+
+    @Autowired
+    private ApprovalService approvalService;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Test
+    void testConcurrentReviewersReachTheQuorumExactlyOnce() throws Exception {
+        Long id = stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY, profile("CHAIN-1"), null,
+                "compliance-0");
+        Approval approval = approvalService.findById(id).orElseThrow();
+        assertEquals("compliance-0", approval.getSubmittedBy());
+        // the submitter may sign the compliance stage by name, but not an approval of their own making
+        assertThrows(ValidationException.class,
+                () -> approvalChainService.decide(approval, "compliance-0", ApprovalChain.Verdict.APPROVE, null));
+        assertThrows(ValidationException.class,
+                () -> approvalChainService.decide(approval, null, ApprovalChain.Verdict.APPROVE, null));
+
+        ExecutorService reviewers = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Boolean>> decisions = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                        approvalChainService.decide(approval, "compliance-" + (i + 1), ApprovalChain.Verdict.APPROVE,
+                                null);
+                        return true;
+                    } catch (DecisionConflictException e) {
+                        return false;
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }, reviewers)).toList();
+        start.countDown();
+        long counted = decisions.stream().filter(CompletableFuture::join).count();
+        reviewers.shutdown();
+
+        assertEquals(2, counted);
+        ApprovalChain chain = approvalChainService.findChain(id).orElseThrow();
+        assertEquals(2, chain.stages().get(0).approvals());
+        assertEquals(ApprovalChain.Status.APPROVED, chain.stages().get(0).status());
+        assertEquals(2, chain.decisions().size());
+        assertEquals(1, chain.step());
+
+        // the director's stage opens only once both parallel stages of the first step are approved; until then the
+        // director could only sign the compliance stage, which already has its quorum
+        assertThrows(DecisionConflictException.class,
+                () -> approvalChainService.decide(approval, "director", ApprovalChain.Verdict.APPROVE, null));
+        assertEquals(ApprovalChain.Status.OPEN,
+                approvalChainService.decide(approval, "risk-officer", ApprovalChain.Verdict.APPROVE, null));
+        assertEquals(2, approvalChainService.findChain(id).orElseThrow().step());
+        assertEquals(Approval.ApprovalStatus.PENDING, approvalService.findById(id).orElseThrow().getApprovalStatus());
+
+        assertEquals(ApprovalChain.Status.APPROVED,
+                approvalChainService.decide(approval, "director", ApprovalChain.Verdict.APPROVE, null));
+        Approval approved = approvalService.findById(id).orElseThrow();
+        assertEquals(Approval.ApprovalStatus.APPROVED, approved.getApprovalStatus());
+        assertEquals("director", approved.getApprovedBy());
+        assertTrue(companyRepository.findByRegistrationNumber("CHAIN-1").isPresent());
+        assertThrows(DecisionConflictException.class,
+                () -> approvalChainService.decide(approval, "compliance-9", ApprovalChain.Verdict.APPROVE, null));
+    }
+
+    @Test
+    void testAVetoRejectsTheApproval() {
+        Long id = stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY, profile("CHAIN-2"), null);
+        Approval approval = approvalService.findById(id).orElseThrow();
+
+        assertEquals(ApprovalChain.Status.OPEN,
+                approvalChainService.decide(approval, "compliance-1", ApprovalChain.Verdict.APPROVE, null));
+        assertThrows(DecisionConflictException.class,
+                () -> approvalChainService.decide(approval, "compliance-1", ApprovalChain.Verdict.REJECT, null));
+        assertEquals(ApprovalChain.Status.REJECTED, approvalChainService.decide(approval, "risk-officer",
+                ApprovalChain.Verdict.REJECT, "Sanctioned director"));
+
+        Approval rejected = approvalService.findById(id).orElseThrow();
+        assertEquals(Approval.ApprovalStatus.REJECTED, rejected.getApprovalStatus());
+        assertEquals("Sanctioned director", rejected.getRemarks());
+        assertEquals("risk-officer", rejected.getApprovedBy());
+        assertTrue(companyRepository.findByRegistrationNumber("CHAIN-2").isEmpty());
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.sharifrahim.onboard.sla;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.exception.DecisionConflictException;
+import com.github.sharifrahim.onboard.repository.ApprovalRepository;
+import com.github.sharifrahim.onboard.repository.CompanyRepository;
+import com.github.sharifrahim.onboard.service.approval.ApprovalProcessor;
+import com.github.sharifrahim.onboard.service.approval.ApprovalProcessorRegistry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:sla;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "onboard.approval.sla.scan-interval=PT1H", "onboard.approval.sla.batch-size=2",
+        "onboard.approval.sla.policies.CREATE_COMPANY.timeout=PT24H",
+        "onboard.approval.sla.policies.CREATE_COMPANY.action=ESCALATE",
+        "onboard.approval.sla.policies.UPDATE_CONTACT_INFO.timeout=PT24H",
+        "onboard.approval.sla.policies.UPDATE_CONTACT_INFO.action=EXPIRE" })
+class ApprovalSlaSchedulerTest {
+
+    @Autowired
+    private ApprovalSlaScheduler scheduler;
+
+    @Autowired
+    private ApprovalRepository approvalRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApprovalProcessorRegistry processorRegistry;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Test
+    void escalatesAndExpiresOnlyBreachedPendingApprovals() {
+        LocalDateTime now = LocalDateTime.now();
+        Approval[] escalations = {
+                save(Approval.Type.CREATE_COMPANY, now.minusDays(3), Approval.ApprovalStatus.PENDING),
+                save(Approval.Type.CREATE_COMPANY, now.minusDays(3), Approval.ApprovalStatus.PENDING),
+                save(Approval.Type.CREATE_COMPANY, now.minusDays(2), Approval.ApprovalStatus.PENDING) };
+        Approval fresh = save(Approval.Type.CREATE_COMPANY, now.minusHours(1), Approval.ApprovalStatus.PENDING);
+        Approval decided = save(Approval.Type.UPDATE_CONTACT_INFO, now.minusDays(5), Approval.ApprovalStatus.APPROVED);
+        Approval stale = save(Approval.Type.UPDATE_CONTACT_INFO, now.minusDays(5), Approval.ApprovalStatus.PENDING);
+        // the other test shares the meter registry
+        double escalated = breaches("CREATE_COMPANY", "ESCALATE");
+        double expiredBefore = breaches("UPDATE_CONTACT_INFO", "EXPIRE");
+
+        scheduler.scan();
+
+        for (Approval approval : escalations) {
+            Approval reloaded = approvalRepository.findById(approval.getId()).orElseThrow();
+            assertEquals(Approval.ApprovalStatus.PENDING, reloaded.getApprovalStatus());
+            assertNotNull(reloaded.getEscalatedAt());
+        }
+        assertNull(approvalRepository.findById(fresh.getId()).orElseThrow().getEscalatedAt());
+        assertEquals(Approval.ApprovalStatus.APPROVED,
+                approvalRepository.findById(decided.getId()).orElseThrow().getApprovalStatus());
+        Approval expired = approvalRepository.findById(stale.getId()).orElseThrow();
+        assertEquals(Approval.ApprovalStatus.EXPIRED, expired.getApprovalStatus());
+        assertEquals(ApprovalSlaScheduler.SLA_ACTOR, expired.getApprovedBy());
+
+        assertEquals(escalated + 3, breaches("CREATE_COMPANY", "ESCALATE"));
+        assertEquals(expiredBefore + 1, breaches("UPDATE_CONTACT_INFO", "EXPIRE"));
+
+        // the watermark keeps already escalated rows out of the next scan
+        scheduler.scan();
+        assertEquals(escalated + 3, breaches("CREATE_COMPANY", "ESCALATE"));
+    }
+
+    @Test
+    void expiredApprovalsCannotBeDecidedByAReviewerWhoLoadedThemEarlier() {
+        Approval loaded = save(Approval.Type.UPDATE_CONTACT_INFO, LocalDateTime.now().minusDays(5),
+                Approval.ApprovalStatus.PENDING);
+        long companies = companyRepository.count();
+
+        scheduler.scan();
+
+        ApprovalProcessor processor = processorRegistry.findProcessor(Approval.Type.UPDATE_CONTACT_INFO).orElseThrow();
+        assertThrows(DecisionConflictException.class, () -> processor.approve(loaded));
+        assertThrows(DecisionConflictException.class, () -> processor.reject(loaded, "too late"));
+        Approval reloaded = approvalRepository.findById(loaded.getId()).orElseThrow();
+        assertEquals(Approval.ApprovalStatus.EXPIRED, reloaded.getApprovalStatus());
+        assertEquals(ApprovalSlaScheduler.SLA_ACTOR, reloaded.getApprovedBy());
+        assertEquals(companies, companyRepository.count());
+    }
+
+    private double breaches(String type, String action) {
+        return meterRegistry.counter("onboard.approval.sla.breaches", "type", type, "action", action).count();
+    }
+
+    private Approval save(Approval.Type type, LocalDateTime submittedAt, Approval.ApprovalStatus status) {
+        return approvalRepository
+                .save(Approval.builder().dataType("COMPANY").type(type).operationType(Approval.OperationType.NEW)
+                        .submittedBy("tester").submittedAt(submittedAt).approvalStatus(status).newData("{}").build());
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.sharifrahim.onboard.startup;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Drives a full onboarding through the native image. Build it with {@code mvn -Pnative package}, then run
+ * {@code mvn test -Dtest=NativeSmokeTest -Donboard.native.binary=target/onboard}; startup time and resident memory are
+ * written to {@code target/native-smoke.txt}.
+ */
+@EnabledIfSystemProperty(named = "onboard.native.binary", matches = ".+")
+class NativeSmokeTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+
+    private static Process process;
+
+    private static String baseUrl;
+
+    private static Duration startup;
+
+    @BeforeAll
+    static void start() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        baseUrl = "http://localhost:" + port;
+        List<String> command = List.of(Path.of(System.getProperty("onboard.native.binary")).toAbsolutePath().toString(),
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:native;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health")).build();
+        long begin = System.nanoTime();
+        process = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(Path.of("target", "native-smoke.log").toFile()).start();
+        long deadline = begin + TimeUnit.MINUTES.toNanos(2);
+        while (System.nanoTime() < deadline) {
+            try {
+                if (CLIENT.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    startup = Duration.ofNanos(System.nanoTime() - begin);
+                    return;
+                }
+            } catch (ConnectException e) {
+                // not listening yet
+            } catch (IOException e) {
+                assertTrue(process.isAlive(), "Native image exited during startup, see target/native-smoke.log");
+            }
+            Thread.sleep(5);
+        }
+        throw new AssertionError("Native image did not answer within two minutes");
+    }
+
+    @AfterAll
+    static void stop() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void testOnboardingFlowAgainstNativeImage() throws Exception {
+        long createApproval = send("POST", "/companies/profile", """
+                {"name": "Native Co", "registrationNumber": "NATIVE-1", "entityType": "CORPORATION",
+                 "industrySector": "TECH", "dateOfIncorporation": "2018-05-01", "registeredAddress": "1 Image Road",
+                 "country": "MY", "companySize": "SMALL", "description": "Native smoke test"}
+                """, 201).asLong();
+        send("POST", "/companies/approvals/" + createApproval + "/approve", null, 200);
+
+        long companyId = -1;
+        for (JsonNode approval : send("GET", "/companies/approvals?type=CREATE_COMPANY", null, 200)) {
+            if (approval.get("id").asLong() == createApproval) {
+                companyId = approval.get("dataId").asLong();
+            }
+        }
+        assertTrue(companyId > 0, "Approved company not found");
+
+        long contactApproval = send("PUT", "/companies/" + companyId + "/contact", """
+                {"mainContactName": "Nadia Lim", "mainContactEmail": "nadia@example.com",
+                 "mainContactPhone": "+60155555555", "contactPersonRole": "CEO",
+                 "technicalContactEmail": "tech@example.com", "billingContactEmail": "billing@example.com",
+                 "authorizedPersons": "Nadia Lim", "emergencyContactNumber": "+60166666666",
+                 "preferredLanguage": "EN"}
+                """, 200).asLong();
+        send("POST", "/companies/approvals/" + contactApproval + "/approve", null, 200);
+
+        long operationsApproval = send("PUT", "/companies/" + companyId + "/operations", """
+                {"taxIdNumber": "TAX-NATIVE-1", "bankName": "Native Bank", "bankAccountNumber": "ACC-NATIVE-1",
+                 "preferredPaymentMethod": "BANK_TRANSFER", "roleOnPlatform": "SELLER",
+                 "requestedFeatures": "INVOICING", "operatingHours": "9-5", "hasComplianceCertification": true,
+                 "agreedToTermsOfService": true, "agreedOnboardingDate": "2025-01-01"}
+                """, 200).asLong();
+        send("POST", "/companies/approvals/" + operationsApproval + "/approve", null, 200);
+
+        JsonNode company = send("GET", "/companies/" + companyId + "/versions/3", null, 200);
+        assertEquals("OPERATIONS", company.get("progressState").asText());
+        assertEquals("Native Bank", company.get("bankName").asText());
+
+        String report = String.format("native startup=%dms rss=%s peak-rss=%s%n", startup.toMillis(),
+                procStatus("VmRSS"), procStatus("VmHWM"));
+        System.out.print(report);
+        Files.writeString(Path.of("target", "native-smoke.txt"), report);
+    }
+
+    private static JsonNode send(String method, String path, String body, int expectedStatus) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path));
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+        }
+        request.method(method,
+                body != null ? HttpRequest.BodyPublishers.ofString(body) : HttpRequest.BodyPublishers.noBody());
+        HttpResponse<String> response = CLIENT.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(expectedStatus, response.statusCode(), method + " " + path + ": " + response.body());
+        return response.body().isEmpty() ? JSON.missingNode() : JSON.readTree(response.body());
+    }
+
+    /**
+     * Memory figure of the application process from {@code /proc}, or {@code n/a} off Linux
+     */
+    private static String procStatus(String field) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(process.pid()), "status");
+        if (!Files.exists(status)) {
+            return "n/a";
+        }
+        return Files.readAllLines(status).stream().filter(line -> line.startsWith(field + ":"))
+                .map(line -> line.substring(field.length() + 1).trim()).findFirst().orElse("n/a");
+    }
+}
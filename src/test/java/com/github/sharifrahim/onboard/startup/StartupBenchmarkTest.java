@@ -0,0 +1,96 @@
+package com.github.sharifrahim.onboard.startup;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.github.sharifrahim.onboard.OnboardApplication;
+
+/**
+ * Cold start of a fresh JVM until the first successful request, against a tracked budget. Run with
+ * {@code mvn test -Dtest=StartupBenchmarkTest -Donboard.startup.benchmark=true}; extra JVM options such as a CDS
+ * archive go in {@code -Donboard.startup.jvm-args}.
+ */
+@EnabledIfSystemProperty(named = "onboard.startup.benchmark", matches = "true")
+class StartupBenchmarkTest {
+
+    /**
+     * Cold start to first request budget for autoscaling
+     */
+    private static final Duration BUDGET = Duration.parse(System.getProperty("onboard.startup.budget", "PT1S"));
+
+    private static final int RUNS = Integer.getInteger("onboard.startup.runs", 3);
+
+    @Test
+    void testColdStartToFirstRequestWithinBudget() throws Exception {
+        List<Duration> runs = new ArrayList<>();
+        for (int i = 0; i < RUNS; i++) {
+            runs.add(coldStart());
+        }
+        Duration best = runs.stream().min(Duration::compareTo).orElseThrow();
+        String report = String.format("startup runs=%s best=%dms budget=%dms%n",
+                runs.stream().map(Duration::toMillis).toList(), best.toMillis(), BUDGET.toMillis());
+        System.out.print(report);
+        Files.writeString(Path.of("target", "startup-benchmark.txt"), report);
+        assertTrue(best.compareTo(BUDGET) <= 0, report);
+    }
+
+    private static Duration coldStart() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>(
+                List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString(), "-cp",
+                        System.getProperty("java.class.path")));
+        String jvmArgs = System.getProperty("onboard.startup.jvm-args", "");
+        if (!jvmArgs.isBlank()) {
+            command.addAll(Arrays.asList(jvmArgs.trim().split("\\s+")));
+        }
+        command.addAll(List.of(OnboardApplication.class.getName(), "--server.port=" + port,
+                "--spring.profiles.active=fast-start",
+                "--spring.datasource.url=jdbc:h2:mem:startup;MODE=PostgreSQL;DB_CLOSE_DELAY=-1"));
+
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest firstRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+                .build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        try {
+            long deadline = start + TimeUnit.MINUTES.toNanos(2);
+            while (System.nanoTime() < deadline) {
+                try {
+                    if (client.send(firstRequest, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return Duration.ofNanos(System.nanoTime() - start);
+                    }
+                } catch (ConnectException e) {
+                    // not listening yet
+                } catch (IOException e) {
+                    assertTrue(process.isAlive(), "Application exited during startup");
+                }
+                Thread.sleep(5);
+            }
+            throw new AssertionError("Application did not answer within two minutes");
+        } finally {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+}
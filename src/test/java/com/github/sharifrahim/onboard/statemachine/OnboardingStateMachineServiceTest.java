@@ -0,0 +1,66 @@
+package com.github.sharifrahim.onboard.statemachine;
+
+import static com.github.sharifrahim.onboard.TestRequests.contact;
+import static com.github.sharifrahim.onboard.TestRequests.operations;
+import static com.github.sharifrahim.onboard.TestRequests.profile;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.domain.ProgressState;
+import com.github.sharifrahim.onboard.repository.CompanyRepository;
+import com.github.sharifrahim.onboard.service.ApprovalService;
+import com.github.sharifrahim.onboard.service.approval.ApprovalProcessorRegistry;
+import com.github.sharifrahim.onboard.statemachine.service.OnboardingStateMachineService;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:submission;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+class OnboardingStateMachineServiceTest {
+
+    @Autowired
+    private OnboardingStateMachineService stateMachineService;
+
+    @Autowired
+    private ApprovalService approvalService;
+
+    @Autowired
+    private ApprovalProcessorRegistry processorRegistry;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Test
+    void testConcurrentCompaniesProgressFromTheirPersistedState() {
+        List<String> registrationNumbers = List.of("ORDER-1", "ORDER-2", "ORDER-3", "ORDER-4");
+        List<CompletableFuture<Company>> onboardings = registrationNumbers.stream()
+                .map(number -> CompletableFuture.supplyAsync(() -> onboard(number))).toList();
+
+        for (CompletableFuture<Company> onboarding : onboardings) {
+            Company company = onboarding.join();
+            assertEquals(ProgressState.OPERATIONS, company.getProgressState());
+            assertEquals("Bank " + company.getRegistrationNumber(), company.getBankName());
+        }
+    }
+
+    private Company onboard(String registrationNumber) {
+        approve(stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY, profile(registrationNumber), null));
+        Company company = companyRepository.findByRegistrationNumber(registrationNumber).orElseThrow();
+        approve(stateMachineService.submitEvent(OnboardingEvent.UPDATE_CONTACT_INFO, contact(), company));
+        // the state machine resumes at CONTACT instead of replaying from PROFILE
+        company = companyRepository.findById(company.getId()).orElseThrow();
+        approve(stateMachineService.submitEvent(OnboardingEvent.UPDATE_OPERATIONAL_INFO, operations(registrationNumber),
+                company));
+        return companyRepository.findById(company.getId()).orElseThrow();
+    }
+
+    private void approve(Long approvalId) {
+        Approval approval = approvalService.findById(approvalId).orElseThrow();
+        processorRegistry.findProcessor(approval.getType()).orElseThrow().approve(approval);
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.sharifrahim.onboard.strategy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.sharifrahim.onboard.datasource.sharding.ShardContext;
+
+class ParallelValidatorTest {
+
+    private final ParallelValidator validator = new ParallelValidator(new ValidationProperties());
+
+    @AfterEach
+    void shutdown() {
+        validator.destroy();
+    }
+
+    @Test
+    void testCostsTheSlowestRuleRatherThanTheSum() {
+        long start = System.nanoTime();
+        ValidationResult result = validator
+                .validate(List.of(ValidationRule.forked("Tax ID", () -> slow(300, ValidationResult.success())),
+                        ValidationRule.forked("Bank account", () -> slow(300, ValidationResult.success())),
+                        ValidationRule.inline("Compliance", () -> slow(300, ValidationResult.success()))));
+
+        assertTrue(result.isValid());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 800);
+    }
+
+    @Test
+    void testErrorsAreMergedInRuleOrder() {
+        ValidationResult result = validator.validate(List.of(
+                ValidationRule.forked("Tax ID", () -> slow(200, ValidationResult.failure("Tax ID number is required"))),
+                ValidationRule.forked("Bank account",
+                        () -> ValidationResult.failure(List.of("Bank name is required", "Bank account is required"))),
+                ValidationRule.inline("Compliance", ValidationResult::success),
+                ValidationRule.inline("Terms", () -> ValidationResult.failure("Terms are required"))));
+
+        assertFalse(result.isValid());
+        assertEquals(List.of("Tax ID number is required", "Bank name is required", "Bank account is required",
+                "Terms are required"), result.getErrors());
+    }
+
+    @Test
+    void testRulesFailUnderTheirOwnNameWhenTheyMissTheDeadlineOrThrow() {
+        ValidationResult result = validator.validate(List.of(
+                ValidationRule.forked("Tax ID", Duration.ofMillis(50), () -> slow(2_000, ValidationResult.success())),
+                ValidationRule.forked("Bank account", () -> {
+                    throw new IllegalStateException("registry down");
+                }), ValidationRule.inline("Compliance", ValidationResult::success)));
+
+        assertEquals(List.of("Tax ID check did not finish in time", "Bank account check could not be completed"),
+                result.getErrors());
+    }
+
+    @Test
+    void testForkedRulesSeeTheCallersShard() {
+        ValidationRule onShard = ValidationRule.forked("Shard", () -> "shard-1".equals(ShardContext.current())
+                ? ValidationResult.success() : ValidationResult.failure("Ran on " + ShardContext.current()));
+        ValidationResult result = ShardContext.callOn("shard-1", () -> validator.validate(List.of(onShard, onShard)));
+
+        assertTrue(result.isValid(), result.getErrorMessage());
+    }
+
+    @Test
+    void testSingleForkedRuleRunsOnTheCallersThread() {
+        Thread caller = Thread.currentThread();
+        ValidationResult result = validator.validate(List.of(
+                ValidationRule.forked("Tax ID",
+                        () -> Thread.currentThread() == caller ? ValidationResult.success()
+                                : ValidationResult.failure("Forked")),
+                ValidationRule.inline("Compliance", ValidationResult::success)));
+
+        assertTrue(result.isValid(), result.getErrorMessage());
+    }
+
+    private static ValidationResult slow(long millis, ValidationResult result) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,143 @@
+package com.github.sharifrahim.onboard.verification;
+
+import static com.github.sharifrahim.onboard.TestRequests.profile;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.event.ApprovalSubmittedEvent;
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+import com.github.sharifrahim.onboard.statemachine.service.OnboardingStateMachineService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:verification;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "onboard.verification.enabled=true", "onboard.verification.timeout=PT10S" })
+class ApprovalVerifierIntegrationTest {
+
+    /**
+     * Holds registry answers back until the test has seen the submission return
+     */
+    private static final CountDownLatch registryReleased = new CountDownLatch(1);
+
+    /**
+     * Query strings the registry has been asked, recorded as soon as each request arrives
+     */
+    private static final Set<String> asked = ConcurrentHashMap.newKeySet();
+
+    private static HttpServer registry;
+
+    @DynamicPropertySource
+    static void stubRegistry(DynamicPropertyRegistry properties) throws IOException {
+        registry = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        registry.setExecutor(Executors.newCachedThreadPool());
+        registry.createContext("/companies", ApprovalVerifierIntegrationTest::answer);
+        registry.start();
+        properties.add("onboard.verification.registries.REGISTRATION_NUMBER",
+                () -> "http://localhost:" + registry.getAddress().getPort() + "/companies");
+    }
+
+    @AfterAll
+    static void stopRegistry() {
+        registry.stop(0);
+    }
+
+    @Autowired
+    private OnboardingStateMachineService stateMachineService;
+
+    @Autowired
+    private ApprovalVerifier approvalVerifier;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void testSubmissionDoesNotWaitForTheRegistry() throws Exception {
+        Long registered = stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY, profile("REG-100"), null);
+        Long unknown = stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY, profile("FAKE-200"), null);
+        assertTrue(approvalVerifier.findByApproval(registered).isEmpty());
+
+        registryReleased.countDown();
+        assertEquals(VerificationResult.Status.VERIFIED, awaitResult(registered).status());
+        VerificationResult rejected = awaitResult(unknown);
+        assertEquals(VerificationResult.Status.FAILED, rejected.status());
+        assertEquals("Not registered", rejected.detail());
+    }
+
+    @Test
+    void testRolledBackSubmissionIsNotSentToTheRegistry() throws Exception {
+        // submissions run on their ordering stripe, so the rolled-back transaction publishes the event itself
+        Approval approval = Approval.builder().id(-300L).type(Approval.Type.CREATE_COMPANY).build();
+        Company company = Company.builder().registrationNumber("REG-300").country("MY").build();
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new ApprovalSubmittedEvent(approval, company));
+            status.setRollbackOnly();
+        });
+        stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY, profile("REG-301"), null);
+
+        // the committed submission is asked after the rolled-back one would have been
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (asked.stream().noneMatch(query -> query.contains("value=REG-301"))) {
+            assertTrue(System.nanoTime() < deadline, "Registry was never asked about the committed submission");
+            Thread.sleep(20);
+        }
+        assertTrue(asked.stream().noneMatch(query -> query.contains("value=REG-300")));
+    }
+
+    private VerificationResult awaitResult(Long approvalId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (System.nanoTime() < deadline) {
+            List<VerificationResult> results = approvalVerifier.findByApproval(approvalId);
+            if (!results.isEmpty()) {
+                assertEquals(VerificationCheck.REGISTRATION_NUMBER, results.get(0).check());
+                return results.get(0);
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("No verification recorded for approval " + approvalId);
+    }
+
+    private static void answer(HttpExchange exchange) throws IOException {
+        asked.add(exchange.getRequestURI().getQuery());
+        try {
+            registryReleased.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String query = exchange.getRequestURI().getQuery();
+        if (!query.contains("value=REG-")) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        byte[] body = "{\"valid\": true, \"detail\": \"Active\"}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.github.sharifrahim.onboard.verification;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ResilientVerificationClientTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void testAnswersAreCachedPerIdentifier() {
+        ResilientVerificationClient client = client(properties(), (check, value, country) -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(
+                    new VerificationResult(check, VerificationResult.Status.VERIFIED, null, Instant.now()));
+        });
+
+        assertEquals(VerificationResult.Status.VERIFIED,
+                client.verify(VerificationCheck.TAX_ID, "TAX-1", "MY").join().status());
+        assertEquals(VerificationResult.Status.VERIFIED,
+                client.verify(VerificationCheck.TAX_ID, "TAX-1", "MY").join().status());
+        client.verify(VerificationCheck.TAX_ID, "TAX-2", "MY").join();
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testTimeoutsOpenTheCircuit() {
+        VerificationProperties properties = properties();
+        properties.setTimeout(Duration.ofMillis(50));
+        properties.setFailureThreshold(2);
+        ResilientVerificationClient client = client(properties, (check, value, country) -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+
+        for (int i = 0; i < 2; i++) {
+            VerificationResult result = client.verify(VerificationCheck.BANK_ACCOUNT, "ACC-" + i, "MY").join();
+            assertEquals(VerificationResult.Status.UNAVAILABLE, result.status());
+            assertEquals("Timed out", result.detail());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState(VerificationCheck.BANK_ACCOUNT));
+        assertEquals("Circuit open", client.verify(VerificationCheck.BANK_ACCOUNT, "ACC-3", "MY").join().detail());
+        assertEquals(2, calls.get());
+        // other registries keep their own circuit
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState(VerificationCheck.TAX_ID));
+    }
+
+    @Test
+    void testFullBulkheadFailsFast() {
+        VerificationProperties properties = properties();
+        properties.setMaxConcurrentCalls(1);
+        CompletableFuture<VerificationResult> pending = new CompletableFuture<>();
+        ResilientVerificationClient client = client(properties, (check, value, country) -> pending);
+
+        CompletableFuture<VerificationResult> first = client.verify(VerificationCheck.REGISTRATION_NUMBER, "REG-1",
+                "MY");
+        VerificationResult second = client.verify(VerificationCheck.REGISTRATION_NUMBER, "REG-2", "MY").join();
+        assertEquals("Too many concurrent calls", second.detail());
+
+        pending.complete(new VerificationResult(VerificationCheck.REGISTRATION_NUMBER, VerificationResult.Status.FAILED,
+                "Struck off", Instant.now()));
+        assertEquals(VerificationResult.Status.FAILED, first.join().status());
+        assertNotEquals("Too many concurrent calls",
+                client.verify(VerificationCheck.REGISTRATION_NUMBER, "REG-3", "MY").join().detail());
+    }
+
+    @Test
+    void testTimedOutCallKeepsItsPermitUntilItEnds() {
+        VerificationProperties properties = properties();
+        properties.setTimeout(Duration.ofMillis(50));
+        properties.setMaxConcurrentCalls(1);
+        CompletableFuture<VerificationResult> pending = new CompletableFuture<>();
+        ResilientVerificationClient client = client(properties, (check, value, country) -> pending);
+
+        assertEquals("Timed out", client.verify(VerificationCheck.TAX_ID, "TAX-1", "MY").join().detail());
+        // the registry is still working on the first call
+        assertFalse(pending.isDone());
+        assertEquals("Too many concurrent calls",
+                client.verify(VerificationCheck.TAX_ID, "TAX-2", "MY").join().detail());
+
+        pending.complete(new VerificationResult(VerificationCheck.TAX_ID, VerificationResult.Status.VERIFIED, null,
+                Instant.now()));
+        assertEquals(VerificationResult.Status.VERIFIED,
+                client.verify(VerificationCheck.TAX_ID, "TAX-3", "MY").join().status());
+    }
+
+    private static VerificationProperties properties() {
+        VerificationProperties properties = new VerificationProperties();
+        properties.setTimeout(Duration.ofSeconds(5));
+        return properties;
+    }
+
+    private static ResilientVerificationClient client(VerificationProperties properties, VerificationClient delegate) {
+        return new ResilientVerificationClient(delegate, properties, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.sharifrahim.onboard.workflow;
+
+import static com.github.sharifrahim.onboard.TestRequests.contact;
+import static com.github.sharifrahim.onboard.TestRequests.operations;
+import static com.github.sharifrahim.onboard.TestRequests.profile;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.github.sharifrahim.onboard.domain.Approval;
+import com.github.sharifrahim.onboard.domain.Company;
+import com.github.sharifrahim.onboard.domain.ProgressState;
+import com.github.sharifrahim.onboard.dto.CompanyProfileRequest;
+import com.github.sharifrahim.onboard.exception.ValidationException;
+import com.github.sharifrahim.onboard.repository.CompanyRepository;
+import com.github.sharifrahim.onboard.service.ApprovalService;
+import com.github.sharifrahim.onboard.service.approval.ApprovalProcessorRegistry;
+import com.github.sharifrahim.onboard.statemachine.OnboardingEvent;
+import com.github.sharifrahim.onboard.statemachine.service.OnboardingStateMachineService;
+
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:workflow;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "onboard.workflows.by-company-size.MICRO=express", "onboard.workflows.reload-interval=PT1H" })
+class WorkflowRegistryIntegrationTest {
+
+    /**
+     * Micro companies skip the contact step
+     */
+    private static final String EXPRESS = """
+            name: express
+            initial: PROFILE
+            end: COMPLETED
+            transitions:
+              - { source: PROFILE, event: CREATE_COMPANY, target: PROFILE }
+              - { source: PROFILE, event: UPDATE_OPERATIONAL_INFO, target: OPERATIONS }
+              - { source: OPERATIONS, event: UPDATE_OPERATIONAL_INFO, target: OPERATIONS }
+              - { source: OPERATIONS, event: APPROVE, target: COMPLETED }
+            """;
+
+    private static Path directory;
+
+    @DynamicPropertySource
+    static void workflowDirectory(DynamicPropertyRegistry properties) throws IOException {
+        directory = Files.createTempDirectory("workflows");
+        Files.writeString(directory.resolve("express.yml"), EXPRESS);
+        properties.add("onboard.workflows.directory", directory::toString);
+    }
+
+    @Autowired
+    private WorkflowRegistry workflowRegistry;
+
+    @Autowired
+    private OnboardingStateMachineService stateMachineService;
+
+    @Autowired
+    private ApprovalService approvalService;
+
+    @Autowired
+    private ApprovalProcessorRegistry processorRegistry;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Test
+    void testSegmentsFollowTheirWorkflowAndKeepTheirVersionAcrossReloads() throws IOException {
+        Company express = create("EXPRESS-1", "MICRO");
+        assertEquals("express", express.getWorkflowName());
+        assertEquals(1, express.getWorkflowVersion());
+        Company standard = create("STANDARD-1", "LARGE");
+        assertEquals("standard", standard.getWorkflowName());
+
+        ValidationException skipped = assertThrows(ValidationException.class,
+                () -> stateMachineService.submitEvent(OnboardingEvent.UPDATE_CONTACT_INFO, contact(), express));
+        assertEquals("Cannot UPDATE_CONTACT_INFO in current state PROFILE of workflow express v1",
+                skipped.getMessage());
+        assertThrows(ValidationException.class, () -> stateMachineService
+                .submitEvent(OnboardingEvent.UPDATE_OPERATIONAL_INFO, operations("STANDARD-1"), standard));
+
+        // the contact step is added back without a restart, for companies that start from now on
+        Files.writeString(directory.resolve("express.yml"),
+                EXPRESS.replace("PROFILE, event: UPDATE_OPERATIONAL_INFO",
+                        "PROFILE, event: UPDATE_CONTACT_INFO, target: CONTACT }\n"
+                                + "  - { source: CONTACT, event: UPDATE_OPERATIONAL_INFO"));
+        workflowRegistry.reload();
+        assertEquals(2, workflowRegistry.currentVersion("express").getVersion());
+
+        Company later = create("EXPRESS-2", "MICRO");
+        assertEquals(2, later.getWorkflowVersion());
+        approve(stateMachineService.submitEvent(OnboardingEvent.UPDATE_CONTACT_INFO, contact(), later));
+        assertEquals(ProgressState.CONTACT, reload(later).getProgressState());
+
+        // the company that started on version 1 still skips the contact step
+        approve(stateMachineService.submitEvent(OnboardingEvent.UPDATE_OPERATIONAL_INFO, operations("EXPRESS-1"),
+                express));
+        Company progressed = reload(express);
+        assertEquals(ProgressState.OPERATIONS, progressed.getProgressState());
+        assertEquals(1, progressed.getWorkflowVersion());
+    }
+
+    @Test
+    void testBrokenDefinitionsKeepTheCurrentVersion() throws IOException {
+        Workflow before = workflowRegistry.currentVersion("standard");
+        Files.writeString(directory.resolve("standard.yml"), """
+                name: standard
+                initial: PROFILE
+                end: COMPLETED
+                transitions:
+                  - { source: PROFILE, event: CREATE_COMPANY, target: PROFILE }
+                  - { source: CONTACT, event: UPDATE_CONTACT_INFO, target: CONTACT }
+                """);
+        try {
+            workflowRegistry.reload();
+            assertSame(before, workflowRegistry.currentVersion("standard"));
+        } finally {
+            Files.delete(directory.resolve("standard.yml"));
+        }
+
+        IllegalArgumentException duplicate = assertThrows(IllegalArgumentException.class,
+                () -> Workflow.compile(new WorkflowDefinition("twice", ProgressState.PROFILE, ProgressState.COMPLETED,
+                        List.of(new WorkflowDefinition.Transition(ProgressState.PROFILE, OnboardingEvent.APPROVE,
+                                ProgressState.COMPLETED),
+                                new WorkflowDefinition.Transition(ProgressState.PROFILE, OnboardingEvent.APPROVE,
+                                        ProgressState.CONTACT))),
+                        1));
+        assertEquals("Workflow twice has two APPROVE transitions from PROFILE", duplicate.getMessage());
+    }
+
+    private Company create(String registrationNumber, String companySize) {
+        CompanyProfileRequest request = profile(registrationNumber);
+        request.setCompanySize(companySize);
+        approve(stateMachineService.submitEvent(OnboardingEvent.CREATE_COMPANY, request, null));
+        return companyRepository.findByRegistrationNumber(registrationNumber).orElseThrow();
+    }
+
+    private Company reload(Company company) {
+        return companyRepository.findById(company.getId()).orElseThrow();
+    }
+
+    private void approve(Long approvalId) {
+        Approval approval = approvalService.findById(approvalId).orElseThrow();
+        processorRegistry.findProcessor(approval.getType()).orElseThrow().approve(approval);
+    }
+}